@@ -27,6 +27,7 @@
 
 import argparse
 import os
+import sys
 import textwrap
 
 ## ========================================================================================
@@ -103,6 +104,13 @@ mediumSizes = {
 	"dft": [[256, 512, 1024, 2048, 4096], ["getSize()"]],
 }
 
+FAILURES = 0
+
+def runCommand(command):
+	global FAILURES
+	if os.system(command) != 0:
+		FAILURES += 1
+
 def composeAllOptions(args):
 	options = __JVM_FLAGS__
 	if args.skip_serial:
@@ -113,6 +121,12 @@ def composeAllOptions(args):
 		options = options + __VALIDATE__
 	if args.verbose:
 		options = options + __VERBOSE__
+	if args.report:
+		options = options + " -Dtornado.benchmarks.report=" + args.report + " "
+	if args.baseline:
+		options = options + " -Dtornado.benchmarks.baseline=" + args.baseline + " "
+	if args.threshold:
+		options = options + " -Dtornado.benchmarks.threshold=" + str(args.threshold) + " "
 	return options
 
 def printBenchmakrks():
@@ -126,7 +140,7 @@ def runForAllSizes(args):
 	for size in __PROBLEM_SIZES__:
 		for bench in __BENCHMARKS__:
 			command = __TORNADO_COMMAND__ + options + __RUNNER__ + bench + " " + str(ITERATIONS) + " " + str(size)
-			os.system(command)
+			runCommand(command)
 
 def runAllDevices(args):
 	options = composeAllOptions(args)
@@ -135,14 +149,14 @@ def runAllDevices(args):
 		print "Currently executing on device: device=0:", index
 		for b in __BENCHMARKS__:
 			command = __TORNADO_COMMAND__ + options + d + __RUNNER__ + b
-			os.system(command)
+			runCommand(command)
 		index += 1
 
 def runBenchmarks(args):
 	options = composeAllOptions(args)
 	for b in __BENCHMARKS__:
 		command = __TORNADO_COMMAND__ + options + __RUNNER__ + b
-		os.system(command)
+		runCommand(command)
 
 def runBenchmarksFullCoverage(args):
 	options = composeAllOptions(args)
@@ -151,7 +165,7 @@ def runBenchmarksFullCoverage(args):
 			command = __TORNADO_COMMAND__ + options + " " + __RUNNER__ + key + " " + str(allSizes[key][1][0]) + " " + str(size)
 			if key is 'sgemm':
 				command = command + " " + str(size)
-			os.system(command)
+			runCommand(command)
 
 def runMediumConfiguration(args):
         options = composeAllOptions(args)
@@ -161,7 +175,7 @@ def runMediumConfiguration(args):
 			command = __TORNADO_COMMAND__ + options + " " + __RUNNER__ + key + " " + str(numIterations) + " " + str(size)
 			if key is 'sgemm':
 				command = command + " " + str(size)
-			os.system(command)
+			runCommand(command)
 
 def parseArguments():
 	parser = argparse.ArgumentParser(description="""Tool to execute benchmarks in TornadoVM. With no options, it runs the medium sizes""")
@@ -175,6 +189,9 @@ def parseArguments():
 	parser.add_argument('--default', action="store_true", dest="default", default=False, help="Run default benchmark configuration")
 	parser.add_argument('--iterations', action="store", type=int, dest="iterations", default=0, help="Set the number of iterations")
 	parser.add_argument('--verbose', "-V", action="store_true", dest="verbose", default=False, help="Enable verbose")
+	parser.add_argument('--report', action="store", type=str, dest="report", default=None, help="Append results to a report file (JSON lines, or CSV if it ends in .csv). Comma-separated for both")
+	parser.add_argument('--baseline', action="store", type=str, dest="baseline", default=None, help="Compare against a JSON report and fail on regressions")
+	parser.add_argument('--threshold', action="store", type=float, dest="threshold", default=None, help="Slowdown tolerated before a result is a regression (default 0.05)")
 	args = parser.parse_args()
 	return args
 
@@ -198,6 +215,10 @@ def main():
 		## Default option. It runs with medium size
 		print "[INFO] Running small and medium sizes"
 		runMediumConfiguration(args)
+
+	if FAILURES > 0:
+		print "[ERROR] " + str(FAILURES) + " benchmark runs failed or regressed"
+		sys.exit(1)
 		
 if __name__ == '__main__':
 	main()
@@ -36,15 +36,22 @@ import time
 __TEST_THE_WORLD__ = [
 	"uk.ac.manchester.tornado.unittests.TestHello",
 	"uk.ac.manchester.tornado.unittests.arrays.TestArrays",
+	"uk.ac.manchester.tornado.unittests.arrays.TestArrayBoundsChecks",
 	"uk.ac.manchester.tornado.unittests.functional.TestLambdas",
 	"uk.ac.manchester.tornado.unittests.vectortypes.TestFloats",
 	"uk.ac.manchester.tornado.unittests.vectortypes.TestDoubles",
 	"uk.ac.manchester.tornado.unittests.vectortypes.TestInts",
 	"uk.ac.manchester.tornado.unittests.vectortypes.TestVectorAllocation",
+	"uk.ac.manchester.tornado.unittests.vectortypes.TestHalfFloats",
 	"uk.ac.manchester.tornado.unittests.prebuilt.PrebuiltTest",
 	"uk.ac.manchester.tornado.unittests.virtualization.TestsVirtualLayer",
 	"uk.ac.manchester.tornado.unittests.tasks.TestSingleTaskSingleDevice",
 	"uk.ac.manchester.tornado.unittests.tasks.TestMultipleTasksSingleDevice",
+	"uk.ac.manchester.tornado.unittests.tasks.TestSpecialisedArguments",
+	"uk.ac.manchester.tornado.unittests.tasks.TestJVMDevice",
+	"uk.ac.manchester.tornado.unittests.profiler.TestExecutionProfile",
+	"uk.ac.manchester.tornado.unittests.profiler.TestMetrics",
+	"uk.ac.manchester.tornado.unittests.profiler.TestTrace",
 	"uk.ac.manchester.tornado.unittests.images.TestImages",
 	"uk.ac.manchester.tornado.unittests.images.TestResizeImage",
 	"uk.ac.manchester.tornado.unittests.branching.TestConditionals",
@@ -58,6 +65,7 @@ __TEST_THE_WORLD__ = [
 	"uk.ac.manchester.tornado.unittests.matrices.TestMatrixTypes",
 	"uk.ac.manchester.tornado.unittests.api.TestAPI",
 	"uk.ac.manchester.tornado.unittests.math.TestMath",
+	"uk.ac.manchester.tornado.unittests.math.TestRelaxedMath",
 	"uk.ac.manchester.tornado.unittests.batches.TestBatches",
 	"uk.ac.manchester.tornado.unittests.batches.TestBatchesTypes",
 	"uk.ac.manchester.tornado.unittests.batches.TestBatchesTypesDouble",
@@ -69,6 +77,11 @@ __TEST_THE_WORLD__ = [
 	"uk.ac.manchester.tornado.unittests.dynamic.TestDynamic",
 ]
 
+## JVM options needed by some test classes, added when they run
+__TEST_JVM_OPTIONS__ = {
+	"uk.ac.manchester.tornado.unittests.profiler.TestTrace" : "-Dtornado.trace.file=tornado-test-trace.json ",
+}
+
 ## List of tests that can be ignored. Format: class#testMethod
 __TORNADO_TESTS_WHITE_LIST__ = [
 	"uk.ac.manchester.tornado.unittests.logic.TestLogic#testLogic03"
@@ -133,6 +146,11 @@ def composeAllOptions(args):
 	return options
 
 
+def testOptions(testClass):
+	""" JVM options needed by the given test class """
+	return __TEST_JVM_OPTIONS__.get(testClass.split("#")[0], "")
+
+
 def runSingleCommand(cmd, args):
 	""" Run a command without processing the result of which tests 
 		are passed and failed. This method is used to pass a single 
@@ -213,10 +231,11 @@ def runTests(args):
 	## Run test
 	cmd = ""
 	if (args.useOptirun):
-		cmd = "optirun tornado " + __IGNORE_INTEL_PLATFORM__ + options + " " + __MAIN_TORNADO_TEST_RUNNER__ 
+		cmd = "optirun tornado " + __IGNORE_INTEL_PLATFORM__ + options + " "
 	else:
-		cmd = "tornado " + options + " " + __MAIN_TORNADO_TEST_RUNNER__ 
+		cmd = "tornado " + options + " "
 	if (args.testClass != None):
+		cmd = cmd + testOptions(args.testClass) + __MAIN_TORNADO_TEST_RUNNER__
 
 		if (args.fast):
 			cmd = cmd + " " + args.testClass
@@ -226,7 +245,7 @@ def runTests(args):
 	else:
 		start = time.time()
 		for t in __TEST_THE_WORLD__:
-			command = cmd + t
+			command = cmd + testOptions(t) + __MAIN_TORNADO_TEST_RUNNER__ + t
 
 			if (args.fast):
 				os.system(command)
@@ -256,14 +275,14 @@ def runTests(args):
 def runWithJUnit(args):
 	""" Run the tests using JUNIT """
 
-	cmd = "tornado " + __MAIN_TORNADO_JUNIT__ 
+	cmd = "tornado "
 
 	if (args.testClass != None):
-		cmd = cmd + args.testClass
+		cmd = cmd + testOptions(args.testClass) + __MAIN_TORNADO_JUNIT__ + args.testClass
 		os.system(cmd)
 	else:	
 		for t in __TEST_THE_WORLD__:
-			command = cmd + t
+			command = cmd + testOptions(t) + __MAIN_TORNADO_JUNIT__ + t
 			os.system(command)
 
 
@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.benchmarks;
 
 import static java.lang.Math.toIntExact;
+import static java.util.Arrays.copyOfRange;
 import static java.util.Arrays.sort;
 import static uk.ac.manchester.tornado.api.utils.TornadoUtilities.humanReadableByteCount;
 
@@ -105,6 +106,15 @@ public abstract class BenchmarkDriver {
         return minValue;
     }
 
+    /**
+     * Execution times of the iterations used for the mean, i.e. without the
+     * first {@code startingIndex} warm-up iterations when there are enough.
+     */
+    public double[] getSteadyStateTimes() {
+        int start = (time.length > startingIndex) ? startingIndex : 0;
+        return copyOfRange(time, start, time.length);
+    }
+
     public double getFirstIteration() {
         return time[0];
     }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes benchmark results to machine-readable reports and compares them
+ * against a baseline report.
+ *
+ * <p>
+ * Reports are appended to, one record per benchmark configuration and
+ * device, so a whole suite run by {@code tornado-benchmarks.py} ends up in
+ * one file. Files ending in {@code .csv} are written as CSV, anything else as
+ * JSON lines. A JSON report from an earlier run can be used as the baseline.
+ * </p>
+ *
+ * <p>
+ * A result is a regression when the lower bound of the bootstrap confidence
+ * interval of {@code mean(current) / mean(baseline)} is above
+ * {@code 1 + threshold}, i.e. when it is slower by more than the threshold
+ * with the requested confidence.
+ * </p>
+ */
+public final class BenchmarkReporter {
+
+    enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED
+    }
+
+    private static final String REPORT = System.getProperty("tornado.benchmarks.report", "");
+
+    private static final String BASELINE = System.getProperty("tornado.benchmarks.baseline", "");
+
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("tornado.benchmarks.threshold", "0.05"));
+
+    private static final double CONFIDENCE = Double.parseDouble(System.getProperty("tornado.benchmarks.confidence", "0.95"));
+
+    private static final int RESAMPLES = Integer.parseInt(System.getProperty("tornado.benchmarks.resamples", "2000"));
+
+    private static final long SEED = Long.parseLong(System.getProperty("tornado.benchmarks.seed", "42"));
+
+    private static final Bootstrap bootstrap = new Bootstrap(RESAMPLES, CONFIDENCE, SEED);
+
+    private static final List<String> regressions = new ArrayList<>();
+
+    private static Map<String, String> environment;
+
+    private static Map<String, BenchmarkResult> baseline;
+
+    private BenchmarkReporter() {
+    }
+
+    public static boolean isEnabled() {
+        return !REPORT.isEmpty() || !BASELINE.isEmpty();
+    }
+
+    public static synchronized void record(BenchmarkResult result) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (result.getSamples().length > 0) {
+            result.setConfidenceInterval(bootstrap.meanInterval(result.getSamples()));
+        }
+
+        for (String file : REPORT.split(",")) {
+            if (!file.trim().isEmpty()) {
+                write(Paths.get(file.trim()), result);
+            }
+        }
+
+        if (!BASELINE.isEmpty()) {
+            compare(result);
+        }
+    }
+
+    /**
+     * Prints the regressions found so far.
+     *
+     * @return true if there was at least one regression
+     */
+    public static synchronized boolean reportRegressions() {
+        if (regressions.isEmpty()) {
+            return false;
+        }
+        System.out.printf("Performance regressions against %s (threshold=%.1f%%, confidence=%.0f%%):\n", BASELINE, THRESHOLD * 100, CONFIDENCE * 100);
+        for (String regression : regressions) {
+            System.out.println("  " + regression);
+        }
+        return true;
+    }
+
+    /**
+     * Decides a comparison from the confidence interval of
+     * {@code mean(current) / mean(baseline)}: a regression when even its
+     * lower bound is slower than {@code 1 + threshold}, an improvement when
+     * even its upper bound is faster than {@code 1 - threshold}.
+     */
+    static Verdict verdict(double[] ratio, double threshold) {
+        if (ratio[0] > 1 + threshold) {
+            return Verdict.REGRESSION;
+        } else if (ratio[1] < 1 - threshold) {
+            return Verdict.IMPROVEMENT;
+        }
+        return Verdict.UNCHANGED;
+    }
+
+    private static void compare(BenchmarkResult result) {
+        final BenchmarkResult reference = getBaseline().get(result.getKey());
+        if (reference == null) {
+            System.out.printf("bm=%-15s, device=%-5s, baseline=none\n", result.getId(), result.getDevice());
+            return;
+        }
+        if (!result.isValid() || !reference.isValid() || result.getSamples().length == 0 || reference.getSamples().length == 0) {
+            return;
+        }
+
+        final double[] ratio = bootstrap.ratioInterval(reference.getSamples(), result.getSamples());
+        final Verdict verdict = verdict(ratio, THRESHOLD);
+        if (verdict == Verdict.REGRESSION) {
+            regressions.add(String.format("%s on %s: %.1f%% slower, ratio CI=[%.4f, %.4f]", result.getId(), result.getDeviceName(), (result.getMean() / reference.getMean() - 1) * 100, ratio[0],
+                    ratio[1]));
+        }
+        System.out.printf("bm=%-15s, device=%-5s, baselineRatio=%.4f, ratioCI=[%.4f, %.4f], %s\n", result.getId(), result.getDevice(), result.getMean() / reference.getMean(), ratio[0], ratio[1],
+                (verdict == Verdict.REGRESSION) ? verdict.name() : verdict.name().toLowerCase());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, BenchmarkResult> getBaseline() {
+        if (baseline == null) {
+            baseline = new HashMap<>();
+            try {
+                for (String line : Files.readAllLines(Paths.get(BASELINE), UTF_8)) {
+                    if (!line.trim().isEmpty()) {
+                        // Later records win, so a baseline can be refreshed by appending
+                        BenchmarkResult result = BenchmarkResult.fromJson((Map<String, Object>) Json.parse(line));
+                        baseline.put(result.getKey(), result);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("unable to read baseline " + BASELINE, e);
+            }
+        }
+        return baseline;
+    }
+
+    private static void write(Path file, BenchmarkResult result) {
+        final boolean csv = file.toString().endsWith(".csv");
+        try {
+            final StringBuilder sb = new StringBuilder();
+            if (csv && (!Files.exists(file) || Files.size(file) == 0)) {
+                sb.append(BenchmarkResult.CSV_HEADER).append('\n');
+            }
+            sb.append(csv ? result.toCsv(getEnvironment()) : result.toJson(getEnvironment())).append('\n');
+            Files.write(file, sb.toString().getBytes(UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write report " + file, e);
+        }
+    }
+
+    private static Map<String, String> getEnvironment() {
+        if (environment == null) {
+            environment = new LinkedHashMap<>();
+            environment.put("timestamp", Instant.now().toString());
+            environment.put("javaVersion", System.getProperty("java.version"));
+            environment.put("vm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+            environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version") + " " + System.getProperty("os.arch"));
+            environment.put("processors", Integer.toString(Runtime.getRuntime().availableProcessors()));
+            environment.put("jvmFlags", String.join(" ", ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        }
+        return environment;
+    }
+}
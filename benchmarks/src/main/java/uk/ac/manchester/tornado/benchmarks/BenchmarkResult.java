@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Steady-state timings of one benchmark configuration on one device, as
+ * written to and read back from a benchmark report.
+ */
+public class BenchmarkResult {
+
+    static final String CSV_HEADER = "benchmark,id,device,deviceName,platform,driver,valid,samples,mean,median,cv,ciLower,ciUpper,timestamp,javaVersion,jvmFlags";
+
+    private final String benchmark;
+    private final String id;
+    private final String device;
+    private final String deviceName;
+    private final String platform;
+    private final String driver;
+    private final boolean valid;
+    private final double[] samples;
+
+    private double ciLower = Double.NaN;
+    private double ciUpper = Double.NaN;
+
+    public BenchmarkResult(String benchmark, String id, String device, String deviceName, String platform, String driver, boolean valid, double[] samples) {
+        this.benchmark = benchmark;
+        this.id = id;
+        this.device = device;
+        this.deviceName = deviceName;
+        this.platform = platform;
+        this.driver = driver;
+        this.valid = valid;
+        this.samples = samples;
+    }
+
+    /**
+     * Results are matched against the baseline by configuration and device
+     * name, not by device index, which depends on the machine.
+     */
+    public String getKey() {
+        return id + "|" + deviceName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDevice() {
+        return device;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public double[] getSamples() {
+        return samples;
+    }
+
+    public double getMean() {
+        double sum = 0;
+        for (double sample : samples) {
+            sum += sample;
+        }
+        return samples.length == 0 ? Double.NaN : sum / samples.length;
+    }
+
+    public double getMedian() {
+        if (samples.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return (sorted.length % 2 == 0) ? (sorted[middle - 1] + sorted[middle]) / 2 : sorted[middle];
+    }
+
+    public double getCV() {
+        double mean = getMean();
+        double sum = 0;
+        for (double sample : samples) {
+            sum += (sample - mean) * (sample - mean);
+        }
+        return Math.sqrt(sum / samples.length) / mean * 100;
+    }
+
+    public double getCILower() {
+        return ciLower;
+    }
+
+    public double getCIUpper() {
+        return ciUpper;
+    }
+
+    void setConfidenceInterval(double[] interval) {
+        ciLower = interval[0];
+        ciUpper = interval[1];
+    }
+
+    String toJson(Map<String, String> environment) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        sb.append("\"benchmark\":").append(Json.quote(benchmark));
+        sb.append(",\"id\":").append(Json.quote(id));
+        sb.append(",\"device\":").append(Json.quote(device));
+        sb.append(",\"deviceName\":").append(Json.quote(deviceName));
+        sb.append(",\"platform\":").append(Json.quote(platform));
+        sb.append(",\"driver\":").append(Json.quote(driver));
+        sb.append(",\"valid\":").append(valid);
+        sb.append(",\"mean\":").append(Json.number(getMean()));
+        sb.append(",\"median\":").append(Json.number(getMedian()));
+        sb.append(",\"cv\":").append(Json.number(getCV()));
+        sb.append(",\"ciLower\":").append(Json.number(ciLower));
+        sb.append(",\"ciUpper\":").append(Json.number(ciUpper));
+        sb.append(",\"samples\":[");
+        for (int i = 0; i < samples.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(Json.number(samples[i]));
+        }
+        sb.append("],\"environment\":{");
+        boolean first = true;
+        for (Map.Entry<String, String> entry : environment.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append(Json.quote(entry.getKey())).append(':').append(Json.quote(entry.getValue()));
+            first = false;
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    String toCsv(Map<String, String> environment) {
+        // @formatter:off
+        return String.join(",",
+                csv(benchmark), csv(id), csv(device), csv(deviceName), csv(platform), csv(driver),
+                Boolean.toString(valid), Integer.toString(samples.length),
+                Json.number(getMean()), Json.number(getMedian()), Json.number(getCV()),
+                Json.number(ciLower), Json.number(ciUpper),
+                csv(environment.get("timestamp")), csv(environment.get("javaVersion")), csv(environment.get("jvmFlags")));
+        // @formatter:on
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    static BenchmarkResult fromJson(Map<String, Object> json) {
+        List<Object> values = (List<Object>) json.get("samples");
+        double[] samples = new double[values.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = ((Number) values.get(i)).doubleValue();
+        }
+        Object valid = json.get("valid");
+        return new BenchmarkResult((String) json.get("benchmark"), (String) json.get("id"), (String) json.get("device"), (String) json.get("deviceName"), (String) json.get("platform"),
+                (String) json.get("driver"), valid == null || (Boolean) valid, samples);
+    }
+}
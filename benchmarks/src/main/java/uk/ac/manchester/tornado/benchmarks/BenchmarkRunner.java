@@ -22,13 +22,14 @@ import java.util.HashSet;
 import java.util.Set;
 
 import uk.ac.manchester.tornado.api.TornadoDriver;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 
 public abstract class BenchmarkRunner {
 
     private static final boolean SKIP_SERIAL = Boolean.parseBoolean(System.getProperty("tornado.benchmarks.skipserial", "False"));
 
-    private static final boolean SKIP_STREAMS = Boolean.parseBoolean(System.getProperty("tornado.benchmarks.skipstreams", "True"));
+    private static final boolean SKIP_STREAMS = Boolean.parseBoolean(System.getProperty("tornado.benchmarks.skipstreams", "False"));
 
     private static final boolean TORNADO_ENABLED = Boolean.parseBoolean(TornadoRuntime.getProperty("tornado.enable", "True"));
 
@@ -54,12 +55,14 @@ public abstract class BenchmarkRunner {
         final double refElapsed;
         final double refElapsedMedian;
         final double refFirstIteration;
+        double streamsElapsed = -1;
 
         if (!SKIP_SERIAL) {
             final BenchmarkDriver referenceTest = getJavaDriver();
             referenceTest.benchmark();
 
             System.out.printf("bm=%-15s, id=%-20s, %s\n", id, "java-reference", referenceTest.getPreciseSummary());
+            report("java-reference", null, null, referenceTest);
 
             refElapsed = referenceTest.getMean();
             refElapsedMedian = referenceTest.getMedian();
@@ -68,7 +71,9 @@ public abstract class BenchmarkRunner {
             final BenchmarkDriver streamsTest = getStreamsDriver();
             if (streamsTest != null && !SKIP_STREAMS) {
                 streamsTest.benchmark();
-                System.out.printf("bm=%-15s, id=%-20s, %s\n", id, "java-streams", streamsTest.getSummary());
+                System.out.printf("bm=%-15s, id=%-20s, %s, speedupAvg=%.4f\n", id, "java-streams", streamsTest.getPreciseSummary(), refElapsed / streamsTest.getMean());
+                streamsElapsed = streamsTest.getMean();
+                report("java-streams", null, null, streamsTest);
             }
         } else {
             refElapsed = -1;
@@ -79,14 +84,14 @@ public abstract class BenchmarkRunner {
         if (TORNADO_ENABLED) {
             final String selectedDevices = TornadoRuntime.getProperty("devices");
             if (selectedDevices == null || selectedDevices.isEmpty()) {
-                benchmarkAll(id, refElapsed, refElapsedMedian, refFirstIteration);
+                benchmarkAll(id, refElapsed, refElapsedMedian, refFirstIteration, streamsElapsed);
             } else {
-                benchmarkSelected(id, selectedDevices, refElapsed, refElapsedMedian, refFirstIteration);
+                benchmarkSelected(id, selectedDevices, refElapsed, refElapsedMedian, refFirstIteration, streamsElapsed);
             }
         }
     }
 
-    private void benchmarkAll(String id, double refElapsed, double refElapsedMedian, double refFirstIteration) {
+    private void benchmarkAll(String id, double refElapsed, double refElapsedMedian, double refFirstIteration, double streamsElapsed) {
         final Set<Integer> blacklistedDrivers = new HashSet<>();
         final Set<Integer> blacklistedDevices = new HashSet<>();
 
@@ -111,15 +116,15 @@ public abstract class BenchmarkRunner {
                 final BenchmarkDriver deviceTest = getTornadoDriver();
 
                 deviceTest.benchmark();
-                System.out.printf("bm=%-15s, device=%-5s, %s, speedupAvg=%.4f, speedupMedian=%.4f, speedupFirstIteration=%.4f, CV=%.4f%%, deviceName=%s\n", id, driverIndex + ":" + deviceIndex,
-                        deviceTest.getPreciseSummary(), refElapsed / deviceTest.getMean(), refElapsedMedian / deviceTest.getMedian(), refFirstIteration / deviceTest.getFirstIteration(),
-                        deviceTest.getCV(), driver.getDevice(deviceIndex));
-
+                System.out.printf("bm=%-15s, device=%-5s, %s, speedupAvg=%.4f, speedupMedian=%.4f, speedupFirstIteration=%.4f, speedupStreamsAvg=%s, CV=%.4f%%, deviceName=%s\n", id,
+                        driverIndex + ":" + deviceIndex, deviceTest.getPreciseSummary(), refElapsed / deviceTest.getMean(), refElapsedMedian / deviceTest.getMedian(),
+                        refFirstIteration / deviceTest.getFirstIteration(), speedup(streamsElapsed, deviceTest.getMean()), deviceTest.getCV(), driver.getDevice(deviceIndex));
+                report(driverIndex + ":" + deviceIndex, driver, driver.getDevice(deviceIndex), deviceTest);
             }
         }
     }
 
-    private void benchmarkSelected(String id, String selectedDevices, double refElapsed, double refElapsedMedian, double refFirstIteration) {
+    private void benchmarkSelected(String id, String selectedDevices, double refElapsed, double refElapsedMedian, double refFirstIteration, double streamsElapsed) {
 
         final String[] devices = selectedDevices.split(",");
         for (String device : devices) {
@@ -132,12 +137,30 @@ public abstract class BenchmarkRunner {
             final TornadoDriver driver = TornadoRuntime.getTornadoRuntime().getDriver(driverIndex);
             deviceTest.benchmark();
 
-            System.out.printf("bm=%-15s, device=%-5s, %s, speedupAvg=%.4f, speedupMedian=%.4f, speedupFirstIteration=%.4f, CV=%.4f, deviceName=%s\n", id, driverIndex + ":" + deviceIndex,
-                    deviceTest.getPreciseSummary(), refElapsed / deviceTest.getMean(), refElapsedMedian / deviceTest.getMedian(), refFirstIteration / deviceTest.getFirstIteration(),
-                    deviceTest.getCV(), driver.getDevice(deviceIndex));
+            System.out.printf("bm=%-15s, device=%-5s, %s, speedupAvg=%.4f, speedupMedian=%.4f, speedupFirstIteration=%.4f, speedupStreamsAvg=%s, CV=%.4f, deviceName=%s\n", id,
+                    driverIndex + ":" + deviceIndex, deviceTest.getPreciseSummary(), refElapsed / deviceTest.getMean(), refElapsedMedian / deviceTest.getMedian(),
+                    refFirstIteration / deviceTest.getFirstIteration(), speedup(streamsElapsed, deviceTest.getMean()), deviceTest.getCV(), driver.getDevice(deviceIndex));
+            report(driverIndex + ":" + deviceIndex, driver, driver.getDevice(deviceIndex), deviceTest);
         }
     }
 
+    /**
+     * Speedup over a reference time, or n/a when the reference was not run.
+     */
+    private static String speedup(double reference, double elapsed) {
+        return (reference < 0) ? "n/a" : String.format("%.4f", reference / elapsed);
+    }
+
+    private void report(String device, TornadoDriver driver, TornadoDevice tornadoDevice, BenchmarkDriver test) {
+        if (!BenchmarkReporter.isEnabled()) {
+            return;
+        }
+        final String deviceName = (tornadoDevice == null) ? device : tornadoDevice.getDeviceName();
+        final String platform = (tornadoDevice == null) ? null : tornadoDevice.getPlatformName();
+        final String driverName = (driver == null) ? null : driver.getName();
+        BenchmarkReporter.record(new BenchmarkResult(getName(), getIdString(), device, deviceName, platform, driverName, test.isValid(), test.getSteadyStateTimes()));
+    }
+
     public abstract void parseArgs(String[] args);
 
     public static void main(String[] args) {
@@ -152,6 +175,10 @@ public abstract class BenchmarkRunner {
 
             bm.parseArgs(bmArgs);
             bm.run();
+
+            if (BenchmarkReporter.reportRegressions()) {
+                System.exit(1);
+            }
         } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
             e.printStackTrace();
             System.exit(-1);
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Percentile bootstrap confidence intervals. Execution times are skewed and
+ * often bimodal (JIT, GC, driver hiccups), so the intervals are estimated by
+ * resampling the measured iterations rather than assuming a normal
+ * distribution.
+ */
+final class Bootstrap {
+
+    private final int resamples;
+    private final double confidence;
+    private final Random random;
+
+    Bootstrap(int resamples, double confidence, long seed) {
+        this.resamples = resamples;
+        this.confidence = confidence;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Interval for the mean of {@code samples}.
+     *
+     * @return {lower, upper}
+     */
+    double[] meanInterval(double[] samples) {
+        final double[] means = new double[resamples];
+        for (int i = 0; i < resamples; i++) {
+            means[i] = resampleMean(samples);
+        }
+        return interval(means);
+    }
+
+    /**
+     * Interval for {@code mean(current) / mean(baseline)}, resampling both
+     * sets independently. A ratio above one means the current run is slower.
+     *
+     * @return {lower, upper}
+     */
+    double[] ratioInterval(double[] baseline, double[] current) {
+        final double[] ratios = new double[resamples];
+        for (int i = 0; i < resamples; i++) {
+            ratios[i] = resampleMean(current) / resampleMean(baseline);
+        }
+        return interval(ratios);
+    }
+
+    private double resampleMean(double[] samples) {
+        double sum = 0;
+        for (int i = 0; i < samples.length; i++) {
+            sum += samples[random.nextInt(samples.length)];
+        }
+        return sum / samples.length;
+    }
+
+    private double[] interval(double[] statistics) {
+        Arrays.sort(statistics);
+        final double tail = (1.0 - confidence) / 2.0;
+        final int lower = (int) Math.floor(tail * (statistics.length - 1));
+        final int upper = (int) Math.ceil((1.0 - tail) * (statistics.length - 1));
+        return new double[] { statistics[lower], statistics[upper] };
+    }
+}
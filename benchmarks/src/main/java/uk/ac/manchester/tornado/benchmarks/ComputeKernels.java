@@ -17,6 +17,8 @@
  */
 package uk.ac.manchester.tornado.benchmarks;
 
+import java.util.stream.IntStream;
+
 import org.apache.lucene.util.LongBitSet;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -280,4 +282,146 @@ public class ComputeKernels {
             }
         }
     }
+
+    public static void monteCarloStreams(float[] result, int size) {
+        final int iter = 25000;
+
+        IntStream.range(0, size).parallel().forEach(idx -> {
+            long seed = idx;
+            float sum = 0.0f;
+
+            for (int j = 0; j < iter; ++j) {
+                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+                float x = ((float) (seed & 0x0FFFFFFF)) / 268435455f;
+
+                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+                float y = ((float) (seed & 0x0FFFFFFF)) / 268435455f;
+
+                float dist = TornadoMath.sqrt(x * x + y * y);
+                if (dist <= 1.0f) {
+                    sum += 1.0f;
+                }
+            }
+            sum = sum * 4;
+            result[idx] = sum / (float) iter;
+        });
+    }
+
+    public static void nBodyStreams(int numBodies, float[] refPos, float[] refVel, float delT, float espSqr) {
+        IntStream.range(0, numBodies).parallel().forEach(i -> {
+            int body = 4 * i;
+            float[] acc = new float[] { 0.0f, 0.0f, 0.0f };
+            for (int j = 0; j < numBodies; j++) {
+                float[] r = new float[3];
+                int index = 4 * j;
+
+                float distSqr = 0.0f;
+                for (int k = 0; k < 3; k++) {
+                    r[k] = refPos[index + k] - refPos[body + k];
+                    distSqr += r[k] * r[k];
+                }
+
+                float invDist = (float) (1.0f / Math.sqrt(distSqr + espSqr));
+
+                float invDistCube = invDist * invDist * invDist;
+                float s = refPos[index + 3] * invDistCube;
+
+                for (int k = 0; k < 3; k++) {
+                    acc[k] += s * r[k];
+                }
+            }
+            for (int k = 0; k < 3; k++) {
+                refPos[body + k] += refVel[body + k] * delT + 0.5f * acc[k] * delT * delT;
+                refVel[body + k] += acc[k] * delT;
+            }
+        });
+    }
+
+    public static void blackscholesStreams(final float[] randArray, final float[] put, final float[] call) {
+        IntStream.range(0, call.length).parallel().forEach(gid -> {
+            final float two = 2.0f;
+            final float inRand = randArray[gid];
+            final float S = (S_LOWER_LIMIT * inRand) + (S_UPPER_LIMIT * (1.0f - inRand));
+            final float K = (K_LOWER_LIMIT * inRand) + (K_UPPER_LIMIT * (1.0f - inRand));
+            final float T = (T_LOWER_LIMIT * inRand) + (T_UPPER_LIMIT * (1.0f - inRand));
+            final float R = (R_LOWER_LIMIT * inRand) + (R_UPPER_LIMIT * (1.0f - inRand));
+            final float sigmaVal = (SIGMA_LOWER_LIMIT * inRand) + (SIGMA_UPPER_LIMIT * (1.0f - inRand));
+
+            final float sigmaSqrtT = sigmaVal * TornadoMath.sqrt(T);
+
+            final float d1 = (TornadoMath.log(S / K) + ((R + ((sigmaVal * sigmaVal) / two)) * T)) / sigmaSqrtT;
+            final float d2 = d1 - sigmaSqrtT;
+
+            final float KexpMinusRT = K * TornadoMath.exp(-R * T);
+
+            float phiD1 = phi(d1);
+            float phiD2 = phi(d2);
+
+            call[gid] = (S * phiD1) - (KexpMinusRT * phiD2);
+            phiD1 = phi(-d1);
+            phiD2 = phi(-d2);
+
+            put[gid] = (KexpMinusRT * phiD2) - (S * phiD1);
+        });
+    }
+
+    public static final int intersectionCountStreams(int numWords, LongBitSet a, LongBitSet b) {
+        final long[] aBits = a.getBits();
+        final long[] bBits = b.getBits();
+        return IntStream.range(0, numWords).parallel().map(i -> Long.bitCount(aBits[i] & bBits[i])).sum();
+    }
+
+    public static void vectorMultiplyStreams(final float[] a, final float[] b, final float[] c) {
+        IntStream.range(0, a.length).parallel().forEach(i -> c[i] = a[i] * b[i]);
+    }
+
+    public static void computeDftStreams(double[] inreal, double[] inimag, double[] outreal, double[] outimag) {
+        int n = inreal.length;
+        IntStream.range(0, n).parallel().forEach(k -> {
+            double sumreal = 0;
+            double sumimag = 0;
+            for (int t = 0; t < n; t++) {
+                double angle = (2 * Math.PI * t * k) / n;
+                sumreal += inreal[t] * Math.cos(angle) + inimag[t] * Math.sin(angle);
+                sumimag += -inreal[t] * Math.sin(angle) + inimag[t] * Math.cos(angle);
+            }
+            outreal[k] = sumreal;
+            outimag[k] = sumimag;
+        });
+    }
+
+    public static void mandelbrotStreams(int size, short[] output) {
+        final int iterations = 10000;
+        float space = 2.0f / size;
+
+        IntStream.range(0, size).parallel().forEach(i -> {
+            for (int j = 0; j < size; j++) {
+                float Zr = 0.0f;
+                float Zi = 0.0f;
+                float Cr = (1 * j * space - 1.5f);
+                float Ci = (1 * i * space - 1.0f);
+
+                float ZrN = 0;
+                float ZiN = 0;
+                int y = 0;
+
+                for (y = 0; y < iterations; y++) {
+                    float s = ZiN + ZrN;
+                    if (s > 4.0f) {
+                        break;
+                    } else {
+                        Zi = 2.0f * Zr * Zi + Ci;
+                        Zr = 1 * ZrN - ZiN + Cr;
+                        ZiN = Zi * Zi;
+                        ZrN = Zr * Zr;
+                    }
+                }
+                short r = (short) ((y * 255) / iterations);
+                output[i * size + j] = r;
+            }
+        });
+    }
+
 }
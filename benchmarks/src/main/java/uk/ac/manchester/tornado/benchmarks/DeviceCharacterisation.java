@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.TornadoDriver;
+import uk.ac.manchester.tornado.api.TornadoRuntimeCI;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.mm.TornadoDeviceObjectState;
+import uk.ac.manchester.tornado.api.profiler.DeviceProfile;
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
+
+/**
+ * Characterises the devices of a machine: sweeps host-to-device,
+ * device-to-host and device-to-device transfers from a few bytes up to
+ * {@code endsize}, measures the latency of launching an empty kernel and the
+ * cost of dispatching the bytecodes of one task, and fits a
+ * {@code latency + bytes / bandwidth} model per direction. The result is
+ * stored as a {@link DeviceProfile} for each device.
+ * 
+ * The raw measurements are printed as CSV, one line per direction and size.
+ */
+public class DeviceCharacterisation {
+
+    private static final int[] TASK_COUNTS = { 1, 2, 4, 8, 16 };
+
+    private static final String COPY_IN = "copy-in";
+    private static final String COPY_OUT = "copy-out";
+    private static final String DEVICE_COPY = "device-copy";
+
+    private final TornadoRuntimeCI runtime;
+    private final TornadoDevice device;
+    private final long startSize;
+    private final long endSize;
+    private final int iterations;
+
+    public DeviceCharacterisation(TornadoRuntimeCI runtime, TornadoDevice device, long startSize, long endSize, int iterations) {
+        this.runtime = runtime;
+        this.device = device;
+        this.startSize = startSize;
+        this.endSize = Math.min(endSize, maxArrayBytes(device));
+        this.iterations = iterations;
+    }
+
+    public static void empty(int[] a) {
+        for (@Parallel int i = 0; i < a.length; i++) {
+            a[i] = i;
+        }
+    }
+
+    public static void copy(float[] x, float[] y) {
+        for (@Parallel int i = 0; i < x.length; i++) {
+            y[i] = x[i];
+        }
+    }
+
+    /**
+     * Largest array the sweep allocates: bounded by Java arrays, by the
+     * maximum allocation of the device and by a quarter of its global memory, as
+     * the device-to-device copy keeps two buffers resident.
+     */
+    private static long maxArrayBytes(TornadoDevice device) {
+        long max = Integer.MAX_VALUE - 8;
+        if (device.getMaxAllocMemory() > 0) {
+            max = Math.min(max, device.getMaxAllocMemory());
+        }
+        if (device.getMaxGlobalMemory() > 0) {
+            max = Math.min(max, device.getMaxGlobalMemory() / 4);
+        }
+        return max;
+    }
+
+    private static long median(long[] samples) {
+        final long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Weighted least-squares fit of {@code y = a + b * x}, weighting each
+     * point by {@code 1 / y^2} so that the relative error is minimised and
+     * the small sizes, which determine the latency, are not swamped by the
+     * large ones.
+     * 
+     * @return { a, b }
+     */
+    static double[] fit(List<double[]> points) {
+        double sw = 0;
+        double swx = 0;
+        double swy = 0;
+        double swxx = 0;
+        double swxy = 0;
+        for (double[] point : points) {
+            final double x = point[0];
+            final double y = point[1];
+            final double w = (y > 0) ? 1.0 / (y * y) : 1.0;
+            sw += w;
+            swx += w * x;
+            swy += w * y;
+            swxx += w * x * x;
+            swxy += w * x * y;
+        }
+        final double det = sw * swxx - swx * swx;
+        if (points.size() < 2 || det == 0) {
+            return new double[] { (sw > 0) ? swy / sw : 0, 0 };
+        }
+        final double b = (sw * swxy - swx * swy) / det;
+        final double a = (swy - b * swx) / sw;
+        return new double[] { Math.max(a, 0), b };
+    }
+
+    private static double[] latencyAndBandwidth(List<double[]> points) {
+        final double[] coefficients = fit(points);
+        final double bandwidth = (coefficients[1] > 0) ? 1.0 / coefficients[1] : 0;
+        return new double[] { coefficients[0], bandwidth };
+    }
+
+    private void print(String direction, long bytes, long nanoseconds) {
+        final double bandwidth = (nanoseconds > 0) ? (double) bytes / nanoseconds : 0;
+        System.out.printf("%s,%s,%d,%d,%d,%.3f\n", device.getDeviceName(), direction, bytes, iterations, nanoseconds, bandwidth);
+    }
+
+    private void sweepHostTransfers(List<double[]> copyIn, List<double[]> copyOut) {
+        for (long size = startSize; size <= endSize; size <<= 1) {
+            final byte[] array = new byte[(int) size];
+            final TornadoDeviceObjectState deviceState = runtime.resolveObject(array).getDeviceState(device);
+            device.ensureAllocated(array, 0, deviceState);
+
+            final long[] in = new long[iterations];
+            final long[] out = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                final long t0 = System.nanoTime();
+                device.streamIn(array, 0, 0, deviceState, null);
+                device.sync();
+                final long t1 = System.nanoTime();
+                device.streamOut(array, 0, deviceState, null);
+                device.sync();
+                final long t2 = System.nanoTime();
+                in[i] = t1 - t0;
+                out[i] = t2 - t1;
+            }
+
+            final long medianIn = median(in);
+            final long medianOut = median(out);
+            print(COPY_IN, size, medianIn);
+            print(COPY_OUT, size, medianOut);
+            copyIn.add(new double[] { size, medianIn });
+            copyOut.add(new double[] { size, medianOut });
+
+            runtime.clearObjectState();
+            device.reset();
+        }
+    }
+
+    /**
+     * Device-to-device copies are measured with a copy kernel over two
+     * resident buffers, as the drivers do not expose buffer-to-buffer copies.
+     * Each element is read once and written once, so a copy moves twice the
+     * size of the buffer.
+     */
+    private void sweepDeviceTransfers(List<double[]> deviceCopy) {
+        for (long size = Math.max(startSize, 4); size <= endSize; size <<= 1) {
+            final float[] x = new float[(int) (size / 4)];
+            final float[] y = new float[x.length];
+            final TaskSchedule schedule = new TaskSchedule("characterise").task("copy", DeviceCharacterisation::copy, x, y);
+            schedule.mapAllTo(device);
+            schedule.execute();
+
+            final long[] times = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                schedule.execute();
+                final ExecutionProfile profile = schedule.getProfile();
+                times[i] = (profile != null) ? profile.getKernelTime() : 0;
+            }
+
+            final long bytes = 2 * size;
+            final long medianTime = median(times);
+            print(DEVICE_COPY, bytes, medianTime);
+            deviceCopy.add(new double[] { bytes, medianTime });
+
+            runtime.clearObjectState();
+            device.reset();
+        }
+    }
+
+    /**
+     * Host time of executing a schedule with one empty task whose data is
+     * already resident on the device.
+     */
+    private double measureLaunchLatency() {
+        final int[] a = new int[1];
+        final TaskSchedule schedule = new TaskSchedule("characterise").task("empty", DeviceCharacterisation::empty, a);
+        schedule.mapAllTo(device);
+        schedule.execute();
+
+        final long[] times = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            final long t0 = System.nanoTime();
+            schedule.execute();
+            times[i] = System.nanoTime() - t0;
+        }
+
+        final long latency = median(times);
+        print("launch", 0, latency);
+
+        runtime.clearObjectState();
+        device.reset();
+        return latency;
+    }
+
+    /**
+     * Dispatch time reported by the TornadoVM for schedules with a growing
+     * number of empty tasks. The slope of the fit is the cost of the bytecodes
+     * each task adds to the schedule.
+     */
+    private double measureDispatchPerTask() {
+        final List<double[]> points = new ArrayList<>();
+        for (int tasks : TASK_COUNTS) {
+            final int[] a = new int[1];
+            final TaskSchedule schedule = new TaskSchedule("characterise");
+            for (int t = 0; t < tasks; t++) {
+                schedule.task("empty" + t, DeviceCharacterisation::empty, a);
+            }
+            schedule.mapAllTo(device);
+            schedule.execute();
+
+            final long[] times = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                schedule.execute();
+                final ExecutionProfile profile = schedule.getProfile();
+                times[i] = (profile != null) ? profile.getDispatchTime() : 0;
+            }
+
+            final long medianTime = median(times);
+            print("dispatch", tasks, medianTime);
+            points.add(new double[] { tasks, medianTime });
+
+            runtime.clearObjectState();
+            device.reset();
+        }
+        return Math.max(fit(points)[1], 0);
+    }
+
+    public DeviceProfile characterise() {
+        final DeviceProfile profile = new DeviceProfile(device.getDeviceName());
+        profile.setDescription(device.getDescription());
+        profile.setPlatformName(device.getPlatformName());
+        profile.setMaxAllocMemory(device.getMaxAllocMemory());
+        profile.setGlobalMemory(device.getMaxGlobalMemory());
+
+        final List<double[]> copyIn = new ArrayList<>();
+        final List<double[]> copyOut = new ArrayList<>();
+        final List<double[]> deviceCopy = new ArrayList<>();
+        sweepHostTransfers(copyIn, copyOut);
+        sweepDeviceTransfers(deviceCopy);
+
+        double[] model = latencyAndBandwidth(copyIn);
+        profile.setCopyIn(model[0], model[1]);
+        model = latencyAndBandwidth(copyOut);
+        profile.setCopyOut(model[0], model[1]);
+        model = latencyAndBandwidth(deviceCopy);
+        profile.setDeviceCopy(model[0], model[1]);
+
+        profile.setLaunchLatency(measureLaunchLatency());
+        profile.setDispatchPerTask(measureDispatchPerTask());
+        return profile;
+    }
+
+    private static List<TornadoDevice> resolveDevices(TornadoRuntimeCI runtime, String devices) {
+        final List<TornadoDevice> result = new ArrayList<>();
+        if (devices == null) {
+            for (int i = 0; i < runtime.getNumDrivers(); i++) {
+                final TornadoDriver driver = runtime.getDriver(i);
+                for (int j = 0; j < driver.getDeviceCount(); j++) {
+                    result.add(driver.getDevice(j));
+                }
+            }
+        } else {
+            for (String device : devices.split(",")) {
+                final String[] ids = device.split(":");
+                result.add(runtime.getDriver(Integer.parseInt(ids[0])).getDevice(Integer.parseInt(ids[1])));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        final long startSize = Long.parseLong(System.getProperty("startsize", "8"));
+        final long endSize = Long.parseLong(System.getProperty("endsize", Long.toString(1L << 30)));
+        final int iterations = Integer.parseInt(System.getProperty("iterations", "20"));
+        final boolean store = Boolean.parseBoolean(System.getProperty("store", "True"));
+
+        final TornadoRuntimeCI runtime = TornadoRuntime.getTornadoRuntime();
+        final List<DeviceProfile> profiles = new ArrayList<>();
+
+        System.out.println("device,measurement,numbytes,iterations,median(ns),bandwidth(GB/s)");
+        for (TornadoDevice device : resolveDevices(runtime, System.getProperty("devices"))) {
+            profiles.add(new DeviceCharacterisation(runtime, device, startSize, endSize, iterations).characterise());
+        }
+
+        for (DeviceProfile profile : profiles) {
+            System.out.println(profile);
+            if (store) {
+                try {
+                    final File file = profile.store();
+                    System.out.printf("profile stored in %s\n", file);
+                } catch (IOException e) {
+                    System.err.printf("unable to store the profile of %s: %s\n", profile.getDeviceName(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -183,4 +183,56 @@ public final class GraphicsKernels {
 
     }
 
+    public static void rotateVectorStreams(VectorFloat3 output, Matrix4x4Float m, VectorFloat3 input) {
+        IntStream.range(0, output.getLength()).parallel().forEach(i -> output.set(i, rotate(m, input.get(i))));
+    }
+
+    public static void dotVectorStreams(VectorFloat3 A, VectorFloat3 B, float[] c) {
+        IntStream.range(0, c.length).parallel().forEach(i -> c[i] = Float3.dot(A.get(i), B.get(i)));
+    }
+
+    public static void addVectorStreams(VectorFloat4 a, VectorFloat4 b, VectorFloat4 c) {
+        IntStream.range(0, c.getLength()).parallel().forEach(i -> c.set(i, Float4.add(a.get(i), b.get(i))));
+    }
+
+    public static void addImageStreams(ImageFloat4 a, ImageFloat4 b, ImageFloat4 c) {
+        IntStream.range(0, c.X() * c.Y()).parallel().forEach((int index) -> {
+            final int j = index % c.X();
+            final int i = index / c.X();
+            c.set(j, i, add(a.get(j, i), b.get(j, i)));
+        });
+    }
+
+    public static void dotImageStreams(ImageFloat3 A, ImageFloat3 B, ImageFloat C) {
+        IntStream.range(0, C.X() * C.Y()).parallel().forEach((int index) -> {
+            final int j = index % C.X();
+            final int i = index / C.X();
+            C.set(j, i, Float3.dot(A.get(j, i), B.get(j, i)));
+        });
+    }
+
+    public static void convolveImageArrayStreams(final float[] input, final float[] filter, final float[] output, final int iW, final int iH, final int fW, final int fH) {
+
+        final int filterX2 = fW / 2;
+        final int filterY2 = fH / 2;
+
+        IntStream.range(0, iW * iH).parallel().forEach((int index) -> {
+            final int x = index % iW;
+            final int y = index / iW;
+
+            float sum = 0.0f;
+            for (int v = 0; v < fH; v++) {
+                for (int u = 0; u < fW; u++) {
+
+                    if ((((y - filterY2) + v) >= 0) && ((y + v) < iH)) {
+                        if ((((x - filterX2) + u) >= 0) && ((x + u) < iW)) {
+                            sum += filter[(v * fW) + u] * input[(((y - filterY2) + v) * iW) + ((x - filterX2) + u)];
+                        }
+                    }
+                }
+            }
+            output[(y * iW) + x] = sum;
+        });
+    }
+
 }
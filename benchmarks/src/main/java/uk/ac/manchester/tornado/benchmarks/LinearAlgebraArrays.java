@@ -17,6 +17,8 @@
  */
 package uk.ac.manchester.tornado.benchmarks;
 
+import java.util.stream.IntStream;
+
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.type.annotations.Atomic;
 
@@ -144,4 +146,73 @@ public class LinearAlgebraArrays {
         }
     }
 
+    public static void laddStreams(long[] a, long[] b, long[] c) {
+        IntStream.range(0, c.length).parallel().forEach(i -> c[i] = a[i] + b[i]);
+    }
+
+    public static void saddStreams(float[] a, float[] b, float[] c) {
+        IntStream.range(0, c.length).parallel().forEach(i -> c[i] = a[i] + b[i]);
+    }
+
+    public static void striadStreams(float alpha, float[] a, float[] b, float[] c) {
+        IntStream.range(0, c.length).parallel().forEach(i -> c[i] = (alpha * a[i]) + b[i]);
+    }
+
+    public static void scopyStreams(float[] x, float[] y) {
+        IntStream.range(0, x.length).parallel().forEach(i -> y[i] = x[i]);
+    }
+
+    public static void sscalStreams(float alpha, float[] x) {
+        IntStream.range(0, x.length).parallel().forEach(i -> x[i] *= alpha);
+    }
+
+    public static void saxpyStreams(float alpha, float[] x, float[] y) {
+        IntStream.range(0, y.length).parallel().forEach(i -> y[i] += alpha * x[i]);
+    }
+
+    public static void sgemvStreams(int M, int N, float[] A, float[] X, float[] Y) {
+        IntStream.range(0, M).parallel().forEach(i -> {
+            float y0 = 0f;
+            for (int j = 0; j < N; j++) {
+                y0 += A[j + (i * N)] * X[j];
+            }
+            Y[i] = y0;
+        });
+    }
+
+    public static void sgemmStreams(final int M, final int N, final int K, final float A[], final float B[], final float C[]) {
+        IntStream.range(0, N).parallel().forEach(i -> {
+            for (int j = 0; j < N; j++) {
+                float sum = 0.0f;
+                for (int k = 0; k < K; k++) {
+                    sum += A[(i * N) + k] * B[(k * N) + j];
+                }
+                C[(i * N) + j] = sum;
+            }
+        });
+    }
+
+    public static void dgemmStreams(final int M, final int N, final int K, final double A[], final double B[], final double C[]) {
+        IntStream.range(0, N).parallel().forEach(i -> {
+            for (int j = 0; j < N; j++) {
+                double sum = 0.0;
+                for (int k = 0; k < K; k++) {
+                    sum += A[(i * N) + k] * B[(k * N) + j];
+                }
+                C[(i * N) + j] = sum;
+            }
+        });
+    }
+
+    public static void spmvStreams(final float[] val, final int[] cols, final int[] rowDelimiters, final float[] vec, final int dim, final float[] out) {
+        IntStream.range(0, dim).parallel().forEach(i -> {
+            float t = 0.0f;
+            for (int j = rowDelimiters[i]; j < rowDelimiters[i + 1]; j++) {
+                final int col = cols[j];
+                t += val[j] * vec[col];
+            }
+            out[i] = t;
+        });
+    }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.addimage;
+
+import static uk.ac.manchester.tornado.api.collections.types.FloatOps.findMaxULP;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.addImage;
+
+import uk.ac.manchester.tornado.api.collections.types.Float4;
+import uk.ac.manchester.tornado.api.collections.types.ImageFloat4;
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+import uk.ac.manchester.tornado.benchmarks.GraphicsKernels;
+
+public class AddStreams extends BenchmarkDriver {
+
+    private final int numElementsX;
+    private final int numElementsY;
+
+    private ImageFloat4 a,b,c;
+
+    public AddStreams(int iterations, int numElementsX, int numElementsY) {
+        super(iterations);
+        this.numElementsX = numElementsX;
+        this.numElementsY = numElementsY;
+    }
+
+    @Override
+    public void setUp() {
+        a = new ImageFloat4(numElementsX, numElementsY);
+        b = new ImageFloat4(numElementsX, numElementsY);
+        c = new ImageFloat4(numElementsX, numElementsY);
+
+        final Float4 valueA = new Float4(new float[] { 1f, 1f, 1f, 1f });
+        final Float4 valueB = new Float4(new float[] { 2f, 2f, 2f, 2f });
+        for (int j = 0; j < numElementsY; j++) {
+            for (int i = 0; i < numElementsX; i++) {
+                a.set(i, j, valueA);
+                b.set(i, j, valueB);
+            }
+        }
+    }
+
+    @Override
+    public void tearDown() {
+        a = null;
+        b = null;
+        c = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        GraphicsKernels.addImageStreams(a, b, c);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final ImageFloat4 result = new ImageFloat4(numElementsX, numElementsY);
+
+        code();
+        addImage(a, b, result);
+
+        float maxULP = 0f;
+        for (int i = 0; i < c.Y(); i++) {
+            for (int j = 0; j < c.X(); j++) {
+                maxULP = Math.max(maxULP, findMaxULP(c.get(j, i), result.get(j, i)));
+            }
+        }
+        return Float.compare(maxULP, MAX_ULP) <= 0;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
@@ -64,4 +64,9 @@ public class Benchmark extends BenchmarkRunner {
         }
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new AddStreams(iterations, width, height);
+    }
+
 }
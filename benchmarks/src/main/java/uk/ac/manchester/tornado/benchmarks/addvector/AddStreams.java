@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.addvector;
+
+import static uk.ac.manchester.tornado.api.collections.types.FloatOps.findMaxULP;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.addVector;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.addVectorStreams;
+
+import uk.ac.manchester.tornado.api.collections.types.Float4;
+import uk.ac.manchester.tornado.api.collections.types.VectorFloat4;
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class AddStreams extends BenchmarkDriver {
+
+    private final int numElements;
+
+    private VectorFloat4 a,b,c;
+
+    public AddStreams(int iterations, int numElements) {
+        super(iterations);
+        this.numElements = numElements;
+    }
+
+    @Override
+    public void setUp() {
+        a = new VectorFloat4(numElements);
+        b = new VectorFloat4(numElements);
+        c = new VectorFloat4(numElements);
+
+        final Float4 valueA = new Float4(new float[] { 1f, 1f, 1f, 1f });
+        final Float4 valueB = new Float4(new float[] { 2f, 2f, 2f, 2f });
+        for (int i = 0; i < numElements; i++) {
+            a.set(i, valueA);
+            b.set(i, valueB);
+        }
+    }
+
+    @Override
+    public void tearDown() {
+        a = null;
+        b = null;
+        c = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        addVectorStreams(a, b, c);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final VectorFloat4 result = new VectorFloat4(numElements);
+
+        code();
+        addVector(a, b, result);
+
+        float maxULP = 0f;
+        for (int i = 0; i < numElements; i++) {
+            maxULP = Math.max(maxULP, findMaxULP(c.get(i), result.get(i)));
+        }
+        return Float.compare(maxULP, MAX_ULP) <= 0;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
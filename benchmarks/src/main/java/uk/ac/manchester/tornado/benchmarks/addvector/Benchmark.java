@@ -61,4 +61,9 @@ public class Benchmark extends BenchmarkRunner {
         }
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new AddStreams(iterations, size);
+    }
+
 }
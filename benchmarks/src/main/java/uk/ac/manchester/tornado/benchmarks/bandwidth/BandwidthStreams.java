@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.bandwidth;
+
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.ladd;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.laddStreams;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class BandwidthStreams extends BenchmarkDriver {
+
+    private final int numElements;
+
+    private long[] a,b,c;
+
+    public BandwidthStreams(int iterations, int numElements) {
+        super(iterations);
+        this.numElements = numElements;
+    }
+
+    @Override
+    public void setUp() {
+        a = new long[numElements];
+        b = new long[numElements];
+        c = new long[numElements];
+
+        for (int i = 0; i < numElements; i++) {
+            a[i] = 1;
+            b[i] = 2;
+            c[i] = 0;
+        }
+
+    }
+
+    @Override
+    public void tearDown() {
+        a = null;
+        b = null;
+        c = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        laddStreams(a, b, c);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final long[] result = new long[numElements];
+
+        code();
+        ladd(a, b, result);
+
+        return Arrays.equals(c, result);
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
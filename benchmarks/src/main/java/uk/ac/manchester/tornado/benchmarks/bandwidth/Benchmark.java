@@ -60,4 +60,9 @@ public class Benchmark extends BenchmarkRunner {
         return new BandwidthTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new BandwidthStreams(iterations, size);
+    }
+
 }
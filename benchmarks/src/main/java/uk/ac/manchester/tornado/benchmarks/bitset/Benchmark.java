@@ -61,4 +61,10 @@ public class Benchmark extends BenchmarkRunner {
     protected BenchmarkDriver getTornadoDriver() {
         return new BitsetTornado(iterations, size);
     }
+
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new BitsetStreams(iterations, size);
+    }
+
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.bitset;
+
+import java.util.Random;
+
+import org.apache.lucene.util.LongBitSet;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+import uk.ac.manchester.tornado.benchmarks.ComputeKernels;
+
+public class BitsetStreams extends BenchmarkDriver {
+
+    private int numWords;
+    private TaskSchedule graph;
+    private LongBitSet a,b;
+
+    public BitsetStreams(int size, int iterations) {
+        super(iterations);
+        this.numWords = size;
+    }
+
+    @Override
+    public void setUp() {
+
+        final Random rand = new Random(7);
+        final long[] aBits = new long[numWords];
+        final long[] bBits = new long[numWords];
+        for (int i = 0; i < aBits.length; i++) {
+            aBits[i] = rand.nextLong();
+            bBits[i] = rand.nextLong();
+        }
+
+        a = new LongBitSet(aBits, numWords * 8);
+        b = new LongBitSet(bBits, numWords * 8);
+
+    }
+
+    @Override
+    public void tearDown() {
+        super.tearDown();
+    }
+
+    @Override
+    public boolean validate() {
+        // the sequential kernel does not accumulate its count, so the
+        // reference is counted here
+        final long[] aBits = a.getBits();
+        final long[] bBits = b.getBits();
+        int expected = 0;
+        for (int i = 0; i < numWords; i++) {
+            expected += Long.bitCount(aBits[i] & bBits[i]);
+        }
+        return ComputeKernels.intersectionCountStreams(numWords, a, b) == expected;
+    }
+
+    @Override
+    public void code() {
+        ComputeKernels.intersectionCountStreams(numWords, a, b);
+    }
+}
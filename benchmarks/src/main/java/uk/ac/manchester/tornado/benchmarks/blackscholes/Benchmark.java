@@ -61,4 +61,10 @@ public class Benchmark extends BenchmarkRunner {
     protected BenchmarkDriver getTornadoDriver() {
         return new BlackScholesTornado(iterations, size);
     }
+
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new BlackScholesStreams(iterations, size);
+    }
+
 }
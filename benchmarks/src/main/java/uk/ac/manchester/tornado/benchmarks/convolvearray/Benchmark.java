@@ -68,4 +68,9 @@ public class Benchmark extends BenchmarkRunner {
         return new ConvolveImageArrayTornado(iterations, width, height, filtersize);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new ConvolveImageArrayStreams(iterations, width, height, filtersize);
+    }
+
 }
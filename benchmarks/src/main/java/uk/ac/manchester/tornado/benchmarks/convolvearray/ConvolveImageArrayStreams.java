@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.convolvearray;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.BenchmarkUtils.createFilter;
+import static uk.ac.manchester.tornado.benchmarks.BenchmarkUtils.createImage;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.convolveImageArray;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.convolveImageArrayStreams;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class ConvolveImageArrayStreams extends BenchmarkDriver {
+
+    private final int imageSizeX,imageSizeY,filterSize;
+
+    private float[] input,output,filter;
+
+    public ConvolveImageArrayStreams(int iterations, int imageSizeX, int imageSizeY, int filterSize) {
+        super(iterations);
+        this.imageSizeX = imageSizeX;
+        this.imageSizeY = imageSizeY;
+        this.filterSize = filterSize;
+    }
+
+    @Override
+    public void setUp() {
+        input = new float[imageSizeX * imageSizeY];
+        output = new float[imageSizeX * imageSizeY];
+        filter = new float[filterSize * filterSize];
+
+        createImage(input, imageSizeX, imageSizeY);
+        createFilter(filter, filterSize, filterSize);
+
+    }
+
+    @Override
+    public void tearDown() {
+        input = null;
+        output = null;
+        filter = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        convolveImageArrayStreams(input, filter, output, imageSizeX, imageSizeY, filterSize, filterSize);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[imageSizeX * imageSizeY];
+
+        code();
+        convolveImageArray(input, filter, result, imageSizeX, imageSizeY, filterSize, filterSize);
+
+        final float ulp = findULPDistance(output, result);
+        return ulp < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
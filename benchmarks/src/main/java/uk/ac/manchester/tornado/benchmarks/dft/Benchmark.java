@@ -60,4 +60,10 @@ public class Benchmark extends BenchmarkRunner {
             size = 4194304;
         }
     }
+
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new DftStreams(iterations, size);
+    }
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.dft;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+import uk.ac.manchester.tornado.benchmarks.ComputeKernels;
+
+public class DftStreams extends BenchmarkDriver {
+    private int size;
+    private double[] inReal,inImag,outReal,outImag;
+
+    public DftStreams(int iterations, int size) {
+        super(iterations);
+        this.size = size;
+    }
+
+    @Override
+    public void setUp() {
+        inReal = new double[size];
+        inImag = new double[size];
+        outReal = new double[size];
+        outImag = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            inReal[i] = 1 / (double) (i + 2);
+            inImag[i] = 1 / (double) (i + 2);
+        }
+    }
+
+    @Override
+    public boolean validate() {
+        final double[] realSeq = new double[size];
+        final double[] imagSeq = new double[size];
+
+        code();
+        ComputeKernels.computeDft(inReal, inImag, realSeq, imagSeq);
+
+        return findULPDistance(outReal, realSeq) < MAX_ULP && findULPDistance(outImag, imagSeq) < MAX_ULP;
+    }
+
+    @Override
+    public void tearDown() {
+        outImag = null;
+        outReal = null;
+    }
+
+    @Override
+    public void code() {
+        ComputeKernels.computeDftStreams(inReal, inImag, outReal, outImag);
+    }
+}
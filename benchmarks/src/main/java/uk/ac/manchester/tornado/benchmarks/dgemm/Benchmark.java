@@ -64,4 +64,9 @@ public class Benchmark extends BenchmarkRunner {
         return new DgemmTornado(iterations, width, height);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new DgemmStreams(iterations, width, height);
+    }
+
 }
@@ -64,4 +64,9 @@ public class Benchmark extends BenchmarkRunner {
         return new DotTornado(iterations, width, height);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new DotStreams(iterations, width, height);
+    }
+
 }
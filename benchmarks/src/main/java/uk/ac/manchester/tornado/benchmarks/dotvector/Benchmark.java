@@ -62,4 +62,9 @@ public class Benchmark extends BenchmarkRunner {
         return new DotTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new DotStreams(iterations, size);
+    }
+
 }
@@ -60,4 +60,10 @@ public class Benchmark extends BenchmarkRunner {
     protected BenchmarkDriver getTornadoDriver() {
         return new MandelbrotTornado(iterations, size);
     }
+
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new MandelbrotStreams(iterations, size);
+    }
+
 }
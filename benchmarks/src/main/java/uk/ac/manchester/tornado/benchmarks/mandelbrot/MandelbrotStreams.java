@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.mandelbrot;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+import uk.ac.manchester.tornado.benchmarks.ComputeKernels;
+
+public class MandelbrotStreams extends BenchmarkDriver {
+    int size;
+    short[] result;
+
+    public MandelbrotStreams(int iterations, int size) {
+        super(iterations);
+        this.size = size;
+    }
+
+    @Override
+    public void setUp() {
+        result = new short[size * size];
+    }
+
+    @Override
+    public boolean validate() {
+        final short[] expected = new short[size * size];
+
+        code();
+        ComputeKernels.mandelbrot(size, expected);
+
+        return Arrays.equals(result, expected);
+    }
+
+    @Override
+    public void code() {
+        ComputeKernels.mandelbrotStreams(size, result);
+    }
+}
@@ -63,4 +63,9 @@ public class Benchmark extends BenchmarkRunner {
         return new MonteCarloTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new MonteCarloStreams(iterations, size);
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.montecarlo;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.ComputeKernels.monteCarlo;
+import static uk.ac.manchester.tornado.benchmarks.ComputeKernels.monteCarloStreams;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class MonteCarloStreams extends BenchmarkDriver {
+
+    private final int size;
+
+    private float[] seq;
+
+    public MonteCarloStreams(int iterations, int size) {
+        super(iterations);
+        this.size = size;
+    }
+
+    @Override
+    public void setUp() {
+        seq = new float[size];
+    }
+
+    @Override
+    public void tearDown() {
+        seq = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        monteCarloStreams(seq, size);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[size];
+
+        code();
+        monteCarlo(result, size);
+
+        final float ulp = findULPDistance(seq, result);
+        return ulp < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+}
@@ -62,4 +62,9 @@ public class Benchmark extends BenchmarkRunner {
         return new NBodyTornado(numBodies, iterations);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new NBodyStreams(numBodies, iterations);
+    }
+
 }
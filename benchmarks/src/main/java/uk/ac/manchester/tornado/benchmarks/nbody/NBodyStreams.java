@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.benchmarks.nbody;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.ComputeKernels.nBody;
+import static uk.ac.manchester.tornado.benchmarks.ComputeKernels.nBodyStreams;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class NBodyStreams extends BenchmarkDriver {
+    private float delT,espSqr;
+    private float[] posSeq,velSeq;
+    private int numBodies;
+
+    public NBodyStreams(int numBodies, int iterations) {
+        super(iterations);
+        this.numBodies = numBodies;
+    }
+
+    @Override
+    public void setUp() {
+        delT = 0.005f;
+        espSqr = 500.0f;
+
+        float[] auxPositionRandom = new float[numBodies * 4];
+        float[] auxVelocityZero = new float[numBodies * 3];
+
+        for (int i = 0; i < auxPositionRandom.length; i++) {
+            auxPositionRandom[i] = (float) Math.random();
+        }
+
+        Arrays.fill(auxVelocityZero, 0.0f);
+
+        posSeq = new float[numBodies * 4];
+        velSeq = new float[numBodies * 4];
+
+        for (int i = 0; i < auxPositionRandom.length; i++) {
+            posSeq[i] = auxPositionRandom[i];
+        }
+        for (int i = 0; i < auxVelocityZero.length; i++) {
+            velSeq[i] = auxVelocityZero[i];
+        }
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] posRef = posSeq.clone();
+        final float[] velRef = velSeq.clone();
+
+        code();
+        nBody(numBodies, posRef, velRef, delT, espSqr);
+
+        return findULPDistance(posSeq, posRef) < MAX_ULP && findULPDistance(velSeq, velRef) < MAX_ULP;
+    }
+
+    @Override
+    public void code() {
+        nBodyStreams(numBodies, posSeq, velSeq, delT, espSqr);
+    }
+}
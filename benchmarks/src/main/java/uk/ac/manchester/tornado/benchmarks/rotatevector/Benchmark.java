@@ -62,4 +62,9 @@ public class Benchmark extends BenchmarkRunner {
         return new RotateTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new RotateStreams(iterations, size);
+    }
+
 }
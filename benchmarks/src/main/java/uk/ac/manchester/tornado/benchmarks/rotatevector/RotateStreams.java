@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.rotatevector;
+
+import static uk.ac.manchester.tornado.api.collections.types.FloatOps.findMaxULP;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.rotateVector;
+import static uk.ac.manchester.tornado.benchmarks.GraphicsKernels.rotateVectorStreams;
+
+import uk.ac.manchester.tornado.api.collections.types.Float3;
+import uk.ac.manchester.tornado.api.collections.types.Matrix4x4Float;
+import uk.ac.manchester.tornado.api.collections.types.VectorFloat3;
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class RotateStreams extends BenchmarkDriver {
+
+    private final int numElements;
+
+    private VectorFloat3 input,output;
+    private Matrix4x4Float m;
+
+    public RotateStreams(int iterations, int numElements) {
+        super(iterations);
+        this.numElements = numElements;
+    }
+
+    @Override
+    public void setUp() {
+        input = new VectorFloat3(numElements);
+        output = new VectorFloat3(numElements);
+
+        m = new Matrix4x4Float();
+        m.identity();
+
+        final Float3 value = new Float3(1f, 2f, 3f);
+        for (int i = 0; i < numElements; i++) {
+            input.set(i, value);
+        }
+
+    }
+
+    @Override
+    public void tearDown() {
+        input = null;
+        output = null;
+        m = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        rotateVectorStreams(output, m, input);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final VectorFloat3 result = new VectorFloat3(numElements);
+
+        code();
+        rotateVector(result, m, input);
+
+        float maxULP = 0f;
+        for (int i = 0; i < numElements; i++) {
+            maxULP = Math.max(maxULP, findMaxULP(output.get(i), result.get(i)));
+        }
+        return Float.compare(maxULP, MAX_ULP) <= 0;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
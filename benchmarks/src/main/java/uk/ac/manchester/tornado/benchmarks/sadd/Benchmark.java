@@ -60,4 +60,9 @@ public class Benchmark extends BenchmarkRunner {
         return new SaddTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new SaddStreams(iterations, size);
+    }
+
 }
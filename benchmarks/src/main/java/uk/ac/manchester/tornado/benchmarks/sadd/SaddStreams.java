@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.sadd;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sadd;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.saddStreams;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class SaddStreams extends BenchmarkDriver {
+
+    private final int numElements;
+
+    private float[] a,b,c;
+
+    public SaddStreams(int iterations, int numElements) {
+        super(iterations);
+        this.numElements = numElements;
+    }
+
+    @Override
+    public void setUp() {
+        a = new float[numElements];
+        b = new float[numElements];
+        c = new float[numElements];
+
+        for (int i = 0; i < numElements; i++) {
+            a[i] = 1;
+            b[i] = 2;
+            c[i] = 0;
+        }
+
+    }
+
+    @Override
+    public void tearDown() {
+        a = null;
+        b = null;
+        c = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        saddStreams(a, b, c);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[numElements];
+
+        code();
+        sadd(a, b, result);
+
+        final float ulp = findULPDistance(c, result);
+        return ulp < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
@@ -62,4 +62,9 @@ public class Benchmark extends BenchmarkRunner {
         return new SaxpyTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new SaxpyStreams(iterations, size);
+    }
+
 }
@@ -62,4 +62,9 @@ public class Benchmark extends BenchmarkRunner {
         return new ScopyTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new ScopyStreams(iterations, size);
+    }
+
 }
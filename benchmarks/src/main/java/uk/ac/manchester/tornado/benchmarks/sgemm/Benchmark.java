@@ -64,4 +64,9 @@ public class Benchmark extends BenchmarkRunner {
         return new SgemmTornado(iterations, width, height);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new SgemmStreams(iterations, width, height);
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.sgemm;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sgemm;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sgemmStreams;
+
+import java.util.Random;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class SgemmStreams extends BenchmarkDriver {
+
+    private final int m,n;
+
+    private float[] a,b,c;
+
+    public SgemmStreams(int iterations, int m, int n) {
+        super(iterations);
+        this.m = m;
+        this.n = n;
+    }
+
+    @Override
+    public void setUp() {
+        a = new float[m * n];
+        b = new float[m * n];
+        c = new float[m * n];
+
+        final Random random = new Random();
+
+        for (int i = 0; i < m; i++) {
+            a[i * (m + 1)] = 1;
+        }
+
+        for (int i = 0; i < m * n; i++) {
+            b[i] = random.nextFloat();
+        }
+
+    }
+
+    @Override
+    public void tearDown() {
+        a = null;
+        b = null;
+        c = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        sgemmStreams(m, n, m, a, b, c);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[m * n];
+
+        code();
+        sgemm(m, n, m, a, b, result);
+
+        final float ulp = findULPDistance(c, result);
+        return ulp < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
@@ -64,4 +64,9 @@ public class Benchmark extends BenchmarkRunner {
         return new SgemvTornado(iterations, width, height);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new SgemvStreams(iterations, width, height);
+    }
+
 }
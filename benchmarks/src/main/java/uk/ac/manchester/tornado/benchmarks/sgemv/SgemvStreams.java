@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.sgemv;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sgemv;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sgemvStreams;
+
+import java.util.Random;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class SgemvStreams extends BenchmarkDriver {
+
+    private final int m,n;
+
+    private float[] a,x,y;
+
+    public SgemvStreams(int iterations, int m, int n) {
+        super(iterations);
+        this.m = m;
+        this.n = n;
+    }
+
+    @Override
+    public void setUp() {
+        a = new float[m * n];
+        x = new float[n];
+        y = new float[n];
+
+        final Random random = new Random();
+
+        for (int i = 0; i < m; i++) {
+            a[i * (m + 1)] = 1;
+        }
+
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextFloat();
+        }
+
+    }
+
+    @Override
+    public void tearDown() {
+        a = null;
+        x = null;
+        y = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        sgemvStreams(m, n, a, x, y);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[n];
+
+        code();
+        sgemv(m, n, a, x, result);
+
+        final float ulp = findULPDistance(y, result);
+        return ulp < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
@@ -76,4 +76,9 @@ public class Benchmark extends BenchmarkRunner {
         return new SpmvTornado(iterations, matrix);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new SpmvStreams(iterations, matrix);
+    }
+
 }
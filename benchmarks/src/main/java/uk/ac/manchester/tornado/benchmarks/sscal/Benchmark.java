@@ -19,8 +19,6 @@ package uk.ac.manchester.tornado.benchmarks.sscal;
 
 import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
 import uk.ac.manchester.tornado.benchmarks.BenchmarkRunner;
-import uk.ac.manchester.tornado.benchmarks.scopy.ScopyJava;
-import uk.ac.manchester.tornado.benchmarks.scopy.ScopyTornado;
 
 public class Benchmark extends BenchmarkRunner {
 
@@ -56,12 +54,17 @@ public class Benchmark extends BenchmarkRunner {
 
     @Override
     protected BenchmarkDriver getJavaDriver() {
-        return new ScopyJava(iterations, size);
+        return new SscalJava(iterations, size);
     }
 
     @Override
     protected BenchmarkDriver getTornadoDriver() {
-        return new ScopyTornado(iterations, size);
+        return new SscalTornado(iterations, size);
+    }
+
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new SscalStreams(iterations, size);
     }
 
 }
@@ -60,4 +60,9 @@ public class Benchmark extends BenchmarkRunner {
         return new StencilTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new StencilStreams(iterations, size);
+    }
+
 }
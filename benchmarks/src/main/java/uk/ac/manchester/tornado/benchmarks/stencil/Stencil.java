@@ -17,6 +17,8 @@
  */
 package uk.ac.manchester.tornado.benchmarks.stencil;
 
+import java.util.stream.IntStream;
+
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 
 /**
@@ -54,4 +56,33 @@ public class Stencil {
             a1[i] = a0[i];
         }
     }
+
+    public static final void stencil3dStreams(int n, int sz, float[] a0, float[] a1, float fac) {
+        IntStream.range(0, n * n).parallel().forEach((int index) -> {
+            final int i = (index / n) + 1;
+            final int j = (index % n) + 1;
+            for (int k = 1; k < n + 1; k++) {
+                // @formatter:off
+                a1[i * sz * sz + j * sz + k] = (a0[i * sz * sz + (j - 1) * sz + k] + a0[i * sz * sz + (j + 1) * sz + k]
+                        + a0[(i - 1) * sz * sz + j * sz + k] + a0[(i + 1) * sz * sz + j * sz + k]
+                        + a0[(i - 1) * sz * sz + (j - 1) * sz + k] + a0[(i - 1) * sz * sz + (j + 1) * sz + k]
+                        + a0[(i + 1) * sz * sz + (j - 1) * sz + k] + a0[(i + 1) * sz * sz + (j + 1) * sz + k]
+                        + a0[i * sz * sz + (j - 1) * sz + (k - 1)] + a0[i * sz * sz + (j + 1) * sz + (k - 1)]
+                        + a0[(i - 1) * sz * sz + j * sz + (k - 1)] + a0[(i + 1) * sz * sz + j * sz + (k - 1)]
+                        + a0[(i - 1) * sz * sz + (j - 1) * sz + (k - 1)] + a0[(i - 1) * sz * sz + (j + 1) * sz + (k - 1)]
+                        + a0[(i + 1) * sz * sz + (j - 1) * sz + (k - 1)] + a0[(i + 1) * sz * sz + (j + 1) * sz + (k - 1)]
+                        + a0[i * sz * sz + (j - 1) * sz + (k + 1)] + a0[i * sz * sz + (j + 1) * sz + (k + 1)]
+                        + a0[(i - 1) * sz * sz + j * sz + (k + 1)] + a0[(i + 1) * sz * sz + j * sz + (k + 1)]
+                        + a0[(i - 1) * sz * sz + (j - 1) * sz + (k + 1)] + a0[(i - 1) * sz * sz + (j + 1) * sz + (k + 1)]
+                        + a0[(i + 1) * sz * sz + (j - 1) * sz + (k + 1)] + a0[(i + 1) * sz * sz + (j + 1) * sz + (k + 1)]
+                        + a0[i * sz * sz + j * sz + (k - 1)] + a0[i * sz * sz + j * sz + (k + 1)]) * fac;
+                // @formatter:on
+            }
+        });
+    }
+
+    public static final void copyStreams(int sz, float[] a0, float[] a1) {
+        IntStream.range(0, a0.length).parallel().forEach(i -> a1[i] = a0[i]);
+    }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.stencil;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.stencil.Stencil.copy;
+import static uk.ac.manchester.tornado.benchmarks.stencil.Stencil.copyStreams;
+import static uk.ac.manchester.tornado.benchmarks.stencil.Stencil.stencil3d;
+import static uk.ac.manchester.tornado.benchmarks.stencil.Stencil.stencil3dStreams;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class StencilStreams extends BenchmarkDriver {
+
+    private final int sz,n;
+    private final float FAC = 1 / 26;
+    private float[] a0,a1;
+
+    public StencilStreams(int iterations, int dataSize) {
+        super(iterations);
+        sz = (int) Math.cbrt(dataSize / 8) / 2;
+        n = sz - 2;
+    }
+
+    @Override
+    public void setUp() {
+        a0 = new float[sz * sz * sz];
+        a1 = new float[sz * sz * sz];
+
+        Arrays.fill(a0, 0);
+        Arrays.fill(a1, 0);
+
+        final Random rand = new Random(7);
+        for (int i = 1; i < n + 1; i++) {
+            for (int j = 1; j < n + 1; j++) {
+                for (int k = 1; k < n + 1; k++) {
+                    a0[i * sz * sz + j * sz + k] = rand.nextFloat();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void tearDown() {
+        a0 = null;
+        a1 = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        stencil3dStreams(n, sz, a0, a1, FAC);
+        copyStreams(sz, a0, a1);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] b0 = a0.clone();
+        final float[] b1 = a1.clone();
+
+        code();
+        stencil3d(n, sz, b0, b1, FAC);
+        copy(sz, b0, b1);
+
+        return findULPDistance(a0, b0) < MAX_ULP && findULPDistance(a1, b1) < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
@@ -62,4 +62,9 @@ public class Benchmark extends BenchmarkRunner {
         return new StriadTornado(iterations, size);
     }
 
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new StriadStreams(iterations, size);
+    }
+
 }
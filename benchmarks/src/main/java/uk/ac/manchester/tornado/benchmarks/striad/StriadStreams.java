@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks.striad;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.striad;
+import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.striadStreams;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+
+public class StriadStreams extends BenchmarkDriver {
+
+    private final int numElements;
+
+    private float[] x,y,z;
+    private final float alpha = 2f;
+
+    public StriadStreams(int iterations, int numElements) {
+        super(iterations);
+        this.numElements = numElements;
+    }
+
+    @Override
+    public void setUp() {
+        x = new float[numElements];
+        y = new float[numElements];
+        z = new float[numElements];
+
+        Arrays.fill(x, 1);
+        Arrays.fill(y, 2);
+
+    }
+
+    @Override
+    public void tearDown() {
+        x = null;
+        y = null;
+        z = null;
+        super.tearDown();
+    }
+
+    @Override
+    public void code() {
+        striadStreams(alpha, x, y, z);
+    }
+
+    @Override
+    public void barrier() {
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[numElements];
+
+        code();
+        striad(alpha, x, y, result);
+
+        final float ulp = findULPDistance(z, result);
+        return ulp < MAX_ULP;
+    }
+
+    public void printSummary() {
+        System.out.printf("id=java-streams, elapsed=%f, per iteration=%f\n", getElapsed(), getElapsedPerIteration());
+    }
+
+}
@@ -60,4 +60,10 @@ public class Benchmark extends BenchmarkRunner {
     protected BenchmarkDriver getTornadoDriver() {
         return new VectorMulTornado(iterations, size);
     }
+
+    @Override
+    protected BenchmarkDriver getStreamsDriver() {
+        return new VectorMulStreams(iterations, size);
+    }
+
 }
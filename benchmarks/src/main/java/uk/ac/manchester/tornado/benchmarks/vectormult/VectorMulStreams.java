@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.benchmarks.vectormult;
+
+import static uk.ac.manchester.tornado.api.collections.math.TornadoMath.findULPDistance;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkDriver;
+import uk.ac.manchester.tornado.benchmarks.ComputeKernels;
+
+public class VectorMulStreams extends BenchmarkDriver {
+
+    private int numElements;
+    private float[] a,b,c;
+
+    public VectorMulStreams(int iterations, int numElements) {
+        super(iterations);
+        this.numElements = numElements;
+    }
+
+    @Override
+    public void setUp() {
+        a = new float[numElements];
+        b = new float[numElements];
+        c = new float[numElements];
+
+        Arrays.fill(a, 3);
+        Arrays.fill(b, 2);
+        Arrays.fill(c, 0);
+
+    }
+
+    @Override
+    public boolean validate() {
+        final float[] result = new float[numElements];
+
+        code();
+        ComputeKernels.vectorMultiply(a, b, result);
+
+        final float ulp = findULPDistance(c, result);
+        return ulp < MAX_ULP;
+    }
+
+    @Override
+    public void code() {
+        ComputeKernels.vectorMultiplyStreams(a, b, c);
+    }
+}
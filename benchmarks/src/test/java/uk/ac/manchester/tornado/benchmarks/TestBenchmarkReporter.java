@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.benchmarks.BenchmarkReporter.Verdict;
+
+/**
+ * The pass/fail decision against a baseline, with the bootstrap seeded so
+ * that the decisions are reproducible.
+ */
+public class TestBenchmarkReporter {
+
+    private static final double THRESHOLD = 0.05;
+
+    private static double[] normal(int n, double mean, double stddev, long seed) {
+        final Random random = new Random(seed);
+        final double[] samples = new double[n];
+        for (int i = 0; i < n; i++) {
+            samples[i] = mean + stddev * random.nextGaussian();
+        }
+        return samples;
+    }
+
+    private static Verdict compare(double[] baseline, double[] current) {
+        return BenchmarkReporter.verdict(new Bootstrap(2000, 0.95, 42).ratioInterval(baseline, current), THRESHOLD);
+    }
+
+    @Test
+    public void testVerdictBounds() {
+        assertEquals(Verdict.REGRESSION, BenchmarkReporter.verdict(new double[] { 1.06, 1.2 }, THRESHOLD));
+        assertEquals(Verdict.UNCHANGED, BenchmarkReporter.verdict(new double[] { 1.04, 1.2 }, THRESHOLD));
+        assertEquals(Verdict.UNCHANGED, BenchmarkReporter.verdict(new double[] { 0.97, 1.03 }, THRESHOLD));
+        assertEquals(Verdict.UNCHANGED, BenchmarkReporter.verdict(new double[] { 0.8, 0.96 }, THRESHOLD));
+        assertEquals(Verdict.IMPROVEMENT, BenchmarkReporter.verdict(new double[] { 0.8, 0.94 }, THRESHOLD));
+    }
+
+    @Test
+    public void testSlowerIsRegression() {
+        assertEquals(Verdict.REGRESSION, compare(normal(50, 100, 3, 1), normal(50, 120, 3, 2)));
+    }
+
+    @Test
+    public void testFasterIsImprovement() {
+        assertEquals(Verdict.IMPROVEMENT, compare(normal(50, 100, 3, 1), normal(50, 80, 3, 2)));
+    }
+
+    @Test
+    public void testSameDistributionIsUnchanged() {
+        assertEquals(Verdict.UNCHANGED, compare(normal(50, 100, 3, 1), normal(50, 100, 3, 2)));
+    }
+
+    @Test
+    public void testNoisySlowdownWithinConfidenceIsUnchanged() {
+        // 8% slower on average, but too noisy to be sure it is beyond 5%
+        assertEquals(Verdict.UNCHANGED, compare(normal(10, 100, 30, 1), normal(10, 108, 30, 2)));
+    }
+}
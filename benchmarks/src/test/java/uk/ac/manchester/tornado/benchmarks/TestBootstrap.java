@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestBootstrap {
+
+    private static final long SEED = 42;
+
+    private static double[] normal(int n, double mean, double stddev, long seed) {
+        final Random random = new Random(seed);
+        final double[] samples = new double[n];
+        for (int i = 0; i < n; i++) {
+            samples[i] = mean + stddev * random.nextGaussian();
+        }
+        return samples;
+    }
+
+    @Test
+    public void testSameSeedSameInterval() {
+        final double[] samples = normal(50, 100, 10, 1);
+        final double[] first = new Bootstrap(2000, 0.95, SEED).meanInterval(samples);
+        final double[] second = new Bootstrap(2000, 0.95, SEED).meanInterval(samples);
+        assertArrayEquals(first, second, 0);
+    }
+
+    @Test
+    public void testMeanIntervalContainsMean() {
+        final double[] samples = normal(100, 100, 10, 2);
+        double mean = 0;
+        for (double sample : samples) {
+            mean += sample;
+        }
+        mean /= samples.length;
+
+        final double[] interval = new Bootstrap(2000, 0.95, SEED).meanInterval(samples);
+        assertTrue(interval[0] < mean);
+        assertTrue(interval[1] > mean);
+        // close to the normal approximation, 1.96 * 10 / sqrt(100)
+        final double halfWidth = (interval[1] - interval[0]) / 2;
+        assertEquals(1.96, halfWidth, 0.5);
+    }
+
+    @Test
+    public void testHigherConfidenceWiderInterval() {
+        final double[] samples = normal(100, 100, 10, 3);
+        final double[] narrow = new Bootstrap(2000, 0.80, SEED).meanInterval(samples);
+        final double[] wide = new Bootstrap(2000, 0.99, SEED).meanInterval(samples);
+        assertTrue(wide[0] < narrow[0]);
+        assertTrue(wide[1] > narrow[1]);
+    }
+
+    @Test
+    public void testConstantSamples() {
+        final double[] samples = { 5, 5, 5, 5, 5 };
+        assertArrayEquals(new double[] { 5, 5 }, new Bootstrap(500, 0.95, SEED).meanInterval(samples), 0);
+        assertArrayEquals(new double[] { 1, 1 }, new Bootstrap(500, 0.95, SEED).ratioInterval(samples, samples), 0);
+    }
+
+    @Test
+    public void testRatioInterval() {
+        final double[] baseline = normal(100, 100, 5, 4);
+        final double[] current = normal(100, 120, 5, 5);
+        final double[] ratio = new Bootstrap(2000, 0.95, SEED).ratioInterval(baseline, current);
+        assertTrue(ratio[0] <= ratio[1]);
+        assertTrue(ratio[0] > 1.15);
+        assertTrue(ratio[1] < 1.25);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The {@code latency + bytes / bandwidth} fit of the device profiles, on
+ * synthetic timings.
+ */
+public class TestDeviceCharacterisation {
+
+    private static final double LATENCY = 10000;
+    private static final double BANDWIDTH = 8;
+
+    /*
+     * Transfer times from 8 bytes to 1 GB, doubling the size, with each time
+     * multiplied by a random factor in [1 - noise, 1 + noise].
+     */
+    private static List<double[]> sweep(double latency, double bandwidth, double noise, long seed) {
+        final Random random = new Random(seed);
+        final List<double[]> points = new ArrayList<>();
+        for (long bytes = 8; bytes <= (1L << 30); bytes <<= 1) {
+            final double time = (latency + bytes / bandwidth) * (1 + noise * (2 * random.nextDouble() - 1));
+            points.add(new double[] { bytes, time });
+        }
+        return points;
+    }
+
+    @Test
+    public void testExactTimings() {
+        final double[] fit = DeviceCharacterisation.fit(sweep(LATENCY, BANDWIDTH, 0, 1));
+        assertEquals(LATENCY, fit[0], LATENCY * 1e-6);
+        assertEquals(1 / BANDWIDTH, fit[1], 1e-9);
+    }
+
+    @Test
+    public void testNoisyTimings() {
+        for (long seed = 1; seed <= 10; seed++) {
+            final double[] fit = DeviceCharacterisation.fit(sweep(LATENCY, BANDWIDTH, 0.05, seed));
+            assertEquals(LATENCY, fit[0], LATENCY * 0.05);
+            assertEquals(1 / BANDWIDTH, fit[1], 0.05 / BANDWIDTH);
+        }
+    }
+
+    /**
+     * The small sizes determine the latency even when it is many orders of
+     * magnitude below the time of the largest transfers.
+     */
+    @Test
+    public void testSmallLatency() {
+        final double[] fit = DeviceCharacterisation.fit(sweep(100, 16, 0.02, 3));
+        assertEquals(100, fit[0], 100 * 0.05);
+        assertEquals(1.0 / 16, fit[1], 0.02 / 16);
+    }
+
+    @Test
+    public void testNegativeInterceptIsClamped() {
+        final List<double[]> points = new ArrayList<>();
+        for (int x = 10; x <= 100; x += 10) {
+            points.add(new double[] { x, 2 * x - 5 });
+        }
+        final double[] fit = DeviceCharacterisation.fit(points);
+        assertEquals(0, fit[0], 0);
+        assertEquals(2, fit[1], 1e-9);
+    }
+
+    @Test
+    public void testSinglePoint() {
+        final List<double[]> points = new ArrayList<>();
+        points.add(new double[] { 1024, 500 });
+        assertArrayEquals(new double[] { 500, 0 }, DeviceCharacterisation.fit(points), 1e-9);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.benchmarks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestJson {
+
+    @Test
+    public void testQuoteEscapes() {
+        assertEquals("\"plain\"", Json.quote("plain"));
+        assertEquals("\"a\\\"b\"", Json.quote("a\"b"));
+        assertEquals("\"a\\\\b\"", Json.quote("a\\b"));
+        assertEquals("\"a\\nb\\rc\\td\"", Json.quote("a\nb\rc\td"));
+        assertEquals("\"\\u0001\"", Json.quote("\u0001"));
+        assertEquals("null", Json.quote(null));
+    }
+
+    @Test
+    public void testQuoteRoundTrip() {
+        for (String value : Arrays.asList("", "plain", "quote \" and backslash \\", "lines\n\r\t", "control \u0000\u001f", "unicode \u00e9\u4e2d", "-Dflag=\"a b\" C:\\path")) {
+            assertEquals(value, Json.parse(Json.quote(value)));
+        }
+    }
+
+    @Test
+    public void testNumbers() {
+        assertEquals("1.5", Json.number(1.5));
+        assertEquals("null", Json.number(Double.NaN));
+        assertEquals("null", Json.number(Double.POSITIVE_INFINITY));
+        assertEquals(1.5e-9, (Double) Json.parse(Json.number(1.5e-9)), 0);
+        assertEquals(-42.0, (Double) Json.parse("-42"), 0);
+        assertNull(Json.parse(Json.number(Double.NaN)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testParse() {
+        final Map<String, Object> object = (Map<String, Object>) Json.parse(" { \"a\" : [1, 2.5, true, false, null], \"b\" : { }, \"c\" : [] } ");
+        assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList(object.keySet().toArray()));
+        assertEquals(Arrays.asList(1.0, 2.5, true, false, null), object.get("a"));
+        assertTrue(((Map<String, Object>) object.get("b")).isEmpty());
+        assertTrue(((List<Object>) object.get("c")).isEmpty());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTrailingCharacters() {
+        Json.parse("{} x");
+    }
+
+    @Test
+    public void testResultRoundTrip() {
+        final double[] samples = { 1.0e-3, 1.2e-3, 0.9e-3, 1.1e-3 };
+        final BenchmarkResult result = new BenchmarkResult("saxpy", "saxpy-100-1024", "0:0", "GPU \"x\"", "platform", "driver", true, samples);
+        result.setConfidenceInterval(new double[] { 0.95e-3, 1.1e-3 });
+        final Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("jvmFlags", "-Dtornado.benchmarks.report=out.json -Dpath=C:\\tmp");
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> json = (Map<String, Object>) Json.parse(result.toJson(environment));
+        assertEquals(0.95e-3, (Double) json.get("ciLower"), 0);
+        assertEquals(environment, json.get("environment"));
+
+        final BenchmarkResult parsed = BenchmarkResult.fromJson(json);
+        assertEquals(result.getKey(), parsed.getKey());
+        assertEquals(result.getDevice(), parsed.getDevice());
+        assertEquals(result.isValid(), parsed.isValid());
+        assertArrayEquals(samples, parsed.getSamples(), 0);
+        assertEquals(result.getMean(), parsed.getMean(), 0);
+    }
+}
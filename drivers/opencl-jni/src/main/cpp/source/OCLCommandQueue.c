@@ -269,3 +269,62 @@ JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQ
 
     return (jlong) event;
 }
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    clEnqueueCopyBuffer
+ * Signature: (JJJJJJ[J)J
+ */
+JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueCopyBuffer
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong src_buffer, jlong dst_buffer, jlong src_offset, jlong dst_offset, jlong cb, jlongArray array) {
+    OPENCL_PROLOGUE;
+
+    OPENCL_DECODE_WAITLIST(array, events, len);
+
+    cl_event event;
+    OPENCL_SOFT_ERROR("clEnqueueCopyBuffer",
+            clEnqueueCopyBuffer((cl_command_queue) queue_id, (cl_mem) src_buffer, (cl_mem) dst_buffer, (size_t) src_offset, (size_t) dst_offset, (size_t) cb, (cl_uint) len, (cl_event *) events, &event), 0);
+
+    OPENCL_RELEASE_WAITLIST(array)
+
+    return (jlong) event;
+}
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    clEnqueueMapBuffer
+ * Signature: (JJZJJJ[J)J
+ */
+JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueMapBuffer
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong buffer, jboolean blocking, jlong map_flags, jlong offset, jlong cb, jlongArray array) {
+    OPENCL_PROLOGUE;
+
+    OPENCL_DECODE_WAITLIST(array, events, len);
+
+    void *host_ptr = clEnqueueMapBuffer((cl_command_queue) queue_id, (cl_mem) buffer, blocking ? CL_TRUE : CL_FALSE, (cl_map_flags) map_flags, (size_t) offset, (size_t) cb, (cl_uint) len, (cl_event *) events, NULL, &error_id);
+
+    // The wait list is a critical region: release it before raising errors
+    OPENCL_RELEASE_WAITLIST(array);
+
+    OPENCL_ERROR("clEnqueueMapBuffer", error_id, 0);
+
+    return (jlong) host_ptr;
+}
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    clEnqueueUnmapMemObject
+ * Signature: (JJJ[J)V
+ */
+JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueUnmapMemObject
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong buffer, jlong host_ptr, jlongArray array) {
+    OPENCL_PROLOGUE;
+
+    OPENCL_DECODE_WAITLIST(array, events, len);
+
+    cl_int status = clEnqueueUnmapMemObject((cl_command_queue) queue_id, (cl_mem) buffer, (void *) host_ptr, (cl_uint) len, (cl_event *) events, NULL);
+
+    OPENCL_RELEASE_WAITLIST(array);
+
+    OPENCL_ERROR("clEnqueueUnmapMemObject", status,);
+}
@@ -281,6 +281,30 @@ extern "C" {
     JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clFinish
     (JNIEnv *, jclass, jlong);
 
+    /*
+     * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+     * Method:    clEnqueueCopyBuffer
+     * Signature: (JJJJJJ[J)J
+     */
+    JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueCopyBuffer
+    (JNIEnv *, jclass, jlong, jlong, jlong, jlong, jlong, jlong, jlongArray);
+
+    /*
+     * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+     * Method:    readBufferToHost
+     * Signature: (JJZJJJ[J)J
+     */
+    JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_readBufferToHost
+    (JNIEnv *, jclass, jlong, jlong, jboolean, jlong, jlong, jlong, jlongArray);
+
+    /*
+     * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+     * Method:    writeBufferFromHost
+     * Signature: (JJZJJJ[J)J
+     */
+    JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_writeBufferFromHost
+    (JNIEnv *, jclass, jlong, jlong, jboolean, jlong, jlong, jlong, jlongArray);
+
 #ifdef __cplusplus
 }
 #endif
@@ -292,6 +316,22 @@ extern "C" {
 #ifdef __cplusplus
 extern "C" {
 #endif
+    /*
+     * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+     * Method:    clEnqueueMapBuffer
+     * Signature: (JJZJJJ[J)J
+     */
+    JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueMapBuffer
+    (JNIEnv *, jclass, jlong, jlong, jboolean, jlong, jlong, jlong, jlongArray);
+
+    /*
+     * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+     * Method:    clEnqueueUnmapMemObject
+     * Signature: (JJJ[J)V
+     */
+    JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_clEnqueueUnmapMemObject
+    (JNIEnv *, jclass, jlong, jlong, jlong, jlongArray);
+
 #ifdef __cplusplus
 }
 #endif
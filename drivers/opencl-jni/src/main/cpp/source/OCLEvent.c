@@ -111,3 +111,48 @@ JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLEvent_clR
     OPENCL_SOFT_ERROR("clReleaseEvent",
             clReleaseEvent((const cl_event) event),);
 }
+
+static JavaVM *callback_vm = NULL;
+
+/*
+ * Invoked by the OpenCL runtime, on one of its own threads, once the event
+ * reaches CL_COMPLETE or fails. The listener is a global reference created in
+ * clSetEventCallback and is released here.
+ */
+static void CL_CALLBACK event_completed(cl_event event, cl_int status, void *user_data) {
+    JNIEnv *env;
+    jobject listener = (jobject) user_data;
+    if ((*callback_vm)->AttachCurrentThreadAsDaemon(callback_vm, (void **) &env, NULL) != JNI_OK) {
+        printf("[ERROR] OpenCL event callback: unable to attach thread\n");
+        return;
+    }
+    jclass clazz = (*env)->GetObjectClass(env, listener);
+    jmethodID method = (*env)->GetMethodID(env, clazz, "onComplete", "(I)V");
+    if (method != NULL) {
+        (*env)->CallVoidMethod(env, listener, method, (jint) status);
+    }
+    if ((*env)->ExceptionCheck(env)) {
+        (*env)->ExceptionDescribe(env);
+        (*env)->ExceptionClear(env);
+    }
+    (*env)->DeleteGlobalRef(env, listener);
+}
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLEvent
+ * Method:    clSetEventCallback
+ * Signature: (JLuk/ac/manchester/tornado/drivers/opencl/OCLEvent/CompletionListener;)V
+ */
+JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLEvent_clSetEventCallback
+(JNIEnv *env, jclass clazz, jlong event, jobject listener) {
+    OPENCL_PROLOGUE;
+    if (callback_vm == NULL) {
+        (*env)->GetJavaVM(env, &callback_vm);
+    }
+    jobject global_listener = (*env)->NewGlobalRef(env, listener);
+    cl_int status = clSetEventCallback((cl_event) event, CL_COMPLETE, &event_completed, (void *) global_listener);
+    if (status != CL_SUCCESS) {
+        (*env)->DeleteGlobalRef(env, global_listener);
+    }
+    OPENCL_ERROR("clSetEventCallback", status,);
+}
@@ -63,6 +63,14 @@ extern "C" {
     JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLEvent_clReleaseEvent
     (JNIEnv *, jclass, jlong);
 
+    /*
+     * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLEvent
+     * Method:    clSetEventCallback
+     * Signature: (JLuk/ac/manchester/tornado/drivers/opencl/OCLEvent/CompletionListener;)V
+     */
+    JNIEXPORT void JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLEvent_clSetEventCallback
+    (JNIEnv *, jclass, jlong, jobject);
+
 #ifdef __cplusplus
 }
 #endif
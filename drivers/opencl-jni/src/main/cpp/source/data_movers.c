@@ -111,7 +111,7 @@ WRITE_ARRAY(Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue, D, dou
                 printf("uk.ac.manchester.tornado.drivers.opencl> read array 0x%lx (%d bytes) to %p\n",offset, num_bytes, buffer);\
             }\
             cl_event event; \
-            cl_int status = clEnqueueReadBuffer((cl_command_queue) queue_id, (cl_mem) device_ptr, blocking, (size_t) offset, (size_t) num_bytes, &buffer[hostOffset], (cl_uint) num_events, (cl_event*) events, &event);\
+            cl_int status = clEnqueueReadBuffer((cl_command_queue) queue_id, (cl_mem) device_ptr, blocking_read, (size_t) offset, (size_t) num_bytes, &buffer[hostOffset], (cl_uint) num_events, (cl_event*) events, &event);\
             if (status != CL_SUCCESS) {\
                 printf("[ERROR] clEnqueueReadBuffer, code = %d\n", status);\
                 if (status == CL_MEM_OBJECT_ALLOCATION_FAILURE) {\
@@ -134,3 +134,49 @@ READ_ARRAY(Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue, I, int)
 READ_ARRAY(Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue, J, long)
 READ_ARRAY(Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue, F, float)
 READ_ARRAY(Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue, D, double)
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    readBufferToHost
+ * Signature: (JJZJJJ[J)J
+ */
+JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_readBufferToHost
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong host_ptr, jboolean blocking, jlong offset, jlong cb, jlong device_ptr, jlongArray array) {
+    OPENCL_PROLOGUE;
+    cl_bool blocking_read = blocking ? CL_TRUE : CL_FALSE;
+    OPENCL_DECODE_WAITLIST(array, events, num_events)
+    if (PRINT_DATA_SIZES) {
+        printf("uk.ac.manchester.tornado.drivers.opencl> read buffer 0x%lx (%ld bytes) to %p\n", offset, cb, (void *) host_ptr);
+    }
+    cl_event event;
+    cl_int status = clEnqueueReadBuffer((cl_command_queue) queue_id, (cl_mem) device_ptr, blocking_read, (size_t) offset, (size_t) cb, (void *) host_ptr, (cl_uint) num_events, (cl_event*) events, &event);
+    if (status != CL_SUCCESS) {
+        printf("[ERROR] clEnqueueReadBuffer (staging), code = %d\n", status);
+    }
+    OPENCL_SOFT_ERROR("clEnqueueReadBuffer (staging)", status, -1);
+    OPENCL_RELEASE_WAITLIST(array);
+    return (jlong) event;
+}
+
+/*
+ * Class:     uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue
+ * Method:    writeBufferFromHost
+ * Signature: (JJZJJJ[J)J
+ */
+JNIEXPORT jlong JNICALL Java_uk_ac_manchester_tornado_drivers_opencl_OCLCommandQueue_writeBufferFromHost
+(JNIEnv *env, jclass clazz, jlong queue_id, jlong host_ptr, jboolean blocking, jlong offset, jlong cb, jlong device_ptr, jlongArray array) {
+    OPENCL_PROLOGUE;
+    cl_bool blocking_write = blocking ? CL_TRUE : CL_FALSE;
+    OPENCL_DECODE_WAITLIST(array, events, num_events)
+    if (PRINT_DATA_SIZES) {
+        printf("uk.ac.manchester.tornado.drivers.opencl> write buffer 0x%lx (%ld bytes) from %p\n", offset, cb, (void *) host_ptr);
+    }
+    cl_event event;
+    cl_int status = clEnqueueWriteBuffer((cl_command_queue) queue_id, (cl_mem) device_ptr, blocking_write, (size_t) offset, (size_t) cb, (void *) host_ptr, (cl_uint) num_events, (cl_event*) events, &event);
+    if (status != CL_SUCCESS) {
+        printf("[ERROR] clEnqueueWriteBuffer (staging), code = %d\n", status);
+    }
+    OPENCL_SOFT_ERROR("clEnqueueWriteBuffer (staging)", status, -1);
+    OPENCL_RELEASE_WAITLIST(array);
+    return (jlong) event;
+}
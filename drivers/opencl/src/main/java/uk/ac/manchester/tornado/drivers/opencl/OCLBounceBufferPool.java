@@ -0,0 +1,138 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+
+/**
+ * Pool of pinned host buffers used to stage device-to-device copies between
+ * devices that do not share an OpenCL context. Each buffer is allocated by the
+ * driver of the destination device with CL_MEM_ALLOC_HOST_PTR and stays mapped
+ * while it is pooled, so both the read from the source and the write to the
+ * destination use page-locked memory and never touch the Java heap. Buffers
+ * are bucketed by destination and power-of-two capacity.
+ */
+public final class OCLBounceBufferPool {
+
+    private static final long MIN_CAPACITY = 64 * 1024;
+    private static final int MAX_BUFFERS_PER_SIZE = Integer.parseInt(getProperty("tornado.opencl.bouncebuffers.max", "4"));
+
+    private static final Map<OCLDeviceContext, Map<Long, ArrayDeque<BounceBuffer>>> FREE_BUFFERS = new HashMap<>();
+
+    public static final class BounceBuffer {
+
+        private final OCLDeviceContext owner;
+        private final long buffer;
+        private final long address;
+        private final long capacity;
+
+        private BounceBuffer(OCLDeviceContext owner, long buffer, long address, long capacity) {
+            this.owner = owner;
+            this.buffer = buffer;
+            this.address = address;
+            this.capacity = capacity;
+        }
+
+        public long getAddress() {
+            return address;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+    }
+
+    private OCLBounceBufferPool() {
+    }
+
+    private static long capacityFor(long bytes) {
+        long capacity = MIN_CAPACITY;
+        while (capacity < bytes) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static ArrayDeque<BounceBuffer> freeBuffers(OCLDeviceContext owner, long capacity) {
+        return FREE_BUFFERS.computeIfAbsent(owner, k -> new HashMap<>()).computeIfAbsent(capacity, k -> new ArrayDeque<>());
+    }
+
+    /**
+     * @param owner
+     *            device the staged data is written to; the buffer is pinned by
+     *            its driver
+     */
+    public static synchronized BounceBuffer acquire(OCLDeviceContext owner, long bytes) {
+        final long capacity = capacityFor(bytes);
+        final ArrayDeque<BounceBuffer> buffers = freeBuffers(owner, capacity);
+        if (!buffers.isEmpty()) {
+            return buffers.pop();
+        }
+
+        final long buffer = owner.getPlatformContext().createHostBuffer(capacity);
+        if (buffer == 0) {
+            throw new TornadoInternalError("Unable to allocate bounce buffer");
+        }
+        final long address = owner.mapHostBuffer(buffer, capacity);
+        if (address == 0) {
+            owner.getPlatformContext().releaseBuffer(buffer);
+            throw new TornadoInternalError("Unable to map bounce buffer");
+        }
+        return new BounceBuffer(owner, buffer, address, capacity);
+    }
+
+    public static synchronized void release(BounceBuffer buffer) {
+        final ArrayDeque<BounceBuffer> buffers = freeBuffers(buffer.owner, buffer.capacity);
+        if (buffers.size() < MAX_BUFFERS_PER_SIZE) {
+            buffers.push(buffer);
+        } else {
+            free(buffer);
+        }
+    }
+
+    /**
+     * Frees the pooled buffers of a device, e.g. when its context is reset.
+     */
+    public static synchronized void releaseAll(OCLDeviceContext owner) {
+        final Map<Long, ArrayDeque<BounceBuffer>> buffers = FREE_BUFFERS.remove(owner);
+        if (buffers != null) {
+            for (ArrayDeque<BounceBuffer> bucket : buffers.values()) {
+                for (BounceBuffer buffer : bucket) {
+                    free(buffer);
+                }
+            }
+        }
+    }
+
+    private static void free(BounceBuffer buffer) {
+        buffer.owner.unmapHostBuffer(buffer.buffer, buffer.address);
+        buffer.owner.getPlatformContext().releaseBuffer(buffer.buffer);
+    }
+}
@@ -68,6 +68,7 @@ public class OCLCodeCache {
     private static final String FALSE = "False";
     private static final String BASH = "bash";
     private final String OPENCL_SOURCE_SUFFIX = ".cl";
+    private final String OPENCL_OPTIONS_SUFFIX = ".options";
     private final boolean OPENCL_CACHE_ENABLE = Boolean.parseBoolean(getProperty("tornado.opencl.codecache.enable", FALSE));
     private final boolean OPENCL_DUMP_BINS = Boolean.parseBoolean(getProperty("tornado.opencl.codecache.dump", FALSE));
     private final boolean OPENCL_DUMP_SOURCE = Boolean.parseBoolean(getProperty("tornado.opencl.source.dump", FALSE));
@@ -314,19 +315,51 @@ public class OCLCodeCache {
 
     }
 
+    /**
+     * Appends the flags implied by the relaxed-math level of the task to the
+     * user-provided compiler flags.
+     */
+    private static String composeCompilerFlags(TaskMetaData meta) {
+        final StringJoiner flags = new StringJoiner(" ");
+        if (meta.getCompilerFlags() != null && !meta.getCompilerFlags().isEmpty()) {
+            flags.add(meta.getCompilerFlags());
+        }
+        switch (meta.getMathPrecision()) {
+            case MAD:
+                flags.add("-cl-mad-enable");
+                break;
+            case HALF:
+            case NATIVE:
+                flags.add("-cl-mad-enable");
+                flags.add("-cl-fast-relaxed-math");
+                break;
+            default:
+                break;
+        }
+        return flags.toString();
+    }
+
     public OCLInstalledCode installSource(TaskMetaData meta, String id, String entryPoint, byte[] source) {
 
         info("Installing code for %s into code cache", entryPoint);
         final OCLProgram program = deviceContext.createProgramWithSource(source, new long[] { source.length });
 
-        if (OPENCL_DUMP_SOURCE) {
-            final Path outDir = resolveSourceDirectory();
+        final String buildOptions = composeCompilerFlags(meta);
+        if (OPENCL_DUMP_SOURCE || meta.shouldDumpKernelSource()) {
+            final Path outDir = resolveDirectory(meta.getKernelSourceDirectory());
             File file = new File(outDir + "/" + id + "-" + entryPoint + OPENCL_SOURCE_SUFFIX);
             try (FileOutputStream fos = new FileOutputStream(file)) {
                 fos.write(source);
             } catch (IOException e) {
                 error("unable to dump source: ", e.getMessage());
             }
+            // the build options are kept next to the source they apply to
+            File options = new File(outDir + "/" + id + "-" + entryPoint + OPENCL_OPTIONS_SUFFIX);
+            try (FileOutputStream fos = new FileOutputStream(options)) {
+                fos.write(buildOptions.getBytes());
+            } catch (IOException e) {
+                error("unable to dump build options: ", e.getMessage());
+            }
         }
 
         if (Tornado.ACCELERATOR_IS_FPGA) {
@@ -340,7 +373,7 @@ public class OCLCodeCache {
 
         // TODO add support for passing compiler optimisation flags here
         final long t0 = System.nanoTime();
-        program.build(meta.getCompilerFlags());
+        program.build(buildOptions);
         final long t1 = System.nanoTime();
 
         final OCLBuildStatus status = program.getStatus(deviceContext.getDeviceId());
@@ -502,6 +535,10 @@ public class OCLCodeCache {
         return lookupCode;
     }
 
+    public int size() {
+        return cache.size();
+    }
+
     public boolean isCached(String id, String entryPoint) {
         return cache.containsKey(id + "-" + entryPoint);
     }
@@ -26,9 +26,15 @@
 package uk.ac.manchester.tornado.drivers.opencl;
 
 import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
+import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandExecutionStatus.CL_COMPLETE;
 import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueInfo.CL_QUEUE_CONTEXT;
 import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueInfo.CL_QUEUE_DEVICE;
+import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLEventInfo.CL_EVENT_COMMAND_EXECUTION_STATUS;
+import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLProfilingInfo.CL_PROFILING_COMMAND_END;
+import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLProfilingInfo.CL_PROFILING_COMMAND_QUEUED;
+import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLProfilingInfo.CL_PROFILING_COMMAND_START;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_OOO_EXECUTION;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_PROFILING;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.EVENT_WINDOW;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.MARKER_USE_BARRIER;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.MAX_WAIT_EVENTS;
@@ -37,15 +43,29 @@ import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.List;
 
 import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLProfilingInfo;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.runtime.EmptyEvent;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 
+/**
+ * The in-order OpenCL command queue of a device, with the window of events
+ * of the commands enqueued on it.
+ *
+ * <p>
+ * All task-schedules running on a device share this queue, whichever thread
+ * executes them. Submission is serialised on the queue's monitor: the wait
+ * list of a command is built, the command enqueued and its event registered
+ * while holding it. Threads can therefore execute schedules on the same
+ * device at the same time, but their commands reach the device one after
+ * another and in the order they were submitted.
+ * </p>
+ */
 public class OCLCommandQueue extends TornadoLogger {
 
     protected static final Event EMPTY_EVENT = new EmptyEvent();
@@ -68,7 +88,10 @@ public class OCLCommandQueue extends TornadoLogger {
             "readFromDevice - float[]", 
             "readFromDevice - double[]", 
             "sync - marker", 
-            "sync - barrier" 
+            "sync - barrier", 
+            "copyBuffer - device", 
+            "readFromDevice - staging", 
+            "writeToDevice - staging" 
             };
     // @formatter:on
 
@@ -88,25 +111,31 @@ public class OCLCommandQueue extends TornadoLogger {
     protected static final int DESC_READ_DOUBLE = 13;
     protected static final int DESC_SYNC_MARKER = 14;
     protected static final int DESC_SYNC_BARRIER = 15;
+    protected static final int DESC_COPY_BUFFER = 16;
+    protected static final int DESC_READ_STAGING = 17;
+    protected static final int DESC_WRITE_STAGING = 18;
+
+    private static final long CL_MAP_READ = 1;
+    private static final long CL_MAP_WRITE = 1 << 1;
 
     private final long[] waitEventsBuffer;
 
     private final long id;
     private final ByteBuffer buffer;
+    private final ByteBuffer eventInfo;
     private final long properties;
     protected long[] events;
     protected final long[][] eventsBuffers;
     protected final int[] descriptors;
     protected final long[] tags;
-    protected final BitSet retain;
+    protected final int[] retain;
+    private final OCLEvent[] eventPool;
     private int eventIndex;
     private final int openclVersion;
 
     private int eventsBufferIndex;
     private int eventMark;
 
-    private final OCLEvent internalEvent;
-
     private static final boolean CIRCULAR_EVENTS = Boolean.parseBoolean(getProperty("tornado.opencl.circularevents", "True"));
 
     public OCLCommandQueue(long id, long properties, int version) {
@@ -114,9 +143,11 @@ public class OCLCommandQueue extends TornadoLogger {
         this.properties = properties;
         this.buffer = ByteBuffer.allocate(128);
         this.buffer.order(OpenCL.BYTE_ORDER);
+        this.eventInfo = ByteBuffer.allocate(8);
+        this.eventInfo.order(OpenCL.BYTE_ORDER);
         this.eventsBuffers = new long[NUM_EVENTS_BUFFERS][EVENT_WINDOW];
-        this.retain = new BitSet(EVENT_WINDOW);
-        this.retain.clear();
+        this.retain = new int[EVENT_WINDOW];
+        this.eventPool = new OCLEvent[EVENT_WINDOW];
         this.eventsBufferIndex = 0;
         this.events = eventsBuffers[eventsBufferIndex];
         this.descriptors = new int[EVENT_WINDOW];
@@ -125,7 +156,6 @@ public class OCLCommandQueue extends TornadoLogger {
         this.eventMark = -1;
         this.openclVersion = version;
         this.waitEventsBuffer = new long[MAX_WAIT_EVENTS];
-        this.internalEvent = new OCLEvent(this, 0, 0);
     }
 
     native static void clReleaseCommandQueue(long queueId) throws OCLException;
@@ -185,6 +215,19 @@ public class OCLCommandQueue extends TornadoLogger {
 
     native static long readArrayFromDevice(long queueId, double[] buffer, long hostOffset, boolean blocking, long offset, long bytes, long ptr, long[] events) throws OCLException;
 
+    /*
+     * device-to-device and staging transfers
+     */
+    native static long clEnqueueCopyBuffer(long queueId, long srcBuffer, long dstBuffer, long srcOffset, long dstOffset, long bytes, long[] events) throws OCLException;
+
+    native static long readBufferToHost(long queueId, long hostPointer, boolean blocking, long offset, long bytes, long ptr, long[] events) throws OCLException;
+
+    native static long writeBufferFromHost(long queueId, long hostPointer, boolean blocking, long offset, long bytes, long ptr, long[] events) throws OCLException;
+
+    native static long clEnqueueMapBuffer(long queueId, long buffer, boolean blocking, long mapFlags, long offset, long bytes, long[] events) throws OCLException;
+
+    native static void clEnqueueUnmapMemObject(long queueId, long buffer, long hostPointer, long[] events) throws OCLException;
+
     /*
      * for OpenCL 1.1 compatibility
      */
@@ -205,48 +248,122 @@ public class OCLCommandQueue extends TornadoLogger {
 
     native static void clFinish(long queueId) throws OCLException;
 
-    public Event resolveEvent(int event) {
+    /*
+     * Event handles are immutable and cached per slot, so resolving the same
+     * event again does not allocate. A new handle is created once the slot
+     * holds a different event; handles to the old one keep pointing to it.
+     * Callers that keep an event past the execution that produced it should
+     * retain it, so its slot is not reused.
+     */
+    public synchronized Event resolveEvent(int event) {
         if (event == -1) {
             return EMPTY_EVENT;
         }
-        return new OCLEvent(this, event, events[event]);
+        OCLEvent result = eventPool[event];
+        if (result == null || result.getId() != events[event]) {
+            result = new OCLEvent(this, event, events[event]);
+            eventPool[event] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Drops the retain an execution holds on each of its events and releases
+     * the OpenCL events that are not retained by anything else, e.g. the
+     * completion event of a task-schedule.
+     */
+    public synchronized void freeEvents(int[] slots, int count) {
+        for (int i = 0; i < count; i++) {
+            final int slot = slots[i];
+            if (retain[slot] > 0) {
+                retain[slot]--;
+            }
+            if (retain[slot] != 0 || events[slot] <= 0) {
+                continue;
+            }
+            try {
+                OCLEvent.clReleaseEvent(events[slot]);
+            } catch (OCLException e) {
+                error(e.getMessage());
+            }
+            events[slot] = 0;
+            eventPool[slot] = null;
+        }
     }
 
-    public void markEvent() {
+    /**
+     * Reads the queued, start and end time of a completed event, without
+     * creating a handle for it.
+     */
+    public synchronized boolean readEventTimes(int slot, long[] times) {
+        final long eventId = events[slot];
+        if (!ENABLE_PROFILING || eventId <= 0) {
+            return false;
+        }
+        try {
+            eventInfo.clear();
+            OCLEvent.clGetEventInfo(eventId, CL_EVENT_COMMAND_EXECUTION_STATUS.getValue(), eventInfo.array());
+            if (eventInfo.getInt() != CL_COMPLETE.getValue()) {
+                return false;
+            }
+            times[0] = readEventTime(eventId, CL_PROFILING_COMMAND_QUEUED);
+            times[1] = readEventTime(eventId, CL_PROFILING_COMMAND_START);
+            times[2] = readEventTime(eventId, CL_PROFILING_COMMAND_END);
+        } catch (OCLException e) {
+            error(e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private long readEventTime(long eventId, OCLProfilingInfo info) throws OCLException {
+        eventInfo.clear();
+        OCLEvent.clGetEventProfilingInfo(eventId, info.getValue(), eventInfo.array());
+        return eventInfo.getLong();
+    }
+
+    public synchronized void markEvent() {
         eventMark = eventIndex;
     }
 
-    public void retainEvent(int localId) {
-        retain.set(localId);
+    /*
+     * Retains are counted, since several holders (e.g. an event handle and an
+     * execution profile) can keep the same slot alive.
+     */
+    public synchronized void retainEvent(int localId) {
+        retain[localId]++;
     }
 
-    public void releaseEvent(int localId) {
-        retain.clear(localId);
+    public synchronized void releaseEvent(int localId) {
+        if (retain[localId] > 0) {
+            retain[localId]--;
+        }
     }
 
     @Deprecated
     public void flushEvents() {
     }
 
-    private void findNextEventSlot() {
-        eventIndex = retain.nextClearBit(eventIndex + 1);
-
-        if (CIRCULAR_EVENTS) {
-            if (eventIndex >= events.length) {
-                eventIndex = 0;
+    /*
+     * Called with the queue's monitor held, like everything else that touches
+     * the event window. Retained slots are skipped.
+     */
+    private int claimEventSlot() {
+        for (int attempt = 0; attempt < EVENT_WINDOW; attempt++) {
+            int slot = eventIndex++;
+            if (CIRCULAR_EVENTS) {
+                slot = Math.floorMod(slot, EVENT_WINDOW);
+            } else {
+                guarantee(slot < EVENT_WINDOW, "event window is full (capacity=%d)", EVENT_WINDOW);
+            }
+            if (retain[slot] == 0) {
+                return slot;
             }
         }
-
-        guarantee(eventIndex != -1, "event window is full (retained=%d, capacity=%d)", retain.cardinality(), EVENT_WINDOW);
+        throw new TornadoInternalError("event window is full (all %d events are retained)", EVENT_WINDOW);
     }
 
     private int registerEvent(long eventId, int descriptorId, long tag) {
-        if (retain.get(eventIndex)) {
-            findNextEventSlot();
-        }
-        final int currentEvent = eventIndex;
-        guarantee(!retain.get(currentEvent), "overwriting retained event");
-
         /*
          * OpenCL can generate an out of resources error which produces an
          * invalid event (-1) we need to avoid releasing any invalid events and
@@ -258,21 +375,24 @@ public class OCLCommandQueue extends TornadoLogger {
             System.exit(-1);
         }
 
-        if (events[currentEvent] > 0 && !retain.get(currentEvent)) {
-            internalEvent.setEventId(currentEvent, events[currentEvent]);
-            internalEvent.release();
+        final int currentEvent = claimEventSlot();
+        final long previousEvent = events[currentEvent];
+        if (previousEvent > 0) {
+            try {
+                OCLEvent.clReleaseEvent(previousEvent);
+            } catch (OCLException e) {
+                error(e.getMessage());
+            }
         }
         events[currentEvent] = eventId;
         descriptors[currentEvent] = descriptorId;
         tags[currentEvent] = tag;
-
-        findNextEventSlot();
         return currentEvent;
     }
 
-    private boolean serialiseEvents(int[] dependencies) {
+    private long[] serialiseEvents(int[] dependencies) {
         if (dependencies == null || dependencies.length == 0 || !ENABLE_OOO_EXECUTION) {
-            return false;
+            return null;
         }
 
         Arrays.fill(waitEventsBuffer, 0);
@@ -289,7 +409,7 @@ public class OCLCommandQueue extends TornadoLogger {
         }
         waitEventsBuffer[0] = index;
 
-        return (index > 0);
+        return (index > 0) ? waitEventsBuffer : null;
     }
 
     public long getContextId() {
@@ -330,11 +450,11 @@ public class OCLCommandQueue extends TornadoLogger {
      * Enqueues a barrier into the command queue of the specified device
      *
      */
-    public int enqueueBarrier() {
+    public synchronized int enqueueBarrier() {
         return enqueueBarrier(null);
     }
 
-    public int enqueueMarker() {
+    public synchronized int enqueueMarker() {
         return enqueueMarker(null);
     }
 
@@ -359,11 +479,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return id;
     }
 
-    public int enqueueTask(OCLKernel kernel, int[] waitEvents) {
+    public synchronized int enqueueTask(OCLKernel kernel, int[] waitEvents) {
         int event = -1;
 
         try {
-            event = registerEvent(clEnqueueTask(id, kernel.getId(), serialiseEvents(waitEvents) ? waitEventsBuffer : null), DESC_SERIAL_KERNEL, kernel.getId());
+            event = registerEvent(clEnqueueTask(id, kernel.getId(), serialiseEvents(waitEvents)), DESC_SERIAL_KERNEL, kernel.getId());
         } catch (OCLException e) {
             error(e.getMessage());
         }
@@ -375,12 +495,12 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueNDRangeKernel(OCLKernel kernel, int dim, long[] globalWorkOffset, long[] globalWorkSize, long[] localWorkSize, int[] waitEvents) {
+    public synchronized int enqueueNDRangeKernel(OCLKernel kernel, int dim, long[] globalWorkOffset, long[] globalWorkSize, long[] localWorkSize, int[] waitEvents) {
         int event = -1;
 
         try {
             event = registerEvent(clEnqueueNDRangeKernel(id, kernel.getId(), dim, (openclVersion > 100) ? globalWorkOffset : null, globalWorkSize, localWorkSize,
-                    serialiseEvents(waitEvents) ? waitEventsBuffer : null), DESC_PARALLEL_KERNEL, kernel.getId());
+                    serialiseEvents(waitEvents)), DESC_PARALLEL_KERNEL, kernel.getId());
         } catch (OCLException e) {
             error(e.getMessage());
         }
@@ -392,11 +512,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, byte[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, byte[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_BYTE, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -405,12 +525,12 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, char[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, char[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
 
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_BYTE, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -419,11 +539,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, int[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, int[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_INT, offset);
 
         } catch (OCLException e) {
@@ -433,11 +553,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, short[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, short[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_SHORT, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -446,11 +566,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, long[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, long[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_LONG, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -459,11 +579,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, float[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, float[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_FLOAT, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -471,11 +591,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, double[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueWrite(long devicePtr, boolean blocking, long offset, long bytes, double[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = writeArrayToDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_WRITE_DOUBLE, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -483,11 +603,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, byte[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, byte[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_BYTE, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -496,12 +616,12 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, char[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, char[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
 
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_BYTE, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -510,11 +630,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, int[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, int[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "null array");
         int event = -1;
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_INT, offset);
 
         } catch (OCLException e) {
@@ -524,12 +644,12 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, short[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, short[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "array is null");
         int event = -1;
 
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_SHORT, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -538,12 +658,12 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, long[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, long[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "array is null");
         int event = -1;
 
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_LONG, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -552,11 +672,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, float[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, float[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "array is null");
         int event = -1;
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_FLOAT, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -565,11 +685,11 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, double[] array, long hostOffset, int[] waitEvents) {
+    public synchronized int enqueueRead(long devicePtr, boolean blocking, long offset, long bytes, double[] array, long hostOffset, int[] waitEvents) {
         guarantee(array != null, "array is null");
         int event = -1;
         try {
-            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents) ? waitEventsBuffer : null);
+            long eventID = readArrayFromDevice(id, array, hostOffset, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
             event = registerEvent(eventID, DESC_READ_DOUBLE, offset);
         } catch (OCLException e) {
             error(e.getMessage());
@@ -577,6 +697,69 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
+    /**
+     * Copies a region between two buffers of the same OpenCL context without
+     * going through the host.
+     */
+    public synchronized int enqueueCopyBuffer(long srcBuffer, long dstBuffer, long srcOffset, long dstOffset, long bytes, int[] waitEvents) {
+        int event = -1;
+        try {
+            long eventID = clEnqueueCopyBuffer(id, srcBuffer, dstBuffer, srcOffset, dstOffset, bytes, serialiseEvents(waitEvents));
+            event = registerEvent(eventID, DESC_COPY_BUFFER, dstOffset);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+        return event;
+    }
+
+    public synchronized int enqueueReadToHost(long devicePtr, boolean blocking, long offset, long bytes, long hostPointer, int[] waitEvents) {
+        guarantee(hostPointer != 0, "null host pointer");
+        int event = -1;
+        try {
+            long eventID = readBufferToHost(id, hostPointer, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
+            event = registerEvent(eventID, DESC_READ_STAGING, offset);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+        return event;
+    }
+
+    public synchronized int enqueueWriteFromHost(long devicePtr, boolean blocking, long offset, long bytes, long hostPointer, int[] waitEvents) {
+        guarantee(hostPointer != 0, "null host pointer");
+        int event = -1;
+        try {
+            long eventID = writeBufferFromHost(id, hostPointer, blocking, offset, bytes, devicePtr, serialiseEvents(waitEvents));
+            event = registerEvent(eventID, DESC_WRITE_STAGING, offset);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+        return event;
+    }
+
+    /**
+     * Maps a whole buffer for reading and writing from the host and waits for
+     * the mapping.
+     *
+     * @return the host pointer of the mapping, or 0 if it failed
+     */
+    public synchronized long mapBuffer(long buffer, long bytes) {
+        long hostPointer = 0;
+        try {
+            hostPointer = clEnqueueMapBuffer(id, buffer, OpenCLBlocking.TRUE, CL_MAP_READ | CL_MAP_WRITE, 0, bytes, null);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+        return hostPointer;
+    }
+
+    public synchronized void unmapBuffer(long buffer, long hostPointer) {
+        try {
+            clEnqueueUnmapMemObject(id, buffer, hostPointer, null);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+    }
+
     public void finish() {
         try {
             clFinish(id);
@@ -596,8 +779,8 @@ public class OCLCommandQueue extends TornadoLogger {
     public void printEvents() {
     }
 
-    public int enqueueBarrier(int[] events) {
-        final long[] waitEvents = serialiseEvents(events) ? waitEventsBuffer : null;
+    public synchronized int enqueueBarrier(int[] events) {
+        final long[] waitEvents = serialiseEvents(events);
         return (openclVersion < 120) ? enqueueBarrier_OCLv1_1(waitEvents) : enqueueBarrier_OCLv1_2(waitEvents);
     }
 
@@ -620,8 +803,8 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public int enqueueMarker(int[] events) {
-        final long[] waitEvents = serialiseEvents(events) ? waitEventsBuffer : null;
+    public synchronized int enqueueMarker(int[] events) {
+        final long[] waitEvents = serialiseEvents(events);
         if (MARKER_USE_BARRIER) {
             return enqueueBarrier(events);
         }
@@ -642,9 +825,10 @@ public class OCLCommandQueue extends TornadoLogger {
         return event;
     }
 
-    public List<OCLEvent> getEvents() {
+    public synchronized List<OCLEvent> getEvents() {
         List<OCLEvent> result = new ArrayList<>();
-        for (int i = 0; i < eventIndex; i++) {
+        final int numEvents = Math.min(eventIndex, EVENT_WINDOW);
+        for (int i = 0; i < numEvents; i++) {
             final long eventId = events[i];
             if (eventId <= 0) {
                 continue;
@@ -654,8 +838,17 @@ public class OCLCommandQueue extends TornadoLogger {
         return result;
     }
 
-    public void reset() {
-        Arrays.fill(events, 0);
+    public synchronized void reset() {
+        for (int i = 0; i < EVENT_WINDOW; i++) {
+            if (events[i] > 0 && retain[i] == 0) {
+                try {
+                    OCLEvent.clReleaseEvent(events[i]);
+                } catch (OCLException e) {
+                    error(e.getMessage());
+                }
+                events[i] = 0;
+            }
+        }
         eventIndex = 0;
     }
 }
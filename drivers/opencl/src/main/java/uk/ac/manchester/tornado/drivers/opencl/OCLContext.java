@@ -26,6 +26,7 @@
 package uk.ac.manchester.tornado.drivers.opencl;
 
 import static uk.ac.manchester.tornado.drivers.opencl.OpenCL.DUMP_OPENCL_EVENTS;
+import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLBufferCreateType.CL_BUFFER_CREATE_TYPE_REGION;
 import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueProperties.CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE;
 import static uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueProperties.CL_QUEUE_PROFILING_ENABLE;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_OOO_EXECUTION;
@@ -37,6 +38,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
@@ -292,6 +294,56 @@ public class OCLContext extends TornadoLogger {
         return createBuffer(flags, bytes, 0L);
     }
 
+    /**
+     * Creates a sub-buffer over a region of an existing buffer. The offset has
+     * to be aligned to the device base address alignment.
+     */
+    public long createSubBuffer(long buffer, long offset, long bytes) {
+        final ByteBuffer region = ByteBuffer.allocate(16);
+        region.order(OpenCL.BYTE_ORDER);
+        region.putLong(offset);
+        region.putLong(bytes);
+        long subBuffer = -1;
+        try {
+            subBuffer = createSubBuffer(buffer, OCLMemFlags.CL_MEM_READ_WRITE, CL_BUFFER_CREATE_TYPE_REGION.getValue(), region.array());
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+        return subBuffer;
+    }
+
+    /**
+     * Creates a buffer backed by host memory allocated by the driver
+     * (CL_MEM_ALLOC_HOST_PTR). Once mapped, it gives page-locked host memory
+     * that the driver transfers with DMA. The buffer is not tracked with the
+     * device heaps and has to be released with {@link #releaseBuffer}.
+     */
+    public long createHostBuffer(long bytes) {
+        long buffer = 0;
+        try {
+            buffer = createBuffer(id, OCLMemFlags.CL_MEM_READ_WRITE | OCLMemFlags.CL_MEM_ALLOC_HOST_PTR, bytes, 0L).getBuffer();
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+        return buffer;
+    }
+
+    public void releaseBuffer(long buffer) {
+        try {
+            clReleaseMemObject(buffer);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+    }
+
+    public void releaseSubBuffer(long subBuffer) {
+        try {
+            clReleaseMemObject(subBuffer);
+        } catch (OCLException e) {
+            error(e.getMessage());
+        }
+    }
+
     public long createBuffer(long flags, long bytes, long hostPointer) {
         long devicePtr = 0;
         try {
@@ -60,6 +60,7 @@ public class OCLDevice extends TornadoLogger implements TornadoTargetDevice {
     private long maxConstantBufferSize;
     private long doubleFPConfig;
     private long singleFPConfig;
+    private int memoryBaseAlignment;
     private String version;
     private OCLDeviceType deviceType;
 
@@ -81,6 +82,7 @@ public class OCLDevice extends TornadoLogger implements TornadoTargetDevice {
         this.maxConstantBufferSize = INIT_VALUE;
         this.doubleFPConfig = INIT_VALUE;
         this.singleFPConfig = INIT_VALUE;
+        this.memoryBaseAlignment = INIT_VALUE;
         this.maxWorkItemSizes = null;
         this.name = null;
         this.version = null;
@@ -120,11 +122,15 @@ public class OCLDevice extends TornadoLogger implements TornadoTargetDevice {
     }
 
     public int getDeviceMemoryBaseAlignment() {
+        if (memoryBaseAlignment != INIT_VALUE) {
+            return memoryBaseAlignment;
+        }
         Arrays.fill(buffer.array(), (byte) 0);
         buffer.clear();
         clGetDeviceInfo(id, OCLDeviceInfo.CL_DEVICE_MEM_BASE_ADDR_ALIGN.getValue(), buffer.array());
 
-        return buffer.getInt();
+        memoryBaseAlignment = buffer.getInt();
+        return memoryBaseAlignment;
     }
 
     public boolean isDeviceAvailable() {
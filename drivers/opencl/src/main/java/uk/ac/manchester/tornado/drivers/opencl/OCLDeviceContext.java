@@ -34,6 +34,7 @@ import java.util.List;
 
 import uk.ac.manchester.tornado.api.TornadoDeviceContext;
 import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.profiler.MetricsRegistry;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResult;
@@ -41,6 +42,7 @@ import uk.ac.manchester.tornado.drivers.opencl.mm.OCLMemoryManager;
 import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
 import uk.ac.manchester.tornado.runtime.common.Initialisable;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoMetrics;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public class OCLDeviceContext extends TornadoLogger implements Initialisable, TornadoDeviceContext {
@@ -287,6 +289,41 @@ public class OCLDeviceContext extends TornadoLogger implements Initialisable, To
         return queue.enqueueRead(bufferId, OpenCLBlocking.TRUE, offset, bytes, array, hostOffset, waitEvents);
     }
 
+    public int enqueueReadToHost(long bufferId, long offset, long bytes, long hostPointer, int[] waitEvents) {
+        return queue.enqueueReadToHost(bufferId, OpenCLBlocking.FALSE, offset, bytes, hostPointer, waitEvents);
+    }
+
+    /*
+     * Device-to-device copies
+     */
+    public int enqueueCopyFromDevice(OCLDeviceContext source, long srcBuffer, long srcOffset, long dstBuffer, long dstOffset, long bytes, int[] waitEvents) {
+        // Events are local to each queue, so the source has to be drained first
+        source.sync();
+        if (source.getPlatformContext() == context) {
+            return queue.enqueueCopyBuffer(srcBuffer, dstBuffer, srcOffset, dstOffset, bytes, waitEvents);
+        }
+
+        final OCLBounceBufferPool.BounceBuffer bounceBuffer = OCLBounceBufferPool.acquire(this, bytes);
+        try {
+            source.queue.enqueueReadToHost(srcBuffer, OpenCLBlocking.TRUE, srcOffset, bytes, bounceBuffer.getAddress(), null);
+            return queue.enqueueWriteFromHost(dstBuffer, OpenCLBlocking.TRUE, dstOffset, bytes, bounceBuffer.getAddress(), waitEvents);
+        } finally {
+            OCLBounceBufferPool.release(bounceBuffer);
+        }
+    }
+
+    /*
+     * Pinned host buffers that stage copies from devices of other platforms
+     */
+    long mapHostBuffer(long buffer, long bytes) {
+        return queue.mapBuffer(buffer, bytes);
+    }
+
+    void unmapHostBuffer(long buffer, long hostPointer) {
+        queue.unmapBuffer(buffer, hostPointer);
+        queue.finish();
+    }
+
     public int enqueueBarrier(int[] events) {
         return queue.enqueueBarrier(events);
     }
@@ -301,8 +338,10 @@ public class OCLDeviceContext extends TornadoLogger implements Initialisable, To
     }
 
     public void reset() {
+        OCLBounceBufferPool.releaseAll(this);
         queue.reset();
         memoryManager.reset();
+        TornadoMetrics.increment(MetricsRegistry.CODE_CACHE_EVICTIONS, null, getId(), codeCache.size());
         codeCache.reset();
     }
 
@@ -356,6 +395,14 @@ public class OCLDeviceContext extends TornadoLogger implements Initialisable, To
         queue.releaseEvent(event);
     }
 
+    public void freeEvents(int[] events, int count) {
+        queue.freeEvents(events, count);
+    }
+
+    public boolean readEventTimes(int event, long[] times) {
+        return queue.readEventTimes(event, times);
+    }
+
     public Event resolveEvent(int event) {
         return queue.resolveEvent(event);
     }
@@ -381,7 +428,11 @@ public class OCLDeviceContext extends TornadoLogger implements Initialisable, To
     }
 
     public OCLInstalledCode installCode(OCLCompilationResult result) {
-        return installCode(result.getMeta(), result.getId(), result.getName(), result.getTargetCode());
+        final OCLInstalledCode code = installCode(result.getMeta(), result.getId(), result.getName(), result.getTargetCode());
+        if (code != null) {
+            code.setTypedArguments(result.hasTypedArguments());
+        }
+        return code;
     }
 
     public OCLInstalledCode installCode(TaskMetaData meta, String id, String entryPoint, byte[] code) {
@@ -50,10 +50,12 @@ public class OCLEvent extends TornadoLogger implements Event {
     private static final long[] internalBuffer = new long[2];
 
     private final OCLCommandQueue queue;
-    private int localId;
-    private long id;
+    private final int localId;
+    private final long id;
+    private final int descriptor;
+    private final long tag;
     private static final ByteBuffer buffer = ByteBuffer.allocate(8);
-    private final String name;
+    private String name;
     private int status;
 
     static {
@@ -64,18 +66,23 @@ public class OCLEvent extends TornadoLogger implements Event {
         this.queue = queue;
         this.localId = event;
         this.id = eventId;
-        this.name = String.format("%s: 0x%x", EVENT_DESCRIPTIONS[queue.descriptors[localId]], queue.tags[localId]);
+        this.descriptor = queue.descriptors[event];
+        this.tag = queue.tags[event];
         this.status = -1;
     }
 
+    /**
+     * Keeps the slot of this event from being reused by the queue, so the
+     * handle stays valid after the execution that produced it.
+     */
     @Override
     public void retain() {
         queue.retainEvent(localId);
     }
 
-    protected void setEventId(int localId, long eventId) {
-        this.localId = localId;
-        this.id = eventId;
+    @Override
+    public void release() {
+        queue.releaseEvent(localId);
     }
 
     native static void clGetEventInfo(long eventId, int param, byte[] buffer) throws OCLException;
@@ -86,6 +93,17 @@ public class OCLEvent extends TornadoLogger implements Event {
 
     native static void clReleaseEvent(long eventId) throws OCLException;
 
+    native static void clSetEventCallback(long eventId, CompletionListener listener) throws OCLException;
+
+    /**
+     * Receives the execution status of an event once it has completed. It is
+     * invoked from a thread owned by the OpenCL runtime.
+     */
+    @FunctionalInterface
+    public interface CompletionListener {
+        void onComplete(int status);
+    }
+
     private long readEventTime(OCLProfilingInfo eventType) {
 
         if (!ENABLE_PROFILING || getCLStatus() != CL_COMPLETE) {
@@ -96,8 +114,6 @@ public class OCLEvent extends TornadoLogger implements Event {
         buffer.clear();
 
         try {
-            clWaitForEvents(new long[] { id });
-            queue.finish();
             clGetEventProfilingInfo(id, eventType.getValue(), buffer.array());
             time = buffer.getLong();
         } catch (OCLException e) {
@@ -154,7 +170,28 @@ public class OCLEvent extends TornadoLogger implements Event {
                 break;
             case CL_ERROR:
             case CL_UNKNOWN:
-                fatal("error on event: %s", name);
+                fatal("error on event: %s", getName());
+        }
+    }
+
+    /**
+     * Runs the action from an OpenCL event callback once the event completes,
+     * without blocking the calling thread. The event slot is retained until
+     * then, so the action can still query the event.
+     */
+    @Override
+    public void whenComplete(Runnable action) {
+        retain();
+        try {
+            clSetEventCallback(id, status -> {
+                queue.releaseEvent(localId);
+                action.run();
+            });
+        } catch (OCLException e) {
+            error(e.getMessage());
+            queue.releaseEvent(localId);
+            waitOn();
+            action.run();
         }
     }
 
@@ -170,7 +207,7 @@ public class OCLEvent extends TornadoLogger implements Event {
 
     @Override
     public String toString() {
-        return String.format("event: name=%s, status=%s", name, getStatus());
+        return String.format("event: name=%s, status=%s", getName(), getStatus());
     }
 
     public long getId() {
@@ -179,6 +216,9 @@ public class OCLEvent extends TornadoLogger implements Event {
 
     @Override
     public String getName() {
+        if (name == null) {
+            name = String.format("%s: 0x%x", EVENT_DESCRIPTIONS[descriptor], tag);
+        }
         return name;
     }
 
@@ -286,13 +326,4 @@ public class OCLEvent extends TornadoLogger implements Event {
     public double getEndTimeInMilliSeconds() {
         return RuntimeUtilities.elapsedTimeInMilliSeconds(getCLEndTime());
     }
-
-    void release() {
-        queue.releaseEvent(localId);
-        try {
-            clReleaseEvent(id);
-        } catch (OCLException e) {
-            error(e.getMessage());
-        }
-    }
 }
@@ -35,10 +35,7 @@ public class OCLGPUScheduler extends OCLKernelScheduler {
 
     @SuppressWarnings("unused") private long maxComputeUnits;
     @SuppressWarnings("unused") private double workGroupUtil;
-    @SuppressWarnings("unused") private long maxWorkGroupSize;
-
-    private static final int WARP_SIZE = 32;
-    private boolean ADJUST_IRREGULAR = false;
+    private final long maxWorkGroupSize;
 
     private final long[] maxWorkItemSizes;
 
@@ -51,27 +48,64 @@ public class OCLGPUScheduler extends OCLKernelScheduler {
         maxWorkGroupSize = device.getDeviceMaxWorkGroupSize();
 
         workGroupUtil = GPU_WORK_GROUP_COEFF;
+        tuner = new OCLWorkGroupTuner(context);
+    }
+
+    /*
+     * Reductions are not padded: their partial results are sized for the
+     * unpadded global work.
+     */
+    @Override
+    protected boolean usesPaddedGlobalWork(final TaskMetaData meta) {
+        return meta.enablePadding() && !meta.enableThreadCoarsener() && !meta.isReduction() && meta.getDims() <= 2;
+    }
+
+    /*
+     * Work-group used to pad the global work size: the block size of the task
+     * in 1D, and the largest square that fits in it in 2D.
+     */
+    private long[] calculatePaddedGroupSize(final TaskMetaData meta) {
+        if (meta.isLocalWorkDefined()) {
+            return meta.getLocalWork();
+        }
+
+        final long blockSize = Math.min(maxWorkGroupSize, meta.getOpenCLGpuBlockX());
+        if (meta.getDims() == 1) {
+            return new long[] { Math.max(1, Math.min(blockSize, maxWorkItemSizes[0])) };
+        }
+
+        long side = 1;
+        while ((side * 2) * (side * 2) <= blockSize) {
+            side *= 2;
+        }
+        return new long[] { Math.min(side, maxWorkItemSizes[0]), Math.min(side, maxWorkItemSizes[1]) };
     }
 
     @Override
     public void calculateGlobalWork(final TaskMetaData meta, long batchThreads) {
         final long[] globalWork = meta.getGlobalWork();
+        final long[] paddedGroupSize = (usesPaddedGlobalWork(meta)) ? calculatePaddedGroupSize(meta) : null;
 
         for (int i = 0; i < meta.getDims(); i++) {
             long value = (batchThreads <= 0) ? (long) (meta.getDomain().get(i).cardinality()) : batchThreads;
-            // adjust for irregular problem sizes
-            if (ADJUST_IRREGULAR) {
-                if (value % WARP_SIZE != 0) {
-                    value = ((value / WARP_SIZE) + 1) * WARP_SIZE;
-                }
+            // irregular sizes are rounded up to whole work-groups; the
+            // extra work-items fail the bounds check of the parallel loop
+            if (paddedGroupSize != null) {
+                value = ((value + paddedGroupSize[i] - 1) / paddedGroupSize[i]) * paddedGroupSize[i];
             }
-            globalWork[i] = value;
+            globalWork[i] = applyCoarseness(meta, i, value);
         }
     }
 
     @Override
     public void calculateLocalWork(final TaskMetaData meta) {
         final long[] localWork = meta.getLocalWork();
+        if (usesPaddedGlobalWork(meta)) {
+            final long[] paddedGroupSize = calculatePaddedGroupSize(meta);
+            System.arraycopy(paddedGroupSize, 0, localWork, 0, paddedGroupSize.length);
+            return;
+        }
+
         switch (meta.getDims()) {
             case 3:
                 /// XXX: Support 3D
@@ -24,6 +24,8 @@
  */
 package uk.ac.manchester.tornado.drivers.opencl;
 
+import java.util.zip.CRC32;
+
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
@@ -34,26 +36,89 @@ public abstract class OCLKernelScheduler {
     protected double min;
     protected double max;
 
+    protected OCLWorkGroupTuner tuner;
+    private String kernelHash = "0";
+
     public OCLKernelScheduler(final OCLDeviceContext context) {
         deviceContext = context;
     }
 
+    /**
+     * Identifies the kernel source in the work-group tuning database.
+     */
+    public void setKernelSource(final byte[] source) {
+        if (source != null) {
+            final CRC32 crc = new CRC32();
+            crc.update(source);
+            kernelHash = Long.toHexString(crc.getValue());
+        }
+    }
+
     public abstract void calculateGlobalWork(final TaskMetaData meta, long batchThreads);
 
     public abstract void calculateLocalWork(final TaskMetaData meta);
 
+    /**
+     * Whether the global work size is rounded up to a multiple of the local
+     * work size, which then has to be passed to the OpenCL runtime.
+     */
+    protected boolean usesPaddedGlobalWork(final TaskMetaData meta) {
+        return false;
+    }
+
+    /**
+     * Shrinks the number of threads of a dimension when the thread coarsener
+     * merges several iterations into one work-item.
+     */
+    protected static long applyCoarseness(final TaskMetaData meta, int dimension, long threads) {
+        if (!meta.enableThreadCoarsener() || meta.getCoarseness() == null) {
+            return threads;
+        }
+        final long factor = Math.max(1, meta.getCoarseness(dimension));
+        return Math.max(1, (threads + factor - 1) / factor);
+    }
+
     public int submit(final OCLKernel kernel, final TaskMetaData meta, long batchThreads) {
         return submit(kernel, meta, null, batchThreads);
     }
 
+    /**
+     * Kernels tiled into local memory expect one iteration per work-item and
+     * work-groups of the size they were compiled for.
+     */
+    private static void applyLocalTiling(final TaskMetaData meta) {
+        for (int i = 0; i < meta.getDims(); i++) {
+            final long blockSize = meta.getLocalTileBlockSize(i);
+            final long iterations = meta.getDomain().get(i).cardinality();
+            meta.getGlobalWork()[i] = ((iterations + blockSize - 1) / blockSize) * blockSize;
+            meta.getLocalWork()[i] = blockSize;
+        }
+    }
+
+    private boolean isTunable(final TaskMetaData meta) {
+        return tuner != null && meta.enableAutoTuning() && meta.getDims() == 1 && !meta.isReduction() && !meta.enableThreadCoarsener() && !meta.isGlobalWorkDefined()
+                && !meta.isLocalWorkDefined();
+    }
+
     public int submit(final OCLKernel kernel, final TaskMetaData meta, final int[] waitEvents, long batchThreads) {
 
-        if (!meta.isGlobalWorkDefined()) {
-            calculateGlobalWork(meta, batchThreads);
-        }
+        final boolean isTiled = meta.getLocalTileBlockSize() > 0;
+        final boolean isTuned = !isTiled && isTunable(meta);
+        OCLWorkGroupTuner.Trial trial = null;
+        if (isTiled) {
+            applyLocalTiling(meta);
+        } else {
+            if (!meta.isGlobalWorkDefined()) {
+                calculateGlobalWork(meta, batchThreads);
+            }
+
+            if (!meta.isLocalWorkDefined()) {
+                calculateLocalWork(meta);
+            }
 
-        if (!meta.isLocalWorkDefined()) {
-            calculateLocalWork(meta);
+            if (isTuned) {
+                trial = tuner.configure(kernel, kernelHash, meta);
+            }
         }
 
         if (meta.isDebug()) {
@@ -61,7 +126,7 @@ public abstract class OCLKernelScheduler {
         }
 
         final int taskEvent;
-        if (meta.shouldUseDefaultOpenCLScheduling()) {
+        if (meta.shouldUseDefaultOpenCLScheduling() && !isTiled && !isTuned && !usesPaddedGlobalWork(meta)) {
             taskEvent = deviceContext.enqueueNDRangeKernel(kernel, meta.getDims(), meta.getGlobalOffset(), meta.getGlobalWork(), null, waitEvents);
         } else {
             taskEvent = deviceContext.enqueueNDRangeKernel(kernel, meta.getDims(), meta.getGlobalOffset(), meta.getGlobalWork(), meta.getLocalWork(), waitEvents);
@@ -72,6 +137,10 @@ public abstract class OCLKernelScheduler {
             System.out.println("[OCL Kernel Execution Time] " + resolveEvent.getExecutionTime() + " (ns)");
         }
 
+        if (trial != null) {
+            tuner.record(trial, taskEvent);
+        }
+
         return taskEvent;
     }
 
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.info;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.warn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Work-group sizes found by the {@link OCLWorkGroupTuner}, kept in a
+ * properties file so that later runs can reuse them without tuning again.
+ *
+ * Entries are keyed by device, kernel and problem-size bucket, and hold the
+ * local work size of each dimension, e.g.
+ * {@code GeForce\ GTX\ 1050|418.56|saxpy-3f2a91c0|1048576=256}.
+ *
+ * The file is set with {@code -Dtornado.autotune.db=<file>}; relative paths are
+ * resolved against {@code TORNADO_SDK}.
+ */
+public final class OCLTuningDatabase {
+
+    private static final String DATABASE_FILE = getProperty("tornado.autotune.db", "var/autotune.properties");
+    private static final String SEPARATOR = "|";
+
+    private static OCLTuningDatabase instance;
+
+    private final Path file;
+    private final Properties entries;
+
+    private OCLTuningDatabase(Path file) {
+        this.file = file;
+        this.entries = new Properties();
+        load(entries);
+        info("loaded %d work-group configurations from %s", entries.size(), file);
+    }
+
+    public static synchronized OCLTuningDatabase getInstance() {
+        if (instance == null) {
+            instance = new OCLTuningDatabase(resolveFile());
+        }
+        return instance;
+    }
+
+    private static Path resolveFile() {
+        final Path path = Paths.get(DATABASE_FILE);
+        final String tornadoRoot = System.getenv("TORNADO_SDK");
+        if (path.isAbsolute() || tornadoRoot == null) {
+            return path;
+        }
+        return Paths.get(tornadoRoot).resolve(path);
+    }
+
+    static String createKey(String device, String kernel, String bucket) {
+        return device + SEPARATOR + kernel + SEPARATOR + bucket;
+    }
+
+    private void load(Properties target) {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            target.load(input);
+        } catch (IOException e) {
+            warn("unable to read tuning database %s: %s", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the local work sizes stored for the key, or null when the key has
+     * not been tuned yet.
+     */
+    public synchronized long[] lookup(String key) {
+        final String value = entries.getProperty(key);
+        if (value == null) {
+            return null;
+        }
+
+        final String[] sizes = value.split(",");
+        final long[] localWork = new long[sizes.length];
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                localWork[i] = Long.parseLong(sizes[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            warn("ignoring malformed tuning entry %s=%s", key, value);
+            return null;
+        }
+        return localWork;
+    }
+
+    /**
+     * Stores the local work sizes for the key and writes the database back to
+     * disk. Entries written by other processes since the file was loaded are
+     * kept.
+     */
+    public synchronized void store(String key, long[] localWork) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < localWork.length; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(localWork[i]);
+        }
+
+        load(entries);
+        entries.setProperty(key, sb.toString());
+
+        try {
+            final Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            final Path tmp = Files.createTempFile(dir, "autotune", ".tmp");
+            try (OutputStream output = Files.newOutputStream(tmp)) {
+                entries.store(output, "Tornado work-group tuning database");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            warn("unable to write tuning database %s: %s", file, e.getMessage());
+        }
+    }
+}
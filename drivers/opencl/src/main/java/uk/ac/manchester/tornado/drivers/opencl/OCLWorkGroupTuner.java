@@ -0,0 +1,265 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.info;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Picks the local work size of a kernel by timing candidate work-groups on its
+ * first invocations.
+ *
+ * Each candidate runs {@code tornado.autotune.samples} times and the fastest
+ * one is stored in the {@link OCLTuningDatabase} for the device, kernel and
+ * problem-size bucket (the global size rounded up to a power of two). The
+ * global size is rounded up to a multiple of the local size, so candidates are
+ * not restricted to divisors of the problem size: parallel loops generated by
+ * Tornado are bounded by their range, so the extra work-items do not run any
+ * iteration.
+ *
+ * Trials are not waited on: their events are kept and timed on a later
+ * submission, once OpenCL reports them as complete. Only 1D kernels are tuned.
+ *
+ * Enabled per task with {@code -D<schedule>.<task>.autotune=True}, or for all
+ * tasks with {@code -Dtornado.autotune=True}.
+ */
+public class OCLWorkGroupTuner {
+
+    private static final int SAMPLES = Integer.parseInt(getProperty("tornado.autotune.samples", "2"));
+
+    private static final long MIN_WORK_GROUP_SIZE_1D = 16;
+
+    private final OCLDeviceContext deviceContext;
+    private final OCLTuningDatabase database;
+    private final String deviceKey;
+    private final long maxWorkGroupSize;
+    private final long[] maxWorkItemSizes;
+
+    private final Map<String, Session> sessions;
+    private final List<Trial> pending;
+
+    /**
+     * A single timed invocation of a candidate work-group.
+     */
+    public static final class Trial {
+        private final Session session;
+        private final int candidate;
+        private Event event;
+
+        private Trial(Session session, int candidate) {
+            this.session = session;
+            this.candidate = candidate;
+        }
+    }
+
+    private static final class Session {
+        private final String key;
+        private final List<long[]> candidates;
+        private final long[] times;
+        private int samples;
+        private int next;
+
+        private Session(String key, List<long[]> candidates) {
+            this.key = key;
+            this.candidates = candidates;
+            this.times = new long[candidates.size()];
+            Arrays.fill(times, Long.MAX_VALUE);
+        }
+
+        private boolean isComplete() {
+            return next >= candidates.size();
+        }
+
+        private long[] best() {
+            int best = 0;
+            for (int i = 1; i < times.length; i++) {
+                if (times[i] < times[best]) {
+                    best = i;
+                }
+            }
+            return candidates.get(best);
+        }
+    }
+
+    public OCLWorkGroupTuner(final OCLDeviceContext deviceContext) {
+        final OCLDevice device = deviceContext.getDevice();
+        this.deviceContext = deviceContext;
+        this.database = OCLTuningDatabase.getInstance();
+        this.deviceKey = device.getDeviceName() + " " + device.getDriverVersion();
+        this.maxWorkGroupSize = device.getDeviceMaxWorkGroupSize();
+        this.maxWorkItemSizes = device.getDeviceMaxWorkItemSizes();
+        this.sessions = new HashMap<>();
+        this.pending = new ArrayList<>();
+    }
+
+    private static long roundUp(long value, long multiple) {
+        return ((value + multiple - 1) / multiple) * multiple;
+    }
+
+    private static long nextPowerOfTwo(long value) {
+        final long highest = Long.highestOneBit(Math.max(1, value));
+        return (highest == value) ? value : highest << 1;
+    }
+
+    private static String createBucket(TaskMetaData meta) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < meta.getDims(); i++) {
+            if (i > 0) {
+                sb.append("x");
+            }
+            sb.append(nextPowerOfTwo(meta.getGlobalWork()[i]));
+        }
+        return sb.toString();
+    }
+
+    private static void addCandidate(List<long[]> candidates, long[] candidate) {
+        for (long[] existing : candidates) {
+            if (Arrays.equals(existing, candidate)) {
+                return;
+            }
+        }
+        candidates.add(candidate);
+    }
+
+    /*
+     * The first candidate is the work-group chosen by the scheduler.
+     */
+    private List<long[]> createCandidates(TaskMetaData meta) {
+        final int dims = meta.getDims();
+        final long[] globalWork = meta.getGlobalWork();
+        final List<long[]> candidates = new ArrayList<>();
+        addCandidate(candidates, Arrays.copyOf(meta.getLocalWork(), dims));
+
+        final long limit = Math.min(Math.min(maxWorkGroupSize, maxWorkItemSizes[0]), nextPowerOfTwo(globalWork[0]));
+        for (long size = MIN_WORK_GROUP_SIZE_1D; size <= limit; size <<= 1) {
+            addCandidate(candidates, new long[] { size });
+        }
+        return candidates;
+    }
+
+    private static void apply(TaskMetaData meta, long[] localWork) {
+        for (int i = 0; i < localWork.length; i++) {
+            meta.getLocalWork()[i] = localWork[i];
+            meta.getGlobalWork()[i] = roundUp(meta.getGlobalWork()[i], localWork[i]);
+        }
+    }
+
+    /**
+     * Sets the local work size of the task, padding its global work size to
+     * match. The scheduler must have computed both sizes beforehand.
+     *
+     * @return the trial to pass to {@link #record} once the kernel has been
+     *         enqueued, or null when a tuned configuration has been applied or
+     *         the task cannot be tuned.
+     */
+    public synchronized Trial configure(final OCLKernel kernel, final String kernelHash, final TaskMetaData meta) {
+        final int dims = meta.getDims();
+        if (dims != 1) {
+            return null;
+        }
+
+        collectCompletedTrials();
+
+        final String key = OCLTuningDatabase.createKey(deviceKey, kernel.getName() + "-" + kernelHash, createBucket(meta));
+        final long[] tuned = database.lookup(key);
+        if (tuned != null && tuned.length == dims) {
+            apply(meta, tuned);
+            return null;
+        }
+
+        Session session = sessions.get(key);
+        if (session == null) {
+            session = new Session(key, createCandidates(meta));
+            sessions.put(key, session);
+        }
+        if (session.isComplete()) {
+            apply(meta, session.best());
+            return null;
+        }
+
+        apply(meta, session.candidates.get(session.next));
+        return new Trial(session, session.next);
+    }
+
+    /**
+     * Keeps the event of a trial until its kernel has completed. The event is
+     * timed by a later call to {@link #configure}, so the caller is never
+     * blocked.
+     */
+    public synchronized void record(final Trial trial, final int taskEvent) {
+        final Event event = deviceContext.resolveEvent(taskEvent);
+        event.retain();
+        trial.event = event;
+        pending.add(trial);
+    }
+
+    private void collectCompletedTrials() {
+        final Iterator<Trial> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            final Trial trial = iterator.next();
+            final TornadoExecutionStatus status = trial.event.getStatus();
+            if (status != TornadoExecutionStatus.COMPLETE && status != TornadoExecutionStatus.ERROR) {
+                continue;
+            }
+            iterator.remove();
+            final long time = (status == TornadoExecutionStatus.COMPLETE) ? trial.event.getExecutionTime() : -1;
+            trial.event.release();
+            update(trial, time);
+        }
+    }
+
+    /*
+     * The fastest candidate is stored once every candidate has been timed.
+     */
+    private void update(final Trial trial, final long time) {
+        final Session session = trial.session;
+        if (session.isComplete() || trial.candidate != session.next) {
+            return;
+        }
+        if (time > 0) {
+            session.times[trial.candidate] = Math.min(session.times[trial.candidate], time);
+        }
+        session.samples++;
+        if (session.samples >= SAMPLES) {
+            session.samples = 0;
+            session.next++;
+            if (session.isComplete()) {
+                final long[] best = session.best();
+                info("tuned %s: local work %s", session.key, Arrays.toString(best));
+                database.store(session.key, best);
+            }
+        }
+    }
+}
@@ -97,10 +97,14 @@ public class OCLArchitecture extends Architecture {
 
     public static OCLRegister[] abiRegisters;
 
+    // ABI of kernels with typed arguments, which take neither the heap nor the frame
+    public static OCLRegister[] typedArgumentsAbiRegisters;
+
     public OCLArchitecture(final OCLKind wordKind, final ByteOrder byteOrder) {
         super("Tornado OpenCL", wordKind, byteOrder, false, null, LOAD_STORE | STORE_STORE, 0, 0);
         sp = new OCLRegister(1, FRAME_BASE_NAME, wordKind);
         abiRegisters = new OCLRegister[] { hp, sp, cp, lp, pp };
+        typedArgumentsAbiRegisters = new OCLRegister[] { cp, lp, pp };
     }
 
     @Override
@@ -162,10 +166,18 @@ public class OCLArchitecture extends Architecture {
     }
 
     public String getABI() {
+        return getDeclarations(abiRegisters);
+    }
+
+    public String getTypedArgumentsABI() {
+        return getDeclarations(typedArgumentsAbiRegisters);
+    }
+
+    private static String getDeclarations(OCLRegister[] registers) {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < abiRegisters.length; i++) {
-            sb.append(abiRegisters[i].getDeclaration());
-            if (i < abiRegisters.length - 1) {
+        for (int i = 0; i < registers.length; i++) {
+            sb.append(registers[i].getDeclaration());
+            if (i < registers.length - 1) {
                 sb.append(", ");
             }
         }
@@ -23,8 +23,16 @@
  */
 package uk.ac.manchester.tornado.drivers.opencl.graal;
 
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ACCELERATOR_IS_FPGA;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.OPENCL_USE_RELATIVE_ADDRESSES;
+import static uk.ac.manchester.tornado.runtime.graal.backend.TornadoBackend.ENABLE_EXCEPTIONS;
+
+import java.lang.ref.WeakReference;
+
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
 
 import jdk.vm.ci.code.CallingConvention;
 import jdk.vm.ci.code.CallingConvention.Type;
@@ -34,6 +42,8 @@ import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.JavaType;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.Signature;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public class OCLCodeUtil {
 
@@ -59,6 +69,94 @@ public class OCLCodeUtil {
         return getCallingConvention(type, retType, argTypes, codeCache.getTarget(), stackOnly);
     }
 
+    /**
+     * Checks whether the parameters of a kernel are passed as typed kernel
+     * arguments (&lt;task&gt;.opencl.typedargs). This is the case when every
+     * parameter is a primitive scalar or a one-dimensional primitive array.
+     * Kernels with typed arguments do not take the heap and the frame, so the
+     * kernel cannot return a value, report exceptions or call other methods.
+     */
+    public static boolean hasTypedArguments(StructuredGraph graph, TaskMetaData meta) {
+        return hasTypedArguments(graph.method(), meta) && graph.getNodes().filter(node -> node instanceof Invoke).isEmpty();
+    }
+
+    public static boolean hasTypedArguments(ResolvedJavaMethod method, TaskMetaData meta) {
+        if (meta == null || !meta.useOpenclTypedArguments() || meta.enableExceptions() || meta.enableMemChecks() || ENABLE_EXCEPTIONS || OPENCL_USE_RELATIVE_ADDRESSES || ACCELERATOR_IS_FPGA
+                || method == null || !method.isStatic() || method.getSignature().getReturnKind() != JavaKind.Void) {
+            return false;
+        }
+        final Signature sig = method.getSignature();
+        final int sigCount = sig.getParameterCount(false);
+        for (int i = 0; i < sigCount; i++) {
+            if (getTypedArgumentKind(sig.getParameterType(i, method.getDeclaringClass())) == OCLKind.ILLEGAL) {
+                return false;
+            }
+        }
+        return sigCount > 0;
+    }
+
+    /**
+     * Returns, for each task parameter, whether the array it refers to is also
+     * passed as another parameter. Such parameters cannot be declared restrict
+     * or const.
+     */
+    public static boolean[] findAliasedArguments(Object[] args) {
+        final boolean[] aliased = new boolean[args.length];
+        for (int i = 0; i < args.length; i++) {
+            final Object array = unwrap(args[i]);
+            if (array == null || !array.getClass().isArray()) {
+                continue;
+            }
+            for (int j = i + 1; j < args.length; j++) {
+                if (unwrap(args[j]) == array) {
+                    aliased[i] = true;
+                    aliased[j] = true;
+                }
+            }
+        }
+        return aliased;
+    }
+
+    private static Object unwrap(Object arg) {
+        return (arg instanceof WeakReference) ? ((WeakReference<?>) arg).get() : arg;
+    }
+
+    /**
+     * Returns the OpenCL type of a typed kernel argument: the element type for
+     * arrays or the scalar type otherwise. {@link OCLKind#ILLEGAL} is returned
+     * for types that cannot be passed as kernel arguments.
+     */
+    public static OCLKind getTypedArgumentKind(JavaType type) {
+        JavaKind kind = type.getJavaKind();
+        if (kind == JavaKind.Object) {
+            final JavaType componentType = type.getComponentType();
+            if (componentType == null) {
+                return OCLKind.ILLEGAL;
+            }
+            kind = componentType.getJavaKind();
+        }
+
+        switch (kind) {
+            case Byte:
+                return OCLKind.CHAR;
+            case Short:
+                return OCLKind.SHORT;
+            case Char:
+                return OCLKind.USHORT;
+            case Int:
+                return OCLKind.INT;
+            case Long:
+                return OCLKind.LONG;
+            case Float:
+                return OCLKind.FLOAT;
+            case Double:
+                return OCLKind.DOUBLE;
+            default:
+                // bool is not a valid kernel argument type
+                return OCLKind.ILLEGAL;
+        }
+    }
+
     private static CallingConvention getCallingConvention(Type type, JavaType returnType, JavaType[] argTypes, TargetDescription target, boolean stackOnly) {
 
         int variableIndex = 0;
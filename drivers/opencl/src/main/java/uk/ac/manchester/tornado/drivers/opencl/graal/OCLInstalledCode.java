@@ -24,6 +24,7 @@
 package uk.ac.manchester.tornado.drivers.opencl.graal;
 
 import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
+import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.shouldNotReachHere;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.DEBUG;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.debug;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.info;
@@ -40,6 +41,7 @@ import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernelScheduler;
 import uk.ac.manchester.tornado.drivers.opencl.OCLProgram;
 import uk.ac.manchester.tornado.drivers.opencl.OCLScheduler;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLByteBuffer;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLCallStack;
 import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
@@ -57,6 +59,7 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
     private final OCLDeviceContext deviceContext;
     private final OCLKernel kernel;
     private boolean valid;
+    private boolean typedArguments;
 
     private final OCLKernelScheduler scheduler;
     private final int[] internalEvents = new int[1];
@@ -64,12 +67,18 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
     private final long[] singleThreadGlobalWorkSize = new long[] { 1 };
     private final long[] singleThreadLocalWorkSize = new long[] { 1 };
 
+    private int pendingCheckEvent = -1;
+    private OCLCallStack pendingCheckStack;
+    private TaskMetaData pendingCheckMeta;
+
     public OCLInstalledCode(final String entryPoint, final byte[] code, final OCLDeviceContext deviceContext, final OCLProgram program, final OCLKernel kernel) {
         super(entryPoint);
         this.code = code;
         this.deviceContext = deviceContext;
         this.scheduler = OCLScheduler.create(deviceContext);
         this.DEFAULT_SCHEDULER = new OCLGPUScheduler(deviceContext);
+        this.scheduler.setKernelSource(code);
+        this.DEFAULT_SCHEDULER.setKernelSource(code);
         this.kernel = kernel;
         valid = kernel != null;
         buffer.order(deviceContext.getByteOrder());
@@ -92,6 +101,14 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         return kernel;
     }
 
+    public void setTypedArguments(boolean value) {
+        typedArguments = value;
+    }
+
+    public boolean hasTypedArguments() {
+        return typedArguments;
+    }
+
     /**
      * It executes a kernel with 1 thread (the equivalent of calling
      * clEnqueueTask.
@@ -185,17 +202,20 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
             index++;
         }
 
-        // heap (global memory)
-        buffer.clear();
-        buffer.putLong(stack.toBuffer());
-        kernel.setArg(index, buffer);
-        index++;
+        // kernels with typed arguments take neither the heap nor the stack
+        if (!typedArguments) {
+            // heap (global memory)
+            buffer.clear();
+            buffer.putLong(stack.toBuffer());
+            kernel.setArg(index, buffer);
+            index++;
 
-        // stack pointer
-        buffer.clear();
-        buffer.putLong(stack.toRelativeAddress());
-        kernel.setArg(index, buffer);
-        index++;
+            // stack pointer
+            buffer.clear();
+            buffer.putLong(stack.toRelativeAddress());
+            kernel.setArg(index, buffer);
+            index++;
+        }
 
         // constant memory
         if (meta != null && meta.getConstantSize() > 0) {
@@ -218,9 +238,62 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         kernel.setArgUnused(index);
     }
 
+    /**
+     * Set the task arguments of a kernel compiled with typed arguments. They
+     * follow the ABI arguments, without the heap and the stack: arrays are
+     * passed as sub-buffers of the heap, each followed by the element offset
+     * of the array within it, and scalars by value.
+     *
+     * @param stack
+     *            OpenCL stack holding the pushed arguments {@link OCLCallStack}
+     */
+    private void setTypedKernelArgs(final OCLCallStack stack) {
+        int index = (deviceContext.needsBump()) ? 1 : 0;
+        index += OCLArchitecture.typedArgumentsAbiRegisters.length;
+
+        for (int i = 0; i < stack.getTypedArgumentCount(); i++, index++) {
+            final Object arg = stack.getTypedArgument(i);
+            buffer.clear();
+            if (arg == null) {
+                // only arrays can be null: clear the pointer and its offset
+                kernel.setArgUnused(index);
+                index++;
+                buffer.putLong(0);
+            } else if (arg instanceof OCLArrayWrapper) {
+                final OCLArrayWrapper<?> array = (OCLArrayWrapper<?>) arg;
+                buffer.putLong(array.toSubBuffer());
+                kernel.setArg(index, buffer);
+                // element offset of the array within its sub-buffer
+                index++;
+                buffer.clear();
+                buffer.putLong(array.getSubBufferElementOffset());
+            } else if (arg instanceof Integer) {
+                buffer.putInt((Integer) arg);
+            } else if (arg instanceof Long) {
+                buffer.putLong((Long) arg);
+            } else if (arg instanceof Float) {
+                buffer.putFloat((Float) arg);
+            } else if (arg instanceof Double) {
+                buffer.putDouble((Double) arg);
+            } else if (arg instanceof Short) {
+                buffer.putShort((Short) arg);
+            } else if (arg instanceof Character) {
+                buffer.putChar((Character) arg);
+            } else if (arg instanceof Byte) {
+                buffer.put((Byte) arg);
+            } else {
+                shouldNotReachHere("unsupported typed kernel argument: %s", arg.getClass().getName());
+            }
+            kernel.setArg(index, buffer);
+        }
+    }
+
     public int submitWithEvents(final OCLCallStack stack, final TaskMetaData meta, final int[] events, long batchThreads) {
         guarantee(kernel != null, "kernel is null");
 
+        // the stack of the previous launch is about to be reused
+        checkErrors();
+
         if (DEBUG) {
             info("kernel submitted: id=0x%x, method = %s, device =%s", kernel.getId(), kernel.getName(), deviceContext.getDevice().getDeviceName());
             info("\tstack    : buffer id=0x%x, device=0x%x (0x%x)", stack.toBuffer(), stack.toAbsoluteAddress(), stack.toRelativeAddress());
@@ -231,7 +304,12 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
          * changed
          */
         final int[] waitEvents;
-        if (!stack.isOnDevice()) {
+        if (typedArguments) {
+            // the parameters are kernel arguments, so the stack stays on the host
+            setKernelArgs(stack, meta);
+            setTypedKernelArgs(stack);
+            waitEvents = events;
+        } else if (!stack.isOnDevice()) {
             setKernelArgs(stack, meta);
             internalEvents[0] = stack.enqueueWrite(events);
             waitEvents = internalEvents;
@@ -269,7 +347,10 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
                 meta.addProfile(task);
             }
 
-            if (meta.enableExceptions()) {
+            if (meta.enableMemChecks()) {
+                internalEvents[0] = task;
+                task = enqueueBoundsCheckRead(stack, meta, internalEvents);
+            } else if (meta.enableExceptions()) {
                 internalEvents[0] = task;
                 task = stack.enqueueRead(internalEvents);
             }
@@ -310,6 +391,9 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
     }
 
     private void launchKernel(final OCLCallStack stack, final TaskMetaData meta, long batchThreads) {
+        // the stack of the previous launch is about to be reused
+        checkErrors();
+
         final int task;
         if (meta.isParallel()) {
             task = submitParallel(stack, meta, batchThreads);
@@ -323,11 +407,45 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         }
 
         // read the stack
-        if (meta.enableExceptions()) {
+        if (meta.enableMemChecks()) {
+            enqueueBoundsCheckRead(stack, meta, null);
+        } else if (meta.enableExceptions()) {
             stack.enqueueRead(null);
         }
     }
 
+    private int enqueueBoundsCheckRead(final OCLCallStack stack, final TaskMetaData meta, final int[] waitEvents) {
+        pendingCheckEvent = stack.enqueueRead(waitEvents);
+        deviceContext.retainEvent(pendingCheckEvent);
+        pendingCheckStack = stack;
+        pendingCheckMeta = meta;
+        return pendingCheckEvent;
+    }
+
+    /*
+     * A failed bounds check stores its deoptimisation reason in the call
+     * stack and stops the work-item. The stack is read back without blocking
+     * after the launch and inspected here, once the results are on the host.
+     */
+    @Override
+    public void checkErrors() {
+        if (pendingCheckEvent == -1) {
+            return;
+        }
+        final int event = pendingCheckEvent;
+        final OCLCallStack stack = pendingCheckStack;
+        final TaskMetaData meta = pendingCheckMeta;
+        pendingCheckEvent = -1;
+        pendingCheckStack = null;
+        pendingCheckMeta = null;
+
+        deviceContext.resolveEvent(event).waitOn();
+        deviceContext.releaseEvent(event);
+        if (stack.getDeoptValue() != 0) {
+            throw new TornadoRuntimeException(String.format("[ERROR] array index out of bounds in task %s (deopt=0x%x)", meta.getId(), stack.getDeoptValue()));
+        }
+    }
+
     private void checkKernelNotNull() {
         if (kernel == null) {
             throw new TornadoRuntimeException("[ERROR] Generated Kernel is NULL. \nPlease report this issue to https://github.com/beehive-lab/TornadoVM");
@@ -347,7 +465,10 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
          * Only set the kernel arguments if they are either: - not set or - have
          * changed
          */
-        if (!stack.isOnDevice()) {
+        if (typedArguments) {
+            setKernelArgs(stack, meta);
+            setTypedKernelArgs(stack);
+        } else if (!stack.isOnDevice()) {
             setKernelArgs(stack, meta);
             stack.enqueueWrite();
         }
@@ -85,6 +85,8 @@ import jdk.vm.ci.meta.PrimitiveConstant;
 import jdk.vm.ci.meta.ResolvedJavaField;
 import jdk.vm.ci.meta.ResolvedJavaType;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLHalfReadNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLHalfWriteNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLWriteAtomicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLWriteAtomicNode.ATOMIC_OPERATION;
@@ -92,8 +94,10 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLWriteNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicAddNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.CastNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.FixedArrayNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.FloatToHalfNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadIdNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadSizeNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.HalfToFloatNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.LoadIndexedVectorNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorLoadNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorStoreNode;
@@ -261,11 +265,36 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
         }
 
         AddressNode address = createArrayAddress(graph, loadIndexed.array(), elementKind, loadIndexed.index());
+        if (isHalfLoad(loadIndexed)) {
+            /*
+             * Every use widens the element to float: read it with vload_half
+             * instead of loading the short and converting it afterwards.
+             */
+            OCLHalfReadNode halfRead = graph.add(new OCLHalfReadNode(address, NamedLocationIdentity.getArrayLocation(elementKind)));
+            for (Node usage : loadIndexed.usages().snapshot()) {
+                usage.replaceAtUsages(halfRead);
+                GraphUtil.killWithUnusedFloatingInputs(usage);
+            }
+            graph.replaceFixedWithFixed(loadIndexed, halfRead);
+            return;
+        }
         ReadNode memoryRead = graph.add(new ReadNode(address, NamedLocationIdentity.getArrayLocation(elementKind), loadStamp, BarrierType.NONE));
         loadIndexed.replaceAtUsages(memoryRead);
         graph.replaceFixed(loadIndexed, memoryRead);
     }
 
+    private static boolean isHalfLoad(LoadIndexedNode loadIndexed) {
+        if (loadIndexed.elementKind() != JavaKind.Short || loadIndexed.hasNoUsages() || loadIndexed instanceof LoadIndexedVectorNode) {
+            return false;
+        }
+        for (Node usage : loadIndexed.usages()) {
+            if (!(usage instanceof HalfToFloatNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected void lowerAtomicStoreIndexedNode(StoreAtomicIndexedNode storeIndexed, LoweringTool tool) {
 
         StructuredGraph graph = storeIndexed.graph();
@@ -307,7 +336,11 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
         AddressNode address = createArrayAddress(graph, array, elementKind, storeIndexed.index());
 
         AbstractWriteNode memoryWrite = null;
-        if (isSimpleCharOrShort(elementKind, value)) {
+        if (elementKind == JavaKind.Short && value instanceof FloatToHalfNode) {
+            // Narrow and store in a single vstore_half_rte
+            ValueNode floatValue = ((FloatToHalfNode) value).getValue();
+            memoryWrite = graph.add(new OCLHalfWriteNode(address, NamedLocationIdentity.getArrayLocation(elementKind), floatValue, arrayStoreBarrierType(elementKind)));
+        } else if (isSimpleCharOrShort(elementKind, value)) {
             // XXX: This call is due to an error in Graal when storing a
             // variable of type char or short. In future integrations with JVMCI
             // and Graal, this issue is completely solved.
@@ -32,6 +32,8 @@ import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerCons
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.HEAP_REF_NAME;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.LOCAL_REGION_NAME;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.PRIVATE_REGION_NAME;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.TYPED_ARG_PREFIX;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.TYPED_OFFSET_PREFIX;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind.FLOAT;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind.LONG;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind.ULONG;
@@ -237,6 +239,18 @@ public final class OCLAssembler extends Assembler {
         public static final OCLUnaryIntrinsic LOG = new OCLUnaryIntrinsic("log");
         public static final OCLUnaryIntrinsic SIN = new OCLUnaryIntrinsic("sin");
         public static final OCLUnaryIntrinsic COS = new OCLUnaryIntrinsic("cos");
+
+        public static final OCLUnaryIntrinsic NATIVE_EXP = new OCLUnaryIntrinsic("native_exp");
+        public static final OCLUnaryIntrinsic NATIVE_SQRT = new OCLUnaryIntrinsic("native_sqrt");
+        public static final OCLUnaryIntrinsic NATIVE_LOG = new OCLUnaryIntrinsic("native_log");
+        public static final OCLUnaryIntrinsic NATIVE_SIN = new OCLUnaryIntrinsic("native_sin");
+        public static final OCLUnaryIntrinsic NATIVE_COS = new OCLUnaryIntrinsic("native_cos");
+
+        public static final OCLUnaryIntrinsic HALF_EXP = new OCLUnaryIntrinsic("half_exp");
+        public static final OCLUnaryIntrinsic HALF_SQRT = new OCLUnaryIntrinsic("half_sqrt");
+        public static final OCLUnaryIntrinsic HALF_LOG = new OCLUnaryIntrinsic("half_log");
+        public static final OCLUnaryIntrinsic HALF_SIN = new OCLUnaryIntrinsic("half_sin");
+        public static final OCLUnaryIntrinsic HALF_COS = new OCLUnaryIntrinsic("half_cos");
         
         public static final OCLUnaryIntrinsic LOCAL_MEMORY = new OCLUnaryIntrinsic("local");
 
@@ -253,6 +267,8 @@ public final class OCLAssembler extends Assembler {
 
         public static final OCLUnaryIntrinsic AS_FLOAT = new OCLUnaryIntrinsic("as_float");
         public static final OCLUnaryIntrinsic AS_INT = new OCLUnaryIntrinsic("as_int");
+        public static final OCLUnaryIntrinsic AS_DOUBLE = new OCLUnaryIntrinsic("as_double");
+        public static final OCLUnaryIntrinsic AS_LONG = new OCLUnaryIntrinsic("as_long");
 
         public static final OCLUnaryIntrinsic IS_FINITE = new OCLUnaryIntrinsic("isfinite");
         public static final OCLUnaryIntrinsic IS_INF = new OCLUnaryIntrinsic("isinf");
@@ -284,6 +300,8 @@ public final class OCLAssembler extends Assembler {
         public static final OCLUnaryTemplate LOAD_PARAM_ULONG = new OCLUnaryTemplate("param", "(ulong) " + FRAME_REF_NAME + "[%s]");
         public static final OCLUnaryTemplate LOAD_PARAM_UINT = new OCLUnaryTemplate("param", "(uint) " + FRAME_REF_NAME + "[%s]");
         public static final OCLUnaryTemplate SLOT_ADDRESS = new OCLUnaryTemplate("param", "(ulong) &" + FRAME_REF_NAME + "[%s]");
+        public static final OCLUnaryTemplate LOAD_TYPED_ARG = new OCLUnaryTemplate("param", TYPED_ARG_PREFIX + "%s");
+        public static final OCLUnaryTemplate LOAD_TYPED_ARG_ADDRESS = new OCLUnaryTemplate("param", "(ulong) &" + TYPED_ARG_PREFIX + "%1$s[" + TYPED_OFFSET_PREFIX + "%1$s]");
 
         public static final OCLUnaryTemplate MEM_CHECK = new OCLUnaryTemplate("mem check", "MEM_CHECK(%s)");
         public static final OCLUnaryTemplate INDIRECTION = new OCLUnaryTemplate("deref", "*(%s)");
@@ -291,6 +309,7 @@ public final class OCLAssembler extends Assembler {
         public static final OCLUnaryTemplate LOAD_ADDRESS_ABS = new OCLUnaryTemplate("load address", "*(%s)");
         public static final OCLUnaryTemplate LOAD_ADDRESS_REL = new OCLUnaryTemplate("load address", "*(%s) + (ulong) " + OCLAssemblerConstants.HEAP_REF_NAME + ")");
         public static final OCLUnaryTemplate ADDRESS_OF = new OCLUnaryTemplate("address of", "&(%s)");
+        public static final OCLUnaryTemplate LOAD_HALF_PRIVATE = new OCLUnaryTemplate("vload_half", "vload_half(0, (__private const half *) &%s)");
 
         public static final OCLUnaryTemplate NEW_INT_ARRAY = new OCLUnaryTemplate("int[]", "int[%s]");
         public static final OCLUnaryTemplate NEW_LONG_ARRAY = new OCLUnaryTemplate("long[]", "long[%s]");
@@ -394,6 +413,7 @@ public final class OCLAssembler extends Assembler {
         public static final OCLBinaryIntrinsic VLOAD4 = new OCLBinaryIntrinsic("vload4");
         public static final OCLBinaryIntrinsic VLOAD8 = new OCLBinaryIntrinsic("vload8");
         public static final OCLBinaryIntrinsic VLOAD16 = new OCLBinaryIntrinsic("vload16");
+        public static final OCLBinaryIntrinsic VLOAD_HALF = new OCLBinaryIntrinsic("vload_half");
 
         public static final OCLBinaryIntrinsic DOT = new OCLBinaryIntrinsic("dot");
         public static final OCLBinaryIntrinsic CROSS = new OCLBinaryIntrinsic("cross");
@@ -457,6 +477,7 @@ public final class OCLAssembler extends Assembler {
 
         public static final OCLBinaryTemplate NEW_ARRAY = new OCLBinaryTemplate("new array", "char %s[%s]");
         public static final OCLBinaryTemplate NEW_LOCAL_INT_ARRAY = new OCLBinaryTemplate("local memory array", "ulong %s = (__local ulong) &_local_region[0]; //__local int %s ");
+        public static final OCLBinaryTemplate LOCAL_REGION_ARRAY = new OCLBinaryTemplate("local region array", "ulong %s = (ulong) &_local_region[%s]");
 
         // @formatter:on
         private final String template;
@@ -509,6 +530,7 @@ public final class OCLAssembler extends Assembler {
         public static final OCLTernaryIntrinsic VSTORE4 = new OCLTernaryIntrinsic("vstore4");
         public static final OCLTernaryIntrinsic VSTORE8 = new OCLTernaryIntrinsic("vstore8");
         public static final OCLTernaryIntrinsic VSTORE16 = new OCLTernaryIntrinsic("vstore16");
+        public static final OCLTernaryIntrinsic VSTORE_HALF = new OCLTernaryIntrinsic("vstore_half_rte");
         public static final OCLTernaryIntrinsic CLAMP = new OCLTernaryIntrinsic("clamp");
         // @formatter:on
 
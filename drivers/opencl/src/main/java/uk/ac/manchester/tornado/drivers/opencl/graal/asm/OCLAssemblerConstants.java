@@ -45,6 +45,10 @@ public class OCLAssemblerConstants {
     public static final String HEAP_REF_NAME = "_heap_base";
     public static final String FRAME_BASE_NAME = "_frame_base";
     public static final String FRAME_REF_NAME = "_frame";
+    public static final String TYPED_ARG_PREFIX = "_arg";
+    public static final String TYPED_OFFSET_PREFIX = "_off";
+    public static final String RESTRICT_MODIFIER = "restrict";
+    public static final String CONST_MODIFIER = "const";
 
     public static final String STMT_DELIMITER = ";";
     public static final String EXPR_DELIMITER = ",";
@@ -75,10 +75,13 @@ import jdk.vm.ci.meta.DeoptimizationAction;
 import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.JavaType;
 import jdk.vm.ci.meta.Local;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.ResolvedJavaType;
+import jdk.vm.ci.meta.Signature;
 import jdk.vm.ci.meta.Value;
+import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.type.annotations.Vector;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCodeCache;
@@ -110,6 +113,7 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLNodeMatchRules;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLReferenceMapBuilder;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLByteBuffer;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLCallStack;
 import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
@@ -500,6 +504,40 @@ public class OCLBackend extends TornadoBackend<OCLProviders> implements FrameMap
         asm.emitLine("}");
     }
 
+    /*
+     * Declares the task parameters as kernel arguments: arrays become
+     * restrict-qualified pointers, const when the task only reads them, and
+     * scalars are passed by value. An array passed as more than one parameter
+     * is neither restrict nor const, as it may be written through another
+     * pointer.
+     */
+    private String getTypedArguments(OCLCompilationResultBuilder crb, ResolvedJavaMethod method) {
+        final Signature sig = method.getSignature();
+        final TaskMetaData meta = crb.getResult().getMeta();
+        final Access[] accesses = (meta != null) ? meta.getArgumentsAccess() : null;
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sig.getParameterCount(false); i++) {
+            final JavaType type = sig.getParameterType(i, method.getDeclaringClass());
+            final OCLKind oclKind = OCLCodeUtil.getTypedArgumentKind(type);
+            sb.append(", ");
+            if (type.getJavaKind().isObject()) {
+                final boolean isAliased = crb.getResult().isAliasedArgument(i);
+                final boolean isReadOnly = !isAliased && accesses != null && i < accesses.length && accesses[i] == Access.READ;
+                sb.append(OCLAssemblerConstants.GLOBAL_MEM_MODIFIER).append(" ");
+                if (isReadOnly) {
+                    sb.append(OCLAssemblerConstants.CONST_MODIFIER).append(" ");
+                }
+                final String qualifier = (isAliased) ? "" : OCLAssemblerConstants.RESTRICT_MODIFIER + " ";
+                sb.append(String.format("%s *%s%s%d", oclKind, qualifier, OCLAssemblerConstants.TYPED_ARG_PREFIX, i));
+                // element offset of the array object within its sub-buffer
+                sb.append(String.format(", long %s%d", OCLAssemblerConstants.TYPED_OFFSET_PREFIX, i));
+            } else {
+                sb.append(String.format("%s %s%d", oclKind, OCLAssemblerConstants.TYPED_ARG_PREFIX, i));
+            }
+        }
+        return sb.toString();
+    }
+
     private void emitPrologue(OCLCompilationResultBuilder crb, OCLAssembler asm, ResolvedJavaMethod method, LIR lir) {
 
         String methodName = crb.compilationResult.getName();
@@ -529,21 +567,27 @@ public class OCLBackend extends TornadoBackend<OCLProviders> implements FrameMap
                 asm.emitLine(fpgaSchedulingAttribute);
             }
             final String bumpBuffer = (deviceContext.needsBump()) ? String.format("%s void *dummy, ", OCLAssemblerConstants.GLOBAL_MEM_MODIFIER) : "";
+            // kernels with typed arguments take neither the heap nor the frame
+            final boolean typedArguments = crb.getResult().hasTypedArguments();
+            final String abi = (typedArguments) ? architecture.getTypedArgumentsABI() : architecture.getABI();
+            final String typedArgs = (typedArguments) ? getTypedArguments(crb, method) : "";
 
-            asm.emitLine("%s void %s(%s%s)", OCLAssemblerConstants.KERNEL_MODIFIER, methodName, bumpBuffer, architecture.getABI());
+            asm.emitLine("%s void %s(%s%s%s)", OCLAssemblerConstants.KERNEL_MODIFIER, methodName, bumpBuffer, abi, typedArgs);
             asm.beginScope();
             emitVariableDefs(crb, asm, lir);
             asm.eol();
-            asm.emitStmt("%s ulong *%s = (%s ulong *) &%s[%s]", OCLAssemblerConstants.GLOBAL_MEM_MODIFIER, OCLAssemblerConstants.FRAME_REF_NAME, OCLAssemblerConstants.GLOBAL_MEM_MODIFIER,
-                    OCLAssemblerConstants.HEAP_REF_NAME, OCLAssemblerConstants.FRAME_BASE_NAME);
-            asm.eol();
+            if (!typedArguments) {
+                asm.emitStmt("%s ulong *%s = (%s ulong *) &%s[%s]", OCLAssemblerConstants.GLOBAL_MEM_MODIFIER, OCLAssemblerConstants.FRAME_REF_NAME, OCLAssemblerConstants.GLOBAL_MEM_MODIFIER,
+                        OCLAssemblerConstants.HEAP_REF_NAME, OCLAssemblerConstants.FRAME_BASE_NAME);
+                asm.eol();
+            }
 
             if (DEBUG_KERNEL_ARGS && (method != null && !method.getDeclaringClass().getUnqualifiedName().equalsIgnoreCase(this.getClass().getSimpleName()))) {
                 emitDebugKernelArgs(asm, method);
             }
 
-            if (ENABLE_EXCEPTIONS) {
-                asm.emitStmt("if(slots[0] != 0) return");
+            if (ENABLE_EXCEPTIONS && !typedArguments) {
+                asm.emitStmt("if(%s[%d] != 0) return", OCLAssemblerConstants.FRAME_REF_NAME, OCLCallStack.DEOPT_VALUE_INDEX);
             }
             asm.eol();
         } else {
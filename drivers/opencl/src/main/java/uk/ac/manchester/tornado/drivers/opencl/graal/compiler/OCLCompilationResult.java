@@ -39,6 +39,8 @@ public class OCLCompilationResult extends CompilationResult {
     protected TaskMetaData meta;
     protected OCLBackend backend;
     protected String id;
+    protected boolean typedArguments;
+    protected boolean[] aliasedArguments;
 
     public OCLCompilationResult(String id, String name, TaskMetaData meta, OCLBackend backend) {
         super(name);
@@ -69,6 +71,26 @@ public class OCLCompilationResult extends CompilationResult {
         setTargetCode(newCode, size);
     }
 
+    public boolean hasTypedArguments() {
+        return typedArguments;
+    }
+
+    public void setTypedArguments(boolean value) {
+        typedArguments = value;
+    }
+
+    /**
+     * Returns whether the array passed as a parameter of the task is also
+     * passed as another parameter.
+     */
+    public boolean isAliasedArgument(int index) {
+        return aliasedArguments != null && index < aliasedArguments.length && aliasedArguments[index];
+    }
+
+    public void setAliasedArguments(boolean[] value) {
+        aliasedArguments = value;
+    }
+
     public TaskMetaData getMeta() {
         return meta;
     }
@@ -85,6 +85,7 @@ import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.TriState;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
+import uk.ac.manchester.tornado.drivers.opencl.graal.OCLCodeUtil;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLProviders;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLSuitesProvider;
 import uk.ac.manchester.tornado.drivers.opencl.graal.backend.OCLBackend;
@@ -93,6 +94,7 @@ import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.graal.TornadoLIRSuites;
 import uk.ac.manchester.tornado.runtime.graal.TornadoSuites;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoCompilerIdentifier;
+import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoMidTierContext;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
@@ -235,6 +237,9 @@ public class OCLCompiler {
             try (Scope s0 = Debug.scope("GraalCompiler", r.graph, r.providers.getCodeCache()); DebugCloseable a = CompilerTimer.start()) {
                 emitFrontEnd(r.providers, r.backend, r.installedCodeOwner, r.args, r.meta, r.graph, r.graphBuilderSuite, r.optimisticOpts, r.profilingInfo, r.suites, r.isKernel, r.buildGraph,
                         r.batchThreads);
+                if (r.isKernel && r.args != null) {
+                    r.compilationResult.setAliasedArguments(OCLCodeUtil.findAliasedArguments(r.args));
+                }
                 boolean isParallel = false;
                 if (r.meta != null && r.meta.isParallel()) {
                     isParallel = true;
@@ -361,6 +366,13 @@ public class OCLCompiler {
             FrameMapBuilder frameMapBuilder = backend.newFrameMapBuilder(registerConfig);
             LIRGenerationResult lirGenRes = backend.newLIRGenerationResult(graph.compilationId(), lir, frameMapBuilder, graph, stub);
             LIRGeneratorTool lirGen = backend.newLIRGenerator(lirGenRes);
+            if (compilationResult instanceof OCLCompilationResult && ((OCLCompilationResult) compilationResult).getMeta() != null) {
+                final TaskMetaData meta = ((OCLCompilationResult) compilationResult).getMeta();
+                ((OCLLIRGenerator) lirGen).getOCLBuiltinTool().setMathPrecision(meta.getMathPrecision());
+                final boolean typedArguments = isKernel && OCLCodeUtil.hasTypedArguments(graph, meta);
+                ((OCLLIRGenerator) lirGen).getOCLGenTool().setTypedArguments(typedArguments);
+                ((OCLCompilationResult) compilationResult).setTypedArguments(typedArguments);
+            }
             NodeLIRBuilderTool nodeLirGen = backend.newNodeLIRBuilder(graph, lirGen);
 
             // LIR generation
@@ -478,13 +490,14 @@ public class OCLCompiler {
         info("Compiling sketch %s on %s", resolvedMethod.getName(), backend.getDeviceContext().getDevice().getDeviceName());
 
         final TaskMetaData taskMeta = task.meta();
+        taskMeta.setReduction(kernelGraph.getNodes().filter(StoreAtomicIndexedNode.class).isNotEmpty());
         final Object[] args = task.getArguments();
         final long batchThreads = (taskMeta.getNumThreads() > 0) ? taskMeta.getNumThreads() : task.getBatchThreads();
 
         OptimisticOptimizations optimisticOpts = OptimisticOptimizations.ALL;
         ProfilingInfo profilingInfo = resolvedMethod.getProfilingInfo();
 
-        OCLCompilationResult kernelCompResult = new OCLCompilationResult(task.getId(), resolvedMethod.getName(), taskMeta, backend);
+        OCLCompilationResult kernelCompResult = new OCLCompilationResult(taskMeta.getCompiledCodeId(), resolvedMethod.getName(), taskMeta, backend);
         CompilationResultBuilderFactory factory = CompilationResultBuilderFactory.Default;
 
         Set<ResolvedJavaMethod> methods = new HashSet<>();
@@ -509,7 +522,7 @@ public class OCLCompiler {
         while (!worklist.isEmpty()) {
             final ResolvedJavaMethod currentMethod = worklist.pop();
             Sketch currentSketch = TornadoSketcher.lookup(currentMethod);
-            final OCLCompilationResult compResult = new OCLCompilationResult(task.getId(), currentMethod.getName(), taskMeta, backend);
+            final OCLCompilationResult compResult = new OCLCompilationResult(taskMeta.getCompiledCodeId(), currentMethod.getName(), taskMeta, backend);
             final StructuredGraph graph = (StructuredGraph) currentSketch.getGraph().getMutableCopy(null);
 
             Request<OCLCompilationResult> methodcompilationRequest = new Request<>(graph, currentMethod, null, null, providers, backend, suitesProvider.getGraphBuilderSuite(), optimisticOpts,
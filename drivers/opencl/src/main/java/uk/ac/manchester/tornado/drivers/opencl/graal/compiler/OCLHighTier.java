@@ -46,6 +46,8 @@ import org.graalvm.compiler.phases.common.inlining.InliningPhase;
 import org.graalvm.compiler.phases.schedule.SchedulePhase;
 import org.graalvm.compiler.virtual.phases.ea.PartialEscapePhase;
 
+import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoAutoVectoriser;
+import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoLocalMemoryTiling;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoOpenCLIntrinsicsReplacements;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoParallelScheduler;
 import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoPragmaUnroll;
@@ -53,6 +55,7 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.phases.TornadoTaskSpecialis
 import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoHighTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.ExceptionSuppression;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoBoundsCheckElimination;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoShapeAnalysis;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoValueTypeCleanup;
@@ -97,6 +100,9 @@ public class OCLHighTier extends TornadoHighTier {
 
         appendPhase(new TornadoShapeAnalysis());
         appendPhase(canonicalizer);
+        appendPhase(new TornadoBoundsCheckElimination());
+        appendPhase(new TornadoLocalMemoryTiling());
+        appendPhase(new TornadoAutoVectoriser());
         appendPhase(new TornadoParallelScheduler());
         appendPhase(new SchedulePhase(SchedulePhase.SchedulingStrategy.EARLIEST));
 
@@ -623,7 +623,11 @@ public class OCLNodeLIRBuilder extends NodeLIRBuilder {
 
     protected void emitPrologue(final StructuredGraph graph, boolean isKernel) {
 
-        if (isKernel) {
+        if (isKernel && getGen().getOCLGenTool().hasTypedArguments()) {
+            for (final ParameterNode param : graph.getNodes(ParameterNode.TYPE)) {
+                setResult(param, getGen().getOCLGenTool().emitTypedParameterLoad(param, param.index()));
+            }
+        } else if (isKernel) {
 
             for (final ParameterNode param : graph.getNodes(ParameterNode.TYPE)) {
                 setResult(param, getGen().getOCLGenTool().emitParameterLoad(param, param.index()));
@@ -52,7 +52,10 @@ import org.graalvm.compiler.nodes.util.GraphUtil;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.collections.types.Half;
 import uk.ac.manchester.tornado.api.exceptions.Debug;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.FloatToHalfNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.HalfToFloatNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPBinaryIntrinsicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPUnaryIntrinsicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode;
@@ -253,6 +256,27 @@ public class OCLGraphBuilderPlugins {
                 return true;
             }
         });
+
+        registerHalfPlugins(plugins);
+    }
+
+    private static void registerHalfPlugins(InvocationPlugins plugins) {
+        Registration r = new Registration(plugins, Half.class);
+        r.register1("toFloat", Short.TYPE, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode value) {
+                b.push(JavaKind.Float, b.append(HalfToFloatNode.create(value)));
+                return true;
+            }
+        });
+
+        r.register1("fromFloat", Float.TYPE, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode value) {
+                b.push(JavaKind.Short, b.append(FloatToHalfNode.create(value)));
+                return true;
+            }
+        });
     }
 
     private static void registerFPIntrinsics(Registration r, Class<?> type, JavaKind kind) {
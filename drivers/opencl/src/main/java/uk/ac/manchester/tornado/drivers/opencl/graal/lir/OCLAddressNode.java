@@ -24,7 +24,6 @@
 package uk.ac.manchester.tornado.drivers.opencl.graal.lir;
 
 import org.graalvm.compiler.graph.NodeClass;
-import org.graalvm.compiler.lir.Variable;
 import org.graalvm.compiler.nodeinfo.NodeInfo;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.memory.address.AddressNode;
@@ -68,10 +67,10 @@ public class OCLAddressNode extends AddressNode implements LIRLowerable {
 
         if (index == null) {
             gen.setResult(this, new MemoryAccess(memoryRegister, baseValue, false));
+            return;
         }
 
-        Variable addressValue = tool.getArithmetic().emitAdd(baseValue, indexValue, false);
-        gen.setResult(this, new MemoryAccess(memoryRegister, addressValue, false));
+        gen.setResult(this, tool.getOCLGenTool().emitArrayAccess(memoryRegister, baseValue, indexValue, index, graph().method()));
     }
 
     @Override
@@ -47,9 +47,11 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryO
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLTernaryIntrinsic;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryOp;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryTemplate;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLLIRGenerator;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLBinary.TestZeroExpression;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.AssignStmt;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.ConvertToHalfStmt;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.LoadStmt;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.StoreAtomicAddFloatStmt;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.StoreAtomicAddStmt;
@@ -180,7 +182,20 @@ public class OCLArithmeticTool extends ArithmeticLIRGenerator {
 
     @Override
     public Value emitReinterpret(LIRKind lirKind, Value x) {
-        unimplemented();
+        trace("emitReinterpret: (%s) %s", lirKind, x);
+        guarantee(lirKind.getPlatformKind() instanceof OCLKind, "invalid LIRKind: %s", lirKind);
+        switch ((OCLKind) lirKind.getPlatformKind()) {
+            case FLOAT:
+                return emitUnaryAssign(OCLUnaryIntrinsic.AS_FLOAT, lirKind, x);
+            case INT:
+                return emitUnaryAssign(OCLUnaryIntrinsic.AS_INT, lirKind, x);
+            case DOUBLE:
+                return emitUnaryAssign(OCLUnaryIntrinsic.AS_DOUBLE, lirKind, x);
+            case LONG:
+                return emitUnaryAssign(OCLUnaryIntrinsic.AS_LONG, lirKind, x);
+            default:
+                unimplemented("reinterpret to %s", lirKind);
+        }
         return null;
     }
 
@@ -304,6 +319,51 @@ public class OCLArithmeticTool extends ArithmeticLIRGenerator {
         getGen().append(new VectorLoadStmt(result, op, index, cast, address));
     }
 
+    /**
+     * Reads a half-precision element from memory straight into a float
+     * register using vload_half.
+     */
+    public Variable emitHalfLoad(Value address) {
+        trace("emitHalfLoad: %s", address);
+        final Variable result = getGen().newVariable(LIRKind.value(OCLKind.FLOAT));
+        MemoryAccess memAccess = (MemoryAccess) address;
+        OCLAddressCast cast = new OCLAddressCast(memAccess.getBase(), LIRKind.value(OCLKind.HALF));
+        emitVectorLoad(result, OCLBinaryIntrinsic.VLOAD_HALF, new ConstantValue(LIRKind.value(OCLKind.INT), PrimitiveConstant.INT_0), cast, memAccess);
+        return result;
+    }
+
+    /**
+     * Narrows a float to half precision (round to nearest even) and writes it
+     * to memory using vstore_half_rte.
+     */
+    public void emitHalfStore(Value address, Value input) {
+        trace("emitHalfStore: address=%s, input=%s", address, input);
+        MemoryAccess memAccess = (MemoryAccess) address;
+        OCLAddressCast cast = new OCLAddressCast(memAccess.getBase(), LIRKind.value(OCLKind.HALF));
+        getGen().append(new VectorStoreStmt(OCLTernaryIntrinsic.VSTORE_HALF, new ConstantValue(LIRKind.value(OCLKind.INT), PrimitiveConstant.INT_0), cast, memAccess, input));
+    }
+
+    /**
+     * Widens a half-precision bit pattern held in a register to a float. Used
+     * when the conversion could not be fused with a load.
+     */
+    public Variable emitHalfToFloat(Value input) {
+        trace("emitHalfToFloat: %s", input);
+        Variable bits = emitUnaryAssign(OCLUnaryOp.CAST_TO_SHORT, LIRKind.value(OCLKind.SHORT), input);
+        return emitUnaryAssign(OCLUnaryTemplate.LOAD_HALF_PRIVATE, LIRKind.value(OCLKind.FLOAT), bits);
+    }
+
+    /**
+     * Narrows a float held in a register to a half-precision bit pattern.
+     * Used when the conversion could not be fused with a store.
+     */
+    public Variable emitFloatToHalf(Value input) {
+        trace("emitFloatToHalf: %s", input);
+        final Variable result = getGen().newVariable(LIRKind.value(OCLKind.SHORT));
+        getGen().append(new ConvertToHalfStmt(result, input));
+        return result;
+    }
+
     @Override
     public Variable emitLoad(LIRKind lirKind, Value address, LIRFrameState state) {
         trace("emitLoad: %s <- %s\nstate:%s", lirKind, address, state);
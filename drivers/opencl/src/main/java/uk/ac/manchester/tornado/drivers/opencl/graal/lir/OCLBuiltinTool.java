@@ -40,7 +40,17 @@ import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCL
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.FLOAT_ABS;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.FLOAT_FLOOR;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.FLOAT_TRUNC;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.HALF_COS;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.HALF_EXP;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.HALF_LOG;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.HALF_SIN;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.HALF_SQRT;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.LOG;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.NATIVE_COS;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.NATIVE_EXP;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.NATIVE_LOG;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.NATIVE_SIN;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.NATIVE_SQRT;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.POPCOUNT;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.SIN;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.SQRT;
@@ -50,9 +60,41 @@ import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.lir.Variable;
 
 import jdk.vm.ci.meta.Value;
+import uk.ac.manchester.tornado.api.enums.TornadoMathPrecision;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic;
 
 public class OCLBuiltinTool {
 
+    private TornadoMathPrecision mathPrecision = TornadoMathPrecision.PRECISE;
+
+    public void setMathPrecision(TornadoMathPrecision mathPrecision) {
+        this.mathPrecision = (mathPrecision == null) ? TornadoMathPrecision.PRECISE : mathPrecision;
+    }
+
+    public TornadoMathPrecision getMathPrecision() {
+        return mathPrecision;
+    }
+
+    /**
+     * Picks the reduced-precision variant of a single-precision built-in when
+     * the task has been compiled with relaxed math. Double-precision inputs
+     * always use the full-precision built-in, as OpenCL only defines the
+     * half_ and native_ functions for float.
+     */
+    private OCLUnaryIntrinsic resolvePrecision(Value input, OCLUnaryIntrinsic precise, OCLUnaryIntrinsic half, OCLUnaryIntrinsic nativeOp) {
+        if (input.getPlatformKind() != OCLKind.FLOAT) {
+            return precise;
+        }
+        switch (mathPrecision) {
+            case HALF:
+                return half;
+            case NATIVE:
+                return nativeOp;
+            default:
+                return precise;
+        }
+    }
+
     public Value genFloatACos(Value input) {
         unimplemented();
         return null;
@@ -110,7 +152,7 @@ public class OCLBuiltinTool {
 
     public Value genFloatCos(Value input) {
         trace("genCos: cos(%s)", input);
-        return new OCLUnary.Intrinsic(COS, LIRKind.value(input.getPlatformKind()), input);
+        return new OCLUnary.Intrinsic(resolvePrecision(input, COS, HALF_COS, NATIVE_COS), LIRKind.value(input.getPlatformKind()), input);
     }
 
     public Value genFloatCosh(Value input) {
@@ -135,7 +177,7 @@ public class OCLBuiltinTool {
 
     public Value genFloatExp(Value input) {
         trace("genExp: exp(%s)", input);
-        return new OCLUnary.Intrinsic(EXP, LIRKind.value(input.getPlatformKind()), input);
+        return new OCLUnary.Intrinsic(resolvePrecision(input, EXP, HALF_EXP, NATIVE_EXP), LIRKind.value(input.getPlatformKind()), input);
     }
 
     public Value genFloatExp2(Value input) {
@@ -170,7 +212,7 @@ public class OCLBuiltinTool {
 
     public Value genFloatLog(Value input) {
         trace("genLog: log(%s)", input);
-        return new OCLUnary.Intrinsic(LOG, LIRKind.value(input.getPlatformKind()), input);
+        return new OCLUnary.Intrinsic(resolvePrecision(input, LOG, HALF_LOG, NATIVE_LOG), LIRKind.value(input.getPlatformKind()), input);
     }
 
     public Value genFloatLog2(Value input) {
@@ -215,7 +257,7 @@ public class OCLBuiltinTool {
 
     public Value genFloatSin(Value input) {
         trace("genSin: sin(%s)", input);
-        return new OCLUnary.Intrinsic(SIN, LIRKind.value(input.getPlatformKind()), input);
+        return new OCLUnary.Intrinsic(resolvePrecision(input, SIN, HALF_SIN, NATIVE_SIN), LIRKind.value(input.getPlatformKind()), input);
     }
 
     public Value genFloatSinh(Value input) {
@@ -390,7 +432,7 @@ public class OCLBuiltinTool {
 
     public Value genFloatSqrt(Value input) {
         trace("genAbs: sqrt(%s)", input);
-        return new OCLUnary.Intrinsic(SQRT, LIRKind.value(input.getPlatformKind()), input);
+        return new OCLUnary.Intrinsic(resolvePrecision(input, SQRT, HALF_SQRT, NATIVE_SQRT), LIRKind.value(input.getPlatformKind()), input);
     }
 
     public Value genIntMax(Value x, Value y) {
@@ -32,6 +32,7 @@ import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerCons
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.DEFAULT_CASE;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.EXPR_DELIMITER;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.FOR_LOOP;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.FRAME_REF_NAME;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.STMT_DELIMITER;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.SWITCH;
 
@@ -45,6 +46,7 @@ import jdk.vm.ci.meta.Value;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResultBuilder;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.AbstractInstruction;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLCallStack;
 
 public class OCLControlFlow {
 
@@ -360,12 +362,14 @@ public class OCLControlFlow {
 
         @Override
         public void emitCode(OCLCompilationResultBuilder crb, OCLAssembler asm) {
-            asm.indent();
-            asm.emit("slots[0] = (ulong) ");
-            asm.emitValue(crb, actionAndReason);
-            asm.delimiter();
-
-            asm.eol();
+            // kernels with typed arguments have no frame to report the reason in
+            if (!crb.getResult().hasTypedArguments()) {
+                asm.indent();
+                asm.emit("%s[%d] = (ulong) ", FRAME_REF_NAME, OCLCallStack.DEOPT_VALUE_INDEX);
+                asm.emitValue(crb, actionAndReason);
+                asm.delimiter();
+                asm.eol();
+            }
             asm.ret();
         }
 
@@ -29,19 +29,26 @@ import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.unimp
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.STACK_BASE_OFFSET;
 import static uk.ac.manchester.tornado.runtime.graal.compiler.TornadoCodeGenerator.trace;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.lir.ConstantValue;
 import org.graalvm.compiler.lir.Variable;
 import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.ValueNode;
 
 import jdk.vm.ci.meta.AllocatableValue;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.JavaType;
 import jdk.vm.ci.meta.PrimitiveConstant;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.Value;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture.OCLMemoryBase;
+import uk.ac.manchester.tornado.drivers.opencl.graal.OCLCodeUtil;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryOp;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryTemplate;
@@ -50,14 +57,31 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.AssignStmt;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLLIRStmt.VectorLoadStmt;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary.MemoryAccess;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary.OCLAddressCast;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLUnary.TypedMemoryAccess;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorUtil;
 
 public class OCLGenTool {
 
     protected OCLLIRGenerator gen;
 
+    private final Map<Value, Integer> typedArrays;
+    private boolean typedArguments;
+
     public OCLGenTool(OCLLIRGenerator gen) {
         this.gen = gen;
+        this.typedArrays = new HashMap<>();
+    }
+
+    public void setTypedArguments(boolean typedArguments) {
+        this.typedArguments = typedArguments;
+    }
+
+    /**
+     * Whether the kernel being generated receives its parameters as typed
+     * kernel arguments instead of through the call stack.
+     */
+    public boolean hasTypedArguments() {
+        return typedArguments;
     }
 
     public void emitVectorLoad(AllocatableValue result, OCLBinaryIntrinsic op, Value index, OCLAddressCast cast, MemoryAccess address) {
@@ -96,6 +120,49 @@ public class OCLGenTool {
         return result;
     }
 
+    /**
+     * Loads a parameter passed as a typed kernel argument. Arrays are passed as
+     * a pointer to their sub-buffer plus the element offset of the object
+     * within it. The address of the object is still materialised for
+     * accesses that are not indexed through the array (e.g. the length).
+     */
+    public Value emitTypedParameterLoad(ParameterNode paramNode, int index) {
+
+        trace("emitTypedParameterLoad: stamp=%s", paramNode.stamp());
+
+        LIRKind lirKind = gen.getLIRKind(paramNode.stamp());
+        Variable result = gen.newVariable(lirKind);
+        final boolean isArray = paramNode.getStackKind().isObject();
+        final OCLUnaryOp op = (isArray) ? OCLUnaryTemplate.LOAD_TYPED_ARG_ADDRESS : OCLUnaryTemplate.LOAD_TYPED_ARG;
+        gen.append(new AssignStmt(result, new OCLUnary.Expr(op, lirKind, new ConstantValue(LIRKind.value(OCLKind.INT), JavaConstant.forInt(index)))));
+        if (isArray) {
+            typedArrays.put(result, index);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the memory access for an address within an array. Accesses to
+     * the elements of arrays passed as typed kernel arguments are emitted
+     * through the restrict-qualified pointer of the argument; any other access
+     * (including the array length, whose offset is not a multiple of the
+     * element size of long and double arrays) adds the offset to the base
+     * address.
+     */
+    public MemoryAccess emitArrayAccess(OCLMemoryBase memoryRegister, Value base, Value offset, ValueNode offsetNode, ResolvedJavaMethod method) {
+        final Integer argumentIndex = typedArrays.get(base);
+        if (argumentIndex != null && method != null) {
+            final JavaType type = method.getSignature().getParameterType(argumentIndex, method.getDeclaringClass());
+            final OCLKind elementKind = OCLCodeUtil.getTypedArgumentKind(type);
+            if (!offsetNode.isJavaConstant() || offsetNode.asJavaConstant().asLong() % elementKind.getSizeInBytes() == 0) {
+                trace("emitArrayAccess: typed argument %d (%s)", argumentIndex, elementKind);
+                return new TypedMemoryAccess(memoryRegister, argumentIndex, elementKind, offset);
+            }
+        }
+        Variable addressValue = gen.getArithmetic().emitAdd(base, offset, false);
+        return new MemoryAccess(memoryRegister, addressValue, false);
+    }
+
     private OCLUnaryOp getParameterLoadOp(OCLKind type) {
 
         if (type.isVector()) {
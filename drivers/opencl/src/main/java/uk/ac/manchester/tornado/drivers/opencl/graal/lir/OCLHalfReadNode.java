@@ -0,0 +1,65 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.lir;
+
+import org.graalvm.compiler.core.common.LocationIdentity;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.memory.FixedAccessNode;
+import org.graalvm.compiler.nodes.memory.LIRLowerableAccess;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Loads a half-precision element and widens it to float in one vload_half.
+ */
+@NodeInfo(nameTemplate = "OCLHalfRead#{p#location/s}")
+public class OCLHalfReadNode extends FixedAccessNode implements LIRLowerableAccess {
+
+    public static final NodeClass<OCLHalfReadNode> TYPE = NodeClass.create(OCLHalfReadNode.class);
+
+    public OCLHalfReadNode(AddressNode address, LocationIdentity location) {
+        super(TYPE, address, location, StampFactory.forKind(JavaKind.Float));
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        OCLArithmeticTool arithmetic = (OCLArithmeticTool) gen.getLIRGeneratorTool().getArithmetic();
+        gen.setResult(this, arithmetic.emitHalfLoad(gen.operand(getAddress())));
+    }
+
+    @Override
+    public boolean canNullCheck() {
+        return true;
+    }
+
+    @Override
+    public Stamp getAccessStamp() {
+        return stamp();
+    }
+}
@@ -31,6 +31,7 @@ import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
 import jdk.vm.ci.meta.AllocatableValue;
 import jdk.vm.ci.meta.Value;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic;
 import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLTernaryIntrinsic;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResultBuilder;
@@ -751,6 +752,51 @@ public class OCLLIRStmt {
         }
     }
 
+    /**
+     * Narrows a float held in a register to its half-precision bit pattern
+     * by storing it through a private half pointer that aliases the short
+     * result.
+     */
+    @Opcode("VSTORE_HALF")
+    public static class ConvertToHalfStmt extends AbstractInstruction {
+
+        public static final LIRInstructionClass<ConvertToHalfStmt> TYPE = LIRInstructionClass.create(ConvertToHalfStmt.class);
+
+        @Def
+        protected AllocatableValue lhs;
+        @Use
+        protected Value rhs;
+
+        public ConvertToHalfStmt(AllocatableValue lhs, Value rhs) {
+            super(TYPE);
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        public void emitCode(OCLCompilationResultBuilder crb, OCLAssembler asm) {
+            asm.indent();
+            asm.emit(OCLTernaryIntrinsic.VSTORE_HALF.toString());
+            asm.emit("(");
+            asm.emitValue(crb, rhs);
+            asm.emit(", 0, (");
+            asm.emit(OCLAssemblerConstants.PRIVATE_MEM_MODIFIER);
+            asm.emit(" half *) &");
+            asm.emitValue(crb, lhs);
+            asm.emit(")");
+            asm.delimiter();
+            asm.eol();
+        }
+
+        public AllocatableValue getResult() {
+            return lhs;
+        }
+
+        public Value getExpr() {
+            return rhs;
+        }
+    }
+
     @Opcode("EXPR")
     public static class ExprStmt extends AbstractInstruction {
 
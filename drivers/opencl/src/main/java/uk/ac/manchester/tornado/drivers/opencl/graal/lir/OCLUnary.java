@@ -28,6 +28,8 @@ package uk.ac.manchester.tornado.drivers.opencl.graal.lir;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.ADDRESS_OF;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.SQUARE_BRACKETS_CLOSE;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.SQUARE_BRACKETS_OPEN;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.TYPED_ARG_PREFIX;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants.TYPED_OFFSET_PREFIX;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.OPENCL_USE_RELATIVE_ADDRESSES;
 
 import org.graalvm.compiler.core.common.LIRKind;
@@ -177,6 +179,42 @@ public class OCLUnary {
         }
     }
 
+    /**
+     * Access to an array passed as a typed kernel argument. The element is
+     * addressed through the restrict-qualified pointer of the argument, from
+     * the byte offset of the access within the array object.
+     */
+    public static class TypedMemoryAccess extends MemoryAccess {
+
+        private final int argumentIndex;
+        private final int shift;
+
+        public TypedMemoryAccess(OCLMemoryBase base, int argumentIndex, OCLKind elementKind, Value offset) {
+            super(base, offset, false);
+            this.argumentIndex = argumentIndex;
+            this.shift = Integer.numberOfTrailingZeros(elementKind.getSizeInBytes());
+        }
+
+        @Override
+        public void emit(OCLCompilationResultBuilder crb, OCLAssembler asm) {
+            asm.emitSymbol(ADDRESS_OF);
+            asm.emit("%s%d", TYPED_ARG_PREFIX, argumentIndex);
+            asm.emitSymbol(SQUARE_BRACKETS_OPEN);
+            asm.emit("%s%d + (", TYPED_OFFSET_PREFIX, argumentIndex);
+            asm.emitValue(crb, value);
+            if (shift > 0) {
+                asm.emit(" >> %d", shift);
+            }
+            asm.emit(")");
+            asm.emitSymbol(SQUARE_BRACKETS_CLOSE);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("&%s%d[%s]", TYPED_ARG_PREFIX, argumentIndex, value);
+        }
+    }
+
     public static class OCLAddressCast extends UnaryConsumer {
 
         private final OCLMemoryBase base;
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.graph.spi.CanonicalizerTool;
+import org.graalvm.compiler.lir.gen.ArithmeticLIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.UnaryNode;
+import org.graalvm.compiler.nodes.spi.ArithmeticLIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+
+import jdk.vm.ci.meta.JavaKind;
+import uk.ac.manchester.tornado.api.collections.types.Half;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLArithmeticTool;
+
+/**
+ * Widens a half-precision bit pattern ({@link Half#toFloat(short)}) to a
+ * float. When the input is a load from a short array the conversion is fused
+ * into a single vload_half during lowering.
+ */
+@NodeInfo(shortName = "half->float")
+public class HalfToFloatNode extends UnaryNode implements ArithmeticLIRLowerable {
+
+    public static final NodeClass<HalfToFloatNode> TYPE = NodeClass.create(HalfToFloatNode.class);
+
+    protected HalfToFloatNode(ValueNode value) {
+        super(TYPE, StampFactory.forKind(JavaKind.Float), value);
+    }
+
+    public static ValueNode create(ValueNode value) {
+        ValueNode c = tryConstantFold(value);
+        if (c != null) {
+            return c;
+        }
+        return new HalfToFloatNode(value);
+    }
+
+    protected static ValueNode tryConstantFold(ValueNode value) {
+        if (value.isConstant()) {
+            return ConstantNode.forFloat(Half.toFloat((short) value.asJavaConstant().asInt()));
+        }
+        return null;
+    }
+
+    @Override
+    public Node canonical(CanonicalizerTool tool, ValueNode forValue) {
+        ValueNode c = tryConstantFold(forValue);
+        if (c != null) {
+            return c;
+        }
+        return this;
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool builder, ArithmeticLIRGeneratorTool lirGen) {
+        builder.setResult(this, ((OCLArithmeticTool) lirGen).emitHalfToFloat(builder.operand(getValue())));
+    }
+}
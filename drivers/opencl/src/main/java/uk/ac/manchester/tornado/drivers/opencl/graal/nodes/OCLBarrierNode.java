@@ -49,7 +49,11 @@ public class OCLBarrierNode extends FixedWithNextNode implements LIRLowerable, M
     private final OCLMemFenceFlags flags;
 
     public OCLBarrierNode(OCLMemFenceFlags flags) {
-        super(TYPE, StampFactory.forVoid());
+        this(TYPE, flags);
+    }
+
+    protected OCLBarrierNode(NodeClass<? extends OCLBarrierNode> c, OCLMemFenceFlags flags) {
+        super(c, StampFactory.forVoid());
         this.flags = flags;
     }
 
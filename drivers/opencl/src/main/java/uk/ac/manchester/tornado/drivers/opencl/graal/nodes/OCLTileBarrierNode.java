@@ -0,0 +1,58 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
+
+import org.graalvm.compiler.core.common.LocationIdentity;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Barrier that follows the copy of array tiles into local memory. The reads of
+ * the tiles cannot float above it, so it kills the array locations of the
+ * element kinds that were tiled.
+ */
+@NodeInfo
+public class OCLTileBarrierNode extends OCLBarrierNode implements MemoryCheckpoint.Multi {
+
+    public static final NodeClass<OCLTileBarrierNode> TYPE = NodeClass.create(OCLTileBarrierNode.class);
+
+    private final LocationIdentity[] locations;
+
+    public OCLTileBarrierNode(JavaKind... tiledKinds) {
+        super(TYPE, OCLMemFenceFlags.LOCAL);
+        this.locations = new LocationIdentity[tiledKinds.length];
+        for (int i = 0; i < tiledKinds.length; i++) {
+            locations[i] = NamedLocationIdentity.getArrayLocation(tiledKinds[i]);
+        }
+    }
+
+    @Override
+    public LocationIdentity[] getLocationIdentities() {
+        return locations;
+    }
+}
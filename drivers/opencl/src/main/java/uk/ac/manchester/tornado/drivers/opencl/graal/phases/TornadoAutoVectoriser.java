@@ -0,0 +1,368 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ACCELERATOR_IS_FPGA;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.compiler.debug.Debug;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.DivNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.java.AccessIndexedNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+
+import jdk.vm.ci.meta.JavaKind;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.LoadIndexedVectorNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorAddNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorDivNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorMulNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorSubNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.vector.VectorValueNode;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelStrideNode;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Vectorises unit-stride {@code @Parallel} loops over primitive arrays.
+ *
+ * The loop body has to be a straight-line sequence of {@code a[i]} reads and
+ * writes combined with {@code + - * /} and loop-invariant scalars. The stride
+ * of the parallel loop becomes the vector width {@code N}: the body is
+ * rewritten with {@code vloadN}/{@code vstoreN} and vector arithmetic, so each
+ * work-item handles {@code N} consecutive iterations. When {@code N} does not
+ * divide the iteration space, the last work-item runs the remaining
+ * iterations through scalar copies of the body.
+ *
+ * Enabled with {@code -Dtornado.vectors.auto=True}; the width (2, 4 or 8) is
+ * set with {@code tornado.vectors.width}.
+ */
+public class TornadoAutoVectoriser extends BasePhase<TornadoHighTierContext> {
+
+    private static final double VECTOR_BRANCH_PROBABILITY = 0.9;
+
+    private static boolean isIntConstant(ValueNode value, int expected) {
+        return value instanceof ConstantNode && value.getStackKind() == JavaKind.Int && ((ConstantNode) value).asJavaConstant().asInt() == expected;
+    }
+
+    private static boolean isArgumentArray(ValueNode array) {
+        return array instanceof ParameterNode || (array instanceof PiNode && ((PiNode) array).object() instanceof ParameterNode);
+    }
+
+    private static boolean isSupportedKind(JavaKind kind) {
+        return kind == JavaKind.Int || kind == JavaKind.Float || kind == JavaKind.Double;
+    }
+
+    private static boolean isSupportedWidth(int width) {
+        return width == 2 || width == 4 || width == 8;
+    }
+
+    private static boolean isVectorisable(ValueNode value, List<FixedWithNextNode> body, JavaKind kind) {
+        if (value instanceof LoadIndexedNode) {
+            return body.contains(value);
+        } else if (value instanceof ConstantNode || value instanceof ParameterNode) {
+            return value.getStackKind() == kind;
+        } else if (value instanceof AddNode || value instanceof SubNode || value instanceof MulNode) {
+            final ValueNode[] inputs = getInputs(value);
+            return isVectorisable(inputs[0], body, kind) && isVectorisable(inputs[1], body, kind);
+        } else if (value instanceof DivNode && kind.isNumericFloat()) {
+            final ValueNode[] inputs = getInputs(value);
+            return isVectorisable(inputs[0], body, kind) && isVectorisable(inputs[1], body, kind);
+        }
+        return false;
+    }
+
+    private static ValueNode[] getInputs(ValueNode value) {
+        if (value instanceof AddNode) {
+            return new ValueNode[] { ((AddNode) value).getX(), ((AddNode) value).getY() };
+        } else if (value instanceof SubNode) {
+            return new ValueNode[] { ((SubNode) value).getX(), ((SubNode) value).getY() };
+        } else if (value instanceof MulNode) {
+            return new ValueNode[] { ((MulNode) value).getX(), ((MulNode) value).getY() };
+        } else {
+            return new ValueNode[] { ((DivNode) value).getX(), ((DivNode) value).getY() };
+        }
+    }
+
+    /*
+     * Returns the fixed nodes of the loop body, or null when the body is not a
+     * straight-line sequence of element-wise accesses of a single kind.
+     */
+    private static List<FixedWithNextNode> getVectorisableBody(AbstractBeginNode begin, ValuePhiNode iv, JavaKind[] kind) {
+        final List<FixedWithNextNode> body = new ArrayList<>();
+        FixedNode node = begin.next();
+        while (node instanceof FixedWithNextNode) {
+            if (!(node instanceof LoadIndexedNode || node instanceof StoreIndexedNode)) {
+                return null;
+            }
+            final AccessIndexedNode access = (AccessIndexedNode) node;
+            if (access.index() != iv || !isArgumentArray(access.array()) || !isSupportedKind(access.elementKind())) {
+                return null;
+            }
+            if (kind[0] == null) {
+                kind[0] = access.elementKind();
+            } else if (kind[0] != access.elementKind()) {
+                return null;
+            }
+            body.add((FixedWithNextNode) node);
+            node = ((FixedWithNextNode) node).next();
+        }
+
+        if (!(node instanceof LoopEndNode) || body.isEmpty()) {
+            return null;
+        }
+
+        boolean hasStores = false;
+        for (FixedWithNextNode access : body) {
+            if (access instanceof StoreIndexedNode) {
+                hasStores = true;
+                if (!isVectorisable(((StoreIndexedNode) access).value(), body, kind[0])) {
+                    return null;
+                }
+            }
+        }
+        return (hasStores) ? body : null;
+    }
+
+    private static ValueNode vectorise(StructuredGraph graph, ValueNode value, OCLKind vectorKind, Map<ValueNode, ValueNode> vectors) {
+        ValueNode result = vectors.get(value);
+        if (result != null) {
+            return result;
+        }
+
+        if (value instanceof ConstantNode || value instanceof ParameterNode) {
+            final ValueNode[] lanes = new ValueNode[vectorKind.getVectorLength()];
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = value;
+            }
+            result = graph.addOrUnique(new VectorValueNode(vectorKind, null, lanes));
+        } else {
+            final ValueNode[] inputs = getInputs(value);
+            final ValueNode x = vectorise(graph, inputs[0], vectorKind, vectors);
+            final ValueNode y = vectorise(graph, inputs[1], vectorKind, vectors);
+            if (value instanceof AddNode) {
+                result = graph.addOrUnique(new VectorAddNode(vectorKind, x, y));
+            } else if (value instanceof SubNode) {
+                result = graph.addOrUnique(new VectorSubNode(vectorKind, x, y));
+            } else if (value instanceof MulNode) {
+                result = graph.addOrUnique(new VectorMulNode(vectorKind, x, y));
+            } else {
+                result = graph.addOrUnique(new VectorDivNode(vectorKind, x, y));
+            }
+        }
+        vectors.put(value, result);
+        return result;
+    }
+
+    private static List<FixedWithNextNode> buildVectorBody(StructuredGraph graph, List<FixedWithNextNode> body, ValuePhiNode iv, JavaKind kind, OCLKind vectorKind) {
+        final Map<ValueNode, ValueNode> vectors = new HashMap<>();
+        final List<FixedWithNextNode> vectorBody = new ArrayList<>();
+        for (FixedWithNextNode node : body) {
+            if (node instanceof LoadIndexedNode) {
+                final LoadIndexedVectorNode load = graph.add(new LoadIndexedVectorNode(vectorKind, ((LoadIndexedNode) node).array(), iv, kind));
+                vectors.put((ValueNode) node, load);
+                vectorBody.add(load);
+            } else {
+                final StoreIndexedNode store = (StoreIndexedNode) node;
+                final ValueNode value = vectorise(graph, store.value(), vectorKind, vectors);
+                vectorBody.add(graph.add(new StoreIndexedNode(store.array(), iv, kind, value)));
+            }
+        }
+        return vectorBody;
+    }
+
+    private static ValueNode copyScalar(StructuredGraph graph, ValueNode value, Map<ValueNode, ValueNode> copies) {
+        if (value instanceof ConstantNode || value instanceof ParameterNode) {
+            return value;
+        }
+
+        ValueNode result = copies.get(value);
+        if (result == null) {
+            final ValueNode[] inputs = getInputs(value);
+            final ValueNode x = copyScalar(graph, inputs[0], copies);
+            final ValueNode y = copyScalar(graph, inputs[1], copies);
+            if (value instanceof AddNode) {
+                result = graph.addOrUnique(new AddNode(x, y));
+            } else if (value instanceof SubNode) {
+                result = graph.addOrUnique(new SubNode(x, y));
+            } else if (value instanceof MulNode) {
+                result = graph.addOrUnique(new MulNode(x, y));
+            } else {
+                result = graph.addOrUnique(new DivNode(x, y));
+            }
+            copies.put(value, result);
+        }
+        return result;
+    }
+
+    /*
+     * Copy of the scalar body that runs iteration i + lane.
+     */
+    private static List<FixedWithNextNode> buildScalarBody(StructuredGraph graph, List<FixedWithNextNode> body, ValuePhiNode iv, JavaKind kind, int lane) {
+        final ValueNode index = graph.addOrUnique(new AddNode(iv, ConstantNode.forInt(lane, graph)));
+        final Map<ValueNode, ValueNode> copies = new HashMap<>();
+        final List<FixedWithNextNode> scalarBody = new ArrayList<>();
+        for (FixedWithNextNode node : body) {
+            if (node instanceof LoadIndexedNode) {
+                final LoadIndexedNode load = graph.add(new LoadIndexedNode(graph.getAssumptions(), ((LoadIndexedNode) node).array(), index, kind));
+                copies.put((ValueNode) node, load);
+                scalarBody.add(load);
+            } else {
+                final StoreIndexedNode store = (StoreIndexedNode) node;
+                scalarBody.add(graph.add(new StoreIndexedNode(store.array(), index, kind, copyScalar(graph, store.value(), copies))));
+            }
+        }
+        return scalarBody;
+    }
+
+    private static void link(List<FixedWithNextNode> nodes, FixedNode next) {
+        for (int i = 0; i < nodes.size() - 1; i++) {
+            nodes.get(i).setNext(nodes.get(i + 1));
+        }
+        nodes.get(nodes.size() - 1).setNext(next);
+    }
+
+    private static void vectoriseLoop(StructuredGraph graph, AbstractBeginNode begin, List<FixedWithNextNode> body, ValuePhiNode iv, JavaKind kind, int width, int range) {
+        final OCLKind vectorKind = OCLKind.valueOf(kind.name().toUpperCase() + width);
+        final FixedWithNextNode last = body.get(body.size() - 1);
+        final LoopEndNode loopEnd = (LoopEndNode) last.next();
+        final int tail = range % width;
+
+        final List<FixedWithNextNode> vectorBody = buildVectorBody(graph, body, iv, kind, vectorKind);
+
+        begin.setNext(null);
+        last.setNext(null);
+
+        if (tail == 0) {
+            GraphUtil.killCFG(body.get(0));
+            link(vectorBody, loopEnd);
+            begin.setNext(vectorBody.get(0));
+            return;
+        }
+
+        // the scalar branch keeps the original body for lane 0
+        final List<FixedWithNextNode> scalarBody = new ArrayList<>(body);
+        for (int lane = 1; lane < tail; lane++) {
+            scalarBody.addAll(buildScalarBody(graph, body, iv, kind, lane));
+        }
+
+        final BeginNode vectorBegin = graph.add(new BeginNode());
+        final EndNode vectorEnd = graph.add(new EndNode());
+        link(vectorBody, vectorEnd);
+        vectorBegin.setNext(vectorBody.get(0));
+
+        final BeginNode scalarBegin = graph.add(new BeginNode());
+        final EndNode scalarEnd = graph.add(new EndNode());
+        link(scalarBody, scalarEnd);
+        scalarBegin.setNext(scalarBody.get(0));
+
+        final MergeNode merge = graph.add(new MergeNode());
+        merge.addForwardEnd(vectorEnd);
+        merge.addForwardEnd(scalarEnd);
+        merge.setNext(loopEnd);
+
+        final LogicNode isFullVector = graph.addOrUnique(new IntegerLessThanNode(iv, ConstantNode.forInt(range - tail, graph)));
+        begin.setNext(graph.add(new IfNode(isFullVector, vectorBegin, scalarBegin, VECTOR_BRANCH_PROBABILITY)));
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+        final TaskMetaData meta = context.getMeta();
+        if (meta == null || !meta.enableAutoVectorisation() || !meta.enableVectors() || !meta.enableParallelization() || meta.enableThreadCoarsener() || meta.getLocalTileBlockSize() > 0
+                || ACCELERATOR_IS_FPGA) {
+            return;
+        }
+
+        final int width = meta.getAutoVectorisationWidth();
+        final List<ParallelRangeNode> ranges = graph.getNodes().filter(ParallelRangeNode.class).snapshot();
+        if (!isSupportedWidth(width) || ranges.size() != 1 || meta.getDomain() == null || meta.getDims() != 1) {
+            return;
+        }
+
+        final ParallelRangeNode range = ranges.get(0);
+        final ParallelStrideNode stride = range.stride();
+        if (!(range.value() instanceof ConstantNode) || !isIntConstant(range.offset().value(), 0) || !isIntConstant(stride.value(), 1)) {
+            return;
+        }
+        final int limit = ((ConstantNode) range.value()).asJavaConstant().asInt();
+
+        final ValuePhiNode iv = range.offset().usages().filter(ValuePhiNode.class).first();
+        if (limit < width || iv == null || !(iv.merge() instanceof LoopBeginNode)) {
+            return;
+        }
+
+        // a second phi would carry a value across iterations
+        final LoopBeginNode loopBegin = (LoopBeginNode) iv.merge();
+        final AbstractBeginNode begin = TornadoLocalMemoryTiling.getLoopBody(range, loopBegin);
+        if (begin == null || loopBegin.phis().count() != 1) {
+            return;
+        }
+
+        final JavaKind[] kind = new JavaKind[1];
+        final List<FixedWithNextNode> body = getVectorisableBody(begin, iv, kind);
+        if (body == null) {
+            return;
+        }
+
+        vectoriseLoop(graph, begin, body, iv, kind[0], width, limit);
+        stride.replaceFirstInput(stride.value(), ConstantNode.forInt(width, graph));
+
+        final DomainTree domain = new DomainTree(1);
+        domain.set(0, new IntDomain(0, width, (limit + width - 1) / width));
+        meta.setDomain(domain);
+
+        Tornado.debug("vectorised parallel loop with %s", OCLKind.valueOf(kind[0].name().toUpperCase() + width));
+        Debug.dump(Debug.BASIC_LEVEL, graph, "after auto vectorisation");
+    }
+}
@@ -0,0 +1,671 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
+
+import static jdk.vm.ci.hotspot.HotSpotJVMCIRuntimeProvider.getArrayBaseOffset;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ACCELERATOR_IS_FPGA;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.OPENCL_USE_RELATIVE_ADDRESSES;
+import static uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy.PER_ITERATION;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.compiler.debug.Debug;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.BinaryNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.java.AbstractNewArrayNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.phases.BasePhase;
+
+import jdk.vm.ci.meta.JavaKind;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDevice;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLLocalMemType;
+import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryTemplate;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.FixedArrayNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GroupIdNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.LocalThreadIdNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLTileBarrierNode;
+import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Stages the neighbourhood reads of one- and two-dimensional stencils in local
+ * memory.
+ *
+ * A read is tiled when its index is affine in the parallel induction variables
+ * and in the induction variables of constant-bound sequential loops, such as
+ * the filter loops of a convolution: {@code a[i + k]} in one dimension and
+ * {@code a[(y + v) * w + x + u]} in two, with the column variable at stride one
+ * and the row variable at a constant stride {@code w}. For every read-only
+ * array with such reads each work-group copies the elements its iterations
+ * touch, the block plus its halo, into a tile of {@code _local_region} before
+ * the parallel loops. After a barrier the reads are redirected to the tile.
+ * Each work-item copies two elements per dimension, so a tile holds twice the
+ * work-group size in each dimension and the stencil span must not exceed the
+ * work-group size. The copies are clamped to the bounds of the array: cells
+ * outside it are only read by accesses the kernel guards out.
+ *
+ * The tiled kernel relies on each work-item running at most one iteration and
+ * on work-groups of exactly {@link TaskMetaData#getLocalTileBlockSize(int)}
+ * work-items in each dimension; {@code OCLKernelScheduler} sets the thread
+ * sizes accordingly. Enabled with {@code -Dtornado.localtiling=True} or per
+ * task with {@code -D<schedule>.<task>.localtiling=True}.
+ */
+public class TornadoLocalMemoryTiling extends BasePhase<TornadoHighTierContext> {
+
+    private static final int TILE_ALIGNMENT = 8;
+
+    private static final long MAX_COEFFICIENT = 1 << 24;
+
+    /**
+     * Index of the form {@code constant + sum(coefficient * iv)}.
+     */
+    private static class AffineIndex {
+        private long constant;
+        private final Map<ValuePhiNode, Long> terms = new LinkedHashMap<>();
+
+        long coefficient(ValuePhiNode iv) {
+            final Long coefficient = terms.get(iv);
+            return (coefficient == null) ? 0 : coefficient;
+        }
+
+        AffineIndex add(AffineIndex other, long scale) {
+            constant += scale * other.constant;
+            other.terms.forEach((iv, coefficient) -> terms.merge(iv, scale * coefficient, Long::sum));
+            terms.values().removeIf(coefficient -> coefficient == 0);
+            return this;
+        }
+
+        AffineIndex scale(long factor) {
+            return new AffineIndex().add(this, factor);
+        }
+
+        boolean isBounded() {
+            return Math.abs(constant) < MAX_COEFFICIENT && terms.values().stream().allMatch(coefficient -> Math.abs(coefficient) < MAX_COEFFICIENT);
+        }
+    }
+
+    /**
+     * A tiled read: {@code tile[row * tileWidth + column]} with the row and
+     * column offsets from the work-item split into a constant and a part per
+     * sequential induction variable.
+     */
+    private static class TileRead {
+        private final LoadIndexedNode read;
+        private final int rowOffset;
+        private final int columnOffset;
+        private final Map<ValuePhiNode, int[]> terms = new LinkedHashMap<>();
+
+        TileRead(LoadIndexedNode read, int rowOffset, int columnOffset) {
+            this.read = read;
+            this.rowOffset = rowOffset;
+            this.columnOffset = columnOffset;
+        }
+    }
+
+    private static class StencilReads {
+        private final ValueNode array;
+        private final JavaKind kind;
+        private final int length;
+        private final int columnDimension;
+        private final int rowDimension;
+        private final int width;
+        private final List<TileRead> reads = new ArrayList<>();
+        private int minRow = Integer.MAX_VALUE;
+        private int maxRow = Integer.MIN_VALUE;
+        private int minColumn = Integer.MAX_VALUE;
+        private int maxColumn = Integer.MIN_VALUE;
+
+        StencilReads(ValueNode array, JavaKind kind, int length, int columnDimension, int rowDimension, int width) {
+            this.array = array;
+            this.kind = kind;
+            this.length = length;
+            this.columnDimension = columnDimension;
+            this.rowDimension = rowDimension;
+            this.width = width;
+        }
+
+        boolean isTwoDimensional() {
+            return rowDimension >= 0;
+        }
+
+        void add(TileRead read, int[] rows, int[] columns) {
+            reads.add(read);
+            minRow = Math.min(minRow, rows[0]);
+            maxRow = Math.max(maxRow, rows[1]);
+            minColumn = Math.min(minColumn, columns[0]);
+            maxColumn = Math.max(maxColumn, columns[1]);
+        }
+
+        int rowSpan() {
+            return maxRow - minRow;
+        }
+
+        int columnSpan() {
+            return maxColumn - minColumn;
+        }
+
+        int tileWidth(int[] blockSize) {
+            return 2 * blockSize[columnDimension];
+        }
+
+        int tileRows(int[] blockSize) {
+            return isTwoDimensional() ? 2 * blockSize[rowDimension] : 1;
+        }
+
+        int tileBytes(int[] blockSize) {
+            final int bytes = getArrayBaseOffset(kind) + (tileRows(blockSize) * tileWidth(blockSize) * kind.getByteCount());
+            return ((bytes + TILE_ALIGNMENT - 1) / TILE_ALIGNMENT) * TILE_ALIGNMENT;
+        }
+    }
+
+    private static boolean isIntConstant(ValueNode value) {
+        return value instanceof ConstantNode && value.getStackKind() == JavaKind.Int;
+    }
+
+    private static int asInt(ValueNode value) {
+        return ((ConstantNode) value).asJavaConstant().asInt();
+    }
+
+    /*
+     * The copy to local memory is placed in front of the outermost parallel
+     * loop, where every work-item of the group has to reach the barrier.
+     */
+    private static boolean isReachedByAllWorkItems(StructuredGraph graph, LoopBeginNode loopBegin) {
+        FixedNode node = graph.start();
+        while (node instanceof FixedWithNextNode) {
+            node = ((FixedWithNextNode) node).next();
+        }
+        return node == loopBegin.forwardEnd();
+    }
+
+    static AbstractBeginNode getLoopBody(ParallelRangeNode range, LoopBeginNode loopBegin) {
+        for (IntegerLessThanNode condition : range.usages().filter(IntegerLessThanNode.class)) {
+            for (IfNode ifNode : condition.usages().filter(IfNode.class)) {
+                if (ifNode.predecessor() != loopBegin) {
+                    continue;
+                }
+                if (ifNode.falseSuccessor() instanceof LoopExitNode) {
+                    return ifNode.trueSuccessor();
+                } else if (ifNode.trueSuccessor() instanceof LoopExitNode) {
+                    return ifNode.falseSuccessor();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static AffineIndex getAffineIndex(ValueNode value, Map<ValuePhiNode, long[]> ivs) {
+        final AffineIndex index = new AffineIndex();
+        if (isIntConstant(value)) {
+            index.constant = asInt(value);
+            return index;
+        } else if (value instanceof ValuePhiNode && ivs.containsKey(value)) {
+            index.terms.put((ValuePhiNode) value, 1L);
+            return index;
+        } else if (value instanceof NegateNode) {
+            final AffineIndex operand = getAffineIndex(((NegateNode) value).getValue(), ivs);
+            return (operand == null) ? null : operand.scale(-1);
+        } else if (!(value instanceof AddNode || value instanceof SubNode || value instanceof MulNode || value instanceof LeftShiftNode)) {
+            return null;
+        }
+
+        final BinaryNode binary = (BinaryNode) value;
+        final AffineIndex x = getAffineIndex(binary.getX(), ivs);
+        if (x == null) {
+            return null;
+        } else if (value instanceof LeftShiftNode) {
+            final ValueNode shift = binary.getY();
+            return (isIntConstant(shift) && asInt(shift) >= 0 && asInt(shift) < 24) ? x.scale(1L << asInt(shift)) : null;
+        }
+
+        final AffineIndex y = getAffineIndex(binary.getY(), ivs);
+        if (y == null) {
+            return null;
+        } else if (value instanceof AddNode) {
+            return x.add(y, 1);
+        } else if (value instanceof SubNode) {
+            return x.add(y, -1);
+        } else if (x.terms.isEmpty()) {
+            return y.scale(x.constant);
+        } else if (y.terms.isEmpty()) {
+            return x.scale(y.constant);
+        }
+        return null;
+    }
+
+    /*
+     * Induction variables of the sequential loops with constant bounds, with
+     * the first and last value they take inside their loop.
+     */
+    private static Map<ValuePhiNode, long[]> findSequentialInductionVariables(LoopsData data, List<LoopBeginNode> parallelLoops) {
+        final Map<ValuePhiNode, long[]> ivs = new HashMap<>();
+        for (LoopEx loop : data.outerFirst()) {
+            if (parallelLoops.contains(loop.loopBegin())) {
+                continue;
+            }
+            for (InductionVariable iv : loop.getInductionVariables().getValues()) {
+                if (!(iv.valueNode() instanceof ValuePhiNode) || !iv.isConstantInit() || !iv.isConstantStride() || iv.constantStride() <= 0) {
+                    continue;
+                }
+                final ValuePhiNode phi = (ValuePhiNode) iv.valueNode();
+                if (phi.merge() != loop.loopBegin()) {
+                    continue;
+                }
+                for (IntegerLessThanNode condition : phi.usages().filter(IntegerLessThanNode.class)) {
+                    final boolean exitsLoop = condition.usages().filter(IfNode.class).filter(ifNode -> ifNode.predecessor() == loop.loopBegin()).isNotEmpty();
+                    if (exitsLoop && condition.getX() == phi && isIntConstant(condition.getY())) {
+                        final long init = iv.constantInit();
+                        final long stride = iv.constantStride();
+                        final long last = init + stride * Math.max(0, (asInt(condition.getY()) - 1 - init) / stride);
+                        ivs.put(phi, new long[] { init, last });
+                    }
+                }
+            }
+        }
+        return ivs;
+    }
+
+    private static Object getArgument(Object[] args, int index) {
+        final Object value = (args != null && index < args.length) ? args[index] : null;
+        return (value instanceof WeakReference) ? ((WeakReference<?>) value).get() : value;
+    }
+
+    private static Object readField(Object object, String name) {
+        for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                final Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field.get(object);
+            } catch (NoSuchFieldException e) {
+                // declared by a superclass
+            } catch (IllegalAccessException | SecurityException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The array a node refers to when the kernel runs: a parameter, or a final
+     * field of a parameter such as the storage of ImageFloat.
+     */
+    private static Object resolveArray(ValueNode array, Object[] args) {
+        Object value = null;
+        if (array instanceof ParameterNode) {
+            value = getArgument(args, ((ParameterNode) array).index());
+        } else if (array instanceof LoadFieldNode) {
+            final LoadFieldNode load = (LoadFieldNode) array;
+            if (!load.isStatic() && load.field().isFinal() && load.object() instanceof ParameterNode) {
+                final Object object = getArgument(args, ((ParameterNode) load.object()).index());
+                value = (object == null) ? null : readField(object, load.field().getName());
+            }
+        }
+        return (value != null && value.getClass().isArray()) ? value : null;
+    }
+
+    /*
+     * Arrays written by the kernel, compared by identity so that an array
+     * passed as two parameters is not taken for read-only. Returns null when
+     * a store goes to an array that cannot be resolved.
+     */
+    private static Map<Object, Boolean> findWrittenArrays(StructuredGraph graph, Object[] args) {
+        final Map<Object, Boolean> written = new IdentityHashMap<>();
+        for (StoreIndexedNode store : graph.getNodes().filter(StoreIndexedNode.class)) {
+            if (store.array() instanceof AbstractNewArrayNode || store.array() instanceof FixedArrayNode) {
+                continue;
+            }
+            final Object array = resolveArray(store.array(), args);
+            if (array == null) {
+                return null;
+            }
+            written.put(array, Boolean.TRUE);
+        }
+        return written;
+    }
+
+    private static int[] split(long coefficient, int width) {
+        if (width == 0) {
+            return new int[] { 0, (int) coefficient };
+        }
+        final long row = Math.floorDiv(coefficient + (width / 2), width);
+        return new int[] { (int) row, (int) (coefficient - (row * width)) };
+    }
+
+    private static TileRead getTileRead(LoadIndexedNode read, AffineIndex index, Map<ValuePhiNode, long[]> sequentialIvs, int width, int[] rows, int[] columns) {
+        final int[] offset = split(index.constant, width);
+        final TileRead tileRead = new TileRead(read, offset[0], offset[1]);
+        long minRow = offset[0];
+        long maxRow = offset[0];
+        long minColumn = offset[1];
+        long maxColumn = offset[1];
+        for (Map.Entry<ValuePhiNode, Long> term : index.terms.entrySet()) {
+            final long[] range = sequentialIvs.get(term.getKey());
+            if (range == null) {
+                continue;
+            }
+            final int[] parts = split(term.getValue(), width);
+            tileRead.terms.put(term.getKey(), parts);
+            minRow += Math.min(parts[0] * range[0], parts[0] * range[1]);
+            maxRow += Math.max(parts[0] * range[0], parts[0] * range[1]);
+            minColumn += Math.min(parts[1] * range[0], parts[1] * range[1]);
+            maxColumn += Math.max(parts[1] * range[0], parts[1] * range[1]);
+        }
+        rows[0] = (int) minRow;
+        rows[1] = (int) maxRow;
+        columns[0] = (int) minColumn;
+        columns[1] = (int) maxColumn;
+        return tileRead;
+    }
+
+    private static Map<Object, StencilReads> findStencilReads(StructuredGraph graph, Object[] args, ValuePhiNode[] parallelIvs, Map<ValuePhiNode, long[]> sequentialIvs) {
+        final Map<Object, Boolean> written = findWrittenArrays(graph, args);
+        final Map<Object, StencilReads> candidates = new IdentityHashMap<>();
+        if (written == null) {
+            return candidates;
+        }
+
+        final Map<ValuePhiNode, long[]> ivs = new HashMap<>(sequentialIvs);
+        for (ValuePhiNode iv : parallelIvs) {
+            ivs.put(iv, null);
+        }
+
+        final Map<Object, Boolean> rejected = new IdentityHashMap<>();
+        for (LoadIndexedNode read : graph.getNodes().filter(LoadIndexedNode.class)) {
+            final JavaKind kind = read.elementKind();
+            final Object array = resolveArray(read.array(), args);
+            if (!kind.isPrimitive() || kind == JavaKind.Boolean || array == null || written.containsKey(array) || rejected.containsKey(array)) {
+                continue;
+            }
+
+            final AffineIndex index = getAffineIndex(read.index(), ivs);
+            int columnDimension = -1;
+            int rowDimension = -1;
+            if (index != null && index.isBounded()) {
+                for (int i = 0; i < parallelIvs.length; i++) {
+                    if (index.coefficient(parallelIvs[i]) == 1 && columnDimension < 0) {
+                        columnDimension = i;
+                    } else {
+                        rowDimension = i;
+                    }
+                }
+            }
+            final int width = (rowDimension >= 0) ? (int) index.coefficient(parallelIvs[rowDimension]) : 0;
+            if (columnDimension < 0 || (parallelIvs.length == 2 && width < 2)) {
+                // only the regular stencil reads of an array are tiled
+                rejected.put(array, Boolean.TRUE);
+                candidates.remove(array);
+                continue;
+            }
+
+            final int[] rows = new int[2];
+            final int[] columns = new int[2];
+            final TileRead tileRead = getTileRead(read, index, sequentialIvs, width, rows, columns);
+            final int finalColumnDimension = columnDimension;
+            final int finalRowDimension = rowDimension;
+            final StencilReads stencil = candidates.computeIfAbsent(array, key -> new StencilReads(read.array(), kind, Array.getLength(array), finalColumnDimension, finalRowDimension, width));
+            if (stencil.kind != kind || stencil.columnDimension != columnDimension || stencil.width != width) {
+                rejected.put(array, Boolean.TRUE);
+                candidates.remove(array);
+                continue;
+            }
+            stencil.add(tileRead, rows, columns);
+        }
+        return candidates;
+    }
+
+    /*
+     * Work-group sizes of the tiled kernel: the one-dimensional block size, or
+     * the largest square of powers of two within it, as the GPU scheduler
+     * pads two-dimensional launches.
+     */
+    private static int[] getBlockSize(OCLDevice device, TaskMetaData meta, int dims) {
+        final long[] maxWorkItemSizes = device.getDeviceMaxWorkItemSizes();
+        final long blockSize = Math.min(device.getDeviceMaxWorkGroupSize(), meta.getOpenCLGpuBlockX());
+        if (dims == 1) {
+            return new int[] { (int) Math.min(blockSize, maxWorkItemSizes[0]) };
+        }
+
+        long side = 1;
+        while ((side * 2) * (side * 2) <= blockSize) {
+            side *= 2;
+        }
+        return new int[] { (int) Math.min(side, maxWorkItemSizes[0]), (int) Math.min(side, maxWorkItemSizes[1]) };
+    }
+
+    private static ValueNode add(StructuredGraph graph, ValueNode value, int constant) {
+        return (constant == 0) ? value : graph.addOrUnique(new AddNode(value, ConstantNode.forInt(constant, graph)));
+    }
+
+    private static ValueNode mul(StructuredGraph graph, ValueNode value, int constant) {
+        return (constant == 1) ? value : graph.addOrUnique(new MulNode(value, ConstantNode.forInt(constant, graph)));
+    }
+
+    private static ValueNode clamp(StructuredGraph graph, ValueNode value, int lower, int upper) {
+        final ValueNode max = graph.addOrUnique(OCLIntBinaryIntrinsicNode.create(value, ConstantNode.forInt(lower, graph), OCLIntBinaryIntrinsicNode.Operation.MAX, JavaKind.Int));
+        return graph.addOrUnique(OCLIntBinaryIntrinsicNode.create(max, ConstantNode.forInt(upper, graph), OCLIntBinaryIntrinsicNode.Operation.MIN, JavaKind.Int));
+    }
+
+    private static void copyToTile(StructuredGraph graph, FixedNode insertionPoint, ValueNode array, FixedArrayNode tile, JavaKind kind, ValueNode index, ValueNode tileIndex) {
+        final LoadIndexedNode read = graph.add(new LoadIndexedNode(graph.getAssumptions(), array, index, kind));
+        graph.addBeforeFixed(insertionPoint, read);
+        final StoreIndexedNode write = graph.add(new StoreIndexedNode(tile, tileIndex, kind, read));
+        graph.addBeforeFixed(insertionPoint, write);
+    }
+
+    /*
+     * The reads may load the array from a field inside the loops, so the copy
+     * loads it again in front of them.
+     */
+    private static ValueNode getArrayForCopy(StructuredGraph graph, FixedNode insertionPoint, ValueNode array) {
+        if (array instanceof LoadFieldNode) {
+            final LoadFieldNode load = (LoadFieldNode) array;
+            final LoadFieldNode copy = graph.add(LoadFieldNode.create(graph.getAssumptions(), load.object(), load.field()));
+            graph.addBeforeFixed(insertionPoint, copy);
+            return copy;
+        }
+        return array;
+    }
+
+    private static void tileArray(StructuredGraph graph, FixedNode insertionPoint, StencilReads stencil, FixedArrayNode tile, ValueNode[] localIds, ValueNode[] groupStarts, int[] offsets,
+            int[] blockSize) {
+        final JavaKind kind = stencil.kind;
+        final ValueNode array = getArrayForCopy(graph, insertionPoint, stencil.array);
+        final int tileWidth = stencil.tileWidth(blockSize);
+        final int column = stencil.columnDimension;
+        final int row = stencil.rowDimension;
+
+        /*
+         * tile[r * tileWidth + c] holds a[(rowStart + r) * width + columnStart
+         * + c], where rowStart and columnStart are the first row and column
+         * the iterations of the group read. Each work-item copies the cells at
+         * its local id and one block further in each dimension.
+         */
+        final ValueNode columnStart = add(graph, groupStarts[column], offsets[column] + stencil.minColumn);
+        final ValueNode rowStart = stencil.isTwoDimensional() ? add(graph, groupStarts[row], offsets[row] + stencil.minRow) : null;
+        final int rowCopies = stencil.isTwoDimensional() ? 2 : 1;
+        for (int i = 0; i < rowCopies; i++) {
+            for (int j = 0; j < 2; j++) {
+                final ValueNode tileColumn = add(graph, localIds[column], j * blockSize[column]);
+                ValueNode index = graph.addOrUnique(new AddNode(columnStart, tileColumn));
+                ValueNode tileIndex = tileColumn;
+                if (stencil.isTwoDimensional()) {
+                    final ValueNode tileRow = add(graph, localIds[row], i * blockSize[row]);
+                    final ValueNode globalRow = graph.addOrUnique(new AddNode(rowStart, tileRow));
+                    index = graph.addOrUnique(new AddNode(mul(graph, globalRow, stencil.width), index));
+                    tileIndex = graph.addOrUnique(new AddNode(mul(graph, tileRow, tileWidth), tileColumn));
+                }
+                copyToTile(graph, insertionPoint, array, tile, kind, clamp(graph, index, 0, stencil.length - 1), tileIndex);
+            }
+        }
+
+        ValueNode base = localIds[column];
+        if (stencil.isTwoDimensional()) {
+            base = graph.addOrUnique(new AddNode(mul(graph, localIds[row], tileWidth), base));
+        }
+        for (TileRead read : stencil.reads) {
+            ValueNode tileIndex = add(graph, base, ((read.rowOffset - stencil.minRow) * tileWidth) + read.columnOffset - stencil.minColumn);
+            for (Map.Entry<ValuePhiNode, int[]> term : read.terms.entrySet()) {
+                final int coefficient = (term.getValue()[0] * tileWidth) + term.getValue()[1];
+                if (coefficient != 0) {
+                    tileIndex = graph.addOrUnique(new AddNode(tileIndex, mul(graph, term.getKey(), coefficient)));
+                }
+            }
+            final LoadIndexedNode tileRead = graph.add(new LoadIndexedNode(graph.getAssumptions(), tile, tileIndex, kind));
+            graph.replaceFixedWithFixed(read.read, tileRead);
+        }
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+        final TaskMetaData meta = context.getMeta();
+        if (meta == null || !meta.enableLocalTiling() || !meta.enableParallelization() || meta.enableThreadCoarsener() || meta.isGlobalWorkDefined() || meta.isLocalWorkDefined()
+                || context.getBatchThreads() > 0 || !context.hasArgs() || OPENCL_USE_RELATIVE_ADDRESSES || ACCELERATOR_IS_FPGA) {
+            return;
+        }
+
+        final OCLTornadoDevice tornadoDevice = (OCLTornadoDevice) context.getDeviceMapping();
+        final OCLDevice device = tornadoDevice.getDevice();
+        if (tornadoDevice.getPreferredSchedule() != PER_ITERATION || device.getDeviceLocalMemoryType() != OCLLocalMemType.CL_LOCAL) {
+            return;
+        }
+
+        final List<ParallelRangeNode> ranges = graph.getNodes().filter(ParallelRangeNode.class).snapshot();
+        final int dims = ranges.size();
+        if (dims < 1 || dims > 2 || meta.getDomain() == null || meta.getDims() != dims) {
+            return;
+        }
+
+        final ValuePhiNode[] parallelIvs = new ValuePhiNode[dims];
+        final int[] offsets = new int[dims];
+        final List<LoopBeginNode> parallelLoops = new ArrayList<>();
+        for (ParallelRangeNode range : ranges) {
+            if (!isIntConstant(range.value()) || !isIntConstant(range.offset().value()) || !isIntConstant(range.stride().value()) || asInt(range.stride().value()) != 1) {
+                return;
+            }
+            final ValuePhiNode iv = range.offset().usages().filter(ValuePhiNode.class).first();
+            if (iv == null || range.index() >= dims || !(iv.merge() instanceof LoopBeginNode) || asInt(range.value()) <= asInt(range.offset().value()) || parallelIvs[range.index()] != null) {
+                return;
+            }
+            parallelIvs[range.index()] = iv;
+            offsets[range.index()] = asInt(range.offset().value());
+            parallelLoops.add((LoopBeginNode) iv.merge());
+        }
+
+        // the copies go in front of the outer parallel loop, with the inner one nested in it
+        final LoopsData data = new LoopsData(graph);
+        data.detectedCountedLoops();
+        final LoopBeginNode outerLoop = parallelLoops.stream().filter(loopBegin -> isReachedByAllWorkItems(graph, loopBegin)).findFirst().orElse(null);
+        if (outerLoop == null) {
+            return;
+        }
+        for (LoopBeginNode loopBegin : parallelLoops) {
+            LoopEx loop = data.loop(loopBegin);
+            while (loop != null && loop.loopBegin() != outerLoop) {
+                loop = loop.parent();
+            }
+            if (loop == null) {
+                return;
+            }
+        }
+
+        final int[] blockSize = getBlockSize(device, meta, dims);
+        final Map<ValuePhiNode, long[]> sequentialIvs = findSequentialInductionVariables(data, parallelLoops);
+        final Map<Object, StencilReads> stencils = findStencilReads(graph, context.getArgs(), parallelIvs, sequentialIvs);
+
+        // tiling pays off only when the work-items share elements
+        stencils.values().removeIf(stencil -> (stencil.rowSpan() == 0 && stencil.columnSpan() == 0) || stencil.columnSpan() > blockSize[stencil.columnDimension]
+                || (stencil.isTwoDimensional() && stencil.rowSpan() > blockSize[stencil.rowDimension]));
+
+        int localBytes = 0;
+        for (StencilReads stencil : stencils.values()) {
+            localBytes += stencil.tileBytes(blockSize);
+        }
+        if (stencils.isEmpty() || localBytes > device.getDeviceLocalMemorySize()) {
+            return;
+        }
+
+        final ValueNode[] localIds = new ValueNode[dims];
+        final ValueNode[] groupStarts = new ValueNode[dims];
+        for (int i = 0; i < dims; i++) {
+            localIds[i] = graph.addOrUnique(new LocalThreadIdNode(ConstantNode.forInt(i, graph)));
+            final ValueNode groupId = graph.addOrUnique(new GroupIdNode(ConstantNode.forInt(i, graph)));
+            groupStarts[i] = mul(graph, groupId, blockSize[i]);
+        }
+
+        final FixedNode insertionPoint = outerLoop.forwardEnd();
+        int regionOffset = 0;
+        for (StencilReads stencil : stencils.values()) {
+            // the length operand of a local region array is its byte offset
+            final FixedArrayNode tile = graph.addWithoutUnique(
+                    new FixedArrayNode(OCLArchitecture.lp, context.getMetaAccess().lookupJavaType(stencil.kind.toJavaClass()), ConstantNode.forInt(regionOffset, graph)));
+            tile.setLocalType(OCLBinaryTemplate.LOCAL_REGION_ARRAY);
+            tileArray(graph, insertionPoint, stencil, tile, localIds, groupStarts, offsets, blockSize);
+            regionOffset += stencil.tileBytes(blockSize);
+        }
+
+        final JavaKind[] tiledKinds = stencils.values().stream().map(stencil -> stencil.kind).distinct().toArray(JavaKind[]::new);
+        graph.addBeforeFixed(insertionPoint, graph.add(new OCLTileBarrierNode(tiledKinds)));
+
+        meta.allocLocal(localBytes);
+        meta.setLocalTileBlockSize(blockSize);
+
+        Tornado.debug("tiled %d arrays into %d bytes of local memory (block size %s)", stencils.size(), localBytes, Arrays.toString(blockSize));
+        Debug.dump(Debug.BASIC_LEVEL, graph, "after local memory tiling");
+    }
+}
@@ -26,10 +26,20 @@ package uk.ac.manchester.tornado.drivers.opencl.graal.phases;
 import static uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy.PER_BLOCK;
 import static uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy.PER_ITERATION;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.graalvm.compiler.debug.Debug;
 import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.MergeNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
 import org.graalvm.compiler.nodes.calc.AddNode;
 import org.graalvm.compiler.nodes.calc.DivNode;
 import org.graalvm.compiler.nodes.calc.MulNode;
@@ -39,14 +49,17 @@ import org.graalvm.compiler.phases.BasePhase;
 import jdk.vm.ci.meta.JavaKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadIdNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadSizeNode;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode;
 import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.graal.nodes.AbstractParallelNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelOffsetNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelStrideNode;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext> {
 
@@ -66,18 +79,19 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
 
         final GlobalThreadIdNode threadId = graph.addOrUnique(new GlobalThreadIdNode(index));
 
-        final AddNode addNode = graph.addOrUnique(new AddNode(threadId, offset.value()));
+        // offset + tid * stride
+        final MulNode mulNode = graph.addOrUnique(new MulNode(threadId, range.stride().value()));
 
-        final MulNode mulNode = graph.addOrUnique(new MulNode(addNode, range.stride().value()));
+        final AddNode addNode = graph.addOrUnique(new AddNode(offset.value(), mulNode));
 
-        // offset.replaceAtUsages(addNode);
-        offset.replaceAtUsages(mulNode);
+        offset.replaceAtUsages(addNode);
         offset.safeDelete();
     }
 
     private void replacePerBlock(StructuredGraph graph, ParallelOffsetNode offset) {
         final GlobalThreadIdNode threadId = graph.addOrUnique(new GlobalThreadIdNode(ConstantNode.forInt(offset.index(), graph)));
-        final MulNode newOffset = graph.addOrUnique(new MulNode(threadId, blockSize));
+        final MulNode blockStart = graph.addOrUnique(new MulNode(threadId, blockSize));
+        final AddNode newOffset = graph.addOrUnique(new AddNode(offset.value(), blockStart));
         offset.replaceAtUsages(newOffset);
         offset.safeDelete();
     }
@@ -95,8 +109,9 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
         final ConstantNode index = graph.addOrUnique(ConstantNode.forInt(stride.index()));
 
         final GlobalThreadSizeNode threadCount = graph.addOrUnique(new GlobalThreadSizeNode(index));
+        final MulNode newStride = graph.addOrUnique(new MulNode(threadCount, stride.value()));
 
-        stride.replaceAtUsages(threadCount);
+        stride.replaceAtUsages(newStride);
         stride.safeDelete();
     }
 
@@ -121,13 +136,16 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
 
     // CPU-Scheduling with Stride
     private void buildBlockSize(StructuredGraph graph, ParallelRangeNode range) {
-        final DivNode rangeByStride = graph.addOrUnique(new DivNode(range.value(), range.stride().value()));
-        final SubNode trueRange = graph.addOrUnique(new SubNode(rangeByStride, range.offset().value()));
+        // iterations = ceil((range - offset) / stride)
+        final SubNode trueRange = graph.addOrUnique(new SubNode(range.value(), range.offset().value()));
+        final SubNode strideM1 = graph.addOrUnique(new SubNode(range.stride().value(), ConstantNode.forInt(1, graph)));
+        final AddNode adjustedRange = graph.addOrUnique(new AddNode(trueRange, strideM1));
+        final DivNode iterations = graph.addOrUnique(new DivNode(adjustedRange, range.stride().value()));
         final ConstantNode index = ConstantNode.forInt(range.index(), graph);
         final GlobalThreadSizeNode threadCount = graph.addOrUnique(new GlobalThreadSizeNode(index));
         final SubNode threadCountM1 = graph.addOrUnique(new SubNode(threadCount, ConstantNode.forInt(1, graph)));
-        final AddNode adjustedTrueRange = graph.addOrUnique(new AddNode(trueRange, threadCountM1));
-        final DivNode div = graph.addOrUnique(new DivNode(adjustedTrueRange, threadCount));
+        final AddNode adjustedIterations = graph.addOrUnique(new AddNode(iterations, threadCountM1));
+        final DivNode div = graph.addOrUnique(new DivNode(adjustedIterations, threadCount));
         blockSize = graph.addOrUnique(new MulNode(div, range.stride().value()));
     }
 
@@ -136,17 +154,74 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
         buildBlockSize(graph, range);
 
         final GlobalThreadIdNode threadId = graph.addOrUnique(new GlobalThreadIdNode(ConstantNode.forInt(range.index(), graph)));
-        final MulNode newOffset = graph.addOrUnique(new MulNode(threadId, blockSize));
+        final MulNode blockStart = graph.addOrUnique(new MulNode(threadId, blockSize));
+        final AddNode newOffset = graph.addOrUnique(new AddNode(range.offset().value(), blockStart));
         final AddNode newRange = graph.addOrUnique(new AddNode(newOffset, blockSize));
-
-        // Stride of 2
-        final MulNode stride = graph.addOrUnique(new MulNode(newRange, range.stride().value()));
-        final ValueNode adjustedRange = graph.addOrUnique(OCLIntBinaryIntrinsicNode.create(stride, range.value(), OCLIntBinaryIntrinsicNode.Operation.MIN, JavaKind.Int));
+        final ValueNode adjustedRange = graph.addOrUnique(OCLIntBinaryIntrinsicNode.create(newRange, range.value(), OCLIntBinaryIntrinsicNode.Operation.MIN, JavaKind.Int));
 
         range.replaceAtUsages(adjustedRange);
         range.safeDelete();
     }
 
+    /*
+     * Thread coarsening: each work-item runs `factor` iterations of the
+     * parallel loop and the scheduler shrinks the global size to match. With
+     * the block distribution a work-item takes consecutive iterations, which
+     * suits CPUs. With the stride distribution iterations are interleaved
+     * across work-items, so that memory accesses stay coalesced on GPUs.
+     */
+    private void coarsenLoop(StructuredGraph graph, ParallelRangeNode range, int factor, boolean perBlock, boolean isExact) {
+        final ParallelOffsetNode offset = range.offset();
+        final ParallelStrideNode stride = range.stride();
+        final ConstantNode index = ConstantNode.forInt(range.index(), graph);
+        final GlobalThreadIdNode threadId = graph.addOrUnique(new GlobalThreadIdNode(index));
+
+        if (perBlock) {
+            // [offset + tid * factor * stride, offset + (tid + 1) * factor * stride)
+            final MulNode chunk = graph.addOrUnique(new MulNode(ConstantNode.forInt(factor, graph), stride.value()));
+            final MulNode chunkStart = graph.addOrUnique(new MulNode(threadId, chunk));
+            final AddNode newOffset = graph.addOrUnique(new AddNode(offset.value(), chunkStart));
+            final AddNode chunkEnd = graph.addOrUnique(new AddNode(newOffset, chunk));
+            final ValueNode newRange = (isExact) ? chunkEnd : graph.addOrUnique(OCLIntBinaryIntrinsicNode.create(chunkEnd, range.value(), OCLIntBinaryIntrinsicNode.Operation.MIN, JavaKind.Int));
+
+            range.replaceAtUsages(newRange);
+            offset.replaceAtUsages(newOffset);
+            stride.replaceAtUsages(stride.value());
+        } else {
+            // offset + tid * stride, stepping by global size * stride
+            final MulNode threadStart = graph.addOrUnique(new MulNode(threadId, stride.value()));
+            final AddNode newOffset = graph.addOrUnique(new AddNode(offset.value(), threadStart));
+            final GlobalThreadSizeNode threadCount = graph.addOrUnique(new GlobalThreadSizeNode(index));
+            final MulNode newStride = graph.addOrUnique(new MulNode(threadCount, stride.value()));
+
+            range.replaceAtUsages(range.value());
+            offset.replaceAtUsages(newOffset);
+            stride.replaceAtUsages(newStride);
+        }
+
+        killNode(range);
+        killNode(offset);
+        killNode(stride);
+    }
+
+    private void coarsenLoops(StructuredGraph graph, TornadoHighTierContext context) {
+        final TaskMetaData meta = context.getMeta();
+        final OCLTornadoDevice device = (OCLTornadoDevice) context.getDeviceMapping();
+        final boolean perBlock = device.getPreferredSchedule() == PER_BLOCK || meta.shouldCoarsenWithCpuConfig();
+
+        graph.getNodes().filter(ParallelRangeNode.class).forEach(node -> {
+            if (meta.enableParallelization()) {
+                final int factor = (meta.getCoarseness() == null) ? 1 : Math.max(1, meta.getCoarseness(node.index()));
+                coarsenLoop(graph, node, factor, perBlock, meta.canAssumeExact());
+            } else {
+                serialiseLoop(node);
+            }
+            Debug.dump(Debug.BASIC_LEVEL, graph, "after coarsening loop index=" + node.index());
+        });
+
+        graph.clearLastSchedule();
+    }
+
     // ================================== DEPRECATED
     // ========================================
     // GPU-Scheduling
@@ -180,18 +255,31 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
 
     @Override
     protected void run(StructuredGraph graph, TornadoHighTierContext context) {
-        if (context.getMeta() == null || context.getMeta().enableThreadCoarsener()) {
+        if (context.getMeta() == null) {
+            return;
+        }
+
+        if (context.getMeta().enableThreadCoarsener()) {
+            coarsenLoops(graph, context);
             return;
         }
 
         OCLTornadoDevice device = (OCLTornadoDevice) context.getDeviceMapping();
         final TornadoSchedulingStrategy strategy = device.getPreferredSchedule();
         long[] maxWorkItemSizes = device.getDevice().getDeviceMaxWorkItemSizes();
+        final boolean useGuards = canUseGuards(context, device, strategy);
+        final List<LoopBeginNode> guardedLoops = new ArrayList<>();
 
         graph.getNodes().filter(ParallelRangeNode.class).forEach(node -> {
             if (context.getMeta().enableParallelization() && maxWorkItemSizes[node.index()] > 1) {
                 ParallelOffsetNode offset = node.offset();
                 ParallelStrideNode stride = node.stride();
+                if (useGuards) {
+                    final ValuePhiNode iv = offset.usages().filter(ValuePhiNode.class).first();
+                    if (iv != null && iv.merge() instanceof LoopBeginNode && TornadoLocalMemoryTiling.getLoopBody(node, (LoopBeginNode) iv.merge()) != null) {
+                        guardedLoops.add((LoopBeginNode) iv.merge());
+                    }
+                }
                 replaceRangeNode(strategy, graph, node);
                 replaceOffsetNode(strategy, graph, offset, node);
                 replaceStrideNode(strategy, graph, stride);
@@ -202,9 +290,64 @@ public class TornadoParallelScheduler extends BasePhase<TornadoHighTierContext>
             Debug.dump(Debug.BASIC_LEVEL, graph, "after scheduling loop index=" + node.index());
         });
 
+        for (LoopBeginNode loopBegin : guardedLoops) {
+            replaceLoopWithGuard(graph, loopBegin);
+        }
+        if (!guardedLoops.isEmpty()) {
+            Debug.dump(Debug.BASIC_LEVEL, graph, "after replacing parallel loops with guards");
+        }
+
         graph.clearLastSchedule();
     }
 
+    /*
+     * With padded global sizes the GPU scheduler launches at least one
+     * work-item per iteration, so no work-item runs more than one iteration.
+     * This does not hold when the launch is split into batches or its size is
+     * set by the user. Reductions keep their loops: the reduction snippets are
+     * lowered from the induction variable of the loop.
+     */
+    private static boolean canUseGuards(TornadoHighTierContext context, OCLTornadoDevice device, TornadoSchedulingStrategy strategy) {
+        final TaskMetaData meta = context.getMeta();
+        final boolean isGPU = Tornado.FORCE_ALL_TO_GPU || device.getDevice().getDeviceType() == OCLDeviceType.CL_DEVICE_TYPE_GPU;
+        return meta.enablePadding() && strategy == PER_ITERATION && isGPU && !Tornado.ACCELERATOR_IS_FPGA && context.getBatchThreads() <= 0 && !meta.isGlobalWorkDefined()
+                && !meta.isReduction();
+    }
+
+    /*
+     * Replaces a parallel loop that runs at most one iteration with its first
+     * iteration, guarded by the loop condition: if (i < n) { body }.
+     */
+    private static void replaceLoopWithGuard(StructuredGraph graph, LoopBeginNode loopBegin) {
+        if (loopBegin.isDeleted() || loopBegin.loopEnds().count() != 1 || loopBegin.loopExits().count() != 1 || loopBegin.phis().count() != 1) {
+            return;
+        }
+
+        final LoopExitNode loopExit = loopBegin.loopExits().first();
+        if (loopExit.proxies().isNotEmpty()) {
+            return;
+        }
+
+        final LoopEndNode loopEnd = loopBegin.loopEnds().first();
+        final EndNode bodyEnd = graph.add(new EndNode());
+        loopEnd.replaceAtPredecessor(bodyEnd);
+        loopBegin.removeEnd(loopEnd);
+        loopEnd.safeDelete();
+
+        final FixedNode next = loopExit.next();
+        final EndNode exitEnd = graph.add(new EndNode());
+        loopExit.setNext(exitEnd);
+
+        final MergeNode merge = graph.add(new MergeNode());
+        merge.addForwardEnd(bodyEnd);
+        merge.addForwardEnd(exitEnd);
+        merge.setStateAfter(loopExit.stateAfter());
+        merge.setNext(next);
+
+        // the induction variable takes its initial value: offset + tid * stride
+        graph.reduceDegenerateLoopBegin(loopBegin);
+    }
+
     private void killNode(AbstractParallelNode node) {
         if (node.inputs().isNotEmpty()) {
             node.clearInputs();
@@ -253,7 +253,8 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
             if (context.hasArgs()) {
                 for (final ParameterNode param : graph.getNodes(ParameterNode.TYPE)) {
                     if (Tornado.ACCELERATOR_IS_FPGA && context.getDeviceMapping().getDeviceType().equals("ACCELERATOR")) {
-                    } else {
+                    } else if (context.getMeta() == null || context.getMeta().shouldFoldArgument(param.index())) {
+                        // the generic variant reads specialised arguments from the call stack
                         propagateParameters(graph, param, context.getArgs());
                     }
                 }
@@ -35,6 +35,7 @@ import java.lang.reflect.Modifier;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 import uk.ac.manchester.tornado.api.mm.ObjectBuffer;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 
@@ -123,6 +124,10 @@ public class FieldBuffer {
         return !onDevice() || !RuntimeUtilities.isPrimitive(field.getType());
     }
 
+    public boolean hasDirtyRegions(final Object ref) {
+        return DirtyRegions.hasPendingRegions(getFieldValue(ref));
+    }
+
     public void write(final Object ref) {
         if (DEBUG) {
             trace("fieldBuffer: write - field=%s, parent=0x%x, child=0x%x", field, ref.hashCode(), getFieldValue(ref).hashCode());
@@ -25,6 +25,7 @@
  */
 package uk.ac.manchester.tornado.drivers.opencl.mm;
 
+import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
 import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.shouldNotReachHere;
 import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getVMConfig;
 import static uk.ac.manchester.tornado.runtime.common.RuntimeUtilities.humanReadableByteCount;
@@ -34,12 +35,16 @@ import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.info;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import jdk.vm.ci.meta.JavaKind;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 import uk.ac.manchester.tornado.api.mm.ObjectBuffer;
+import uk.ac.manchester.tornado.drivers.opencl.OCLBounceBufferPool;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
 
@@ -55,6 +60,11 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
 
     private long bytesToAllocate;
 
+    private long subBuffer;
+    private long subBufferOffset;
+    private long subBufferSize;
+    private int subBufferGeneration;
+
     protected final OCLDeviceContext deviceContext;
 
     private final JavaKind kind;
@@ -79,6 +89,7 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
         arrayHeaderSize = getVMConfig().getArrayBaseOffset(kind);
         onDevice = false;
         bufferOffset = -1;
+        subBuffer = -1;
     }
 
     public long getBatchSize() {
@@ -118,7 +129,7 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
             if (bytesToAllocate <= 0) {
                 throw new TornadoMemoryException("[ERROR] Bytes Allocated <= 0: " + bytesToAllocate);
             }
-            bufferOffset = deviceContext.getMemoryManager().tryAllocate(hostArray.getClass(), bytesToAllocate, arrayHeaderSize, getAlignment());
+            bufferOffset = deviceContext.getMemoryManager().tryAllocate(hostArray.getClass(), bytesToAllocate, arrayHeaderSize, getAlignment(), getSubBufferAlignment());
 
             if (Tornado.FULL_DEBUG) {
                 info("allocated: array kind=%s, size=%s, length offset=%d, header size=%d, bo=0x%x", kind.getJavaName(), humanReadableByteCount(bytesToAllocate, true), arrayLengthOffset,
@@ -177,6 +188,61 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
         return useDeps ? returnEvent : -1;
     }
 
+    /**
+     * Non-blocking read that does not write into the Java heap while the
+     * transfer is in flight. The data lands in a pinned staging buffer and is
+     * copied into the array by the runnable added to {@code copyBacks}, which
+     * the caller runs once the returned event has completed. The array may be
+     * moved by the GC at any point before that.
+     */
+    public int enqueueReadStaged(final Object value, long hostOffset, final int[] events, List<Runnable> copyBacks) {
+        final T array = cast(value);
+        if (array == null) {
+            throw new TornadoRuntimeException("[ERROR] output data is NULL");
+        }
+        final long bytes = bytesToAllocate - arrayHeaderSize;
+        final OCLBounceBufferPool.BounceBuffer staging = OCLBounceBufferPool.acquire(deviceContext, bytes);
+        final int event = deviceContext.enqueueReadToHost(toBuffer(), bufferOffset + arrayHeaderSize, bytes, staging.getAddress(), events);
+        copyBacks.add(() -> {
+            try {
+                copyToArray(deviceContext.getPlatformContext().toByteBuffer(staging.getAddress(), bytes), array, hostOffset);
+            } finally {
+                OCLBounceBufferPool.release(staging);
+            }
+        });
+        return event;
+    }
+
+    private void copyToArray(ByteBuffer staging, T array, long hostOffset) {
+        final int index = (int) (hostOffset / kind.getByteCount());
+        final int length = (int) (staging.capacity() / kind.getByteCount());
+        switch (kind) {
+            case Byte:
+                staging.get((byte[]) array, index, length);
+                break;
+            case Char:
+                staging.asCharBuffer().get((char[]) array, index, length);
+                break;
+            case Short:
+                staging.asShortBuffer().get((short[]) array, index, length);
+                break;
+            case Int:
+                staging.asIntBuffer().get((int[]) array, index, length);
+                break;
+            case Long:
+                staging.asLongBuffer().get((long[]) array, index, length);
+                break;
+            case Float:
+                staging.asFloatBuffer().get((float[]) array, index, length);
+                break;
+            case Double:
+                staging.asDoubleBuffer().get((double[]) array, index, length);
+                break;
+            default:
+                shouldNotReachHere("Unsupported array kind: " + kind);
+        }
+    }
+
     /**
      * Copy data from the device to the main host.
      * 
@@ -202,6 +268,16 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
         }
 
         final int returnEvent;
+        if (onDevice && batchSize <= 0 && DirtyRegions.isTracked(array)) {
+            returnEvent = enqueueWriteDirtyRegions(array, hostOffset, (useDeps) ? events : null);
+            return useDeps ? returnEvent : -1;
+        }
+
+        // A full upload sends the regions marked so far
+        if (batchSize <= 0) {
+            DirtyRegions.drainRegions(array);
+        }
+
         if (isFinal && onDevice) {
             returnEvent = enqueueWriteArrayData(toBuffer(), bufferOffset + arrayHeaderSize, bytesToAllocate - arrayHeaderSize, array, hostOffset, (useDeps) ? events : null);
         } else {
@@ -222,6 +298,30 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
         return useDeps ? returnEvent : -1;
     }
 
+    /**
+     * Uploads only the regions of a tracked array that have been modified on
+     * the host since the last upload. One write is issued per region.
+     * 
+     * @return the event of the last write, a marker over all the writes, or -1
+     *         if no region is dirty.
+     */
+    private int enqueueWriteDirtyRegions(final T array, long hostOffset, final int[] waitEvents) {
+        final int[] regions = DirtyRegions.drainRegions(array);
+        final int numRegions = regions.length / 2;
+        if (numRegions == 0) {
+            return -1;
+        }
+
+        final int[] writeEvents = new int[numRegions];
+        final long elementSize = kind.getByteCount();
+        for (int i = 0; i < numRegions; i++) {
+            final long regionOffset = regions[2 * i] * elementSize;
+            final long regionBytes = (regions[2 * i + 1] - regions[2 * i]) * elementSize;
+            writeEvents[i] = enqueueWriteArrayData(toBuffer(), bufferOffset + arrayHeaderSize + regionOffset, regionBytes, array, hostOffset + regionOffset, waitEvents);
+        }
+        return (numRegions == 1) ? writeEvents[0] : deviceContext.enqueueMarker(writeEvents);
+    }
+
     /**
      * Copy data that resides in the host to the target device.
      * 
@@ -340,6 +440,47 @@ public abstract class OCLArrayWrapper<T> implements ObjectBuffer {
         return bufferOffset;
     }
 
+    private int getSubBufferAlignment() {
+        return Math.max(1, (int) (deviceContext.getDevice().getDeviceMemoryBaseAlignment() >> 3));
+    }
+
+    /**
+     * Returns a sub-buffer of the device heap that covers this array, which is
+     * passed to kernels compiled with typed arguments. The origin of the
+     * sub-buffer is the array header rounded down to the device base address
+     * alignment, so arrays keep their usual layout in the heap. Arrays are
+     * allocated in slots that start at that alignment, so the sub-buffers of
+     * different arrays never overlap. The sub-buffer is owned by the memory
+     * manager, which releases it when the heap is reset.
+     */
+    public long toSubBuffer() {
+        final OCLMemoryManager memoryManager = deviceContext.getMemoryManager();
+        final long baseAlignment = getSubBufferAlignment();
+        final long origin = bufferOffset - (bufferOffset % baseAlignment);
+        final long size = bufferOffset + bytesToAllocate - origin;
+        final int generation = memoryManager.getSubBufferGeneration();
+        if (subBuffer == -1 || subBufferGeneration != generation || subBufferOffset != origin || subBufferSize != size) {
+            if (subBuffer != -1 && subBufferGeneration == generation) {
+                memoryManager.releaseSubBuffer(subBuffer);
+            }
+            subBuffer = memoryManager.createSubBuffer(origin, size);
+            subBufferOffset = origin;
+            subBufferSize = size;
+            subBufferGeneration = generation;
+        }
+        return subBuffer;
+    }
+
+    /**
+     * Returns the offset, in elements, of the array header from the start of
+     * the sub-buffer returned by {@link #toSubBuffer()}.
+     */
+    public long getSubBufferElementOffset() {
+        final long bytes = bufferOffset - subBufferOffset;
+        guarantee(bytes % kind.getByteCount() == 0, "array header is not aligned to its element size: offset=%d, kind=%s", bytes, kind.getJavaName());
+        return bytes / kind.getByteCount();
+    }
+
     @Override
     public String toString() {
         return String.format("buffer<%s> %s @ 0x%x (0x%x)", kind.getJavaName(), humanReadableByteCount(bytesToAllocate, true), toAbsoluteAddress(), toRelativeAddress());
@@ -44,11 +44,19 @@ public class OCLCallStack extends OCLByteBuffer implements CallStack {
 
     private final int numArgs;
 
+    /*
+     * Arguments as pushed, used for kernels compiled with typed arguments:
+     * boxed scalars or the device buffers of the objects.
+     */
+    private final Object[] typedArguments;
+    private int typedArgumentCount;
+
     private boolean onDevice;
 
     public OCLCallStack(long offset, int numArgs, OCLDeviceContext device) {
-        super(device, offset, (numArgs + RESERVED_SLOTS) << 3);
+        super(device, offset, sizeOf(numArgs));
         this.numArgs = numArgs;
+        this.typedArguments = new Object[numArgs];
 
         // clear the buffer and set the mark at the beginning of the arguments
         buffer.clear();
@@ -64,6 +72,13 @@ public class OCLCallStack extends OCLByteBuffer implements CallStack {
         onDevice = false;
     }
 
+    /**
+     * Size in bytes of a call-stack holding {@code numArgs} arguments.
+     */
+    public static int sizeOf(int numArgs) {
+        return (numArgs + RESERVED_SLOTS) << 3;
+    }
+
     @Override
     public boolean isOnDevice() {
         return onDevice;
@@ -106,9 +121,25 @@ public class OCLCallStack extends OCLByteBuffer implements CallStack {
         }
 
         buffer.reset();
+        typedArgumentCount = 0;
         onDevice = false;
     }
 
+    public int getTypedArgumentCount() {
+        return typedArgumentCount;
+    }
+
+    public Object getTypedArgument(int index) {
+        return typedArguments[index];
+    }
+
+    private void pushTypedArgument(Object value) {
+        if (typedArgumentCount < numArgs) {
+            typedArguments[typedArgumentCount] = value;
+            typedArgumentCount++;
+        }
+    }
+
     @Override
     public long getDeoptValue() {
         return buffer.getLong(8);
@@ -138,6 +169,7 @@ public class OCLCallStack extends OCLByteBuffer implements CallStack {
 
     @Override
     public void push(Object arg) {
+        pushTypedArgument(arg);
         if (arg == null) {
             if (DEBUG) {
                 debug("arg : (null)");
@@ -155,6 +187,7 @@ public class OCLCallStack extends OCLByteBuffer implements CallStack {
 
     @Override
     public void push(Object arg, DeviceObjectState state) {
+        pushTypedArgument((arg == null) ? null : state.getBuffer());
         if (arg == null) {
             if (DEBUG) {
                 debug("arg : (null)");
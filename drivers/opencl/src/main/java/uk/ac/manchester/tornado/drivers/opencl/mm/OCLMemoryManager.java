@@ -27,6 +27,10 @@ package uk.ac.manchester.tornado.drivers.opencl.mm;
 
 import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.mm.TornadoMemoryProvider;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
@@ -42,32 +46,37 @@ public class OCLMemoryManager extends TornadoLogger implements TornadoMemoryProv
 
     private final ScheduleMetaData scheduleMeta;
     private final long callStackLimit;
-    private long callStackPosition;
+    private final AtomicLong callStackPosition;
     private long deviceBufferAddress;
     private final OCLDeviceContext deviceContext;
     private long deviceHeapPointer;
     private long heapLimit;
-    private long heapPosition;
+    private final AtomicLong heapPosition;
     private boolean initialised;
+    private final Set<Long> subBuffers;
+    private int subBufferGeneration;
 
     public static final int STACK_ALIGNMENT_SIZE = 128;
 
     public OCLMemoryManager(final OCLDeviceContext device) {
         deviceContext = device;
         callStackLimit = OpenCL.OCL_CALL_STACK_LIMIT;
+        callStackPosition = new AtomicLong();
+        heapPosition = new AtomicLong();
         initialised = false;
         scheduleMeta = new ScheduleMetaData("mm-" + device.getDeviceId());
+        subBuffers = new HashSet<>();
         reset();
     }
 
     @Override
     public long getCallStackAllocated() {
-        return callStackPosition;
+        return callStackPosition.get();
     }
 
     @Override
     public long getCallStackRemaining() {
-        return callStackLimit - callStackPosition;
+        return callStackLimit - callStackPosition.get();
     }
 
     @Override
@@ -77,17 +86,18 @@ public class OCLMemoryManager extends TornadoLogger implements TornadoMemoryProv
 
     @Override
     public long getHeapAllocated() {
-        return heapPosition - callStackLimit;
+        return heapPosition.get() - callStackLimit;
     }
 
     @Override
     public long getHeapRemaining() {
-        return heapLimit - heapPosition;
+        return heapLimit - heapPosition.get();
     }
 
     public final void reset() {
-        callStackPosition = 0;
-        heapPosition = callStackLimit;
+        callStackPosition.set(0);
+        heapPosition.set(callStackLimit);
+        releaseSubBuffers();
         Tornado.info("Reset heap @ 0x%x (%s) on %s", deviceBufferAddress, RuntimeUtilities.humanReadableByteCount(heapLimit, true), deviceContext.getDevice().getDeviceName());
     }
 
@@ -101,35 +111,93 @@ public class OCLMemoryManager extends TornadoLogger implements TornadoMemoryProv
         return newAddress;
     }
 
+    /*
+     * Heap and call-stack regions are bump-allocated with a CAS on the current
+     * position, so schedules submitted from different threads can allocate on
+     * the same device concurrently.
+     */
     public long tryAllocate(final Class<?> type, final long bytes, final int headerSize, int alignment) throws TornadoOutOfMemoryException {
-        final long alignedDataStart = align(heapPosition + headerSize, alignment);
-        final long headerStart = alignedDataStart - headerSize;
-        if (headerStart + bytes < heapLimit) {
-            heapPosition = headerStart + bytes;
-        } else {
-            throw new TornadoOutOfMemoryException("Out of memory on the target device -> " + deviceContext.getDevice().getDeviceName() + ". [Heap Limit is: "
-                    + RuntimeUtilities.humanReadableByteCount(heapLimit, true) + " and the application requires: " + RuntimeUtilities.humanReadableByteCount(headerStart + bytes, true) + "]");
-        }
+        return tryAllocate(type, bytes, headerSize, alignment, 1);
+    }
+
+    /*
+     * The allocation also owns the bytes from the previous multiple of
+     * slotAlignment, so a sub-buffer whose origin is the header rounded down
+     * to slotAlignment does not overlap any other allocation.
+     */
+    public long tryAllocate(final Class<?> type, final long bytes, final int headerSize, int alignment, int slotAlignment) throws TornadoOutOfMemoryException {
+        long position;
+        long headerStart;
+        do {
+            position = heapPosition.get();
+            final long alignedDataStart = align(align(position, slotAlignment) + headerSize, alignment);
+            headerStart = alignedDataStart - headerSize;
+            if (headerStart + bytes >= heapLimit) {
+                throw new TornadoOutOfMemoryException("Out of memory on the target device -> " + deviceContext.getDevice().getDeviceName() + ". [Heap Limit is: "
+                        + RuntimeUtilities.humanReadableByteCount(heapLimit, true) + " and the application requires: " + RuntimeUtilities.humanReadableByteCount(headerStart + bytes, true) + "]");
+            }
+        } while (!heapPosition.compareAndSet(position, headerStart + bytes));
         return headerStart;
     }
 
     public OCLCallStack createCallStack(final int maxArgs) {
+        final long size = OCLCallStack.sizeOf(maxArgs);
+        long position;
+        long nextPosition;
+        do {
+            position = callStackPosition.get();
+            if (position + size >= callStackLimit) {
+                fatal("Out of call-stack memory");
+                System.exit(-1);
+            }
+            nextPosition = align(position + size, STACK_ALIGNMENT_SIZE);
+        } while (!callStackPosition.compareAndSet(position, nextPosition));
 
-        OCLCallStack callStack = new OCLCallStack(callStackPosition, maxArgs, deviceContext);
+        return new OCLCallStack(position, maxArgs, deviceContext);
+    }
 
-        if (callStackPosition + callStack.getSize() < callStackLimit) {
-            callStackPosition = align(callStackPosition + callStack.getSize(), STACK_ALIGNMENT_SIZE);
-        } else {
-            callStack = null;
-            fatal("Out of call-stack memory");
-            System.exit(-1);
+    /**
+     * Creates a sub-buffer over a region of the heap. Sub-buffers stay valid
+     * until they are released or the heap is reset.
+     *
+     * @param offset
+     *            offset within the heap, aligned to the device base address
+     *            alignment
+     * @param bytes
+     *            size in bytes of the sub-buffer
+     */
+    public synchronized long createSubBuffer(final long offset, final long bytes) {
+        final long subBuffer = deviceContext.getPlatformContext().createSubBuffer(deviceHeapPointer, offset, bytes);
+        if (subBuffer != -1) {
+            subBuffers.add(subBuffer);
         }
+        return subBuffer;
+    }
+
+    public synchronized void releaseSubBuffer(final long subBuffer) {
+        if (subBuffers.remove(subBuffer)) {
+            deviceContext.getPlatformContext().releaseSubBuffer(subBuffer);
+        }
+    }
 
-        return callStack;
+    /**
+     * Returns a counter that changes every time the heap is reset, after which
+     * previously created sub-buffers are no longer valid.
+     */
+    public synchronized int getSubBufferGeneration() {
+        return subBufferGeneration;
+    }
+
+    private synchronized void releaseSubBuffers() {
+        for (long subBuffer : subBuffers) {
+            deviceContext.getPlatformContext().releaseSubBuffer(subBuffer);
+        }
+        subBuffers.clear();
+        subBufferGeneration++;
     }
 
     public long getBytesRemaining() {
-        return heapLimit - heapPosition;
+        return heapLimit - heapPosition.get();
     }
 
     /**
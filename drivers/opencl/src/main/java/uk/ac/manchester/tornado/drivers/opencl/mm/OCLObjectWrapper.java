@@ -466,7 +466,7 @@ public class OCLObjectWrapper implements ObjectBuffer {
         final int returnEvent;
         if (vectorObject) {
             final FieldBuffer fieldBuffer = wrappedFields[vectorStorageIndex];
-            if (!valid) {
+            if (!valid || fieldBuffer.hasDirtyRegions(ref)) {
                 valid = true;
                 returnEvent = fieldBuffer.enqueueWrite(ref, (useDeps) ? events : null, useDeps);
             } else {
@@ -525,6 +525,20 @@ public class OCLObjectWrapper implements ObjectBuffer {
         return null;
     }
 
+    /**
+     * Checks whether any array field of the object has regions, marked through
+     * {@link uk.ac.manchester.tornado.api.mm.DirtyRegions}, that are pending to
+     * be uploaded.
+     */
+    public boolean hasDirtyFields(Object reference) {
+        for (FieldBuffer fb : wrappedFields) {
+            if (fb != null && fb.hasDirtyRegions(reference)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean isValid() {
         return valid;
@@ -31,6 +31,7 @@ import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.api.common.Access;
@@ -41,10 +42,12 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 import uk.ac.manchester.tornado.api.mm.ObjectBuffer;
 import uk.ac.manchester.tornado.api.mm.TaskMetaDataInterface;
 import uk.ac.manchester.tornado.api.mm.TornadoDeviceObjectState;
 import uk.ac.manchester.tornado.api.mm.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.api.profiler.MetricsRegistry;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCodeCache;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDevice;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
@@ -54,6 +57,7 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.OCLProviders;
 import uk.ac.manchester.tornado.drivers.opencl.graal.backend.OCLBackend;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResult;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompiler;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLByteArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLByteBuffer;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLCharArrayWrapper;
@@ -73,6 +77,7 @@ import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoMetrics;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -232,10 +237,13 @@ public class OCLTornadoDevice implements TornadoAcceleratorDevice {
         try {
             OCLProviders providers = (OCLProviders) getBackend().getProviders();
             final OCLCompilationResult result = OCLCompiler.compileSketchForDevice(sketch, executable, providers, getBackend());
-            if (deviceContext.isCached(task.getId(), resolvedMethod.getName())) {
+            final String codeId = taskMeta.getCompiledCodeId();
+            if (deviceContext.isCached(codeId, resolvedMethod.getName())) {
                 // Return the code from the cache
-                return deviceContext.getCode(task.getId(), resolvedMethod.getName());
+                TornadoMetrics.increment(MetricsRegistry.CODE_CACHE_HITS, task.getId(), getDeviceName());
+                return deviceContext.getCode(codeId, resolvedMethod.getName());
             }
+            TornadoMetrics.increment(MetricsRegistry.CODE_CACHE_MISSES, task.getId(), getDeviceName());
 
             // Compile the code
             if (Tornado.ACCELERATOR_IS_FPGA) {
@@ -303,6 +311,45 @@ public class OCLTornadoDevice implements TornadoAcceleratorDevice {
         }
     }
 
+    /*
+     * Only flat primitive arrays are position independent: object and
+     * multi-dimensional wrappers hold device pointers into their own heap.
+     */
+    private static boolean isRelocatable(ObjectBuffer buffer) {
+        return buffer instanceof OCLArrayWrapper && !(buffer instanceof OCLMultiDimArrayWrapper);
+    }
+
+    /*
+     * Objects written by a device sharing the Java heap, such as the JVM
+     * device, are up to date in the heap and are written from there.
+     */
+    @Override
+    public boolean canCopyFrom(TornadoAcceleratorDevice source, DeviceObjectState sourceState) {
+        if (!source.isDistibutedMemory()) {
+            return true;
+        }
+        return source instanceof OCLTornadoDevice && source != this && sourceState.isValid() && sourceState.hasContents() && isRelocatable(sourceState.getBuffer());
+    }
+
+    @Override
+    public int copyFrom(Object object, TornadoAcceleratorDevice source, DeviceObjectState sourceState, DeviceObjectState state, int[] events) {
+        if (!source.isDistibutedMemory()) {
+            return streamIn(object, 0, 0, state, events);
+        }
+
+        if (!state.isValid()) {
+            ensureAllocated(object, 0, state);
+        }
+
+        final ObjectBuffer from = sourceState.getBuffer();
+        final ObjectBuffer to = state.getBuffer();
+        TornadoInternalError.guarantee(from.size() == to.size(), "buffer size mismatch: %d != %d", from.size(), to.size());
+
+        final OCLDeviceContext sourceContext = ((OCLTornadoDevice) source).getDeviceContext();
+        state.setContents(true);
+        return getDeviceContext().enqueueCopyFromDevice(sourceContext, from.toBuffer(), from.toRelativeAddress(), to.toBuffer(), to.toRelativeAddress(), from.size(), events);
+    }
+
     @Override
     public boolean isFullJITMode(SchedulableTask task) {
         final OCLDeviceContext deviceContext = getDeviceContext();
@@ -455,13 +502,27 @@ public class OCLTornadoDevice implements TornadoAcceleratorDevice {
         return -1;
     }
 
+    /*
+     * Objects with dirty-range tracking enabled are re-sent by COPY_IN even
+     * though the device already holds their contents; only the modified
+     * regions are transferred.
+     */
+    private boolean hasDirtyRegions(Object object, TornadoDeviceObjectState state) {
+        if (object.getClass().isArray()) {
+            return DirtyRegions.hasPendingRegions(object);
+        } else if (state.getBuffer() instanceof OCLObjectWrapper) {
+            return ((OCLObjectWrapper) state.getBuffer()).hasDirtyFields(object);
+        }
+        return false;
+    }
+
     @Override
     public int ensurePresent(Object object, TornadoDeviceObjectState state, int[] events, long batchSize, long offset) {
         if (!state.isValid()) {
             ensureAllocated(object, batchSize, state);
         }
 
-        if (BENCHMARKING_MODE || !state.hasContents()) {
+        if (BENCHMARKING_MODE || !state.hasContents() || hasDirtyRegions(object, state)) {
             state.setContents(true);
             int event = state.getBuffer().enqueueWrite(object, batchSize, offset, events, events == null);
             if (events != null) {
@@ -496,6 +557,16 @@ public class OCLTornadoDevice implements TornadoAcceleratorDevice {
         return state.getBuffer().read(object, hostOffset, events, events == null);
     }
 
+    @Override
+    public int streamOutStaged(Object object, long hostOffset, TornadoDeviceObjectState state, int[] events, List<Runnable> copyBacks) {
+        TornadoInternalError.guarantee(state.isValid(), "invalid variable");
+        final ObjectBuffer buffer = state.getBuffer();
+        if (buffer instanceof OCLArrayWrapper && !(buffer instanceof OCLMultiDimArrayWrapper)) {
+            return ((OCLArrayWrapper<?>) buffer).enqueueReadStaged(object, hostOffset, events, copyBacks);
+        }
+        return buffer.read(object, hostOffset, events, events == null);
+    }
+
     public void sync(Object... objects) {
         for (Object obj : objects) {
             sync(obj);
@@ -578,6 +649,26 @@ public class OCLTornadoDevice implements TornadoAcceleratorDevice {
         getDeviceContext().flushEvents();
     }
 
+    @Override
+    public void retainEvent(int event) {
+        getDeviceContext().retainEvent(event);
+    }
+
+    @Override
+    public void releaseEvent(int event) {
+        getDeviceContext().releaseEvent(event);
+    }
+
+    @Override
+    public void freeEvents(int[] events, int count) {
+        getDeviceContext().freeEvents(events, count);
+    }
+
+    @Override
+    public boolean readEventTimes(int event, long[] times) {
+        return getDeviceContext().readEventTimes(event, times);
+    }
+
     @Override
     public void markEvent() {
         getDeviceContext().markEvent();
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+
+/**
+ * Cost of {@code TaskSchedule.execute} once the schedule has been compiled,
+ * i.e. the TornadoVM byte-code interpreter plus the kernel itself. Tasks run
+ * on the JVM device, so no accelerator is required. Comparing the smallest
+ * size against the others separates the fixed dispatch cost from the work
+ * that scales with the data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({ "256", "65536", "1048576" })
+    public int size;
+
+    @Param({ "1", "4" })
+    public int tasks;
+
+    private String scheduleName;
+    private String residentName;
+    private TaskSchedule schedule;
+    private TaskSchedule resident;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] c = new float[size];
+        Arrays.fill(a, 1.0f);
+        Arrays.fill(b, 2.0f);
+
+        scheduleName = Kernels.nextScheduleName("dispatch");
+        Kernels.mapToJVM(scheduleName, tasks);
+        schedule = new TaskSchedule(scheduleName).streamIn(a, b);
+        schedule.task("t0", Kernels::vectorAdd, a, b, c);
+        for (int i = 1; i < tasks; i++) {
+            schedule.task("t" + i, Kernels::scale, c, 1.0f);
+        }
+        schedule.streamOut(c);
+        schedule.execute();
+
+        // Same tasks without stream operations: only the launches remain
+        residentName = Kernels.nextScheduleName("resident");
+        Kernels.mapToJVM(residentName, tasks);
+        resident = new TaskSchedule(residentName);
+        resident.task("t0", Kernels::vectorAdd, a, b, c);
+        for (int i = 1; i < tasks; i++) {
+            resident.task("t" + i, Kernels::scale, c, 1.0f);
+        }
+        resident.execute();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Kernels.clearMapping(scheduleName, tasks);
+        Kernels.clearMapping(residentName, tasks);
+    }
+
+    @Benchmark
+    public void execute() {
+        schedule.execute();
+    }
+
+    @Benchmark
+    public void executeResident() {
+        resident.execute();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
+import uk.ac.manchester.tornado.runtime.graph.TornadoGraph;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMGraphCompilationResult;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMGraphCompiler;
+import uk.ac.manchester.tornado.runtime.tasks.TornadoTaskSchedule;
+
+/**
+ * Cost of turning the high-level byte-code of a schedule into a task graph,
+ * and of compiling that graph into TornadoVM byte-code. Both run on every
+ * first execution and on every device change. The schedule is a chain of
+ * {@code tasks} tasks mapped to the JVM device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GraphCompilerBenchmark {
+
+    @Param({ "1", "4", "16" })
+    public int tasks;
+
+    private String name;
+    private TornadoTaskSchedule schedule;
+    private TornadoExecutionContext context;
+    private TornadoGraph graph;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final int size = 1024;
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] c = new float[size];
+
+        name = Kernels.nextScheduleName("graph");
+        Kernels.mapToJVM(name, tasks);
+        schedule = new TornadoTaskSchedule(name);
+        schedule.streamInInner(a, b);
+        schedule.addTask(TaskPackage.createPackage("t0", Kernels::vectorAdd, a, b, c));
+        for (int i = 1; i < tasks; i++) {
+            schedule.addTask(TaskPackage.createPackage("t" + i, Kernels::scale, c, 1.0f));
+        }
+        schedule.streamOutInner(c);
+
+        // Assigns the devices used by the graph compiler
+        schedule.schedule().waitOn();
+
+        context = schedule.getGraphContext();
+        graph = schedule.buildGraph();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Kernels.clearMapping(name, tasks);
+    }
+
+    @Benchmark
+    public TornadoGraph buildGraph() {
+        return schedule.buildGraph();
+    }
+
+    @Benchmark
+    public TornadoVMGraphCompilationResult compile() {
+        return TornadoVMGraphCompiler.compile(graph, context, -1);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+
+/**
+ * End-to-end cost of a vector addition on the default device: copy in,
+ * kernel and copy out, and the kernel alone once its data is resident.
+ * Requires an OpenCL device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+
+    @Param({ "256", "65536", "1048576", "16777216" })
+    public int size;
+
+    private TaskSchedule transfers;
+    private TaskSchedule resident;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] c = new float[size];
+        Arrays.fill(a, 1.0f);
+        Arrays.fill(b, 2.0f);
+
+        //@formatter:off
+        transfers = new TaskSchedule(Kernels.nextScheduleName("transfers"))
+                .streamIn(a, b)
+                .task("t0", Kernels::vectorAdd, a, b, c)
+                .streamOut(c);
+        //@formatter:on
+        transfers.execute();
+
+        float[] x = new float[size];
+        float[] y = new float[size];
+        float[] z = new float[size];
+        resident = new TaskSchedule(Kernels.nextScheduleName("resident")).task("t0", Kernels::vectorAdd, x, y, z);
+        resident.execute();
+    }
+
+    @Benchmark
+    public void transfers() {
+        transfers.execute();
+    }
+
+    @Benchmark
+    public void resident() {
+        resident.execute();
+    }
+}
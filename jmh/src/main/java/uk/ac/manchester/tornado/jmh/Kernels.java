@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+
+/**
+ * Kernels and schedule helpers shared by the JMH benchmarks.
+ */
+public final class Kernels {
+
+    private static final AtomicInteger scheduleId = new AtomicInteger(0);
+
+    private Kernels() {
+    }
+
+    public static void vectorAdd(float[] a, float[] b, float[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    public static void scale(float[] c, float factor) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = c[i] * factor;
+        }
+    }
+
+    /**
+     * Returns a schedule name that has not been used in this JVM. Trials
+     * share a JVM when forking is disabled, and task meta-data is keyed by
+     * the schedule name.
+     */
+    public static String nextScheduleName(String prefix) {
+        return prefix + scheduleId.getAndIncrement();
+    }
+
+    /**
+     * Maps tasks {@code t0 .. t<tasks-1>} of the given schedule to the JVM
+     * device, so that the benchmark runs without an accelerator.
+     */
+    public static void mapToJVM(String schedule, int tasks) {
+        for (int i = 0; i < tasks; i++) {
+            System.setProperty(schedule + ".t" + i + ".device", "jvm");
+        }
+    }
+
+    public static void clearMapping(String schedule, int tasks) {
+        for (int i = 0; i < tasks; i++) {
+            System.clearProperty(schedule + ".t" + i + ".device");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.profiler.MetricsRegistry;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoMetrics;
+
+/**
+ * Overhead of the runtime metrics, which are on by default.
+ * {@code metricsDisabled} and {@code metricsEnabled} run the same vector
+ * addition on the default device with {@code tornado.metrics.enable} off and
+ * on. Small sizes show the overhead best. They require an OpenCL device.
+ * {@code recordExecution} measures, on the host, the histogram and
+ * counter updates made for one execution of that schedule.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class MetricsBenchmark {
+
+    @Param({ "256", "65536" })
+    public int size;
+
+    private TaskSchedule schedule;
+    private long recorded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] c = new float[size];
+        Arrays.fill(a, 1.0f);
+        Arrays.fill(b, 2.0f);
+
+        //@formatter:off
+        schedule = new TaskSchedule(Kernels.nextScheduleName("metrics"))
+                .streamIn(a, b)
+                .task("t0", Kernels::vectorAdd, a, b, c)
+                .streamOut(c);
+        //@formatter:on
+        schedule.execute();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.metrics.enable=False")
+    public void metricsDisabled() {
+        schedule.execute();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.metrics.enable=True")
+    public void metricsEnabled() {
+        schedule.execute();
+    }
+
+    /**
+     * Updates recorded when the profile of one execution is resolved: two
+     * copies in, the kernel, one copy out and the whole execution.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.metrics.enable=True")
+    public void recordExecution() {
+        final long time = 1000 + (++recorded & 1023);
+        TornadoMetrics.recordLatency(MetricsRegistry.COPY_IN, "metrics", "device", time);
+        TornadoMetrics.increment(MetricsRegistry.BYTES_IN, "metrics", "device", size * Float.BYTES);
+        TornadoMetrics.recordLatency(MetricsRegistry.COPY_IN, "metrics", "device", time);
+        TornadoMetrics.increment(MetricsRegistry.BYTES_IN, "metrics", "device", size * Float.BYTES);
+        TornadoMetrics.recordLatency(MetricsRegistry.KERNEL, "metrics.t0", "device", time);
+        TornadoMetrics.recordLatency(MetricsRegistry.COPY_OUT, "metrics", "device", time);
+        TornadoMetrics.increment(MetricsRegistry.BYTES_OUT, "metrics", "device", size * Float.BYTES);
+        TornadoMetrics.recordLatency(MetricsRegistry.EXECUTION, "metrics", null, time);
+    }
+}
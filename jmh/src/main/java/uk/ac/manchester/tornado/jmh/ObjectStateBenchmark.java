@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getTornadoRuntime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
+
+/**
+ * Cost of looking up the global state of the objects passed to a schedule,
+ * which TornadoVM does for every argument of every byte-code that touches
+ * an object.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjectStateBenchmark {
+
+    @Param({ "1", "16", "256", "4096" })
+    public int objects;
+
+    private TornadoCoreRuntime runtime;
+    private TornadoAcceleratorDevice device;
+    private Object[] arrays;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        runtime = getTornadoRuntime();
+        device = runtime.getJVMDevice();
+        arrays = new Object[objects];
+        for (int i = 0; i < objects; i++) {
+            arrays[i] = new float[16];
+            runtime.resolveObject(arrays[i]).getDeviceState(device);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runtime.clearObjectState();
+    }
+
+    @Benchmark
+    public void resolveObject(Blackhole blackhole) {
+        for (Object array : arrays) {
+            blackhole.consume(runtime.resolveObject(array));
+        }
+    }
+
+    @Benchmark
+    public void resolveDeviceState(Blackhole blackhole) {
+        for (Object array : arrays) {
+            blackhole.consume(runtime.resolveObject(array).getDeviceState(device));
+        }
+    }
+}
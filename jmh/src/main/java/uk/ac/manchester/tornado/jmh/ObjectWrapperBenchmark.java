@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getTornadoRuntime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDriver;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLObjectWrapper;
+import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
+
+/**
+ * Cost of serialising an object with an array field and a scalar field into
+ * device memory and back, through {@link OCLObjectWrapper}. Both directions
+ * are blocking, so the numbers include the transfer. Requires an OpenCL
+ * device; the default one is used.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjectWrapperBenchmark {
+
+    public static class Particles {
+        final float[] positions;
+        float mass;
+
+        Particles(int size) {
+            positions = new float[size];
+            mass = 1.0f;
+        }
+    }
+
+    @Param({ "256", "65536", "1048576" })
+    public int size;
+
+    private OCLDeviceContext deviceContext;
+    private Particles particles;
+    private OCLObjectWrapper wrapper;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        OCLTornadoDevice device = (OCLTornadoDevice) getTornadoRuntime().getDriver(OCLDriver.class).getDefaultDevice();
+        deviceContext = device.getDeviceContext();
+        particles = new Particles(size);
+        wrapper = new OCLObjectWrapper(deviceContext, particles, 0);
+        wrapper.allocate(particles, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        deviceContext.reset();
+    }
+
+    @Benchmark
+    public void write() {
+        wrapper.write(particles);
+    }
+
+    @Benchmark
+    public void read() {
+        wrapper.read(particles);
+    }
+}
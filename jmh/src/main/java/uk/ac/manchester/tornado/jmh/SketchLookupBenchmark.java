@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+package uk.ac.manchester.tornado.jmh;
+
+import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getTornadoRuntime;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+
+/**
+ * Cost of fetching the sketch of a task that has already been sketched, which
+ * the runtime does whenever a task is compiled for a device.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SketchLookupBenchmark {
+
+    private String name;
+    private Method method;
+    private ResolvedJavaMethod resolvedMethod;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchMethodException {
+        float[] a = new float[16];
+        float[] b = new float[16];
+        float[] c = new float[16];
+
+        // Adding the task to a schedule builds the sketch
+        name = Kernels.nextScheduleName("sketch");
+        Kernels.mapToJVM(name, 1);
+        new TaskSchedule(name).task("t0", Kernels::vectorAdd, a, b, c);
+
+        method = Kernels.class.getMethod("vectorAdd", float[].class, float[].class, float[].class);
+        resolvedMethod = getTornadoRuntime().resolveMethod(method);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Kernels.clearMapping(name, 1);
+    }
+
+    @Benchmark
+    public Sketch lookup() {
+        return TornadoSketcher.lookup(resolvedMethod);
+    }
+
+    @Benchmark
+    public Sketch resolveAndLookup() {
+        return TornadoSketcher.lookup(getTornadoRuntime().resolveMethod(method));
+    }
+}
@@ -125,6 +125,11 @@ public class EmptyEvent implements Event {
 
     }
 
+    @Override
+    public void release() {
+
+    }
+
     @Override
     public void waitOn() {
 
@@ -25,6 +25,12 @@
  */
 package uk.ac.manchester.tornado.runtime;
 
+import static uk.ac.manchester.tornado.runtime.common.Tornado.JVM_COMPILE;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.JVM_THREADS;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ForkJoinPool;
+
 import uk.ac.manchester.tornado.api.TornadoDeviceContext;
 import uk.ac.manchester.tornado.api.TornadoTargetDevice;
 import uk.ac.manchester.tornado.api.common.Event;
@@ -34,49 +40,66 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.mm.TornadoDeviceObjectState;
 import uk.ac.manchester.tornado.api.mm.TornadoMemoryProvider;
 import uk.ac.manchester.tornado.runtime.common.CallStack;
+import uk.ac.manchester.tornado.runtime.common.DeviceObjectState;
 import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
-
+import uk.ac.manchester.tornado.runtime.jvm.JVMCallStack;
+import uk.ac.manchester.tornado.runtime.jvm.JVMCompiledKernel;
+import uk.ac.manchester.tornado.runtime.jvm.JVMInstalledCode;
+import uk.ac.manchester.tornado.runtime.jvm.JVMKernel;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+
+/**
+ * Device that runs tasks on the host JVM. It shares the Java heap with the
+ * host, so data transfers only update the object states, and every launch
+ * completes before it returns. Objects last written by a task on another
+ * device are read back from that device before a task here uses them.
+ */
 public class JVMMapping implements TornadoAcceleratorDevice {
 
+    private static final ForkJoinPool POOL = new ForkJoinPool(JVM_THREADS);
+
+    /*
+     * Objects live in the host heap: the device copy is always the host copy.
+     */
+    private static int markPresent(TornadoDeviceObjectState objectState) {
+        final DeviceObjectState state = (DeviceObjectState) objectState;
+        state.setValid(true);
+        state.setContents(true);
+        return -1;
+    }
+
     @Override
     public void dumpEvents() {
-        TornadoInternalError.unimplemented();
     }
 
     @Override
     public void dumpMemory(String file) {
-        TornadoInternalError.unimplemented();
     }
 
     @Override
     public int enqueueBarrier(int[] events) {
-        TornadoInternalError.unimplemented();
         return -1;
     }
 
     @Override
     public int enqueueMarker() {
-        TornadoInternalError.unimplemented();
         return -1;
     }
 
     @Override
     public int enqueueMarker(int[] events) {
-        TornadoInternalError.unimplemented();
         return -1;
     }
 
     @Override
     public int ensurePresent(Object object, TornadoDeviceObjectState objectState, int[] events, long size, long offset) {
-        TornadoInternalError.unimplemented();
-        return -1;
+        return markPresent(objectState);
     }
 
     @Override
     public void flush() {
-        TornadoInternalError.unimplemented();
     }
 
     @Override
@@ -97,18 +120,15 @@ public class JVMMapping implements TornadoAcceleratorDevice {
 
     @Override
     public void reset() {
-        TornadoInternalError.unimplemented();
     }
 
     @Override
     public int streamIn(Object object, long batchSize, long hostOffset, TornadoDeviceObjectState objectState, int[] events) {
-        TornadoInternalError.unimplemented();
-        return -1;
+        return markPresent(objectState);
     }
 
     @Override
     public int streamOutBlocking(Object object, long hostOffset, TornadoDeviceObjectState objectState, int[] list) {
-        TornadoInternalError.unimplemented();
         return -1;
     }
 
@@ -129,16 +149,25 @@ public class JVMMapping implements TornadoAcceleratorDevice {
 
     @Override
     public CallStack createStack(int numArgs) {
-        return null;
+        return new JVMCallStack(numArgs);
     }
 
     @Override
     public TornadoInstalledCode installCode(SchedulableTask task) {
-        return null;
+        if (!(task instanceof CompilableTask)) {
+            throw TornadoInternalError.unimplemented("task %s cannot run on the JVM", task.getId());
+        }
+        final Method method = ((CompilableTask) task).getMethod();
+        JVMKernel kernel = (JVM_COMPILE) ? JVMCompiledKernel.create(method) : null;
+        if (kernel == null) {
+            kernel = JVMKernel.invoke(method);
+        }
+        return new JVMInstalledCode(kernel, POOL);
     }
 
     @Override
     public int ensureAllocated(Object object, long batchSize, TornadoDeviceObjectState state) {
+        ((DeviceObjectState) state).setValid(true);
         return -1;
     }
 
@@ -172,6 +201,26 @@ public class JVMMapping implements TornadoAcceleratorDevice {
 
     }
 
+    @Override
+    public void retainEvent(int event) {
+
+    }
+
+    @Override
+    public void releaseEvent(int event) {
+
+    }
+
+    @Override
+    public void freeEvents(int[] events, int count) {
+
+    }
+
+    @Override
+    public boolean readEventTimes(int event, long[] times) {
+        return false;
+    }
+
     @Override
     public String getDeviceName() {
         return "jvm";
@@ -194,7 +243,7 @@ public class JVMMapping implements TornadoAcceleratorDevice {
 
     @Override
     public TornadoDeviceType getDeviceType() {
-        return null;
+        return TornadoDeviceType.CPU;
     }
 
     @Override
@@ -202,6 +251,23 @@ public class JVMMapping implements TornadoAcceleratorDevice {
         return false;
     }
 
+    /*
+     * Objects written by a task on another device are only up to date in the
+     * memory of that device until they are read back into the heap.
+     */
+    @Override
+    public boolean canCopyFrom(TornadoAcceleratorDevice source, DeviceObjectState sourceState) {
+        return source != this && source.isDistibutedMemory() && sourceState.isValid() && sourceState.hasContents();
+    }
+
+    @Override
+    public int copyFrom(Object object, TornadoAcceleratorDevice source, DeviceObjectState sourceState, DeviceObjectState state, int[] events) {
+        // the wait list holds events of this device, which the source cannot
+        // wait on; its queue orders the read after the writing task
+        source.streamOutBlocking(object, 0, sourceState, null);
+        return markPresent(state);
+    }
+
     @Override
     public long getMaxAllocMemory() {
         return Runtime.getRuntime().maxMemory();
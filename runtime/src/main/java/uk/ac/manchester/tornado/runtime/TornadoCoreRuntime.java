@@ -119,7 +119,7 @@ public class TornadoCoreRuntime extends TornadoLogger implements TornadoRuntimeC
         drivers = loadDrivers();
     }
 
-    public void clearObjectState() {
+    public synchronized void clearObjectState() {
         for (GlobalObjectState gs : objectMappings.values()) {
             gs.clear();
         }
@@ -147,12 +147,8 @@ public class TornadoCoreRuntime extends TornadoLogger implements TornadoRuntimeC
         return options;
     }
 
-    public GlobalObjectState resolveObject(Object object) {
-        if (!objectMappings.containsKey(object)) {
-            final GlobalObjectState state = new GlobalObjectState();
-            objectMappings.put(object, state);
-        }
-        return objectMappings.get(object);
+    public synchronized GlobalObjectState resolveObject(Object object) {
+        return objectMappings.computeIfAbsent(object, k -> new GlobalObjectState());
     }
 
     public MetaAccessProvider getMetaAccess() {
@@ -184,6 +180,15 @@ public class TornadoCoreRuntime extends TornadoLogger implements TornadoRuntimeC
         return driverCount;
     }
 
+    /**
+     * Device that runs tasks on the host JVM. It is the default device when
+     * no driver could be loaded, and tasks select it with
+     * {@code <task>.device=jvm}.
+     */
+    public TornadoAcceleratorDevice getJVMDevice() {
+        return JVM;
+    }
+
     @Override
     public TornadoAcceleratorDevice getDefaultDevice() {
         return (drivers == null || drivers[DEFAULT_DRIVER] == null) ? JVM : (TornadoAcceleratorDevice) drivers[DEFAULT_DRIVER].getDefaultDevice();
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime;
+
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus;
+import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoExecutionProfile;
+
+/**
+ * The events of the commands issued by one execution of a {@link TornadoVM},
+ * per device. The buffers are allocated once per VM and reused by all its
+ * executions, so recording an event does not allocate. Each event is retained
+ * while it is recorded, so the device does not reuse its slot before the
+ * execution has completed.
+ *
+ * When the execution completes the device times are copied into the
+ * {@link TornadoExecutionProfile} and the events are freed.
+ */
+class TornadoExecutionEvents {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<TornadoAcceleratorDevice> devices;
+    private final int[][] events;
+    private final int[] counts;
+    private TornadoExecutionProfile profile;
+
+    TornadoExecutionEvents(List<TornadoAcceleratorDevice> devices) {
+        this.devices = devices;
+        this.events = new int[devices.size()][INITIAL_CAPACITY];
+        this.counts = new int[devices.size()];
+    }
+
+    /**
+     * Starts recording the events of a new execution. The events of the
+     * previous one must have been released.
+     */
+    void begin(TornadoExecutionProfile profile) {
+        this.profile = profile;
+    }
+
+    void add(int deviceIndex, int event) {
+        if (event == -1) {
+            return;
+        }
+        final int count = counts[deviceIndex];
+        if (count == events[deviceIndex].length) {
+            events[deviceIndex] = Arrays.copyOf(events[deviceIndex], count * 2);
+        }
+        devices.get(deviceIndex).retainEvent(event);
+        events[deviceIndex][count] = event;
+        counts[deviceIndex] = count + 1;
+    }
+
+    /**
+     * Whether all the commands of the execution have completed. The queues
+     * are in order, or the execution ends with a marker that waits for all
+     * its commands, so only the last event of each device is checked.
+     */
+    boolean isComplete() {
+        for (int i = 0; i < counts.length; i++) {
+            final int count = counts[i];
+            if (count != 0 && devices.get(i).resolveEvent(events[i][count - 1]).getStatus() != TornadoExecutionStatus.COMPLETE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the device times into the profile of the execution and frees its
+     * events.
+     *
+     * @param waitForDevice
+     *            wait for commands that have not completed to read their
+     *            device times, instead of keeping their host times
+     */
+    void release(boolean waitForDevice) {
+        if (profile != null) {
+            profile.capture(waitForDevice);
+            profile = null;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                devices.get(i).freeEvents(events[i], counts[i]);
+                counts[i] = 0;
+            }
+        }
+    }
+}
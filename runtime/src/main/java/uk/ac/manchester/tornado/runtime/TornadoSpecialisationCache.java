@@ -0,0 +1,181 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime;
+
+import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.SPECIALISATION_MAX_VARIANTS;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.SPECIALISATION_THRESHOLD;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Kernel variants of a single task keyed by the values of its specialised
+ * scalar arguments.
+ *
+ * Values seen at least {@code tornado.specialise.threshold} times get their
+ * own kernel with the values folded in, up to
+ * {@code tornado.specialise.max} variants. Every other value runs the generic
+ * kernel, which reads the specialised arguments from the call stack. The last
+ * variant launched is guarded by a plain comparison of the key arguments so
+ * that repeated launches with the same values skip the map lookup; the guard
+ * misses once an argument has been updated with
+ * {@code TaskSchedule.updateArgument}.
+ */
+final class TornadoSpecialisationCache {
+
+    // Values that are counted towards a variant at the same time
+    private static final int MAX_CANDIDATES = 64;
+
+    private static final class Variant {
+        private final Object[] key;
+        private final TornadoInstalledCode code;
+        private final DomainTree domain;
+        private final int[] domainArguments;
+
+        Variant(Object[] key, TornadoInstalledCode code, DomainTree domain, int[] domainArguments) {
+            this.key = key;
+            this.code = code;
+            this.domain = domain;
+            this.domainArguments = domainArguments;
+        }
+    }
+
+    private final TaskMetaData meta;
+    private final int[] keyArguments;
+    private final Map<List<Object>, Variant> variants;
+    private final Map<List<Object>, Integer> hits;
+
+    private Variant generic;
+    private Variant last;
+
+    TornadoSpecialisationCache(TaskMetaData meta, int numArgs) {
+        this.meta = meta;
+        this.keyArguments = meta.getSpecialisedArguments();
+        this.variants = new HashMap<>();
+        this.hits = new HashMap<>();
+        for (int index : keyArguments) {
+            guarantee(index >= 0 && index < numArgs, "task %s cannot specialise argument %d", meta.getId(), index);
+        }
+    }
+
+    /**
+     * Whether the cache is keyed by the given arguments. A task gets a new
+     * cache when another of its arguments becomes specialised.
+     */
+    boolean isKeyedBy(int[] arguments) {
+        return keyArguments == arguments;
+    }
+
+    /**
+     * Selects the variant for the given arguments.
+     *
+     * @return the installed code to launch, or null when a variant has to be
+     *         compiled first; the specialisation key of the task meta-data is
+     *         then set for the compilation and {@link #install} must follow.
+     */
+    TornadoInstalledCode lookup(Object[] args) {
+        if (last != null && last != generic && guard(last.key, args)) {
+            return last.code;
+        }
+
+        final Object[] key = new Object[keyArguments.length];
+        for (int i = 0; i < keyArguments.length; i++) {
+            key[i] = args[keyArguments[i]];
+        }
+        final List<Object> values = Arrays.asList(key);
+
+        Variant variant = variants.get(values);
+        if (variant == null) {
+            if (variants.size() < SPECIALISATION_MAX_VARIANTS) {
+                if (hits.size() >= MAX_CANDIDATES && !hits.containsKey(values)) {
+                    hits.clear();
+                }
+                final int count = hits.merge(values, 1, Integer::sum);
+                if (count >= SPECIALISATION_THRESHOLD) {
+                    meta.setSpecialisationKey(key);
+                    return null;
+                }
+            }
+            variant = generic;
+        }
+
+        if (variant == null) {
+            meta.setSpecialisationKey(null);
+            return null;
+        }
+        select(variant, args);
+        return variant.code;
+    }
+
+    /**
+     * Records the code compiled for the key set by the last {@link #lookup}.
+     */
+    void install(TornadoInstalledCode code) {
+        final Object[] key = meta.getSpecialisationKey();
+        final Variant variant = new Variant(key, code, meta.getDomain(), meta.getDomainArguments());
+        if (key == null) {
+            generic = variant;
+        } else {
+            final List<Object> values = Arrays.asList(key);
+            variants.put(values, variant);
+            hits.remove(values);
+        }
+        meta.setSpecialisationKey(null);
+        last = variant;
+    }
+
+    private void select(Variant variant, Object[] args) {
+        if (variant != last && meta.getDomain() != variant.domain) {
+            meta.setDomain(variant.domain);
+        }
+        last = variant;
+        if (variant.domainArguments != null) {
+            // the generic kernel runs as many threads as the current bounds
+            for (int i = 0; i < variant.domainArguments.length; i++) {
+                final int argument = variant.domainArguments[i];
+                if (argument != -1) {
+                    ((IntDomain) variant.domain.get(i)).setLength(((Number) args[argument]).intValue());
+                }
+            }
+        }
+    }
+
+    private boolean guard(Object[] key, Object[] args) {
+        for (int i = 0; i < keyArguments.length; i++) {
+            if (!Objects.equals(key[i], args[keyArguments[i]])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
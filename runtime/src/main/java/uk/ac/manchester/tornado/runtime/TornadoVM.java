@@ -25,7 +25,11 @@
  */
 package uk.ac.manchester.tornado.runtime;
 
-import static uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus.COMPLETE;
+import static uk.ac.manchester.tornado.api.profiler.MetricsRegistry.COMPILATIONS;
+import static uk.ac.manchester.tornado.api.profiler.MetricsRegistry.RECOMPILATIONS;
+import static uk.ac.manchester.tornado.api.profiler.MetricsRegistry.SPECIALISATION_HITS;
+import static uk.ac.manchester.tornado.api.profiler.MetricsRegistry.SPECIALISATION_MISSES;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_METRICS;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_PROFILING;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.PRINT_COMPILE_TIMES;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.USE_VM_FLUSH;
@@ -34,15 +38,14 @@ import static uk.ac.manchester.tornado.runtime.common.Tornado.VM_USE_DEPS;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.List;
 
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
-import uk.ac.manchester.tornado.api.common.TornadoEvents;
 import uk.ac.manchester.tornado.api.exceptions.TornadoException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 import uk.ac.manchester.tornado.runtime.common.CallStack;
 import uk.ac.manchester.tornado.runtime.common.DeviceObjectState;
 import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
@@ -51,8 +54,14 @@ import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraphAssembler.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoExecutionProfile;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoExecutionProfile.CommandType;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoMetrics;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoTraceRecorder;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
 import uk.ac.manchester.tornado.runtime.tasks.GlobalObjectState;
 import uk.ac.manchester.tornado.runtime.tasks.TornadoTaskSchedule;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ProfileRecord;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 /**
@@ -82,8 +91,9 @@ public class TornadoVM extends TornadoLogger {
     private final int[] eventsIndicies;
     private final List<TornadoAcceleratorDevice> contexts;
     private final TornadoInstalledCode[] installedCodes;
+    private final TornadoSpecialisationCache[] specialisations;
+    private final boolean[] compiled;
 
-    private final List<Object> constants;
     private final List<SchedulableTask> tasks;
 
     private final ByteBuffer buffer;
@@ -91,6 +101,12 @@ public class TornadoVM extends TornadoLogger {
     private double totalTime;
     private long invocations;
 
+    private TornadoExecutionProfile nextProfile;
+    private TornadoExecutionProfile lastProfile;
+
+    // Events created by the last execution, per context
+    private final TornadoExecutionEvents executionEvents;
+
     public TornadoVM(TornadoExecutionContext graphContext, byte[] code, int limit) {
 
         this.graphContext = graphContext;
@@ -98,6 +114,7 @@ public class TornadoVM extends TornadoLogger {
         useDependencies = graphContext.meta().enableOooExecution() | VM_USE_DEPS;
         totalTime = 0;
         invocations = 0;
+        nextProfile = new TornadoExecutionProfile(graphContext.getId());
 
         buffer = ByteBuffer.wrap(code);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
@@ -107,6 +124,7 @@ public class TornadoVM extends TornadoLogger {
 
         TornadoInternalError.guarantee(buffer.get() == TornadoVMBytecodes.SETUP.value(), "invalid code");
         contexts = graphContext.getDevices();
+        executionEvents = new TornadoExecutionEvents(contexts);
         buffer.getInt();
         int taskCount = buffer.getInt();
         stacks = graphContext.getFrames();
@@ -114,6 +132,7 @@ public class TornadoVM extends TornadoLogger {
         eventsIndicies = new int[events.length];
 
         installedCodes = new TornadoInstalledCode[taskCount];
+        compiled = new boolean[taskCount];
 
         for (int i = 0; i < events.length; i++) {
             Arrays.fill(events[i], -1);
@@ -146,9 +165,10 @@ public class TornadoVM extends TornadoLogger {
             op = buffer.get();
         }
 
-        constants = graphContext.getConstants();
         tasks = graphContext.getTasks();
 
+        specialisations = new TornadoSpecialisationCache[taskCount];
+
         debug("%s - vm ready to go", graphContext.getId());
         buffer.mark();
     }
@@ -171,6 +191,65 @@ public class TornadoVM extends TornadoLogger {
         return stacks[index];
     }
 
+    /*
+     * The latest version of an object lives on another device when a task
+     * scheduled there has written it and it has not been synchronised back
+     * to the host since.
+     */
+    private boolean isOwnedByAnotherDevice(int index, TornadoAcceleratorDevice device) {
+        final GlobalObjectState globalState = resolveGlobalObjectState(index);
+        final TornadoAcceleratorDevice owner = globalState.getOwner();
+        if (owner == null || owner == device) {
+            return false;
+        }
+        final DeviceObjectState ownerState = globalState.getDeviceState(owner);
+        return ownerState.isModified() && device.canCopyFrom(owner, ownerState);
+    }
+
+    /*
+     * Moves the buffer directly from the owner to the target device, instead
+     * of reading it back into the Java heap and writing it again.
+     */
+    private int transferOwnership(int index, TornadoAcceleratorDevice device, DeviceObjectState objectState, int[] waitList) {
+        final GlobalObjectState globalState = resolveGlobalObjectState(index);
+        final TornadoAcceleratorDevice owner = globalState.getOwner();
+        final DeviceObjectState ownerState = globalState.getDeviceState(owner);
+        if (graphContext.meta().isDebug()) {
+            debug("vm: transfer [0x%x] from %s to %s", objects.get(index).hashCode(), owner, device);
+        }
+
+        final int event = device.copyFrom(objects.get(index), owner, ownerState, objectState, waitList);
+        ownerState.setModified(false);
+        globalState.setOwner(device);
+        objectState.setModified(true);
+        return event;
+    }
+
+    /*
+     * A task selects its kernel by the values of its specialised arguments.
+     * Once another argument is updated, the kernels compiled with its value
+     * folded in are dropped and a new cache keyed by it is used.
+     */
+    private TornadoSpecialisationCache resolveSpecialisation(int taskIndex, SchedulableTask task) {
+        if (!(task instanceof CompilableTask)) {
+            return null;
+        }
+        final TaskMetaData meta = ((CompilableTask) task).meta();
+        final int[] arguments = meta.getSpecialisedArguments();
+        if (arguments.length > 0 && (specialisations[taskIndex] == null || !specialisations[taskIndex].isKeyedBy(arguments))) {
+            specialisations[taskIndex] = new TornadoSpecialisationCache(meta, task.getArguments().length);
+            installedCodes[taskIndex] = null;
+        }
+        return specialisations[taskIndex];
+    }
+
+    private static long sizeOf(DeviceObjectState objectState, long sizeBatch) {
+        if (sizeBatch > 0) {
+            return sizeBatch;
+        }
+        return objectState.hasBuffer() ? objectState.getBuffer().size() : 0;
+    }
+
     public void invalidateObjects() {
         for (GlobalObjectState globalState : globalStates) {
             globalState.invalidate();
@@ -185,21 +264,77 @@ public class TornadoVM extends TornadoLogger {
         execute(true);
     }
 
+    /**
+     * Reports errors detected on the devices by the tasks launched so far,
+     * such as failed bounds checks. Their results must already be on the
+     * host, e.g. after a blocking copy or a device sync.
+     */
+    public void checkErrors() {
+        for (TornadoInstalledCode installedCode : installedCodes) {
+            if (installedCode != null) {
+                installedCode.checkErrors();
+            }
+        }
+    }
+
     public Event execute() {
         return execute(false);
     }
 
+    /**
+     * Runs the bytecodes without blocking on the final STREAM_OUT. Outputs are
+     * read into staging buffers, since the arrays may be moved by the GC
+     * while the reads are in flight. Once the returned event has completed,
+     * the caller has to run the {@code copyBacks} to move the data into the
+     * arrays.
+     */
+    public Event executeAsync(List<Runnable> copyBacks) {
+        return execute(false, true, copyBacks);
+    }
+
     private Event execute(boolean isWarmup) {
+        return execute(isWarmup, false, null);
+    }
+
+    /*
+     * The bytecode buffer, event lists and call-stacks belong to this VM, so
+     * concurrent executions of the same schedule are serialised. Different
+     * schedules have their own VM, and their commands are serialised by the
+     * queue of the device.
+     */
+    private synchronized Event execute(boolean isWarmup, boolean isAsync, List<Runnable> copyBacks) {
 
         final long t0 = System.nanoTime();
+        final TornadoExecutionProfile profile = (isWarmup) ? new TornadoExecutionProfile(graphContext.getId()) : nextProfile;
+        if (!isWarmup) {
+            // An execution nobody waited for is released here at the latest.
+            // Traces wait for its device times, metrics use the host times of
+            // the commands that are still pending.
+            releaseEvents(TornadoTraceRecorder.isEnabled());
+            executionEvents.begin(profile);
+        }
+        if (graphContext.meta().shouldDumpProfiles()) {
+            collectProfiles();
+        }
         int lastEvent = -1;
         for (int[] waitList : events) {
             Arrays.fill(waitList, -1);
         }
         StringBuilder bytecodesList = new StringBuilder();
+        final boolean isTracing = TornadoTraceRecorder.isEnabled();
+        byte tracedOp = 0;
+        long tracedStart = 0;
 
         while (buffer.hasRemaining()) {
             final byte op = buffer.get();
+            if (isTracing) {
+                final long now = System.nanoTime();
+                if (tracedOp != 0) {
+                    TornadoTraceRecorder.hostSpan(bytecodeName(tracedOp), "bytecode", tracedStart, now);
+                }
+                tracedOp = op;
+                tracedStart = now;
+            }
             if (op == TornadoVMBytecodes.ALLOCATE.value()) {
                 final int objectIndex = buffer.getInt();
                 final int contextIndex = buffer.getInt();
@@ -246,13 +381,23 @@ public class TornadoVM extends TornadoLogger {
                 }
                 bytecodesList.append(verbose + "\n");
 
+                final boolean hadContents = objectState.hasContents();
+                // Tracked arrays already on the device only send their dirty regions
+                final long copyBytes = (sizeBatch <= 0 && hadContents && DirtyRegions.isTracked(object)) ? DirtyRegions.pendingBytes(object) : sizeOf(objectState, sizeBatch);
+                final long copyStart = System.nanoTime();
+                boolean copied = true;
                 if (sizeBatch > 0) {
                     // We need to stream-in when using batches, because the
                     // whole data is not copied yet.
                     lastEvent = device.streamIn(object, sizeBatch, offset, objectState, waitList);
+                } else if (isOwnedByAnotherDevice(objectIndex, device)) {
+                    lastEvent = transferOwnership(objectIndex, device, objectState, waitList);
                 } else {
                     lastEvent = device.ensurePresent(object, objectState, waitList, sizeBatch, offset);
+                    copied = !hadContents || lastEvent != -1;
                 }
+                profile.addCommand(CommandType.COPY_IN, graphContext.getId(), device, lastEvent, (copied) ? copyBytes : 0, copyStart, System.nanoTime());
+                trackEvent(contextIndex, lastEvent);
                 if (eventList != -1) {
                     eventsIndicies[eventList] = 0;
                 }
@@ -285,7 +430,16 @@ public class TornadoVM extends TornadoLogger {
                     debug("vm: state=%s", objectState);
                 }
 
-                lastEvent = device.streamIn(object, sizeBatch, offset, objectState, waitList);
+                final long copyStart = System.nanoTime();
+                if (sizeBatch <= 0 && !device.isDistibutedMemory() && isOwnedByAnotherDevice(objectIndex, device)) {
+                    // a device sharing the host heap reads the latest version
+                    // in place, so it has to be brought back from its owner
+                    lastEvent = transferOwnership(objectIndex, device, objectState, waitList);
+                } else {
+                    lastEvent = device.streamIn(object, sizeBatch, offset, objectState, waitList);
+                }
+                profile.addCommand(CommandType.COPY_IN, graphContext.getId(), device, lastEvent, sizeOf(objectState, sizeBatch), copyStart, System.nanoTime());
+                trackEvent(contextIndex, lastEvent);
                 if (eventList != -1) {
                     eventsIndicies[eventList] = 0;
                 }
@@ -314,7 +468,14 @@ public class TornadoVM extends TornadoLogger {
 
                 final DeviceObjectState objectState = resolveObjectState(objectIndex, contextIndex);
 
-                lastEvent = device.streamOutBlocking(object, offset, objectState, waitList);
+                final long copyStart = System.nanoTime();
+                if (isAsync) {
+                    lastEvent = device.streamOutStaged(object, offset, objectState, waitList, copyBacks);
+                } else {
+                    lastEvent = device.streamOutBlocking(object, offset, objectState, waitList);
+                }
+                profile.addCommand(CommandType.COPY_OUT, graphContext.getId(), device, lastEvent, sizeOf(objectState, sizeBatch), copyStart, System.nanoTime());
+                trackEvent(contextIndex, lastEvent);
                 if (eventList != -1) {
                     eventsIndicies[eventList] = 0;
                 }
@@ -343,7 +504,19 @@ public class TornadoVM extends TornadoLogger {
 
                 final DeviceObjectState objectState = resolveObjectState(objectIndex, contextIndex);
 
-                device.streamOutBlocking(object, offset, objectState, waitList);
+                final long copyStart = System.nanoTime();
+                int copyEvent;
+                if (isAsync) {
+                    lastEvent = device.streamOutStaged(object, offset, objectState, waitList, copyBacks);
+                    copyEvent = lastEvent;
+                } else {
+                    copyEvent = device.streamOutBlocking(object, offset, objectState, waitList);
+                    // the host copy is up to date again
+                    objectState.setModified(false);
+                    checkErrors();
+                }
+                profile.addCommand(CommandType.COPY_OUT, graphContext.getId(), device, copyEvent, sizeOf(objectState, sizeBatch), copyStart, System.nanoTime());
+                trackEvent(contextIndex, copyEvent);
                 if (eventList != -1) {
                     eventsIndicies[eventList] = 0;
                 }
@@ -375,16 +548,31 @@ public class TornadoVM extends TornadoLogger {
                 }
                 bytecodesList.append(verbose + "\n");
 
+                final TornadoSpecialisationCache specialisation = resolveSpecialisation(taskIndex, task);
+                if (specialisation != null) {
+                    installedCodes[taskIndex] = specialisation.lookup(task.getArguments());
+                    TornadoMetrics.increment((installedCodes[taskIndex] != null) ? SPECIALISATION_HITS : SPECIALISATION_MISSES, task.getId(), device.getDeviceName());
+                }
+
                 if (installedCodes[taskIndex] == null) {
                     final long compileStart = System.nanoTime();
                     task.mapTo(device);
                     try {
                         installedCodes[taskIndex] = device.installCode(task);
+                        TornadoMetrics.increment((compiled[taskIndex]) ? RECOMPILATIONS : COMPILATIONS, task.getId(), device.getDeviceName());
+                        compiled[taskIndex] = true;
+                        if (specialisation != null && installedCodes[taskIndex] != null) {
+                            specialisation.install(installedCodes[taskIndex]);
+                        }
                     } catch (Error | Exception e) {
                         fatal("unable to compile task %s", task.getName());
                         debug(e.getMessage());
                     }
                     final long compileEnd = System.nanoTime();
+                    profile.addCodeGenerationTime(compileEnd - compileStart);
+                    if (isTracing) {
+                        TornadoTraceRecorder.hostSpan("compile " + task.getId(), "compile", compileStart, compileEnd);
+                    }
                     if (graphContext.meta().shouldPrintCompileTimes()) {
                         if (PRINT_COMPILE_TIMES) {
                             System.out.printf("compile: " + task.getName() + "  " + +(compileEnd - compileStart) + "ns" + "\n");
@@ -416,7 +604,9 @@ public class TornadoVM extends TornadoLogger {
                     }
 
                     if (argType == TornadoVMBytecodes.CONSTANT_ARG.value()) {
-                        stack.push(constants.get(argIndex));
+                        // scalars are read from the task, as they can be
+                        // updated between executions
+                        stack.push(task.getArguments()[i]);
                     } else if (argType == TornadoVMBytecodes.REFERENCE_ARG.value()) {
                         final GlobalObjectState globalState = resolveGlobalObjectState(argIndex);
                         final DeviceObjectState objectState = globalState.getDeviceState(contexts.get(contextIndex));
@@ -441,11 +631,14 @@ public class TornadoVM extends TornadoLogger {
                     throw new RuntimeException("task.meta is not instanceof TaskMetada");
                 }
 
+                final long launchStart = System.nanoTime();
                 if (useDependencies) {
                     lastEvent = installedCode.launchWithDeps(stack, metadata, batchThreads, waitList);
                 } else {
                     lastEvent = installedCode.launchWithoutDeps(stack, metadata, batchThreads);
                 }
+                profile.addCommand(CommandType.KERNEL, task.getId(), device, lastEvent, 0, launchStart, System.nanoTime());
+                trackEvent(contextIndex, lastEvent);
                 if (eventList != -1) {
                     eventsIndicies[eventList] = 0;
                 }
@@ -482,6 +675,7 @@ public class TornadoVM extends TornadoLogger {
                 if (contexts.size() == 1) {
                     final TornadoAcceleratorDevice device = contexts.get(0);
                     lastEvent = device.enqueueMarker(waitList);
+                    trackEvent(0, lastEvent);
                 } else if (contexts.size() > 1) {
                     TornadoInternalError.shouldNotReachHere("unimplemented multi-context barrier");
                 }
@@ -504,15 +698,21 @@ public class TornadoVM extends TornadoLogger {
             }
         }
 
+        if (isTracing && tracedOp != 0) {
+            TornadoTraceRecorder.hostSpan(bytecodeName(tracedOp), "bytecode", tracedStart, System.nanoTime());
+        }
+
         Event barrier = EMPTY_EVENT;
         if (!isWarmup) {
-            for (TornadoAcceleratorDevice dev : contexts) {
-                if (useDependencies) {
+            for (int i = 0; i < contexts.size(); i++) {
+                final TornadoAcceleratorDevice dev = contexts.get(i);
+                if (useDependencies || isAsync) {
                     final int event = dev.enqueueMarker();
+                    trackEvent(i, event);
                     barrier = dev.resolveEvent(event);
                 }
 
-                if (USE_VM_FLUSH) {
+                if (USE_VM_FLUSH || isAsync) {
                     dev.flush();
                 }
             }
@@ -520,9 +720,20 @@ public class TornadoVM extends TornadoLogger {
 
         final long t1 = System.nanoTime();
         final double elapsed = (t1 - t0) * 1e-9;
+        if (isTracing) {
+            TornadoTraceRecorder.hostSpan(((isWarmup) ? "warmup " : "execute ") + graphContext.getId(), "execution", t0, t1);
+        }
         if (!isWarmup) {
             totalTime += elapsed;
             invocations++;
+            profile.setTotalTime(profile.getGraphCompileTime() + (t1 - t0));
+            lastProfile = profile;
+            nextProfile = new TornadoExecutionProfile(graphContext.getId());
+            // a blocking execution usually ends with a blocking read, after
+            // which all its commands have completed
+            if (!isAsync && executionEvents.isComplete()) {
+                releaseEvents(false);
+            }
         }
 
         if (graphContext.meta().isDebug()) {
@@ -538,6 +749,15 @@ public class TornadoVM extends TornadoLogger {
         return barrier;
     }
 
+    private static String bytecodeName(byte op) {
+        for (TornadoVMBytecodes bytecode : TornadoVMBytecodes.values()) {
+            if (bytecode.value() == op) {
+                return bytecode.name();
+            }
+        }
+        return String.format("0x%x", op);
+    }
+
     private void popArgumentsFromStack(int numArgs) {
         for (int i = 0; i < numArgs; i++) {
             buffer.get();
@@ -549,9 +769,57 @@ public class TornadoVM extends TornadoLogger {
         System.out.printf("vm: complete %d iterations - %.9f s mean and %.9f s total\n", invocations, (totalTime / invocations), totalTime);
     }
 
+    /**
+     * Records the time spent compiling the task-schedule into the bytecodes
+     * of this VM, which is reported by the next execution.
+     */
+    public void addGraphCompileTime(long time) {
+        nextProfile.addGraphCompileTime(time);
+    }
+
+    /**
+     * Timing breakdown of the last execution, or null before the first one.
+     */
+    public TornadoExecutionProfile getProfile() {
+        return lastProfile;
+    }
+
     public void clearProfiles() {
         for (final SchedulableTask task : tasks) {
-            task.meta().getProfiles().clear();
+            ((TaskMetaData) task.meta()).clearProfiles();
+        }
+    }
+
+    private void trackEvent(int contextIndex, int event) {
+        executionEvents.add(contextIndex, event);
+    }
+
+    /**
+     * Frees the events of the last execution if all its commands have
+     * completed, e.g. after the task-schedule waited for it or once the
+     * completion event of an asynchronous execution has fired. Their device
+     * times are copied into the profile of the execution first.
+     */
+    public synchronized void releaseCompletedEvents() {
+        if (executionEvents.isComplete()) {
+            releaseEvents(false);
+        }
+    }
+
+    private void releaseEvents(boolean waitForDevice) {
+        executionEvents.release(waitForDevice);
+        if (lastProfile != null && (ENABLE_METRICS || TornadoTraceRecorder.isEnabled())) {
+            lastProfile.resolve();
+        }
+    }
+
+    /*
+     * Profiled events of earlier executions that have completed are copied
+     * into records and released, so the event window does not fill up.
+     */
+    private void collectProfiles() {
+        for (final SchedulableTask task : tasks) {
+            ((TaskMetaData) task.meta()).collectProfiles(false);
         }
     }
 
@@ -574,21 +842,9 @@ public class TornadoVM extends TornadoLogger {
 
         for (final SchedulableTask task : tasks) {
             final TaskMetaData meta = (TaskMetaData) task.meta();
-            for (final TornadoEvents eventset : meta.getProfiles()) {
-                final BitSet profiles = eventset.getProfiles();
-                for (int i = profiles.nextSetBit(0); i != -1; i = profiles.nextSetBit(i + 1)) {
-
-                    if (!(eventset.getDevice() instanceof TornadoAcceleratorDevice)) {
-                        throw new RuntimeException("TornadoDevice not found");
-                    }
-
-                    TornadoAcceleratorDevice device = (TornadoAcceleratorDevice) eventset.getDevice();
-                    final Event profile = device.resolveEvent(i);
-                    if (profile.getStatus() == COMPLETE) {
-                        System.out.printf("task: %s %s %.9f %9d %9d %9d\n", device.getDeviceName(), meta.getId(), profile.getExecutionTime(), profile.getSubmitTime(), profile.getStartTime(),
-                                profile.getEndTime());
-                    }
-                }
+            for (final ProfileRecord profile : meta.getProfileRecords()) {
+                System.out.printf("task: %s %s %.9f %9d %9d %9d\n", profile.getDeviceName(), meta.getId(), profile.getExecutionTimeInSeconds(), profile.getSubmitTime(), profile.getStartTime(),
+                        profile.getEndTime());
             }
         }
     }
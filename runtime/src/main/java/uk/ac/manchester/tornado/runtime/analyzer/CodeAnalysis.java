@@ -70,7 +70,18 @@ public class CodeAnalysis {
      *         input method in the Graal-IR format,
      */
     public static StructuredGraph buildHighLevelGraalGraph(Object taskInputCode) {
-        Method methodToCompile = TaskUtils.resolveMethodHandle(taskInputCode);
+        return buildHighLevelGraalGraph(TaskUtils.resolveMethodHandle(taskInputCode));
+    }
+
+    /**
+     * Build Graal-IR for a resolved Java method
+     *
+     * @param methodToCompile
+     *            Java method to be compiled by Graal
+     * @return {@link StructuredGraph} Control Flow and DataFlow Graphs for the
+     *         method in the Graal-IR format,
+     */
+    public static StructuredGraph buildHighLevelGraalGraph(Method methodToCompile) {
         GraalJVMCICompiler graalCompiler = (GraalJVMCICompiler) JVMCI.getRuntime().getCompiler();
         RuntimeProvider capability = graalCompiler.getGraalRuntime().getCapability(RuntimeProvider.class);
         Backend backend = capability.getHostBackend();
@@ -103,6 +114,20 @@ public class CodeAnalysis {
      * @return {@link InstalledCode}
      */
     public static InstalledCode compileAndInstallMethod(StructuredGraph graph) {
+        return compileAndInstallMethod(graph, OptimisticOptimizations.ALL);
+    }
+
+    /**
+     * It compiles and installs the method that represents the object {@code graph}
+     * using the given set of speculative optimizations.
+     *
+     * @param graph
+     *            Compile-graph
+     * @param optimizationsOpts
+     *            Speculative optimizations Graal may apply
+     * @return {@link InstalledCode}
+     */
+    public static InstalledCode compileAndInstallMethod(StructuredGraph graph, OptimisticOptimizations optimizationsOpts) {
         ResolvedJavaMethod method = graph.method();
         GraalJVMCICompiler graalCompiler = (GraalJVMCICompiler) JVMCI.getRuntime().getCompiler();
         RuntimeProvider capability = graalCompiler.getGraalRuntime().getCapability(RuntimeProvider.class);
@@ -116,7 +141,6 @@ public class CodeAnalysis {
             PhaseSuite<HighTierContext> graphBuilderPhase = backend.getSuites().getDefaultGraphBuilderSuite();
             Suites suites = backend.getSuites().getDefaultSuites(options);
             LIRSuites lirSuites = backend.getSuites().getDefaultLIRSuites(options);
-            OptimisticOptimizations optimizationsOpts = OptimisticOptimizations.ALL;
             ProfilingInfo profilerInfo = graph.getProfilingInfo(method);
             CompilationResult compilationResult = new CompilationResult();
             CompilationResultBuilderFactory factory = CompilationResultBuilderFactory.Default;
@@ -65,11 +65,19 @@ public final class Tornado implements TornadoCI {
     public static final boolean USE_SYNC_FLUSH = Boolean.parseBoolean(settings.getProperty("tornado.opencl.syncflush", "False"));
     public static final boolean USE_VM_FLUSH = Boolean.parseBoolean(settings.getProperty("tornado.opencl.vmflush", "True"));
     public static final int EVENT_WINDOW = Integer.parseInt(getProperty("tornado.opencl.eventwindow", "10240"));
+    public static final int PROFILE_RECORDS = Integer.parseInt(getProperty("tornado.profiles.records", "1024"));
     public static final int MAX_WAIT_EVENTS = Integer.parseInt(getProperty("tornado.opencl.maxwaitevents", "32"));
     public static final boolean OPENCL_USE_RELATIVE_ADDRESSES = Boolean.parseBoolean(settings.getProperty("tornado.opencl.userelative", "False"));
     public static final boolean DUMP_COMPILED_METHODS = Boolean.parseBoolean(getProperty("tornado.compiled.dump", "False"));
+    public static final int SPECIALISATION_THRESHOLD = Integer.parseInt(getProperty("tornado.specialise.threshold", "4"));
+    public static final int SPECIALISATION_MAX_VARIANTS = Integer.parseInt(getProperty("tornado.specialise.max", "4"));
+    public static final int JVM_THREADS = Integer.parseInt(getProperty("tornado.jvm.threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+    public static final boolean JVM_COMPILE = Boolean.parseBoolean(getProperty("tornado.jvm.compile", "True"));
 
     public static final boolean ENABLE_PROFILING = Boolean.parseBoolean(settings.getProperty("tornado.profiling.enable", "True"));
+    public static final boolean ENABLE_METRICS = Boolean.parseBoolean(settings.getProperty("tornado.metrics.enable", "True"));
+    public static final String TRACE_FILE = settings.getProperty("tornado.trace.file");
+    public static final int TRACE_BUFFER = Integer.parseInt(settings.getProperty("tornado.trace.buffer", "8192"));
     public static final boolean ENABLE_OOO_EXECUTION = Boolean.parseBoolean(settings.getProperty("tornado.ooo-execution.enable", "False"));
     public static final boolean VM_USE_DEPS = Boolean.parseBoolean(Tornado.getProperty("tornado.vm.deps", "False"));
 
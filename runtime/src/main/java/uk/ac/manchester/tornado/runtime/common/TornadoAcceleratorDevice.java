@@ -25,8 +25,11 @@
  */
 package uk.ac.manchester.tornado.runtime.common;
 
+import java.util.List;
+
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.mm.TornadoDeviceObjectState;
 
 public interface TornadoAcceleratorDevice extends TornadoDevice {
 
@@ -38,4 +41,57 @@ public interface TornadoAcceleratorDevice extends TornadoDevice {
 
     boolean isFullJITMode(SchedulableTask task);
 
+    /**
+     * Checks whether the buffer of an object held by another device can be
+     * copied directly into this device, without going through the Java heap.
+     */
+    boolean canCopyFrom(TornadoAcceleratorDevice source, DeviceObjectState sourceState);
+
+    /**
+     * Copies the device buffer of an object from the source device into this
+     * device. The buffer is allocated on this device if needed.
+     *
+     * @return an event ID
+     */
+    int copyFrom(Object object, TornadoAcceleratorDevice source, DeviceObjectState sourceState, DeviceObjectState state, int[] events);
+
+    /**
+     * Non-blocking copy of an object back to the host that never writes into
+     * the Java heap while the transfer is pending. Devices that stage the data
+     * add a runnable to {@code copyBacks} that moves it into the object; the
+     * caller runs it once the returned event has completed. By default the
+     * copy is blocking and nothing is staged.
+     *
+     * @return an event ID
+     */
+    default int streamOutStaged(Object object, long hostOffset, TornadoDeviceObjectState state, int[] events, List<Runnable> copyBacks) {
+        return streamOutBlocking(object, hostOffset, state, events);
+    }
+
+    /**
+     * Keeps the slot of an event from being reused by the device until
+     * {@link #releaseEvent} or {@link #freeEvents} is called for it.
+     */
+    void retainEvent(int event);
+
+    /**
+     * Releases an event that was retained for profiling, so its slot can be
+     * reused by the device.
+     */
+    void releaseEvent(int event);
+
+    /**
+     * Releases the first {@code count} events, which were retained by the
+     * execution that issued them, and frees those that nothing else retains.
+     */
+    void freeEvents(int[] events, int count);
+
+    /**
+     * Reads the queued, start and end time of a completed event into
+     * {@code times}, without creating a handle for it.
+     *
+     * @return false if the event has not completed or has no timestamps
+     */
+    boolean readEventTimes(int event, long[] times);
+
 }
@@ -33,4 +33,12 @@ public interface TornadoInstalledCode {
 
     int launchWithoutDeps(CallStack stack, TaskMetaData meta, long batchThreads);
 
+    /**
+     * Reports errors detected on the device by the last launch, such as a
+     * failed bounds check. It is called once the results of the launch have
+     * reached the host, so it does not stall the launch itself.
+     */
+    default void checkErrors() {
+    }
+
 }
@@ -33,10 +33,12 @@ import org.graalvm.compiler.phases.BasePhase;
 public class ExceptionCheckingElimination extends BasePhase<TornadoMidTierContext> {
 
     /**
-     * Removes all exception checking - loop bounds and null checks
+     * Removes all exception checking - loop bounds and null checks. Bounds
+     * checks are kept when memory checks are enabled for the task.
      */
     @Override
     protected void run(StructuredGraph graph, TornadoMidTierContext context) {
+        final boolean keepBoundsChecks = context.getMeta() != null && context.getMeta().enableMemChecks();
 
         graph.getNodes().filter(n -> n instanceof GuardedNode).snapshot().forEach((node) -> {
             GuardedNode guardedNode = (GuardedNode) node;
@@ -54,7 +56,7 @@ public class ExceptionCheckingElimination extends BasePhase<TornadoMidTierContex
                         condition.replaceFirstInput(input, LogicConstantNode.tautology(graph));
                     }
 
-                } else if (condition instanceof IntegerBelowNode) {
+                } else if (condition instanceof IntegerBelowNode && !keepBoundsChecks) {
 
                     ValueNode x = ((IntegerBelowNode) condition).getX();
                     condition.replaceFirstInput(x, graph.addOrUnique(ConstantNode.forInt(Integer.MAX_VALUE)));
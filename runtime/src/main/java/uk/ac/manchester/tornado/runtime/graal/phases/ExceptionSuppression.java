@@ -32,17 +32,28 @@ import org.graalvm.compiler.phases.BasePhase;
 import java.util.HashSet;
 import java.util.Set;
 
+import jdk.vm.ci.meta.DeoptimizationReason;
+
 public class ExceptionSuppression extends BasePhase<TornadoHighTierContext> {
 
+    /*
+     * Bounds checks left by TornadoBoundsCheckElimination are the ones it
+     * could not prove, so they stay when memory checks are enabled.
+     */
+    private static boolean isKept(GuardNode guard, boolean keepBoundsChecks) {
+        return keepBoundsChecks && guard.getReason() == DeoptimizationReason.BoundsCheckException;
+    }
+
     @Override
     protected void run(StructuredGraph graph, TornadoHighTierContext context) {
 
         Set<LogicNode> conditions = new HashSet<>();
         Set<GuardNode> guards = new HashSet<>();
+        final boolean keepBoundsChecks = context.hasMeta() && context.getMeta().enableMemChecks();
 
         graph.getNodes().filter(n -> n instanceof GuardedNode).forEach((node) -> {
             GuardedNode guardedNode = (GuardedNode) node;
-            if (guardedNode.getGuard() instanceof GuardNode) {
+            if (guardedNode.getGuard() instanceof GuardNode && !isKept((GuardNode) guardedNode.getGuard(), keepBoundsChecks)) {
                 GuardNode guard = (GuardNode) guardedNode.getGuard();
                 LogicNode condition = guard.getCondition();
 
@@ -54,7 +65,7 @@ public class ExceptionSuppression extends BasePhase<TornadoHighTierContext> {
         });
 
         graph.getNodes().filter(ValueAnchorNode.class).forEach(anchor -> {
-            if (anchor.getAnchoredNode() instanceof GuardNode) {
+            if (anchor.getAnchoredNode() instanceof GuardNode && !isKept((GuardNode) anchor.getAnchoredNode(), keepBoundsChecks)) {
                 final GuardNode guard = (GuardNode) anchor.getAnchoredNode();
                 guards.add(guard);
                 conditions.add(guard.getCondition());
@@ -0,0 +1,288 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.phases;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.info;
+
+import java.lang.reflect.Array;
+
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedGuardNode;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.RightShiftNode;
+import org.graalvm.compiler.nodes.calc.ShiftNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.UnsignedRightShiftNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.java.AccessIndexedNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.phases.BasePhase;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import uk.ac.manchester.tornado.runtime.graal.nodes.AbstractParallelNode;
+
+/**
+ * Array bounds checks for kernels compiled with memory checks enabled.
+ *
+ * An interval analysis over the loop induction variables proves most array
+ * accesses in bounds. Loop phis take their lower bound from the loop entry
+ * value when the step is non-negative and their upper bound from the loop
+ * condition at uses dominated by the loop body; parallel loops are handled
+ * through the offset, stride and range of their {@link AbstractParallelNode}s,
+ * which bound every thread schedule the loop can be given later. Accesses
+ * that cannot be proven safe get a {@link FixedGuardNode} that is kept by
+ * {@link ExceptionSuppression} and reported back to the host.
+ */
+public class TornadoBoundsCheckElimination extends BasePhase<TornadoHighTierContext> {
+
+    private static final int MAX_DEPTH = 32;
+
+    private static final class Range {
+        private static final Range UNKNOWN = new Range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        private final long lo;
+        private final long hi;
+
+        Range(long lo, long hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        static Range of(long lo, long hi) {
+            if (lo < Integer.MIN_VALUE || hi > Integer.MAX_VALUE || lo > hi) {
+                return UNKNOWN;
+            }
+            return new Range(lo, hi);
+        }
+
+        Range intersect(Range other) {
+            return of(Math.max(lo, other.lo), Math.min(hi, other.hi));
+        }
+
+        boolean isNonNegative() {
+            return lo >= 0;
+        }
+
+        boolean isConstant() {
+            return lo == hi;
+        }
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+        if (!context.hasMeta() || !context.isKernel() || !context.getMeta().enableMemChecks()) {
+            return;
+        }
+
+        final ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, true, false);
+        int proven = 0;
+        int checked = 0;
+        for (AccessIndexedNode access : graph.getNodes().filter(AccessIndexedNode.class).snapshot()) {
+            if (access.getClass() != LoadIndexedNode.class && access.getClass() != StoreIndexedNode.class) {
+                // vector and atomic accesses are built in range by their phases
+                continue;
+            }
+            final int length = resolveLength(access.array(), context);
+            final Range index = rangeOf(access.index(), cfg, cfg.blockFor(access), 0);
+            if (length >= 0 && index.isNonNegative() && index.hi < length) {
+                proven++;
+            } else {
+                insertCheck(graph, access, length);
+                checked++;
+            }
+        }
+        info("%s: %d array accesses proven in bounds, %d checked", graph.method().getName(), proven, checked);
+    }
+
+    private static int resolveLength(ValueNode array, TornadoHighTierContext context) {
+        if (array instanceof ParameterNode && context.hasArgs()) {
+            final int index = ((ParameterNode) array).index();
+            if (index < context.getNumArgs()) {
+                final Object value = context.getArg(index);
+                if (value != null && value.getClass().isArray()) {
+                    return Array.getLength(value);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void insertCheck(StructuredGraph graph, AccessIndexedNode access, int length) {
+        final ValueNode arrayLength;
+        if (length >= 0) {
+            arrayLength = ConstantNode.forInt(length, graph);
+        } else {
+            final ArrayLengthNode readLength = graph.add(new ArrayLengthNode(access.array()));
+            graph.addBeforeFixed(access, readLength);
+            arrayLength = readLength;
+        }
+        final LogicNode inBounds = graph.addOrUnique(new IntegerBelowNode(access.index(), arrayLength));
+        final FixedGuardNode guard = graph.add(new FixedGuardNode(inBounds, DeoptimizationReason.BoundsCheckException, DeoptimizationAction.InvalidateReprofile));
+        graph.addBeforeFixed(access, guard);
+    }
+
+    private static Range stampRange(ValueNode node) {
+        if (node.stamp() instanceof IntegerStamp) {
+            final IntegerStamp stamp = (IntegerStamp) node.stamp();
+            return Range.of(stamp.lowerBound(), stamp.upperBound());
+        }
+        return Range.UNKNOWN;
+    }
+
+    /**
+     * Bounds of {@code node} at the uses placed in {@code block}.
+     */
+    private static Range rangeOf(ValueNode node, ControlFlowGraph cfg, Block block, int depth) {
+        final Range stamp = stampRange(node);
+        if (depth > MAX_DEPTH) {
+            return stamp;
+        }
+
+        final int next = depth + 1;
+        if (node instanceof ConstantNode) {
+            return stamp;
+        } else if (node instanceof AbstractParallelNode) {
+            return rangeOf(((AbstractParallelNode) node).value(), cfg, block, next).intersect(stamp);
+        } else if (node instanceof AddNode) {
+            final Range x = rangeOf(((AddNode) node).getX(), cfg, block, next);
+            final Range y = rangeOf(((AddNode) node).getY(), cfg, block, next);
+            return Range.of(x.lo + y.lo, x.hi + y.hi).intersect(stamp);
+        } else if (node instanceof SubNode) {
+            final Range x = rangeOf(((SubNode) node).getX(), cfg, block, next);
+            final Range y = rangeOf(((SubNode) node).getY(), cfg, block, next);
+            return Range.of(x.lo - y.hi, x.hi - y.lo).intersect(stamp);
+        } else if (node instanceof MulNode) {
+            final Range x = rangeOf(((MulNode) node).getX(), cfg, block, next);
+            final Range y = rangeOf(((MulNode) node).getY(), cfg, block, next);
+            return multiply(x, y).intersect(stamp);
+        } else if (node instanceof LeftShiftNode) {
+            final Range x = rangeOf(((LeftShiftNode) node).getX(), cfg, block, next);
+            final Range y = rangeOf(((LeftShiftNode) node).getY(), cfg, block, next);
+            if (y.isConstant() && y.lo >= 0 && y.lo < 31) {
+                return multiply(x, new Range(1L << y.lo, 1L << y.lo)).intersect(stamp);
+            }
+        } else if (node instanceof RightShiftNode || node instanceof UnsignedRightShiftNode) {
+            final Range x = rangeOf(((ShiftNode<?>) node).getX(), cfg, block, next);
+            final Range y = rangeOf(((ShiftNode<?>) node).getY(), cfg, block, next);
+            if (x.isNonNegative() && y.isConstant() && y.lo >= 0 && y.lo < 32) {
+                return Range.of(x.lo >> y.lo, x.hi >> y.lo).intersect(stamp);
+            }
+        } else if (node instanceof AndNode) {
+            final Range x = rangeOf(((AndNode) node).getX(), cfg, block, next);
+            final Range y = rangeOf(((AndNode) node).getY(), cfg, block, next);
+            if (x.isNonNegative() || y.isNonNegative()) {
+                final long hi = Math.min(x.isNonNegative() ? x.hi : Integer.MAX_VALUE, y.isNonNegative() ? y.hi : Integer.MAX_VALUE);
+                return Range.of(0, hi).intersect(stamp);
+            }
+        } else if (node instanceof ConditionalNode) {
+            final Range x = rangeOf(((ConditionalNode) node).trueValue(), cfg, block, next);
+            final Range y = rangeOf(((ConditionalNode) node).falseValue(), cfg, block, next);
+            return Range.of(Math.min(x.lo, y.lo), Math.max(x.hi, y.hi)).intersect(stamp);
+        } else if (node instanceof ValuePhiNode && ((ValuePhiNode) node).merge() instanceof LoopBeginNode) {
+            return inductionRange((ValuePhiNode) node, cfg, block, next).intersect(stamp);
+        }
+        return stamp;
+    }
+
+    private static Range multiply(Range x, Range y) {
+        final long a = x.lo * y.lo;
+        final long b = x.lo * y.hi;
+        final long c = x.hi * y.lo;
+        final long d = x.hi * y.hi;
+        return Range.of(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)));
+    }
+
+    /**
+     * Bounds of a loop phi {@code i = init; i < limit; i += step} with a
+     * non-negative step, at uses inside the loop body.
+     */
+    private static Range inductionRange(ValuePhiNode phi, ControlFlowGraph cfg, Block block, int depth) {
+        final LoopBeginNode loopBegin = (LoopBeginNode) phi.merge();
+        if (block == null || phi.valueCount() != 2 || loopBegin.loopEnds().count() != 1) {
+            return Range.UNKNOWN;
+        }
+
+        final ValueNode backValue = phi.singleBackValueOrThis();
+        final ValueNode step;
+        if (backValue instanceof AddNode && ((AddNode) backValue).getX() == phi) {
+            step = ((AddNode) backValue).getY();
+        } else if (backValue instanceof AddNode && ((AddNode) backValue).getY() == phi) {
+            step = ((AddNode) backValue).getX();
+        } else {
+            return Range.UNKNOWN;
+        }
+
+        final Range stepRange = rangeOf(step, cfg, block, depth);
+        if (!stepRange.isNonNegative()) {
+            return Range.UNKNOWN;
+        }
+
+        for (IntegerLessThanNode condition : phi.usages().filter(IntegerLessThanNode.class)) {
+            for (IfNode ifNode : condition.usages().filter(IfNode.class)) {
+                final boolean phiIsX = condition.getX() == phi;
+                // i < limit stays in the loop when true, limit < i when false
+                final AbstractBeginNode body = phiIsX ? ifNode.trueSuccessor() : ifNode.falseSuccessor();
+                final AbstractBeginNode exit = phiIsX ? ifNode.falseSuccessor() : ifNode.trueSuccessor();
+                if (!(exit instanceof LoopExitNode) || ((LoopExitNode) exit).loopBegin() != loopBegin) {
+                    continue;
+                }
+                final Block bodyBlock = cfg.blockFor(body);
+                if (bodyBlock == null || !AbstractControlFlowGraph.dominates(bodyBlock, block)) {
+                    continue;
+                }
+
+                final Range init = rangeOf(phi.firstValue(), cfg, block, depth);
+                final Range limit = rangeOf(phiIsX ? condition.getY() : condition.getX(), cfg, block, depth);
+                final long hi = phiIsX ? limit.hi - 1 : limit.hi;
+                // the increment must not wrap around before the exit test
+                if (hi + stepRange.hi > Integer.MAX_VALUE) {
+                    return Range.UNKNOWN;
+                }
+                return Range.of(init.lo, Math.max(init.lo, hi));
+            }
+        }
+        return Range.UNKNOWN;
+    }
+}
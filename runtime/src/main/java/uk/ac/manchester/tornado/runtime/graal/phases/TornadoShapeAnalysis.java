@@ -32,6 +32,7 @@ import org.graalvm.compiler.loop.LoopFragmentInside;
 import org.graalvm.compiler.loop.LoopsData;
 import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.ParameterNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.phases.BasePhase;
@@ -56,6 +57,21 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
         }
     }
 
+    /*
+     * A bound that is still a parameter belongs to a specialised argument of
+     * a generic kernel. The domain then starts with its current value and is
+     * updated on every launch.
+     */
+    private static int resolveArgument(ValueNode value, TornadoHighTierContext context) {
+        if (value instanceof ParameterNode && context.hasArgs()) {
+            final Object arg = context.getArgs()[((ParameterNode) value).index()];
+            if (arg instanceof Integer) {
+                return (Integer) arg;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
     private int getMaxLevelNestedLoops(StructuredGraph graph) {
         int dimensions = 1;
 
@@ -81,15 +97,25 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
 
     private void setDomainTree(int dimensions, List<ParallelRangeNode> ranges, TornadoHighTierContext context) {
         final DomainTree domainTree = new DomainTree(dimensions);
+        final int[] domainArguments = new int[dimensions];
+        boolean hasDomainArguments = false;
 
         int lastIndex = -1;
         boolean valid = true;
         for (int i = 0; i < dimensions; i++) {
             final ParallelRangeNode range = ranges.get(i);
             final int index = range.index();
-            if (index != lastIndex && resolveInt(range.offset().value()) != Integer.MIN_VALUE && resolveInt(range.stride().value()) != Integer.MIN_VALUE
-                    && resolveInt(range.value()) != Integer.MIN_VALUE) {
-                domainTree.set(index, new IntDomain(resolveInt(range.offset().value()), resolveInt(range.stride().value()), resolveInt(range.value())));
+            int end = resolveInt(range.value());
+            domainArguments[index] = -1;
+            if (end == Integer.MIN_VALUE) {
+                end = resolveArgument(range.value(), context);
+                if (end != Integer.MIN_VALUE) {
+                    domainArguments[index] = ((ParameterNode) range.value()).index();
+                    hasDomainArguments = true;
+                }
+            }
+            if (index != lastIndex && resolveInt(range.offset().value()) != Integer.MIN_VALUE && resolveInt(range.stride().value()) != Integer.MIN_VALUE && end != Integer.MIN_VALUE) {
+                domainTree.set(index, new IntDomain(resolveInt(range.offset().value()), resolveInt(range.stride().value()), end));
             } else {
                 valid = false;
                 Tornado.info("unsupported multiple parallel loops");
@@ -102,6 +128,7 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
             Tornado.trace("loop nest depth = %d", domainTree.getDepth());
             Tornado.debug("discovered parallel domain: %s", domainTree);
             context.getMeta().setDomain(domainTree);
+            context.getMeta().setDomainArguments((hasDomainArguments) ? domainArguments : null);
         }
     }
 
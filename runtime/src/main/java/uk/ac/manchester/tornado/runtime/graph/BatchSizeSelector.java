@@ -0,0 +1,125 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
+
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.mm.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.api.profiler.DeviceProfile;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
+import uk.ac.manchester.tornado.runtime.tasks.LocalObjectState;
+
+/**
+ * Chooses the chunk size of {@code batch(AUTO)} schedules.
+ * 
+ * The largest chunk is bounded by the heap remaining on the device, divided
+ * by the number of arrays of the schedule, as every array gets a buffer of
+ * one chunk. Within that bound, the smallest chunk is chosen whose fixed
+ * costs (transfer latencies, kernel launches and dispatch) are at most
+ * {@code 1 - tornado.batch.auto.efficiency} of the time of the chunk, using
+ * the {@link DeviceProfile} measured for the device. Devices without a
+ * profile use the largest chunk that fits in memory.
+ */
+final class BatchSizeSelector {
+
+    private static final double EFFICIENCY = Double.parseDouble(getProperty("tornado.batch.auto.efficiency", "0.9"));
+    private static final double HEAP_FRACTION = Double.parseDouble(getProperty("tornado.batch.auto.heap", "0.9"));
+    private static final long MIN_CHUNK_SIZE = Long.parseLong(getProperty("tornado.batch.auto.min", "1048576"));
+
+    private BatchSizeSelector() {
+    }
+
+    /**
+     * @return the chunk size in bytes, or -1 when the whole data is processed
+     *         in one go
+     */
+    static long select(TornadoExecutionContext context, TornadoAcceleratorDevice device, long totalSize, int typeSize) {
+        final List<Object> objects = context.getObjects();
+        final List<LocalObjectState> states = context.getObjectStates();
+        int numArrays = 0;
+        int numStreamOut = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).getClass().isArray()) {
+                numArrays++;
+                if (states.get(i).isStreamOut()) {
+                    numStreamOut++;
+                }
+            }
+        }
+        if (numArrays == 0 || totalSize == 0) {
+            return -1;
+        }
+
+        final long memoryBound = align(Math.min(Math.min(availableMemory(device) / numArrays, device.getMaxAllocMemory()), Integer.MAX_VALUE), typeSize);
+        long chunkSize = memoryBound;
+
+        final DeviceProfile profile = DeviceProfile.load(device.getDeviceName());
+        if (profile != null) {
+            chunkSize = Math.min(saturatingChunkSize(profile, context.getTaskCount(), numArrays, numStreamOut), memoryBound);
+            chunkSize = Math.max(align(chunkSize, typeSize), Math.min(align(MIN_CHUNK_SIZE, typeSize), memoryBound));
+        }
+        chunkSize = Math.max(chunkSize, typeSize);
+
+        if (Tornado.DEBUG) {
+            System.out.println("Auto batch size: " + chunkSize + " (memory bound " + memoryBound + ", profile " + ((profile != null) ? "found" : "not found") + ")");
+        }
+        return (chunkSize >= totalSize) ? -1 : chunkSize;
+    }
+
+    private static long availableMemory(TornadoAcceleratorDevice device) {
+        final TornadoMemoryProvider memory = device.getMemoryProvider();
+        final long remaining = (memory != null) ? memory.getHeapRemaining() : 0;
+        final long available = (remaining > 0) ? remaining : device.getMaxAllocMemory();
+        return (long) (available * HEAP_FRACTION);
+    }
+
+    /**
+     * Each chunk costs {@code overhead + chunkSize * costPerByte}. The
+     * overhead is paid once per chunk: the latency of every copy, and the
+     * launch and dispatch of every task. The cost per byte of a chunk is the
+     * transfer of every array in, of the stream-out arrays out, and a kernel
+     * that at least reads and writes the arrays once on the device.
+     */
+    private static long saturatingChunkSize(DeviceProfile profile, int numTasks, int numArrays, int numStreamOut) {
+        final double overhead = numArrays * profile.getCopyInLatency() + numStreamOut * profile.getCopyOutLatency() + numTasks * (profile.getLaunchLatency() + profile.getDispatchPerTask());
+        final double costPerByte = perByte(numArrays, profile.getCopyInBandwidth()) + perByte(numStreamOut, profile.getCopyOutBandwidth())
+                + perByte(numArrays * numTasks, profile.getDeviceCopyBandwidth());
+        if (costPerByte <= 0 || EFFICIENCY >= 1) {
+            return Long.MAX_VALUE;
+        }
+        final double chunkSize = overhead * EFFICIENCY / ((1 - EFFICIENCY) * costPerByte);
+        return (chunkSize >= Long.MAX_VALUE) ? Long.MAX_VALUE : (long) Math.ceil(chunkSize);
+    }
+
+    private static double perByte(int count, double bandwidth) {
+        return (bandwidth > 0) ? count / bandwidth : 0;
+    }
+
+    private static long align(long size, int typeSize) {
+        return size - (size % typeSize);
+    }
+}
@@ -36,11 +36,13 @@ public class TornadoVMGraphCompilationResult {
     private byte[] code;
     private TornadoGraphAssembler bitcodeASM;
     private int globalTaskID;
+    private long batchSize;
 
     public TornadoVMGraphCompilationResult() {
         code = new byte[MAX_TORNADOVM_BYTECODE_SIZE];
         bitcodeASM = new TornadoGraphAssembler(code);
         globalTaskID = 0;
+        batchSize = -1;
     }
 
     public void begin(int numContexts, int numStacks, int numDeps) {
@@ -116,4 +118,12 @@ public class TornadoVMGraphCompilationResult {
         return bitcodeASM.position();
     }
 
+    public void setBatchSize(long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
 }
@@ -57,6 +57,12 @@ import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
 
 public class TornadoVMGraphCompiler {
 
+    /**
+     * Batch size of schedules whose chunk size is chosen by
+     * {@link BatchSizeSelector}.
+     */
+    public static final long AUTO_BATCH_SIZE = -2;
+
     private static HashMap<Class<?>, Byte> dataTypesSize = new HashMap<>();
 
     static {
@@ -89,16 +95,22 @@ public class TornadoVMGraphCompiler {
 
     private static class BatchSizeMetaData {
 
+        private long batchSize;
         private int totalChunks;
         private int remainingChunkSize;
         private short numBytesType;
 
-        public BatchSizeMetaData(int totalChunks, int remainingChunkSize, short numBytesType) {
+        public BatchSizeMetaData(long batchSize, int totalChunks, int remainingChunkSize, short numBytesType) {
+            this.batchSize = batchSize;
             this.totalChunks = totalChunks;
             this.remainingChunkSize = remainingChunkSize;
             this.numBytesType = numBytesType;
         }
 
+        private long getBatchSize() {
+            return batchSize;
+        }
+
         private int getTotalChunks() {
             return totalChunks;
         }
@@ -112,7 +124,7 @@ public class TornadoVMGraphCompiler {
         }
     }
 
-    private static BatchSizeMetaData computeChunkSizes(TornadoExecutionContext context, long batchSize) {
+    private static BatchSizeMetaData computeChunkSizes(TornadoExecutionContext context, TornadoAcceleratorDevice device, long batchSize) {
         // Get the size of the batch
         List<Object> inputObjects = context.getObjects();
         long totalSize = 0;
@@ -143,6 +155,13 @@ public class TornadoVMGraphCompiler {
             }
         }
 
+        if (batchSize == AUTO_BATCH_SIZE) {
+            batchSize = BatchSizeSelector.select(context, device, totalSize, typeSize);
+            if (batchSize == -1) {
+                return null;
+            }
+        }
+
         int totalChunks = (int) (totalSize / batchSize);
         int remainingChunkSize = (int) (totalSize % batchSize);
 
@@ -151,7 +170,7 @@ public class TornadoVMGraphCompiler {
             System.out.println("Total chunks: " + totalChunks);
             System.out.println("remainingChunkSize: " + remainingChunkSize);
         }
-        return new BatchSizeMetaData(totalChunks, remainingChunkSize, typeSize);
+        return new BatchSizeMetaData(batchSize, totalChunks, remainingChunkSize, typeSize);
     }
 
     /*
@@ -188,11 +207,13 @@ public class TornadoVMGraphCompiler {
 
         BatchSizeMetaData sizeBatch = null;
         if (batchSize != -1) {
-            sizeBatch = computeChunkSizes(context, batchSize);
+            sizeBatch = computeChunkSizes(context, device, batchSize);
         }
 
-        if (batchSize != -1) {
+        if (sizeBatch != null) {
             // compute in batches
+            batchSize = sizeBatch.getBatchSize();
+            result.setBatchSize(batchSize);
             long offset = 0;
             long nthreads = batchSize / sizeBatch.getNumBytesType();
             for (int i = 0; i < sizeBatch.getTotalChunks(); i++) {
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jvm;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.runtime.common.CallStack;
+import uk.ac.manchester.tornado.runtime.common.DeviceObjectState;
+
+/**
+ * Call stack of the JVM device: the arguments are kept as Java references
+ * since the device shares the heap with the host.
+ */
+public class JVMCallStack implements CallStack {
+
+    private final Object[] arguments;
+    private int argumentCount;
+
+    public JVMCallStack(int numArgs) {
+        arguments = new Object[numArgs];
+        argumentCount = 0;
+    }
+
+    public Object[] getArguments() {
+        return (argumentCount == arguments.length) ? arguments : Arrays.copyOf(arguments, argumentCount);
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(arguments, null);
+        argumentCount = 0;
+    }
+
+    @Override
+    public long getDeoptValue() {
+        return 0;
+    }
+
+    @Override
+    public long getReturnValue() {
+        return 0;
+    }
+
+    @Override
+    public int getArgCount() {
+        return argumentCount;
+    }
+
+    @Override
+    public void push(Object arg) {
+        arguments[argumentCount] = arg;
+        argumentCount++;
+    }
+
+    @Override
+    public void push(Object arg, DeviceObjectState state) {
+        push(arg);
+    }
+
+    @Override
+    public boolean isOnDevice() {
+        return false;
+    }
+
+    @Override
+    public void dump() {
+        System.out.printf("Call Stack: num args = %d, device = jvm\n", argumentCount);
+        for (int i = 0; i < argumentCount; i++) {
+            System.out.printf("arg[%d]: %s\n", i, arguments[i]);
+        }
+    }
+
+    @Override
+    public void clearProfiling() {
+    }
+
+    @Override
+    public long getInvokeCount() {
+        return 0;
+    }
+
+    @Override
+    public double getTimeTotal() {
+        return 0;
+    }
+
+    @Override
+    public double getTimeMean() {
+        return 0;
+    }
+
+    @Override
+    public double getTimeMin() {
+        return 0;
+    }
+
+    @Override
+    public double getTimeMax() {
+        return 0;
+    }
+
+    @Override
+    public double getTimeSD() {
+        return 0;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jvm;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import org.graalvm.compiler.api.runtime.GraalJVMCICompiler;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.core.common.type.StampPair;
+import org.graalvm.compiler.core.common.type.TypeReference;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.extended.UnboxNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.phases.OptimisticOptimizations;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.runtime.RuntimeProvider;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.Equivalence;
+import org.graalvm.util.UnmodifiableEconomicMap;
+
+import jdk.vm.ci.code.InstalledCode;
+import jdk.vm.ci.code.InvalidInstalledCodeException;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.LocalAnnotation;
+import jdk.vm.ci.meta.MetaAccessProvider;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.runtime.JVMCI;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.analyzer.CodeAnalysis;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+
+/**
+ * A task method compiled for the host by Graal, with the start and the limit
+ * of its outermost parallel loop taken from parameters instead of the values
+ * in the bytecode. This lets the JVM device run chunks of the iteration space
+ * as native code on several threads at once.
+ *
+ * <p>
+ * The graph of the task is compiled once, as the body of
+ * {@link #chunk(Object[], int, int)}: the task parameters are read from the
+ * argument array and the bounds of the chunk are passed next to it, so all
+ * the threads share the same installed code. The code is compiled without
+ * speculative optimizations: a deoptimization would resume in the interpreter
+ * with the original loop limit and run past the end of the chunk.
+ * </p>
+ */
+public class JVMCompiledKernel implements JVMKernel {
+
+    private static final int ARGS = 0;
+    private static final int START = 1;
+    private static final int END = 2;
+
+    private static final Method CHUNK;
+
+    static {
+        try {
+            CHUNK = JVMCompiledKernel.class.getDeclaredMethod("chunk", Object[].class, int.class, int.class);
+        } catch (NoSuchMethodException e) {
+            throw new TornadoRuntimeException("[ERROR] unable to find the JVM kernel entry point: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The outermost parallel loop of a graph: the induction variable, the
+     * condition that ends the loop, and the value the condition compares
+     * against.
+     */
+    private static final class ParallelLoop {
+        final LoopEx loop;
+        final ValuePhiNode phi;
+        final IntegerLessThanNode condition;
+        final ValueNode limit;
+        final int init;
+        final int stride;
+
+        ParallelLoop(LoopEx loop, ValuePhiNode phi, IntegerLessThanNode condition, ValueNode limit, int init, int stride) {
+            this.loop = loop;
+            this.phi = phi;
+            this.condition = condition;
+            this.limit = limit;
+            this.init = init;
+            this.stride = stride;
+        }
+    }
+
+    private final Method method;
+    private final int init;
+    private final int stride;
+    private final ToIntFunction<Object[]> limit;
+    private volatile InstalledCode code;
+
+    private JVMCompiledKernel(Method method, int init, int stride, ToIntFunction<Object[]> limit, InstalledCode code) {
+        this.method = method;
+        this.init = init;
+        this.stride = stride;
+        this.limit = limit;
+        this.code = code;
+    }
+
+    /*
+     * The signature the task is compiled with: the task arguments and the
+     * bounds of the chunk. Only the signature is used, the body is replaced
+     * by the graph of the task.
+     */
+    @SuppressWarnings("unused")
+    private static void chunk(Object[] args, int start, int end) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Analyses {@code method} and returns a kernel for it, or {@code null}
+     * when it has no outermost parallel loop whose bounds can be replaced,
+     * in which case the method should be called as it is.
+     */
+    public static JVMCompiledKernel create(Method method) {
+        final StructuredGraph graph = buildGraph(method);
+        final ParallelLoop parallelLoop = (graph == null) ? null : findParallelLoop(graph);
+        if (parallelLoop == null) {
+            Tornado.debug("JVM: %s has no parallel loop to split, calling it directly", method.getName());
+            return null;
+        }
+
+        final ValueNode limitNode = parallelLoop.limit;
+        final ToIntFunction<Object[]> limit;
+        if (limitNode.isConstant()) {
+            final int value = limitNode.asJavaConstant().asInt();
+            limit = args -> value;
+        } else if (limitNode instanceof ParameterNode) {
+            final int index = ((ParameterNode) limitNode).index();
+            limit = args -> ((Number) args[index]).intValue();
+        } else if (limitNode instanceof ArrayLengthNode && ((ArrayLengthNode) limitNode).array() instanceof ParameterNode) {
+            final int index = ((ParameterNode) ((ArrayLengthNode) limitNode).array()).index();
+            limit = args -> Array.getLength(args[index]);
+        } else {
+            Tornado.debug("JVM: the loop limit of %s is not known before the call, calling it directly", method.getName());
+            return null;
+        }
+        return new JVMCompiledKernel(method, parallelLoop.init, parallelLoop.stride, limit, compile(graph, parallelLoop));
+    }
+
+    private static Providers getProviders() {
+        final GraalJVMCICompiler compiler = (GraalJVMCICompiler) JVMCI.getRuntime().getCompiler();
+        return compiler.getGraalRuntime().getCapability(RuntimeProvider.class).getHostBackend().getProviders();
+    }
+
+    private static StructuredGraph buildGraph(Method method) {
+        final StructuredGraph graph = CodeAnalysis.buildHighLevelGraalGraph(method);
+        if (graph != null) {
+            new CanonicalizerPhase().apply(graph, new PhaseContext(getProviders()));
+        }
+        return graph;
+    }
+
+    /*
+     * Mirrors TornadoApiReplacement: the locals annotated with @Parallel are
+     * found through the frame states, and the first counted loop, outermost
+     * first, whose induction variable is one of them is used.
+     */
+    private static ParallelLoop findParallelLoop(StructuredGraph graph) {
+        if (!graph.hasLoops()) {
+            return null;
+        }
+
+        final LocalAnnotation[] annotations = graph.method().getLocalAnnotations();
+        final Set<Node> parallelNodes = new HashSet<>();
+        graph.getNodes().filter(FrameState.class).forEach(fs -> {
+            for (LocalAnnotation an : annotations) {
+                if (fs.bci >= an.getStart() && fs.bci < an.getStart() + an.getLength()) {
+                    parallelNodes.add(fs.localAt(an.getIndex()));
+                }
+            }
+        });
+
+        final LoopsData data = new LoopsData(graph);
+        data.detectedCountedLoops();
+        for (LoopEx loop : data.outerFirst()) {
+            for (InductionVariable iv : loop.getInductionVariables().getValues()) {
+                if (!parallelNodes.contains(iv.valueNode()) || !(iv.valueNode() instanceof ValuePhiNode)) {
+                    continue;
+                }
+                if (!iv.isConstantInit() || !iv.isConstantStride() || iv.constantStride() <= 0) {
+                    continue;
+                }
+                final ValuePhiNode phi = (ValuePhiNode) iv.valueNode();
+                if (phi.valueCount() < 2 || phi.merge() != loop.loopBegin()) {
+                    continue;
+                }
+                final IntegerLessThanNode condition = phi.usages().filter(IntegerLessThanNode.class).first();
+                if (condition == null || phi.usages().filter(IntegerLessThanNode.class).count() != 1 || condition.getX() != phi) {
+                    continue;
+                }
+                return new ParallelLoop(loop, phi, condition, condition.getY(), (int) iv.constantInit(), (int) iv.constantStride());
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Copies the graph of the task into a graph for chunk(), reads each task
+     * parameter from the argument array, replaces the initial value of the
+     * induction variable with the start parameter and the loop limit with the
+     * end parameter, and compiles the result.
+     */
+    private static InstalledCode compile(StructuredGraph task, ParallelLoop parallelLoop) {
+        final MetaAccessProvider metaAccess = getProviders().getMetaAccess();
+        final ResolvedJavaMethod entry = metaAccess.lookupJavaMethod(CHUNK);
+        final StructuredGraph graph = new StructuredGraph.Builder(task.getOptions(), AllowAssumptions.YES).method(entry).build();
+
+        final EconomicMap<Node, Node> replacements = EconomicMap.create(Equivalence.IDENTITY);
+        replacements.put(task.start(), graph.start());
+        final UnmodifiableEconomicMap<Node, Node> duplicates = graph.addDuplicates(task.getNodes(), task, task.getNodeCount(), replacements);
+
+        final ParameterNode args = graph.addWithoutUnique(new ParameterNode(ARGS, StampPair.createSingle(StampFactory.objectNonNull(TypeReference.createExactTrusted(metaAccess.lookupJavaType(Object[].class))))));
+        final ParameterNode start = graph.addWithoutUnique(new ParameterNode(START, StampPair.createSingle(StampFactory.forKind(JavaKind.Int))));
+        final ParameterNode end = graph.addWithoutUnique(new ParameterNode(END, StampPair.createSingle(StampFactory.forKind(JavaKind.Int))));
+
+        final ValuePhiNode phi = (ValuePhiNode) duplicates.get(parallelLoop.phi);
+        final IntegerLessThanNode condition = (IntegerLessThanNode) duplicates.get(parallelLoop.condition);
+        phi.setValueAt(0, start);
+        duplicates.get(parallelLoop.limit).replaceAtMatchingUsages(end, node -> node.equals(condition));
+
+        final int receiver = task.method().isStatic() ? 0 : 1;
+        final List<ParameterNode> parameters = new ArrayList<>();
+        task.getNodes(ParameterNode.TYPE).forEach(p -> parameters.add((ParameterNode) duplicates.get(p)));
+        FixedWithNextNode last = graph.start();
+        for (ParameterNode parameter : parameters) {
+            final LoadIndexedNode load = graph.add(new LoadIndexedNode(graph.getAssumptions(), args, ConstantNode.forInt(parameter.index(), graph), JavaKind.Object));
+            graph.addAfterFixed(last, load);
+            last = load;
+
+            final ValueNode value;
+            final JavaKind kind = (parameter.index() < receiver) ? JavaKind.Object : task.method().getSignature().getParameterKind(parameter.index() - receiver);
+            if (kind.isPrimitive()) {
+                final UnboxNode unbox = graph.add(new UnboxNode(load, kind));
+                graph.addAfterFixed(last, unbox);
+                last = unbox;
+                value = unbox;
+            } else {
+                value = graph.unique(new PiNode(load, parameter.stamp()));
+            }
+            parameter.replaceAtUsages(value);
+            parameter.safeDelete();
+        }
+
+        return CodeAnalysis.compileAndInstallMethod(graph, OptimisticOptimizations.NONE);
+    }
+
+    private synchronized InstalledCode recompile() {
+        if (!code.isValid()) {
+            final StructuredGraph graph = buildGraph(method);
+            final ParallelLoop parallelLoop = (graph == null) ? null : findParallelLoop(graph);
+            if (parallelLoop == null) {
+                throw new TornadoRuntimeException("[ERROR] unable to compile " + method.getName() + " for the JVM");
+            }
+            code = compile(graph, parallelLoop);
+        }
+        return code;
+    }
+
+    @Override
+    public void execute(Object[] args, int start, int end) {
+        InstalledCode installed = code;
+        if (!installed.isValid()) {
+            installed = recompile();
+        }
+        try {
+            installed.executeVarargs(args, start, end);
+        } catch (InvalidInstalledCodeException e) {
+            throw new TornadoRuntimeException("[ERROR] compiled code for " + method.getName() + " was invalidated: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean supportsChunks() {
+        return true;
+    }
+
+    @Override
+    public IntDomain getDomain(Object[] args) {
+        return new IntDomain(init, stride, limit.applyAsInt(args));
+    }
+}
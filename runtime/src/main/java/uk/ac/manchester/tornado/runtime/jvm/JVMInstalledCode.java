@@ -0,0 +1,127 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jvm;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import uk.ac.manchester.tornado.runtime.common.CallStack;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.domain.Domain;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Runs a {@link JVMKernel} on a fork/join pool. When the kernel supports
+ * chunks and the task has a parallel domain, the outermost dimension is split
+ * into chunks of iterations that run as fork/join tasks; otherwise the
+ * kernel runs once in the calling thread.
+ */
+public class JVMInstalledCode implements TornadoInstalledCode {
+
+    /*
+     * Chunks per pool thread, so that uneven chunks can be balanced by work
+     * stealing.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final JVMKernel kernel;
+    private final ForkJoinPool pool;
+
+    public JVMInstalledCode(JVMKernel kernel, ForkJoinPool pool) {
+        this.kernel = kernel;
+        this.pool = pool;
+    }
+
+    private static final class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final JVMKernel kernel;
+        private final Object[] args;
+        private final IntDomain domain;
+        private final int first;
+        private final int last;
+        private final int grain;
+
+        Chunk(JVMKernel kernel, Object[] args, IntDomain domain, int first, int last, int grain) {
+            this.kernel = kernel;
+            this.args = args;
+            this.domain = domain;
+            this.first = first;
+            this.last = last;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first <= grain) {
+                final int start = domain.map(first);
+                final int end = Math.min(domain.map(last), domain.getLength());
+                kernel.execute(args, start, end);
+            } else {
+                final int middle = (first + last) >>> 1;
+                invokeAll(new Chunk(kernel, args, domain, first, middle, grain), new Chunk(kernel, args, domain, middle, last, grain));
+            }
+        }
+    }
+
+    private static int iterations(IntDomain domain) {
+        final int range = domain.getLength() - domain.getOffset();
+        return (range <= 0 || domain.getStep() <= 0) ? 0 : (range + domain.getStep() - 1) / domain.getStep();
+    }
+
+    private void launch(CallStack stack, TaskMetaData meta) {
+        final Object[] args = ((JVMCallStack) stack).getArguments();
+        Domain outer = null;
+        if (kernel.supportsChunks()) {
+            outer = kernel.getDomain(args);
+            if (outer == null && meta.isParallel()) {
+                outer = meta.getDomain().get(0);
+            }
+        }
+        if (!(outer instanceof IntDomain)) {
+            kernel.execute(args, 0, 0);
+            return;
+        }
+
+        final IntDomain domain = (IntDomain) outer;
+        final int iterations = iterations(domain);
+        final int grain = Math.max(1, iterations / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        pool.invoke(new Chunk(kernel, args, domain, 0, iterations, grain));
+    }
+
+    @Override
+    public int launchWithDeps(CallStack stack, TaskMetaData meta, long batchThreads, int[] waitEvents) {
+        // launches complete before returning, so there is nothing to wait for
+        launch(stack, meta);
+        return -1;
+    }
+
+    @Override
+    public int launchWithoutDeps(CallStack stack, TaskMetaData meta, long batchThreads) {
+        launch(stack, meta);
+        return -1;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jvm;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+
+/**
+ * Code run by the JVM device for a task.
+ */
+public interface JVMKernel {
+
+    /**
+     * Runs the iterations {@code [start, end)} of the outermost parallel
+     * loop. Kernels that do not support chunks run the whole loop and ignore
+     * the bounds.
+     */
+    void execute(Object[] args, int start, int end);
+
+    /**
+     * Whether {@link #execute} honours the chunk bounds, so the device can
+     * split the parallel domain across threads.
+     */
+    default boolean supportsChunks() {
+        return false;
+    }
+
+    /**
+     * The iteration space of the outermost parallel loop for the given
+     * arguments, or {@code null} when the kernel does not know it and the
+     * domain of the task should be used instead.
+     */
+    default IntDomain getDomain(Object[] args) {
+        return null;
+    }
+
+    /**
+     * Calls the task method directly on the host.
+     */
+    static JVMKernel invoke(Method method) {
+        method.setAccessible(true);
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        return (args, start, end) -> {
+            try {
+                if (isStatic) {
+                    method.invoke(null, args);
+                } else {
+                    method.invoke(args[0], Arrays.copyOfRange(args, 1, args.length));
+                }
+            } catch (InvocationTargetException e) {
+                throw new TornadoRuntimeException("[ERROR] task " + method.getName() + " failed on the JVM: " + e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new TornadoRuntimeException("[ERROR] unable to call " + method.getName() + " on the JVM: " + e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_PROFILING;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
+import uk.ac.manchester.tornado.api.profiler.MetricsRegistry;
+import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
+
+/**
+ * Collects the commands issued by one execution of the TornadoVM. Recording a
+ * command only costs the host timestamps: its event stays owned by the
+ * execution, and its device time is copied into the record when the
+ * execution releases its events (see {@link #capture}). The times are
+ * aggregated, and also recorded in {@link TornadoMetrics}, the first time the
+ * profile is read.
+ */
+public class TornadoExecutionProfile implements ExecutionProfile {
+
+    public enum CommandType {
+        COPY_IN, COPY_OUT, KERNEL
+    }
+
+    private static final class Command {
+        final CommandType type;
+        final String name;
+        final TornadoAcceleratorDevice device;
+        final long bytes;
+        final long hostStart;
+        // -1 once the device time has been captured
+        int event;
+        // host time of the call until the device time is captured
+        long time;
+
+        Command(CommandType type, String name, TornadoAcceleratorDevice device, int event, long bytes, long hostStart, long hostTime) {
+            this.type = type;
+            this.name = name;
+            this.device = device;
+            this.event = event;
+            this.bytes = bytes;
+            this.hostStart = hostStart;
+            this.time = hostTime;
+        }
+    }
+
+    private final String id;
+    private final List<Command> commands = new ArrayList<>();
+    private final long[] eventTimes = new long[3];
+
+    private long graphCompileTime;
+    private long codeGenerationTime;
+    private long totalTime;
+    private long hostCommandTime;
+
+    private boolean resolved;
+    private long copyInBytes;
+    private long copyInTime;
+    private long copyOutBytes;
+    private long copyOutTime;
+    private final Map<String, Long> kernelTimes = new LinkedHashMap<>();
+
+    /**
+     * @param id
+     *            id of the task-schedule
+     */
+    public TornadoExecutionProfile(String id) {
+        this.id = id;
+    }
+
+    public void addGraphCompileTime(long time) {
+        graphCompileTime += time;
+    }
+
+    public void addCodeGenerationTime(long time) {
+        codeGenerationTime += time;
+    }
+
+    /**
+     * Records a command issued to a device.
+     *
+     * @param name
+     *            id of the task for kernels, of the task-schedule for copies
+     * @param event
+     *            event of the command, or -1 if the device did not return one.
+     *            It must stay valid until {@link #capture} is called.
+     * @param bytes
+     *            bytes moved by the command, 0 for kernels
+     * @param hostStart
+     *            {@link System#nanoTime()} before the call that issued the
+     *            command
+     * @param hostEnd
+     *            {@link System#nanoTime()} after the call
+     */
+    public synchronized void addCommand(CommandType type, String name, TornadoAcceleratorDevice device, int event, long bytes, long hostStart, long hostEnd) {
+        commands.add(new Command(type, name, device, (ENABLE_PROFILING) ? event : -1, bytes, hostStart, hostEnd - hostStart));
+        hostCommandTime += hostEnd - hostStart;
+    }
+
+    public void setTotalTime(long time) {
+        totalTime = time;
+    }
+
+    /**
+     * Copies the device times of the commands into their records, so the
+     * events can be freed. Commands whose event has not completed keep their
+     * host time, unless {@code waitForDevice} is set. Called by the TornadoVM
+     * before it frees the events of the execution.
+     */
+    public synchronized void capture(boolean waitForDevice) {
+        for (Command command : commands) {
+            if (command.event == -1) {
+                continue;
+            }
+            if (waitForDevice) {
+                command.device.resolveEvent(command.event).waitOn();
+            }
+            if (command.device.readEventTimes(command.event, eventTimes)) {
+                command.time = eventTimes[2] - eventTimes[1];
+                if (TornadoTraceRecorder.isEnabled()) {
+                    final String category = command.type.name().toLowerCase();
+                    TornadoTraceRecorder.deviceSpan(command.name, category, command.device.getDeviceName(), command.type == CommandType.KERNEL, command.hostStart, eventTimes, command.bytes);
+                }
+            }
+            command.event = -1;
+        }
+    }
+
+    /**
+     * Aggregates the times of the recorded commands, waiting for the device
+     * if they have not been captured yet.
+     */
+    public synchronized void resolve() {
+        if (resolved) {
+            return;
+        }
+        capture(true);
+        for (Command command : commands) {
+            final long time = command.time;
+            final String device = command.device.getDeviceName();
+            switch (command.type) {
+                case COPY_IN:
+                    copyInBytes += command.bytes;
+                    copyInTime += time;
+                    if (command.bytes > 0) {
+                        TornadoMetrics.recordLatency(MetricsRegistry.COPY_IN, command.name, device, time);
+                        TornadoMetrics.increment(MetricsRegistry.BYTES_IN, command.name, device, command.bytes);
+                    }
+                    break;
+                case COPY_OUT:
+                    copyOutBytes += command.bytes;
+                    copyOutTime += time;
+                    if (command.bytes > 0) {
+                        TornadoMetrics.recordLatency(MetricsRegistry.COPY_OUT, command.name, device, time);
+                        TornadoMetrics.increment(MetricsRegistry.BYTES_OUT, command.name, device, command.bytes);
+                    }
+                    break;
+                case KERNEL:
+                    kernelTimes.merge(command.name, time, Long::sum);
+                    TornadoMetrics.recordLatency(MetricsRegistry.KERNEL, command.name, device, time);
+                    break;
+                default:
+                    break;
+            }
+        }
+        TornadoMetrics.recordLatency(MetricsRegistry.EXECUTION, id, null, totalTime);
+        commands.clear();
+        resolved = true;
+    }
+
+    @Override
+    public long getGraphCompileTime() {
+        return graphCompileTime;
+    }
+
+    @Override
+    public long getCodeGenerationTime() {
+        return codeGenerationTime;
+    }
+
+    @Override
+    public long getCopyInBytes() {
+        resolve();
+        return copyInBytes;
+    }
+
+    @Override
+    public long getCopyInTime() {
+        resolve();
+        return copyInTime;
+    }
+
+    @Override
+    public long getCopyOutBytes() {
+        resolve();
+        return copyOutBytes;
+    }
+
+    @Override
+    public long getCopyOutTime() {
+        resolve();
+        return copyOutTime;
+    }
+
+    @Override
+    public Map<String, Long> getKernelTimes() {
+        resolve();
+        return Collections.unmodifiableMap(kernelTimes);
+    }
+
+    @Override
+    public long getKernelTime() {
+        resolve();
+        long time = 0;
+        for (long kernelTime : kernelTimes.values()) {
+            time += kernelTime;
+        }
+        return time;
+    }
+
+    @Override
+    public long getDispatchTime() {
+        return Math.max(0, totalTime - graphCompileTime - codeGenerationTime - hostCommandTime);
+    }
+
+    @Override
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("profile: graph=%d ns, codegen=%d ns, copy-in=%d bytes %d ns, kernels=%s ns, copy-out=%d bytes %d ns, dispatch=%d ns, total=%d ns", getGraphCompileTime(),
+                getCodeGenerationTime(), getCopyInBytes(), getCopyInTime(), getKernelTimes(), getCopyOutBytes(), getCopyOutTime(), getDispatchTime(), getTotalTime());
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.ENABLE_METRICS;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import uk.ac.manchester.tornado.api.profiler.MetricsRegistry;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+
+/**
+ * Metrics of the runtime: latency histograms per metric, task and
+ * device, and counters. Each histogram is exported as an MXBean named
+ * {@code uk.ac.manchester.tornado:type=Latency,metric=<metric>,task=<task>,device=<device>}
+ * and all counters as the {@code Counters} attribute of
+ * {@code uk.ac.manchester.tornado:type=Counters}.
+ * 
+ * Every value is also forwarded to the {@link MetricsRegistry}
+ * implementations found on the class path. Metrics are on by default: the
+ * times of an execution are recorded from its profile before the next
+ * execution of the task-schedule, and only if its commands have already
+ * completed, so recording never waits for a device. Lookups of existing
+ * histograms and counters do not lock. They are disabled with
+ * {@code tornado.metrics.enable=False}.
+ */
+public final class TornadoMetrics {
+
+    public static final String DOMAIN = "uk.ac.manchester.tornado";
+
+    public interface CountersMXBean {
+        Map<String, Long> getCounters();
+    }
+
+    private static final class Counters implements CountersMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            final Map<String, Long> values = new TreeMap<>();
+            COUNTERS.forEach((key, adder) -> values.put(key.toString(), adder.sum()));
+            return values;
+        }
+    }
+
+    /*
+     * Key of a histogram or counter. The names are hashed once per key instead
+     * of concatenated on every update.
+     */
+    private static final class Key {
+        private final String metric;
+        private final String task;
+        private final String device;
+        private final int hash;
+
+        Key(String metric, String task, String device) {
+            this.metric = metric;
+            this.task = (task == null) ? "" : task;
+            this.device = (device == null) ? "" : device;
+            this.hash = (31 * this.metric.hashCode() + this.task.hashCode()) * 31 + this.device.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return hash == key.hash && metric.equals(key.metric) && task.equals(key.task) && device.equals(key.device);
+        }
+
+        @Override
+        public String toString() {
+            return metric + "|" + task + "|" + device;
+        }
+    }
+
+    private static final ConcurrentHashMap<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Key, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final List<MetricsRegistry> REGISTRIES = new CopyOnWriteArrayList<>();
+
+    static {
+        if (ENABLE_METRICS) {
+            for (MetricsRegistry registry : ServiceLoader.load(MetricsRegistry.class)) {
+                REGISTRIES.add(registry);
+            }
+            register(new Counters(), DOMAIN + ":type=Counters");
+        }
+    }
+
+    private TornadoMetrics() {
+    }
+
+    private static void register(Object bean, String name) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bean, objectName);
+            }
+        } catch (JMException | SecurityException e) {
+            Tornado.debug("metrics: unable to register %s: %s", name, e.getMessage());
+        }
+    }
+
+    private static LatencyHistogram createHistogram(String metric, String task, String device) {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final StringBuilder name = new StringBuilder(DOMAIN).append(":type=Latency,metric=").append(ObjectName.quote(metric));
+        if (task != null) {
+            name.append(",task=").append(ObjectName.quote(task));
+        }
+        if (device != null) {
+            name.append(",device=").append(ObjectName.quote(device));
+        }
+        register(histogram, name.toString());
+        return histogram;
+    }
+
+    /**
+     * Histogram of a latency metric, created and exported on first use.
+     */
+    public static LatencyHistogram getHistogram(String metric, String task, String device) {
+        final Key key = new Key(metric, task, device);
+        // computeIfAbsent locks the bin even when the key is present
+        final LatencyHistogram histogram = HISTOGRAMS.get(key);
+        return (histogram != null) ? histogram : HISTOGRAMS.computeIfAbsent(key, k -> createHistogram(metric, task, device));
+    }
+
+    public static long getCounter(String metric, String task, String device) {
+        final LongAdder counter = COUNTERS.get(new Key(metric, task, device));
+        return (counter == null) ? 0 : counter.sum();
+    }
+
+    /**
+     * Adds a registry that receives the metrics recorded from now on.
+     */
+    public static void addRegistry(MetricsRegistry registry) {
+        REGISTRIES.add(registry);
+    }
+
+    public static void recordLatency(String metric, String task, String device, long nanoseconds) {
+        if (!ENABLE_METRICS) {
+            return;
+        }
+        getHistogram(metric, task, device).record(nanoseconds);
+        for (MetricsRegistry registry : REGISTRIES) {
+            registry.recordLatency(metric, task, device, nanoseconds);
+        }
+    }
+
+    public static void increment(String metric, String task, String device, long delta) {
+        if (!ENABLE_METRICS || delta == 0) {
+            return;
+        }
+        final Key key = new Key(metric, task, device);
+        final LongAdder counter = COUNTERS.get(key);
+        ((counter != null) ? counter : COUNTERS.computeIfAbsent(key, k -> new LongAdder())).add(delta);
+        for (MetricsRegistry registry : REGISTRIES) {
+            registry.incrementCounter(metric, task, device, delta);
+        }
+    }
+
+    public static void increment(String metric, String task, String device) {
+        increment(metric, task, device, 1);
+    }
+
+    /**
+     * Histograms currently recorded, keyed by {@code metric|task|device} with
+     * an empty task or device when there is none.
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        final Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        HISTOGRAMS.forEach((key, histogram) -> histograms.put(key.toString(), histogram));
+        return histograms;
+    }
+}
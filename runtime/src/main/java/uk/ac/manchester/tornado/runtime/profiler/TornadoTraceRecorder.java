@@ -0,0 +1,251 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler;
+
+import static uk.ac.manchester.tornado.runtime.common.Tornado.TRACE_BUFFER;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.TRACE_FILE;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+
+/**
+ * Writes a timeline of the TornadoVM in the Chrome Trace Event format, which
+ * can be opened with {@code chrome://tracing} or Perfetto. It is enabled with
+ * {@code tornado.trace.file=<path>}.
+ * 
+ * The host process holds one track per Java thread with the spans of the
+ * TornadoVM bytecodes and of the compilations. Each device is a process with
+ * a track for transfers and one for kernels, built from the start and end
+ * timestamps of the events. Device clocks are mapped onto the host clock
+ * with the largest offset seen between the host issuing a command and the
+ * device queuing it, which is the tightest bound the host can observe.
+ * Timestamps are those of {@link System#nanoTime()}, in microseconds.
+ * 
+ * Events are queued in a bounded buffer of {@code tornado.trace.buffer}
+ * entries and streamed to the file by a daemon thread. When the buffer is
+ * full, events are dropped rather than stalling the execution, and the
+ * number of dropped events is written at the end of the trace.
+ */
+public final class TornadoTraceRecorder {
+
+    private static final int HOST_PID = 0;
+    private static final int TRANSFER_TID = 1;
+    private static final int KERNEL_TID = 2;
+
+    private static final TornadoTraceRecorder INSTANCE = (TRACE_FILE == null) ? null : new TornadoTraceRecorder(TRACE_FILE, TRACE_BUFFER);
+
+    private final String file;
+    private final BlockingQueue<String> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final ConcurrentHashMap<Long, Boolean> threads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> devices = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> offsets = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPid = new AtomicInteger(HOST_PID + 1);
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private TornadoTraceRecorder(String file, int capacity) {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 16));
+        this.writer = new Thread(this::write, "tornado-trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+        enqueue(metadata("process_name", HOST_PID, 0, "TornadoVM host"));
+    }
+
+    public static boolean isEnabled() {
+        return INSTANCE != null;
+    }
+
+    /**
+     * Records a span of the current thread on the host.
+     * 
+     * @param start
+     *            {@link System#nanoTime()} at the start of the span
+     * @param end
+     *            {@link System#nanoTime()} at the end of the span
+     */
+    public static void hostSpan(String name, String category, long start, long end) {
+        if (INSTANCE != null) {
+            INSTANCE.recordHostSpan(name, category, start, end);
+        }
+    }
+
+    /**
+     * Records the execution of a command on a device from the timestamps of
+     * its completed event, in the clock of the device.
+     * 
+     * @param issued
+     *            {@link System#nanoTime()} when the host issued the command
+     * @param times
+     *            queued, start and end time of the command
+     * @param bytes
+     *            bytes moved by a transfer, 0 for kernels
+     */
+    public static void deviceSpan(String name, String category, String device, boolean isKernel, long issued, long[] times, long bytes) {
+        if (INSTANCE != null) {
+            INSTANCE.recordDeviceSpan(name, category, device, isKernel, issued, times, bytes);
+        }
+    }
+
+    private void recordHostSpan(String name, String category, long start, long end) {
+        final Thread thread = Thread.currentThread();
+        final long tid = thread.getId();
+        if (threads.putIfAbsent(tid, Boolean.TRUE) == null) {
+            enqueue(metadata("thread_name", HOST_PID, tid, thread.getName()));
+        }
+        enqueue(span(name, category, HOST_PID, tid, start, end, -1, -1));
+    }
+
+    private int devicePid(String device) {
+        Integer pid = devices.get(device);
+        if (pid == null) {
+            final int candidate = nextPid.getAndIncrement();
+            pid = devices.putIfAbsent(device, candidate);
+            if (pid == null) {
+                pid = candidate;
+                enqueue(metadata("process_name", pid, 0, device));
+                enqueue(metadata("thread_name", pid, TRANSFER_TID, "transfers"));
+                enqueue(metadata("thread_name", pid, KERNEL_TID, "kernels"));
+            }
+        }
+        return pid;
+    }
+
+    private void recordDeviceSpan(String name, String category, String device, boolean isKernel, long issued, long[] times, long bytes) {
+        final long offset = offsets.merge(device, issued - times[0], Math::max);
+        final long start = times[1] + offset;
+        final long end = times[2] + offset;
+        final long queued = times[1] - times[0];
+        enqueue(span(name, category, devicePid(device), (isKernel) ? KERNEL_TID : TRANSFER_TID, start, end, bytes, queued));
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void appendMicros(StringBuilder sb, long nanoseconds) {
+        sb.append(nanoseconds / 1000).append('.');
+        final long fraction = nanoseconds % 1000;
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private String span(String name, String category, int pid, long tid, long start, long end, long bytes, long queued) {
+        final StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"name\":");
+        appendString(sb, (name == null) ? "" : name);
+        sb.append(",\"cat\":");
+        appendString(sb, category);
+        sb.append(",\"ph\":\"X\",\"pid\":").append(pid).append(",\"tid\":").append(tid);
+        sb.append(",\"ts\":");
+        appendMicros(sb, start);
+        sb.append(",\"dur\":");
+        appendMicros(sb, Math.max(0, end - start));
+        if (bytes >= 0) {
+            sb.append(",\"args\":{\"bytes\":").append(bytes).append(",\"queued_us\":");
+            appendMicros(sb, Math.max(0, queued));
+            sb.append('}');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String metadata(String type, int pid, long tid, String value) {
+        final StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"name\":\"").append(type).append("\",\"ph\":\"M\",\"pid\":").append(pid).append(",\"tid\":").append(tid).append(",\"args\":{\"name\":");
+        appendString(sb, value);
+        return sb.append("}}").toString();
+    }
+
+    private void enqueue(String event) {
+        if (closed || !queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void write() {
+        try (Writer out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            boolean first = true;
+            while (!closed || !queue.isEmpty()) {
+                final String event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    out.flush();
+                    continue;
+                }
+                if (!first) {
+                    out.write(",\n");
+                }
+                out.write(event);
+                first = false;
+            }
+            if (dropped.get() > 0) {
+                out.write((first) ? "" : ",\n");
+                out.write(String.format("{\"name\":\"dropped events\",\"ph\":\"i\",\"s\":\"g\",\"pid\":%d,\"tid\":0,\"ts\":0,\"args\":{\"count\":%d}}", HOST_PID, dropped.get()));
+            }
+            out.write("\n]\n");
+        } catch (IOException e) {
+            Tornado.warn("trace: unable to write %s: %s", file, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
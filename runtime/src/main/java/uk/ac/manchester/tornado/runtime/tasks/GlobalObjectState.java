@@ -38,7 +38,7 @@ public class GlobalObjectState implements TornadoGlobalObjectState {
     private boolean shared;
     private boolean exclusive;
 
-    private TornadoAcceleratorDevice owner;
+    private volatile TornadoAcceleratorDevice owner;
 
     private final Map<TornadoAcceleratorDevice, DeviceObjectState> deviceStates;
 
@@ -65,7 +65,7 @@ public class GlobalObjectState implements TornadoGlobalObjectState {
         return getDeviceState(getOwner());
     }
 
-    public DeviceObjectState getDeviceState(TornadoDevice device) {
+    public synchronized DeviceObjectState getDeviceState(TornadoDevice device) {
         if (!(device instanceof TornadoAcceleratorDevice)) {
             throw new RuntimeException("Device not compatible");
         }
@@ -75,7 +75,7 @@ public class GlobalObjectState implements TornadoGlobalObjectState {
         return deviceStates.get(device);
     }
 
-    public void setOwner(TornadoDevice device) {
+    public synchronized void setOwner(TornadoDevice device) {
         if (!(device instanceof TornadoAcceleratorDevice)) {
             throw new RuntimeException("Device not compatible");
         }
@@ -85,14 +85,14 @@ public class GlobalObjectState implements TornadoGlobalObjectState {
         }
     }
 
-    public void invalidate() {
+    public synchronized void invalidate() {
         for (TornadoAcceleratorDevice device : deviceStates.keySet()) {
             final DeviceObjectState deviceState = deviceStates.get(device);
             deviceState.invalidate();
         }
     }
 
-    public void clear() {
+    public synchronized void clear() {
         deviceStates.clear();
     }
 
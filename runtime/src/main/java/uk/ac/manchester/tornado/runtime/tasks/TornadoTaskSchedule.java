@@ -40,10 +40,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -73,7 +76,9 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task6;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task7;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task8;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
+import uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
@@ -91,6 +96,7 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoGraphBuilder;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMGraphCompilationResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMGraphCompiler;
 import uk.ac.manchester.tornado.runtime.graph.nodes.ContextNode;
+import uk.ac.manchester.tornado.runtime.profiler.TornadoTraceRecorder;
 import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
 import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleMetaData;
 
@@ -109,7 +115,8 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
 
     // One TornadoVM instance per TaskSchedule
     private TornadoVM vm;
-    private Event event;
+    private volatile Event event;
+    private volatile CompletableFuture<Void> pendingAsync;
     private String taskScheduleName;
 
     private ArrayList<TaskPackage> taskPackages = new ArrayList<>();
@@ -256,18 +263,27 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
     }
 
     /**
-     * Compile a task-schedule into TornadoVM byte-code
+     * Builds the task graph from the high-level byte-code recorded so far.
+     * The graph is not cached, so every call decodes the byte-code again.
      * 
-     * @param setNewDevice:
-     *            boolean that specifies if set a new device or not.
+     * @return {@link TornadoGraph}
      */
-    private void compile(boolean setNewDevice) {
+    public TornadoGraph buildGraph() {
         final ByteBuffer buffer = ByteBuffer.wrap(highLevelCode);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.limit(hlBuffer.position());
+        return TornadoGraphBuilder.buildGraph(graphContext, buffer);
+    }
 
+    /**
+     * Compile a task-schedule into TornadoVM byte-code
+     * 
+     * @param setNewDevice:
+     *            boolean that specifies if set a new device or not.
+     */
+    private void compile(boolean setNewDevice) {
         // final long t0 = System.nanoTime();
-        final TornadoGraph graph = TornadoGraphBuilder.buildGraph(graphContext, buffer);
+        final TornadoGraph graph = buildGraph();
         // final long t1 = System.nanoTime();
 
         if (setNewDevice) {
@@ -359,8 +375,7 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
         }
     }
 
-    @Override
-    public void scheduleInner() {
+    private synchronized void prepareExecution() {
         long t0 = System.nanoTime();
         boolean compile = compileToTornadoVMBytecodes();
         long t1 = System.nanoTime();
@@ -369,10 +384,86 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
         }
 
         if (compile) {
+            vm.addGraphCompileTime(t1 - t0);
+            TornadoTraceRecorder.hostSpan("graph compile " + getId(), "compile", t0, t1);
             preCompilationForFPGA();
         }
+    }
+
+    @Override
+    public void scheduleInner() {
+        waitForPendingAsync();
+        prepareExecution();
+        setEvent(vm.execute());
+    }
+
+    /*
+     * The event of the last execution is kept until the next one, so it is
+     * retained for that long and its slot is not reused by the device.
+     */
+    private void setEvent(Event newEvent) {
+        newEvent.retain();
+        final Event previous = event;
+        event = newEvent;
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    /*
+     * An asynchronous execution is only finished once its outputs have been
+     * copied out of the staging buffers into the arrays.
+     */
+    private void waitForPendingAsync() {
+        final CompletableFuture<Void> pending = pendingAsync;
+        if (pending != null) {
+            pending.exceptionally(e -> null).join();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> scheduleAsync() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        if (TornadoOptions.EXPERIMENTAL_REDUCE && !(getId().startsWith(TASK_SCHEDULE_PREFIX))) {
+            // The reduce skeleton runs its own schedules synchronously
+            schedule().waitOn();
+            future.complete(null);
+            return future;
+        }
 
-        event = vm.execute();
+        waitForPendingAsync();
+        prepareExecution();
+        if (graphContext.getDevices().size() > 1) {
+            // The VM only returns the marker of the last device
+            setEvent(vm.execute());
+            waitOn();
+            future.complete(null);
+            return future;
+        }
+
+        final List<Runnable> copyBacks = new ArrayList<>();
+        final Event completion = vm.executeAsync(copyBacks);
+        setEvent(completion);
+        pendingAsync = future;
+        completion.whenComplete(() -> {
+            if (completion.getStatus() == TornadoExecutionStatus.ERROR) {
+                future.completeExceptionally(new TornadoRuntimeException("[ERROR] Asynchronous execution of " + getId() + " failed"));
+                return;
+            }
+            // The callback runs on a driver thread, which must not block in
+            // the driver, so the staged outputs are copied elsewhere
+            ForkJoinPool.commonPool().execute(() -> {
+                try {
+                    vm.releaseCompletedEvents();
+                    copyBacks.forEach(Runnable::run);
+                    vm.checkErrors();
+                    future.complete(null);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        });
+        return future;
     }
 
     @Override
@@ -400,6 +491,11 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
         vm.dumpEvents();
     }
 
+    @Override
+    public ExecutionProfile getProfile() {
+        return (vm == null) ? null : vm.getProfile();
+    }
+
     @Override
     public void clearProfiles() {
         vm.clearProfiles();
@@ -412,6 +508,11 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
         } else {
             graphContext.getDevices().forEach(TornadoDevice::sync);
         }
+        waitForPendingAsync();
+        if (vm != null) {
+            vm.releaseCompletedEvents();
+            vm.checkErrors();
+        }
     }
 
     @Override
@@ -493,6 +594,7 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
             return;
         }
         graphContext.sync();
+        vm.checkErrors();
     }
 
     @Override
@@ -1361,11 +1463,49 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
         addInner(TaskUtils.scalaTask(id, function, args));
     }
 
+    @Override
+    public long getBatchSize() {
+        return (result != null) ? result.getBatchSize() : -1;
+    }
+
+    @Override
+    public void updateArgument(String id, int index, Object value) {
+        final SchedulableTask task = graphContext.getTask(id);
+        if (task == null) {
+            throw new TornadoRuntimeException("[ERROR] Task " + id + " not found in " + getId());
+        }
+        final Object[] args = task.getArguments();
+        if (index < 0 || index >= args.length || !isBoxedPrimitiveClass(args[index].getClass())) {
+            throw new TornadoRuntimeException("[ERROR] Argument " + index + " of task " + id + " is not a scalar");
+        }
+        if (value == null || value.getClass() != args[index].getClass()) {
+            throw new TornadoRuntimeException("[ERROR] Argument " + index + " of task " + id + " must be a " + args[index].getClass().getSimpleName());
+        }
+
+        waitForPendingAsync();
+        if (task instanceof CompilableTask) {
+            // the value can no longer be folded into a single kernel
+            ((CompilableTask) task).meta().addSpecialisedArgument(index);
+        }
+        args[index] = value;
+
+        // the call-stack on the device still holds the previous value
+        final CallStack stack = graphContext.getFrame(id);
+        if (stack != null) {
+            stack.reset();
+        }
+    }
+
     @Override
     public void batch(String batchSize) {
 
+        if (TaskSchedule.AUTO.equalsIgnoreCase(batchSize.trim())) {
+            this.batchSizeBytes = TornadoVMGraphCompiler.AUTO_BATCH_SIZE;
+            return;
+        }
+
         // parse value and units
-        Pattern pattern = Pattern.compile("(\\d+)(MB|mg|gb|GB)");
+        Pattern pattern = Pattern.compile("(\\d+)\\s*(KB|MB|GB)", Pattern.CASE_INSENSITIVE);
         Matcher matcher = pattern.matcher(batchSize);
         long value = 0;
         String units = null;
@@ -1375,7 +1515,10 @@ public class TornadoTaskSchedule implements AbstractTaskGraph {
         }
 
         // compute bytes
-        switch (Objects.requireNonNull(units)) {
+        switch (Objects.requireNonNull(units, "Batch size not supported: " + batchSize)) {
+            case "KB":
+                this.batchSizeBytes = value * 1_000;
+                break;
             case "MB":
                 this.batchSizeBytes = value * 1_000_000;
                 break;
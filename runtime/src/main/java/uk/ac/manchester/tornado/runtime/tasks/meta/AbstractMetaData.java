@@ -33,6 +33,7 @@ import java.util.List;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.common.TornadoEvents;
+import uk.ac.manchester.tornado.api.enums.TornadoMathPrecision;
 import uk.ac.manchester.tornado.api.mm.TaskMetaDataInterface;
 import uk.ac.manchester.tornado.runtime.TornadoAcceleratorDriver;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
@@ -233,6 +234,59 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
         return enableAutoParallelisation;
     }
 
+    public boolean enableLocalTiling() {
+        return useLocalTiling;
+    }
+
+    public boolean enableAutoVectorisation() {
+        return enableAutoVectorisation;
+    }
+
+    public int getAutoVectorisationWidth() {
+        return autoVectorisationWidth;
+    }
+
+    public boolean enableAutoTuning() {
+        return enableAutoTuning;
+    }
+
+    public boolean enablePadding() {
+        return enablePadding;
+    }
+
+    public boolean useOpenclTypedArguments() {
+        return openclTypedArguments;
+    }
+
+    public boolean shouldDumpKernelSource() {
+        return dumpKernelSource;
+    }
+
+    public String getKernelSourceDirectory() {
+        return kernelSourceDirectory;
+    }
+
+    public TornadoMathPrecision getMathPrecision() {
+        return mathPrecision;
+    }
+
+    boolean isMathPrecisionDefined() {
+        return isMathPrecisionDefined;
+    }
+
+    /**
+     * Indices of the scalar arguments whose values select a specialised
+     * kernel variant. Empty when every scalar argument is folded into a single
+     * kernel.
+     */
+    public int[] getSpecialisedArguments() {
+        return specialisedArguments;
+    }
+
+    boolean isSpecialisedArgumentsDefined() {
+        return isSpecialisedArgumentsDefined;
+    }
+
     public boolean shouldUseVMDeps() {
         return vmUseDeps;
     }
@@ -277,6 +331,18 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
     private final boolean vmUseDeps;
     private final boolean coarsenWithCpuConfig;
     private final boolean enableAutoParallelisation;
+    private final boolean useLocalTiling;
+    private final boolean enableAutoVectorisation;
+    private final int autoVectorisationWidth;
+    private final boolean enableAutoTuning;
+    private final boolean enablePadding;
+    private final boolean openclTypedArguments;
+    private final boolean dumpKernelSource;
+    private final String kernelSourceDirectory;
+    private final TornadoMathPrecision mathPrecision;
+    private final boolean isMathPrecisionDefined;
+    private final int[] specialisedArguments;
+    private final boolean isSpecialisedArgumentsDefined;
     private final boolean isEnableParallelizationDefined;
 
     private final boolean isCpuConfigDefined;
@@ -345,6 +411,27 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
         return null;
     }
 
+    private static int[] parseIndices(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return new int[0];
+        }
+        final String[] values = value.split(",");
+        final int[] indices = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            indices[i] = parseInt(values[i].trim());
+        }
+        return indices;
+    }
+
+    private static TornadoMathPrecision parseMathPrecision(String id, String value) {
+        try {
+            return TornadoMathPrecision.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            Tornado.warn("invalid math precision %s for %s, using %s", value, id, TornadoMathPrecision.PRECISE);
+            return TornadoMathPrecision.PRECISE;
+        }
+    }
+
     protected static String getDefault(String keySuffix, String id, String defaultValue) {
         if (getProperty(id + "." + keySuffix) == null) {
             return Tornado.getProperty("tornado" + "." + keySuffix, defaultValue);
@@ -421,6 +508,18 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
         isCpuConfigDefined = getProperty(id + ".cpu.config") != null;
         useThreadCoarsener = Boolean.parseBoolean(getDefault("coarsener", id, "False"));
         enableAutoParallelisation = Boolean.parseBoolean(getDefault("parallelise.auto", id, "False"));
+        useLocalTiling = Boolean.parseBoolean(getDefault("localtiling", id, "False"));
+        enableAutoVectorisation = Boolean.parseBoolean(getDefault("vectors.auto", id, "False"));
+        autoVectorisationWidth = parseInt(getDefault("vectors.width", id, "4"));
+        enableAutoTuning = Boolean.parseBoolean(getDefault("autotune", id, "False"));
+        enablePadding = Boolean.parseBoolean(getDefault("opencl.gpu.padding", id, "False"));
+        openclTypedArguments = Boolean.parseBoolean(getDefault("opencl.typedargs", id, "False"));
+        dumpKernelSource = Boolean.parseBoolean(getDefault("opencl.source.dump", id, "False"));
+        kernelSourceDirectory = getDefault("opencl.source.dir", id, "/var/opencl-compiler");
+        mathPrecision = parseMathPrecision(id, getDefault("math.relaxed", id, "precise"));
+        isMathPrecisionDefined = getProperty(id + ".math.relaxed") != null;
+        specialisedArguments = parseIndices(getDefault("specialise.args", id, ""));
+        isSpecialisedArgumentsDefined = getProperty(id + ".specialise.args") != null;
         vmUseDeps = Boolean.parseBoolean(getDefault("vm.deps", id, "False"));
     }
 
@@ -37,13 +37,25 @@ import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
 
 public final class MetaDataUtils {
 
+    public static final String JVM_DEVICE = "jvm";
+
     public static TornadoAcceleratorDevice resolveDevice(String device) {
+        if (device.equalsIgnoreCase(JVM_DEVICE)) {
+            return getTornadoRuntime().getJVMDevice();
+        }
         final String[] ids = device.split(":");
         final TornadoAcceleratorDriver driver = getTornadoRuntime().getDriver(Integer.parseInt(ids[0]));
+        if (driver == null) {
+            // no driver loaded: run on the host
+            return getTornadoRuntime().getJVMDevice();
+        }
         return (TornadoAcceleratorDevice) driver.getDevice(Integer.parseInt(ids[1]));
     }
 
     public static int[] resolveDriverDeviceIndexes(String device) {
+        if (device.equalsIgnoreCase(JVM_DEVICE)) {
+            return new int[] { 0, 0 };
+        }
         final String[] ids = device.split(":");
         return new int[] { Integer.parseInt(ids[0]), Integer.parseInt(ids[1]) };
     }
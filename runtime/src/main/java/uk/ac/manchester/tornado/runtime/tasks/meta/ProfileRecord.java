@@ -0,0 +1,81 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks.meta;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+
+/**
+ * Timestamps of a completed profiled event. Records are copied out of the
+ * device events, so the events themselves can be released.
+ */
+public final class ProfileRecord {
+
+    private final String deviceName;
+    private final long queuedTime;
+    private final long submitTime;
+    private final long startTime;
+    private final long endTime;
+
+    ProfileRecord(String deviceName, Event event) {
+        this.deviceName = deviceName;
+        this.queuedTime = event.getQueuedTime();
+        this.submitTime = event.getSubmitTime();
+        this.startTime = event.getStartTime();
+        this.endTime = event.getEndTime();
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public long getQueuedTime() {
+        return queuedTime;
+    }
+
+    public long getSubmitTime() {
+        return submitTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public long getExecutionTime() {
+        return endTime - startTime;
+    }
+
+    public double getExecutionTimeInSeconds() {
+        return RuntimeUtilities.elapsedTimeInSeconds(startTime, endTime);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("profile: device=%s, execution=%d ns", deviceName, getExecutionTime());
+    }
+}
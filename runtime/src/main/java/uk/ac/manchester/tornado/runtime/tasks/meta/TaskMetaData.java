@@ -25,20 +25,26 @@
  */
 package uk.ac.manchester.tornado.runtime.tasks.meta;
 
+import static uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus.COMPLETE;
 import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.guarantee;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.EVENT_WINDOW;
+import static uk.ac.manchester.tornado.runtime.common.Tornado.PROFILE_RECORDS;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.TornadoEvents;
+import uk.ac.manchester.tornado.api.enums.TornadoMathPrecision;
 import uk.ac.manchester.tornado.runtime.EventSet;
 import uk.ac.manchester.tornado.runtime.common.TornadoAcceleratorDevice;
 import uk.ac.manchester.tornado.runtime.domain.DomainTree;
@@ -59,10 +65,16 @@ public class TaskMetaData extends AbstractMetaData {
     protected Access[] argumentsAccess;
     protected DomainTree domain;
     protected final Map<TornadoAcceleratorDevice, BitSet> profiles;
+    private final ArrayDeque<ProfileRecord> profileRecords;
     private boolean schedule;
     private boolean localWorkDefined;
     private boolean globalWorkDefined;
     private boolean canAssumeExact;
+    private int[] localTileBlockSize;
+    private boolean reduction;
+    private Object[] specialisationKey;
+    private int[] updatedArguments;
+    private int[] domainArguments;
 
     public TaskMetaData(ScheduleMetaData scheduleMetaData, String id, int numParameters) {
         super(scheduleMetaData.getId() + "." + id);
@@ -73,6 +85,7 @@ public class TaskMetaData extends AbstractMetaData {
         this.privateSize = 0;
         this.constantData = null;
         profiles = new HashMap<>();
+        profileRecords = new ArrayDeque<>();
         argumentsAccess = new Access[numParameters];
         Arrays.fill(argumentsAccess, Access.NONE);
         this.idTask = scheduleMetaData.getId() + "." + id;
@@ -138,6 +151,39 @@ public class TaskMetaData extends AbstractMetaData {
         return canAssumeExact;
     }
 
+    /**
+     * Work-group size, in the first dimension, the kernel was tiled for by the
+     * local memory tiling phase, or zero when the kernel is not tiled.
+     */
+    public int getLocalTileBlockSize() {
+        return getLocalTileBlockSize(0);
+    }
+
+    public int getLocalTileBlockSize(int dimension) {
+        return (localTileBlockSize == null || dimension >= localTileBlockSize.length) ? 0 : localTileBlockSize[dimension];
+    }
+
+    /**
+     * @param blockSize
+     *            work-group size of each dimension of the tiled kernel
+     */
+    public void setLocalTileBlockSize(int... blockSize) {
+        this.localTileBlockSize = blockSize;
+    }
+
+    /**
+     * Whether the kernel contains a parallel reduction. Its partial results are
+     * laid out for the work-group size chosen by the scheduler, so the thread
+     * configuration of these kernels must not be changed.
+     */
+    public boolean isReduction() {
+        return reduction;
+    }
+
+    public void setReduction(boolean reduction) {
+        this.reduction = reduction;
+    }
+
     public boolean isLocalWorkDefined() {
         return localWorkDefined;
     }
@@ -180,7 +226,7 @@ public class TaskMetaData extends AbstractMetaData {
         return schedule;
     }
 
-    public void addProfile(int id) {
+    public synchronized void addProfile(int id) {
         final TornadoAcceleratorDevice device = getDevice();
         BitSet events = null;
         if (!profiles.containsKey(device)) {
@@ -213,6 +259,118 @@ public class TaskMetaData extends AbstractMetaData {
         return super.enableAutoParallelisation() || scheduleMetaData.enableAutoParallelisation();
     }
 
+    @Override
+    public boolean enableAutoVectorisation() {
+        return super.enableAutoVectorisation() || scheduleMetaData.enableAutoVectorisation();
+    }
+
+    @Override
+    public boolean enableAutoTuning() {
+        return super.enableAutoTuning() || scheduleMetaData.enableAutoTuning();
+    }
+
+    @Override
+    public boolean enablePadding() {
+        return super.enablePadding() || scheduleMetaData.enablePadding();
+    }
+
+    @Override
+    public boolean useOpenclTypedArguments() {
+        return super.useOpenclTypedArguments() || scheduleMetaData.useOpenclTypedArguments();
+    }
+
+    @Override
+    public boolean shouldDumpKernelSource() {
+        return super.shouldDumpKernelSource() || scheduleMetaData.shouldDumpKernelSource();
+    }
+
+    @Override
+    public TornadoMathPrecision getMathPrecision() {
+        return isMathPrecisionDefined() ? super.getMathPrecision() : scheduleMetaData.getMathPrecision();
+    }
+
+    @Override
+    public int[] getSpecialisedArguments() {
+        if (updatedArguments != null) {
+            return updatedArguments;
+        }
+        return isSpecialisedArgumentsDefined() ? super.getSpecialisedArguments() : scheduleMetaData.getSpecialisedArguments();
+    }
+
+    /**
+     * Makes an argument select kernel variants by its value, since it has
+     * been updated between executions and can no longer be folded into a
+     * single kernel.
+     */
+    public void addSpecialisedArgument(int index) {
+        if (isSpecialisedArgument(index)) {
+            return;
+        }
+        final int[] arguments = getSpecialisedArguments();
+        updatedArguments = Arrays.copyOf(arguments, arguments.length + 1);
+        updatedArguments[arguments.length] = index;
+    }
+
+    public boolean isSpecialisedArgument(int index) {
+        for (int argument : getSpecialisedArguments()) {
+            if (argument == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Values of the specialised arguments the next compilation is for, or
+     * null when compiling the generic variant.
+     */
+    public Object[] getSpecialisationKey() {
+        return specialisationKey;
+    }
+
+    public void setSpecialisationKey(Object[] key) {
+        specialisationKey = key;
+    }
+
+    /**
+     * Whether the value of an argument can be folded into the kernel being
+     * compiled. The generic variant keeps the specialised arguments as kernel
+     * parameters.
+     */
+    public boolean shouldFoldArgument(int index) {
+        return specialisationKey != null || !isSpecialisedArgument(index);
+    }
+
+    /**
+     * For each dimension of the domain, the index of the argument that bounds
+     * it in the kernel last compiled, or -1 if the bound is a constant. Null
+     * when all the bounds are constants.
+     */
+    public int[] getDomainArguments() {
+        return domainArguments;
+    }
+
+    public void setDomainArguments(int[] arguments) {
+        domainArguments = arguments;
+    }
+
+    /**
+     * Identifier of the kernel being compiled, distinct for every variant so
+     * that the code caches do not mix them up.
+     */
+    public String getCompiledCodeId() {
+        if (getSpecialisedArguments().length == 0) {
+            return getId();
+        } else if (specialisationKey == null) {
+            return getId() + "@generic";
+        }
+        final StringJoiner joiner = new StringJoiner("_", getId() + "@", "");
+        for (Object value : specialisationKey) {
+            joiner.add(String.valueOf(value));
+        }
+        return joiner.toString();
+    }
+
     @Override
     public boolean enableExceptions() {
         return super.enableExceptions() || scheduleMetaData.enableExceptions();
@@ -300,6 +458,9 @@ public class TaskMetaData extends AbstractMetaData {
     public void setDomain(final DomainTree value) {
 
         domain = value;
+        if (domain == null) {
+            return;
+        }
         coarseness = new Coarseness(domain.getDepth());
 
         final String config = getProperty(getId() + ".coarseness");
@@ -365,7 +526,7 @@ public class TaskMetaData extends AbstractMetaData {
         return privateSize;
     }
 
-    public List<TornadoEvents> getProfiles() {
+    public synchronized List<TornadoEvents> getProfiles() {
         final List<TornadoEvents> result = new ArrayList<>(profiles.keySet().size());
         for (TornadoAcceleratorDevice device : profiles.keySet()) {
             result.add(new EventSet(device, profiles.get(device)));
@@ -373,6 +534,45 @@ public class TaskMetaData extends AbstractMetaData {
         return result;
     }
 
+    /**
+     * Copies the timestamps of the pending profiled events into
+     * {@link ProfileRecord}s and releases the events. Only the latest
+     * {@code tornado.profiles.records} records are kept.
+     *
+     * @param waitForEvents
+     *            when false, events that have not completed stay pending
+     */
+    public synchronized void collectProfiles(boolean waitForEvents) {
+        for (Map.Entry<TornadoAcceleratorDevice, BitSet> entry : profiles.entrySet()) {
+            final TornadoAcceleratorDevice device = entry.getKey();
+            final BitSet pending = entry.getValue();
+            for (int i = pending.nextSetBit(0); i != -1; i = pending.nextSetBit(i + 1)) {
+                final Event event = device.resolveEvent(i);
+                if (waitForEvents) {
+                    event.waitOn();
+                } else if (event.getStatus() != COMPLETE) {
+                    continue;
+                }
+                if (!profileRecords.isEmpty() && profileRecords.size() >= PROFILE_RECORDS) {
+                    profileRecords.removeFirst();
+                }
+                profileRecords.addLast(new ProfileRecord(device.getDeviceName(), event));
+                device.releaseEvent(i);
+                pending.clear(i);
+            }
+        }
+    }
+
+    public synchronized List<ProfileRecord> getProfileRecords() {
+        collectProfiles(true);
+        return new ArrayList<>(profileRecords);
+    }
+
+    public synchronized void clearProfiles() {
+        collectProfiles(true);
+        profileRecords.clear();
+    }
+
     public String getScheduleId() {
         return scheduleMetaData.getId();
     }
@@ -41,6 +41,7 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import uk.ac.manchester.tornado.api.common.Access;
@@ -48,6 +49,7 @@ import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.common.TaskPackage;
 import uk.ac.manchester.tornado.api.mm.TaskMetaDataInterface;
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
 
 public interface AbstractTaskGraph {
 
@@ -69,6 +71,10 @@ public interface AbstractTaskGraph {
 
     void batch(String batchSize);
 
+    long getBatchSize();
+
+    void updateArgument(String id, int index, Object value);
+
     void apply(Consumer<SchedulableTask> consumer);
 
     void mapAllToInner(TornadoDevice device);
@@ -77,6 +83,8 @@ public interface AbstractTaskGraph {
 
     void dumpProfiles();
 
+    ExecutionProfile getProfile();
+
     void dumpEvents();
 
     void clearProfiles();
@@ -105,6 +113,8 @@ public interface AbstractTaskGraph {
 
     AbstractTaskGraph schedule();
 
+    CompletableFuture<Void> scheduleAsync();
+
     AbstractTaskGraph scheduleWithProfile(Policy policy);
 
     AbstractTaskGraph scheduleWithProfileSequential(Policy policy);
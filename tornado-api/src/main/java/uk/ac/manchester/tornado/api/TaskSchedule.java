@@ -41,6 +41,8 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.common.TaskPackage;
@@ -57,6 +59,7 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task6;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task7;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task8;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
 import uk.ac.manchester.tornado.api.runtime.TornadoAPIProvider;
 
 /**
@@ -70,6 +73,12 @@ import uk.ac.manchester.tornado.api.runtime.TornadoAPIProvider;
  */
 public class TaskSchedule implements TornadoAPI {
 
+    /**
+     * Batch size that lets the runtime choose the size of each batch, see
+     * {@link #batch(String)}.
+     */
+    public static final String AUTO = "AUTO";
+
     private String taskScheduleName;
     private AbstractTaskGraph taskScheduleImpl;
 
@@ -218,11 +227,27 @@ public class TaskSchedule implements TornadoAPI {
         return this;
     }
 
+    @Override
+    public long getBatchSize() {
+        return taskScheduleImpl.getBatchSize();
+    }
+
+    @Override
+    public TaskSchedule updateArgument(String taskId, int index, Object value) {
+        taskScheduleImpl.updateArgument(taskId, index, value);
+        return this;
+    }
+
     @Override
     public void execute() {
         taskScheduleImpl.schedule().waitOn();
     }
 
+    @Override
+    public CompletableFuture<Void> executeAsync() {
+        return taskScheduleImpl.scheduleAsync();
+    }
+
     @Override
     public void executeWithProfiler(Policy policy) {
         taskScheduleImpl.scheduleWithProfile(policy).waitOn();
@@ -263,6 +288,11 @@ public class TaskSchedule implements TornadoAPI {
         taskScheduleImpl.dumpProfiles();
     }
 
+    @Override
+    public ExecutionProfile getProfile() {
+        return taskScheduleImpl.getProfile();
+    }
+
     @Override
     public void clearProfiles() {
         taskScheduleImpl.clearProfiles();
@@ -41,6 +41,8 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.common.TaskPackage;
@@ -57,6 +59,7 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task6;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task7;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task8;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
 
 /**
  * Base interface of the Tornado API. It exposes the set of operations within a
@@ -405,6 +408,22 @@ public interface TornadoAPI {
      */
     TornadoAPI streamOut(Object... objects);
 
+    /**
+     * Changes the value of a scalar argument of a task for the next
+     * executions, e.g. a time step. The kernel is not recompiled for every
+     * value: the argument selects a kernel variant, and values that are not
+     * used often run a generic kernel that reads the argument at launch.
+     * 
+     * @param taskId
+     *            id of the task
+     * @param index
+     *            position of the argument in the task
+     * @param value
+     *            new value, of the same type as the current one
+     * @return link to the {@TornadoAPI} to allow function composition.
+     */
+    TornadoAPI updateArgument(String taskId, int index, Object value);
+
     /**
      * Internal call to run the task-schedule
      * 
@@ -417,17 +436,41 @@ public interface TornadoAPI {
      * 
      * @param batchSize
      *            size of the batch represented as a string. For example
-     *            "512MB", "1GB". If the batchSize is <= 0 the whole array is
-     *            computed without splitting in smaller batches.
+     *            "512KB", "512MB", "1GB". If the batchSize is <= 0 the whole
+     *            array is computed without splitting in smaller batches. With
+     *            {@link TaskSchedule#AUTO}, the size is chosen from the memory
+     *            remaining on the device and from its measured device profile.
      * @return link to the {@TornadoAPI} to allow function composition.
      */
     TornadoAPI batch(String batchSize);
 
     /**
-     * Execute the task-schedule
+     * Size of the batches the task-schedule was last compiled with. For
+     * {@link TaskSchedule#AUTO} it is the size chosen by the runtime.
+     * 
+     * @return the batch size in bytes, or -1 if the task-schedule has not been
+     *         compiled or processes the whole data in one batch
+     */
+    long getBatchSize();
+
+    /**
+     * Execute the task-schedule. Different task-schedules can be executed
+     * from different threads, also on the same device. Their commands are
+     * submitted one at a time to the device's single in-order queue.
+     * Executions of the same task-schedule are serialised.
      */
     void execute();
 
+    /**
+     * Execute the task-schedule without blocking the caller. The future
+     * completes when all the output objects have been copied back to the
+     * host. The task-schedule must not be executed again until then.
+     * 
+     * @return a {@link CompletableFuture} that completes after the outputs
+     *         are on the host.
+     */
+    CompletableFuture<Void> executeAsync();
+
     /**
      * Run with dynamic reconfiguration with an input policy
      * 
@@ -468,6 +511,15 @@ public interface TornadoAPI {
 
     void dumpProfiles();
 
+    /**
+     * Timing breakdown of the last execution of the task-schedule. The device
+     * times are read from the events of that execution, so it should be
+     * called before the task-schedule is executed again.
+     * 
+     * @return {@link ExecutionProfile}, or null if it has not been executed
+     */
+    ExecutionProfile getProfile();
+
     void clearProfiles();
 
     void syncObjects();
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.collections.types;
+
+/**
+ * Conversions between {@code float} and bfloat16 values, stored as the raw
+ * bits in a {@code short}.
+ *
+ * bfloat16 keeps the sign and 8-bit exponent of a {@code float} and the top 7
+ * bits of its mantissa. It has the range of {@code float} with less precision.
+ * Both conversions are plain bit operations, so kernels compile them as they
+ * are written here. Conversions from {@code float} round to nearest even.
+ */
+public final class BFloat16 {
+
+    public static final short POSITIVE_ZERO = 0x0000;
+    public static final short ONE = 0x3f80;
+    public static final short POSITIVE_INFINITY = 0x7f80;
+    public static final short NEGATIVE_INFINITY = (short) 0xff80;
+    public static final short NaN = 0x7fc0;
+
+    private BFloat16() {
+    }
+
+    /**
+     * Converts bfloat16 bits to a {@code float}. The conversion is exact.
+     * 
+     * @param value
+     *            bfloat16 bits
+     * @return value as a {@code float}
+     */
+    public static float toFloat(short value) {
+        return Float.intBitsToFloat((value & 0xffff) << 16);
+    }
+
+    /**
+     * Converts a {@code float} to bfloat16 bits, rounding to nearest even.
+     * 
+     * @param value
+     *            value to convert
+     * @return bfloat16 bits
+     */
+    public static short fromFloat(float value) {
+        final int bits = Float.floatToRawIntBits(value);
+        if ((bits & 0x7fffffff) > 0x7f800000) {
+            // NaN kept quiet
+            return (short) ((bits >>> 16) | 0x40);
+        }
+        final int rounding = 0x7fff + ((bits >>> 16) & 1);
+        return (short) ((bits + rounding) >>> 16);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.collections.types;
+
+/**
+ * Conversions between {@code float} and IEEE 754 half-precision (binary16)
+ * values, stored as the raw bits in a {@code short}.
+ *
+ * Half-precision is a storage format: values are converted to {@code float}
+ * to compute. On OpenCL devices these conversions are compiled to
+ * {@code vload_half} and {@code vstore_half_rte}, which are fused with the
+ * load or store of the array element when possible. This class is the
+ * reference implementation used everywhere else. Conversions from
+ * {@code float} round to nearest even.
+ */
+public final class Half {
+
+    public static final short POSITIVE_ZERO = 0x0000;
+    public static final short ONE = 0x3c00;
+    public static final short POSITIVE_INFINITY = 0x7c00;
+    public static final short NEGATIVE_INFINITY = (short) 0xfc00;
+    public static final short NaN = 0x7e00;
+
+    /**
+     * Largest finite half-precision value, 65504.
+     */
+    public static final float MAX_VALUE = 65504f;
+
+    private Half() {
+    }
+
+    /**
+     * Converts half-precision bits to a {@code float}. The conversion is exact.
+     * 
+     * @param half
+     *            binary16 bits
+     * @return value as a {@code float}
+     */
+    public static float toFloat(short half) {
+        final int bits = half & 0xffff;
+        final int sign = (bits & 0x8000) << 16;
+        final int exponent = (bits >>> 10) & 0x1f;
+        final int mantissa = bits & 0x3ff;
+
+        if (exponent == 0x1f) {
+            // infinity or NaN
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        } else if (exponent == 0) {
+            // zero or subnormal: mantissa * 2^-24
+            final float value = mantissa * 0x1p-24f;
+            return (sign == 0) ? value : -value;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+
+    /**
+     * Converts a {@code float} to half-precision bits, rounding to nearest even.
+     * Values beyond {@link #MAX_VALUE} become infinity.
+     * 
+     * @param value
+     *            value to convert
+     * @return binary16 bits
+     */
+    public static short fromFloat(float value) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int sign = (bits >>> 16) & 0x8000;
+        final int exponent = ((bits >>> 23) & 0xff) - 112;
+        int mantissa = bits & 0x7fffff;
+
+        if (exponent == 0xff - 112) {
+            // infinity, or NaN kept quiet
+            return (short) (sign | 0x7c00 | ((mantissa != 0) ? 0x200 | (mantissa >>> 13) : 0));
+        } else if (exponent >= 0x1f) {
+            return (short) (sign | 0x7c00);
+        } else if (exponent <= 0) {
+            if (exponent < -10) {
+                return (short) sign;
+            }
+            // subnormal result: shift in the implicit bit
+            mantissa |= 0x800000;
+            final int shift = 14 - exponent;
+            int half = mantissa >> shift;
+            final int remainder = mantissa & ((1 << shift) - 1);
+            final int halfway = 1 << (shift - 1);
+            if (remainder > halfway || (remainder == halfway && (half & 1) != 0)) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+
+        // a carry out of the mantissa moves to the exponent, up to infinity
+        int half = (exponent << 10) | (mantissa >> 13);
+        final int remainder = mantissa & 0x1fff;
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+            half++;
+        }
+        return (short) (sign | half);
+    }
+}
@@ -45,6 +45,7 @@ import java.nio.FloatBuffer;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.collections.math.TornadoMath;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 
 public class ImageFloat implements PrimitiveStorage<FloatBuffer> {
 
@@ -239,6 +240,24 @@ public class ImageFloat implements PrimitiveStorage<FloatBuffer> {
         return FloatBuffer.wrap(storage);
     }
 
+    /**
+     * Enables dirty-range tracking: once this image is on a device, only the
+     * rows marked with {@link #markDirtyRows(int, int)} are uploaded again.
+     */
+    public void enableDirtyTracking() {
+        DirtyRegions.enableTracking(storage);
+    }
+
+    /**
+     * Marks rows [fromRow, toRow) as modified on the host.
+     * 
+     * @param fromRow
+     * @param toRow
+     */
+    public void markDirtyRows(int fromRow, int toRow) {
+        DirtyRegions.markDirty(storage, fromRow * X, toRow * X);
+    }
+
     @Override
     public int size() {
         return numElements;
@@ -0,0 +1,199 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.collections.types;
+
+import java.nio.ShortBuffer;
+
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+
+/**
+ * Image of half-precision values, stored as binary16 bits in row-major order
+ * and read and written as {@code float}.
+ */
+public class ImageHalf implements PrimitiveStorage<ShortBuffer> {
+
+    /**
+     * backing array of binary16 bits
+     */
+    final protected short[] storage;
+
+    /**
+     * number of elements in the storage
+     */
+    final private int numElements;
+
+    /**
+     * Number of rows
+     */
+    final protected int Y;
+
+    /**
+     * Number of columns
+     */
+    final protected int X;
+
+    /**
+     * Storage format for matrix
+     * 
+     * @param width
+     *            number of columns
+     * @param height
+     *            number of rows
+     * @param array
+     *            array reference which contains binary16 bits
+     */
+    public ImageHalf(int width, int height, short[] array) {
+        storage = array;
+        X = width;
+        Y = height;
+        numElements = X * Y;
+    }
+
+    /**
+     * Storage format for matrix
+     * 
+     * @param width
+     *            number of columns
+     * @param height
+     *            number of rows
+     */
+    public ImageHalf(int width, int height) {
+        this(width, height, new short[width * height]);
+    }
+
+    public float get(int i) {
+        return Half.toFloat(storage[i]);
+    }
+
+    public void set(int i, float value) {
+        storage[i] = Half.fromFloat(value);
+    }
+
+    /***
+     * returns the ith column of the jth row
+     * 
+     * @param i
+     *            row index
+     * @param j
+     *            column index
+     * @return
+     */
+    public float get(int i, int j) {
+        return Half.toFloat(storage[StorageFormats.toRowMajor(j, i, X)]);
+    }
+
+    /***
+     * sets the ith column of the jth row to value
+     * 
+     * @param i
+     *            row index
+     * @param j
+     *            column index
+     * @param value
+     *            new value
+     */
+    public void set(int i, int j, float value) {
+        storage[StorageFormats.toRowMajor(j, i, X)] = Half.fromFloat(value);
+    }
+
+    public int Y() {
+        return Y;
+    }
+
+    public int X() {
+        return X;
+    }
+
+    public void fill(float value) {
+        for (@Parallel int i = 0; i < Y; i++) {
+            for (@Parallel int j = 0; j < X; j++) {
+                set(j, i, value);
+            }
+        }
+    }
+
+    public ImageHalf duplicate() {
+        final ImageHalf image = new ImageHalf(X, Y);
+        image.set(this);
+        return image;
+    }
+
+    public void set(ImageHalf m) {
+        for (int i = 0; i < storage.length; i++)
+            storage[i] = m.storage[i];
+    }
+
+    public String toString(String fmt) {
+        String str = "";
+
+        for (int i = 0; i < Y; i++) {
+            for (int j = 0; j < X; j++) {
+                str += String.format(fmt, get(j, i)) + " ";
+            }
+            str += "\n";
+        }
+
+        return str;
+    }
+
+    public String toString() {
+        String result = String.format("ImageHalf <%d x %d>", X, Y);
+        if (Y < 16 && X < 16)
+            result += "\n" + toString(FloatOps.fmt);
+        return result;
+    }
+
+    @Override
+    public void loadFromBuffer(ShortBuffer buffer) {
+        asBuffer().put(buffer);
+    }
+
+    @Override
+    public ShortBuffer asBuffer() {
+        return ShortBuffer.wrap(storage);
+    }
+
+    @Override
+    public int size() {
+        return numElements;
+    }
+}
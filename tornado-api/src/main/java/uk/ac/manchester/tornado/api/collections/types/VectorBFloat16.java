@@ -0,0 +1,211 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.collections.types;
+
+import static java.lang.String.format;
+import static java.util.Arrays.copyOf;
+import static uk.ac.manchester.tornado.api.collections.types.FloatOps.fmt;
+
+import java.nio.ShortBuffer;
+
+/**
+ * Vector of bfloat16 values. Elements are stored as bfloat16 bits, halving
+ * the memory traffic of a {@link VectorFloat} while keeping its range, and
+ * are read and written as {@code float}.
+ */
+public class VectorBFloat16 implements PrimitiveStorage<ShortBuffer> {
+
+    private final int numElements;
+    private final short[] storage;
+
+    /**
+     * Creates a vector using the provided backing array of bfloat16 bits
+     * 
+     * @param numElements
+     * @param array
+     */
+    protected VectorBFloat16(int numElements, short[] array) {
+        this.numElements = numElements;
+        this.storage = array;
+    }
+
+    /**
+     * Creates an empty vector with
+     * 
+     * @param numElements
+     */
+    public VectorBFloat16(int numElements) {
+        this(numElements, new short[numElements]);
+    }
+
+    /**
+     * Creates a new vector from the provided bfloat16 bits
+     * 
+     * @param storage
+     */
+    public VectorBFloat16(short[] storage) {
+        this(storage.length, storage);
+    }
+
+    /**
+     * Creates a new vector holding the provided values rounded to
+     * bfloat16
+     * 
+     * @param values
+     */
+    public VectorBFloat16(float[] values) {
+        this(values.length);
+        set(values);
+    }
+
+    /**
+     * Returns the value at the given index of this vector
+     * 
+     * @param index
+     * @return value
+     */
+    public float get(int index) {
+        return BFloat16.toFloat(storage[index]);
+    }
+
+    /**
+     * Sets the value at the given index of this vector, rounded to
+     * bfloat16
+     * 
+     * @param index
+     * @param value
+     */
+    public void set(int index, float value) {
+        storage[index] = BFloat16.fromFloat(value);
+    }
+
+    /**
+     * Sets the elements of this vector to that of the provided vector
+     * 
+     * @param values
+     */
+    public void set(VectorBFloat16 values) {
+        for (int i = 0; i < values.storage.length; i++)
+            storage[i] = values.storage[i];
+    }
+
+    /**
+     * Sets the elements of this vector to that of the provided array
+     * 
+     * @param values
+     */
+    public void set(float[] values) {
+        for (int i = 0; i < values.length; i++)
+            storage[i] = BFloat16.fromFloat(values[i]);
+    }
+
+    /**
+     * Sets all elements to value
+     * 
+     * @param value
+     */
+    public void fill(float value) {
+        final short bits = BFloat16.fromFloat(value);
+        for (int i = 0; i < storage.length; i++)
+            storage[i] = bits;
+    }
+
+    /**
+     * Duplicates this vector
+     * 
+     * @return
+     */
+    public VectorBFloat16 duplicate() {
+        return new VectorBFloat16(copyOf(storage, storage.length));
+    }
+
+    /**
+     * Returns the values of this vector as floats
+     * 
+     * @return
+     */
+    public float[] toFloatArray() {
+        final float[] values = new float[numElements];
+        for (int i = 0; i < numElements; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Prints the vector using the specified format string
+     * 
+     * @param fmt
+     * @return
+     */
+    public String toString(String fmt) {
+        String str = "[ ";
+
+        for (int i = 0; i < numElements; i++) {
+            str += format(fmt, get(i)) + " ";
+        }
+        str += "]";
+        return str;
+    }
+
+    public String toString() {
+        String str = format("VectorBFloat16 <%d>", numElements);
+        if (numElements < 32)
+            str += toString(fmt);
+        return str;
+    }
+
+    @Override
+    public void loadFromBuffer(ShortBuffer buffer) {
+        asBuffer().put(buffer);
+    }
+
+    @Override
+    public ShortBuffer asBuffer() {
+        return ShortBuffer.wrap(storage);
+    }
+
+    @Override
+    public int size() {
+        return numElements;
+    }
+}
@@ -51,6 +51,7 @@ import static uk.ac.manchester.tornado.api.collections.types.DoubleOps.fmt;
 import java.nio.DoubleBuffer;
 
 import uk.ac.manchester.tornado.api.collections.math.TornadoMath;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 
 public class VectorDouble implements PrimitiveStorage<DoubleBuffer> {
 
@@ -252,6 +253,24 @@ public class VectorDouble implements PrimitiveStorage<DoubleBuffer> {
         return wrap(storage);
     }
 
+    /**
+     * Enables dirty-range tracking: once this vector is on a device, only the
+     * ranges marked with {@link #markDirty(int, int)} are uploaded again.
+     */
+    public void enableDirtyTracking() {
+        DirtyRegions.enableTracking(storage);
+    }
+
+    /**
+     * Marks elements [fromIndex, toIndex) as modified on the host.
+     * 
+     * @param fromIndex
+     * @param toIndex
+     */
+    public void markDirty(int fromIndex, int toIndex) {
+        DirtyRegions.markDirty(storage, fromIndex, toIndex);
+    }
+
     @Override
     public int size() {
         return numElements;
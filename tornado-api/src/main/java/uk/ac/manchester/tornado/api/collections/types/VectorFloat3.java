@@ -49,6 +49,8 @@ import static uk.ac.manchester.tornado.api.collections.types.FloatOps.fmt3;
 
 import java.nio.FloatBuffer;
 
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
+
 public class VectorFloat3 implements PrimitiveStorage<FloatBuffer> {
 
     /**
@@ -224,6 +226,24 @@ public class VectorFloat3 implements PrimitiveStorage<FloatBuffer> {
         return wrap(storage);
     }
 
+    /**
+     * Enables dirty-range tracking: once this vector is on a device, only the
+     * ranges marked with {@link #markDirty(int, int)} are uploaded again.
+     */
+    public void enableDirtyTracking() {
+        DirtyRegions.enableTracking(storage);
+    }
+
+    /**
+     * Marks elements [fromIndex, toIndex) as modified on the host.
+     * 
+     * @param fromIndex
+     * @param toIndex
+     */
+    public void markDirty(int fromIndex, int toIndex) {
+        DirtyRegions.markDirty(storage, toIndex(fromIndex), toIndex(toIndex));
+    }
+
     @Override
     public int size() {
         return storage.length;
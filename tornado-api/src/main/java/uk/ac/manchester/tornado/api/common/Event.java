@@ -43,4 +43,16 @@ package uk.ac.manchester.tornado.api.common;
 
 public interface Event extends ProfiledAction, SynchronisationPoint {
 
+    /**
+     * Runs an action once the event has completed. Backends that support
+     * completion callbacks run it without blocking the caller. By default, it
+     * waits for the event and runs the action in the calling thread.
+     * 
+     * @param action
+     *            action to run after completion
+     */
+    default void whenComplete(Runnable action) {
+        waitOn();
+        action.run();
+    }
 }
@@ -91,4 +91,9 @@ public interface ProfiledAction {
 
     void retain();
 
+    /**
+     * Drops a hold taken with {@link #retain()}.
+     */
+    void release();
+
 }
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.enums;
+
+/**
+ * Precision of the math built-ins used by a task. Selected per task with the
+ * {@code <schedule>.<task>.math.relaxed} property, e.g.
+ * {@code -Ds0.t0.math.relaxed=native}.
+ */
+public enum TornadoMathPrecision {
+
+    /**
+     * Full-precision built-ins and IEEE-754 compliant arithmetic.
+     */
+    PRECISE,
+
+    /**
+     * Full-precision built-ins, but a * b + c may be contracted into a mad.
+     */
+    MAD,
+
+    /**
+     * Single-precision transcendental functions use reduced-precision
+     * built-ins with at least 11 bits of accuracy, and the device compiler may
+     * apply fast-math optimisations.
+     */
+    HALF,
+
+    /**
+     * Single-precision transcendental functions use the native built-ins of
+     * the device, whose accuracy is implementation-defined, and the device
+     * compiler may apply fast-math optimisations.
+     */
+    NATIVE;
+}
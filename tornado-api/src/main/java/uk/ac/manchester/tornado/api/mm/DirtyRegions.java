@@ -0,0 +1,356 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.mm;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Host-side registry of modified regions for primitive arrays.
+ *
+ * <p>
+ * By default, every STREAM_IN (and every COPY_IN of an object with no valid
+ * copy on the device) sends the whole array to the device. Once tracking is
+ * enabled for an array with {@link #enableTracking(Object)}, uploads to a
+ * device that already holds a valid copy only send the element ranges marked
+ * with {@link #markDirty(Object, int, int)} since the previous upload. Tracked
+ * arrays with no marked ranges are not sent at all.
+ * </p>
+ *
+ * <p>
+ * Marked ranges are consumed by the first upload that observes them. When the
+ * same array is used on several devices, mark the array with
+ * {@link #markAllDirty(Object)} or disable tracking before moving it to a new
+ * device.
+ * </p>
+ *
+ * <p>
+ * Arrays are tracked by identity and held weakly, so tracking does not keep
+ * an array alive. Among the collection types, {@code VectorInt},
+ * {@code VectorFloat}, {@code VectorFloat3}, {@code VectorFloat4},
+ * {@code VectorDouble} and {@code ImageFloat} expose tracking over their
+ * backing storage; the other collection types are always sent whole.
+ * </p>
+ */
+public final class DirtyRegions {
+
+    private static final int MAX_REGIONS = Integer.parseInt(System.getProperty("tornado.dirty.maxregions", "64"));
+
+    private static final Map<IdentityKey, DirtyRegions> trackedArrays = new HashMap<>();
+    private static final ReferenceQueue<Object> collectedArrays = new ReferenceQueue<>();
+
+    // Fast path: no lookup is needed while no array is being tracked
+    private static volatile int numTrackedArrays = 0;
+
+    private final int length;
+
+    // Sorted, non-overlapping [from, to) element ranges
+    private int[] ranges;
+    private int numRegions;
+
+    /*
+     * Weak key compared by the identity of its referent. Keys of collected
+     * arrays are only equal to themselves, so they can still be removed.
+     */
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdentityKey)) {
+                return false;
+            }
+            final Object referent = get();
+            return referent != null && referent == ((IdentityKey) other).get();
+        }
+    }
+
+    private DirtyRegions(int length) {
+        this.length = length;
+        this.ranges = new int[8];
+        this.numRegions = 0;
+    }
+
+    /**
+     * Enables dirty-range tracking for a primitive array.
+     *
+     * @param array
+     *            Java primitive array.
+     */
+    public static void enableTracking(Object array) {
+        checkPrimitiveArray(array);
+        synchronized (trackedArrays) {
+            expungeCollectedArrays();
+            final IdentityKey key = new IdentityKey(array, collectedArrays);
+            if (!trackedArrays.containsKey(key)) {
+                trackedArrays.put(key, new DirtyRegions(Array.getLength(array)));
+                numTrackedArrays = trackedArrays.size();
+            }
+        }
+    }
+
+    /**
+     * Disables dirty-range tracking for an array. Subsequent uploads send the
+     * whole array.
+     *
+     * @param array
+     *            Java primitive array.
+     */
+    public static void disableTracking(Object array) {
+        synchronized (trackedArrays) {
+            trackedArrays.remove(new IdentityKey(array, null));
+            expungeCollectedArrays();
+        }
+    }
+
+    public static boolean isTracked(Object array) {
+        return lookup(array) != null;
+    }
+
+    /**
+     * Number of bytes the next upload of a tracked array sends.
+     *
+     * @param array
+     *            Java object.
+     * @return the size of the pending regions in bytes, or -1 if the object is
+     *         not a tracked array.
+     */
+    public static long pendingBytes(Object array) {
+        final DirtyRegions regions = lookup(array);
+        return (regions == null) ? -1 : regions.pendingElements() * elementSize(array.getClass().getComponentType());
+    }
+
+    /**
+     * Marks the elements in [fromIndex, toIndex) as modified on the host.
+     *
+     * @param array
+     *            Java primitive array with tracking enabled.
+     * @param fromIndex
+     *            first modified element (inclusive).
+     * @param toIndex
+     *            last modified element (exclusive).
+     */
+    public static void markDirty(Object array, int fromIndex, int toIndex) {
+        final DirtyRegions regions = lookup(array);
+        if (regions == null) {
+            throw new TornadoRuntimeException("[ERROR] Dirty-range tracking is not enabled for " + array.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(array)));
+        }
+        regions.add(fromIndex, toIndex);
+    }
+
+    public static void markAllDirty(Object array) {
+        markDirty(array, 0, Array.getLength(array));
+    }
+
+    /**
+     * Checks whether the array has modified regions waiting to be uploaded.
+     *
+     * @param array
+     *            Java object.
+     * @return true if the array is tracked and has at least one dirty region.
+     */
+    public static boolean hasPendingRegions(Object array) {
+        final DirtyRegions regions = lookup(array);
+        return regions != null && regions.isDirty();
+    }
+
+    /**
+     * Returns and clears the modified regions of a tracked array.
+     *
+     * @param array
+     *            Java primitive array.
+     * @return pairs of element indices {from0, to0, from1, to1, ...}, or null if
+     *         the array is not tracked.
+     */
+    public static int[] drainRegions(Object array) {
+        final DirtyRegions regions = lookup(array);
+        return (regions == null) ? null : regions.drain();
+    }
+
+    private static DirtyRegions lookup(Object array) {
+        if (numTrackedArrays == 0 || array == null) {
+            return null;
+        }
+        synchronized (trackedArrays) {
+            return trackedArrays.get(new IdentityKey(array, null));
+        }
+    }
+
+    private static void expungeCollectedArrays() {
+        Reference<?> key;
+        while ((key = collectedArrays.poll()) != null) {
+            trackedArrays.remove(key);
+        }
+        numTrackedArrays = trackedArrays.size();
+    }
+
+    private static int elementSize(Class<?> type) {
+        if (type == byte.class || type == boolean.class) {
+            return Byte.BYTES;
+        } else if (type == char.class || type == short.class) {
+            return Short.BYTES;
+        } else if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        }
+        return Long.BYTES;
+    }
+
+    private static void checkPrimitiveArray(Object array) {
+        if (array == null || !array.getClass().isArray() || !array.getClass().getComponentType().isPrimitive()) {
+            throw new TornadoRuntimeException("[ERROR] Dirty-range tracking is only supported for primitive arrays");
+        }
+    }
+
+    private synchronized boolean isDirty() {
+        return numRegions > 0;
+    }
+
+    private synchronized long pendingElements() {
+        long elements = 0;
+        for (int i = 0; i < numRegions; i++) {
+            elements += ranges[2 * i + 1] - ranges[2 * i];
+        }
+        return elements;
+    }
+
+    private synchronized int[] drain() {
+        final int[] result = Arrays.copyOf(ranges, numRegions * 2);
+        numRegions = 0;
+        return result;
+    }
+
+    private synchronized void add(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > length || fromIndex > toIndex) {
+            throw new TornadoRuntimeException(String.format("[ERROR] Invalid dirty range [%d, %d) for array of length %d", fromIndex, toIndex, length));
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+
+        // find the first region that ends at or after fromIndex
+        int first = 0;
+        while (first < numRegions && ranges[2 * first + 1] < fromIndex) {
+            first++;
+        }
+
+        // merge every region that overlaps or touches [fromIndex, toIndex)
+        int last = first;
+        int from = fromIndex;
+        int to = toIndex;
+        while (last < numRegions && ranges[2 * last] <= toIndex) {
+            from = Math.min(from, ranges[2 * last]);
+            to = Math.max(to, ranges[2 * last + 1]);
+            last++;
+        }
+
+        final int merged = last - first;
+        if (merged == 0) {
+            ensureCapacity(numRegions + 1);
+            System.arraycopy(ranges, 2 * first, ranges, 2 * (first + 1), 2 * (numRegions - first));
+            numRegions++;
+        } else if (merged > 1) {
+            System.arraycopy(ranges, 2 * last, ranges, 2 * (first + 1), 2 * (numRegions - last));
+            numRegions -= merged - 1;
+        }
+        ranges[2 * first] = from;
+        ranges[2 * first + 1] = to;
+
+        if (numRegions > MAX_REGIONS) {
+            coalesceSmallestGap();
+        }
+    }
+
+    /*
+     * Bounds the number of transfers per upload: the two regions separated by
+     * the smallest gap are merged into one.
+     */
+    private void coalesceSmallestGap() {
+        int index = 0;
+        int smallestGap = Integer.MAX_VALUE;
+        for (int i = 0; i < numRegions - 1; i++) {
+            final int gap = ranges[2 * (i + 1)] - ranges[2 * i + 1];
+            if (gap < smallestGap) {
+                smallestGap = gap;
+                index = i;
+            }
+        }
+        ranges[2 * index + 1] = ranges[2 * (index + 1) + 1];
+        System.arraycopy(ranges, 2 * (index + 2), ranges, 2 * (index + 1), 2 * (numRegions - index - 2));
+        numRegions--;
+    }
+
+    private void ensureCapacity(int regions) {
+        if (regions * 2 > ranges.length) {
+            ranges = Arrays.copyOf(ranges, Math.max(regions * 2, ranges.length * 2));
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("dirty regions: [");
+        for (int i = 0; i < numRegions; i++) {
+            sb.append(String.format(" [%d, %d)", ranges[2 * i], ranges[2 * i + 1]));
+        }
+        sb.append(" ]");
+        return sb.toString();
+    }
+}
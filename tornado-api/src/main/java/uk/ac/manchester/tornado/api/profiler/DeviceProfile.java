@@ -0,0 +1,285 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Latency and bandwidth model of a device, measured by the device
+ * characterisation tool of the benchmarks module.
+ * 
+ * Transfers are modelled as {@code latency + bytes / bandwidth}, with
+ * latencies in nanoseconds and bandwidths in bytes per nanosecond (GB/s).
+ * Profiles are stored as properties files named after the device, e.g.
+ * {@code opencl-0-1.properties}, in the directory given by
+ * {@code tornado.device.profiles} (by default
+ * {@code ~/.tornado/profiles}).
+ */
+public class DeviceProfile {
+
+    public static final String PROFILES_DIR = System.getProperty("tornado.device.profiles", System.getProperty("user.home") + File.separator + ".tornado" + File.separator + "profiles");
+
+    private final String deviceName;
+    private String description = "";
+    private String platformName = "";
+    private long maxAllocMemory;
+    private long globalMemory;
+
+    private double copyInLatency;
+    private double copyInBandwidth;
+    private double copyOutLatency;
+    private double copyOutBandwidth;
+    private double deviceCopyLatency;
+    private double deviceCopyBandwidth;
+    private double launchLatency;
+    private double dispatchPerTask;
+
+    public DeviceProfile(String deviceName) {
+        this.deviceName = deviceName;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getPlatformName() {
+        return platformName;
+    }
+
+    public void setPlatformName(String platformName) {
+        this.platformName = platformName;
+    }
+
+    public long getMaxAllocMemory() {
+        return maxAllocMemory;
+    }
+
+    public void setMaxAllocMemory(long maxAllocMemory) {
+        this.maxAllocMemory = maxAllocMemory;
+    }
+
+    public long getGlobalMemory() {
+        return globalMemory;
+    }
+
+    public void setGlobalMemory(long globalMemory) {
+        this.globalMemory = globalMemory;
+    }
+
+    public double getCopyInLatency() {
+        return copyInLatency;
+    }
+
+    public double getCopyInBandwidth() {
+        return copyInBandwidth;
+    }
+
+    public void setCopyIn(double latency, double bandwidth) {
+        copyInLatency = latency;
+        copyInBandwidth = bandwidth;
+    }
+
+    public double getCopyOutLatency() {
+        return copyOutLatency;
+    }
+
+    public double getCopyOutBandwidth() {
+        return copyOutBandwidth;
+    }
+
+    public void setCopyOut(double latency, double bandwidth) {
+        copyOutLatency = latency;
+        copyOutBandwidth = bandwidth;
+    }
+
+    public double getDeviceCopyLatency() {
+        return deviceCopyLatency;
+    }
+
+    public double getDeviceCopyBandwidth() {
+        return deviceCopyBandwidth;
+    }
+
+    public void setDeviceCopy(double latency, double bandwidth) {
+        deviceCopyLatency = latency;
+        deviceCopyBandwidth = bandwidth;
+    }
+
+    /**
+     * Time to launch an empty kernel, in nanoseconds.
+     */
+    public double getLaunchLatency() {
+        return launchLatency;
+    }
+
+    public void setLaunchLatency(double launchLatency) {
+        this.launchLatency = launchLatency;
+    }
+
+    /**
+     * Time the TornadoVM spends dispatching the bytecodes of one task, in
+     * nanoseconds.
+     */
+    public double getDispatchPerTask() {
+        return dispatchPerTask;
+    }
+
+    public void setDispatchPerTask(double dispatchPerTask) {
+        this.dispatchPerTask = dispatchPerTask;
+    }
+
+    public double estimateCopyIn(long bytes) {
+        return estimate(copyInLatency, copyInBandwidth, bytes);
+    }
+
+    public double estimateCopyOut(long bytes) {
+        return estimate(copyOutLatency, copyOutBandwidth, bytes);
+    }
+
+    public double estimateDeviceCopy(long bytes) {
+        return estimate(deviceCopyLatency, deviceCopyBandwidth, bytes);
+    }
+
+    private static double estimate(double latency, double bandwidth, long bytes) {
+        return (bandwidth > 0) ? latency + bytes / bandwidth : latency;
+    }
+
+    public static File getFile(String deviceName) {
+        return new File(PROFILES_DIR, deviceName + ".properties");
+    }
+
+    /**
+     * Loads the profile of a device.
+     * 
+     * @return the profile, or null if the device has not been characterised
+     */
+    public static DeviceProfile load(String deviceName) {
+        final File file = getFile(deviceName);
+        if (!file.isFile()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+
+        final DeviceProfile profile = new DeviceProfile(deviceName);
+        profile.description = properties.getProperty("description", "");
+        profile.platformName = properties.getProperty("platform", "");
+        profile.maxAllocMemory = parseLong(properties, "memory.maxalloc");
+        profile.globalMemory = parseLong(properties, "memory.global");
+        profile.copyInLatency = parseDouble(properties, "copyin.latency");
+        profile.copyInBandwidth = parseDouble(properties, "copyin.bandwidth");
+        profile.copyOutLatency = parseDouble(properties, "copyout.latency");
+        profile.copyOutBandwidth = parseDouble(properties, "copyout.bandwidth");
+        profile.deviceCopyLatency = parseDouble(properties, "devicecopy.latency");
+        profile.deviceCopyBandwidth = parseDouble(properties, "devicecopy.bandwidth");
+        profile.launchLatency = parseDouble(properties, "launch.latency");
+        profile.dispatchPerTask = parseDouble(properties, "dispatch.pertask");
+        return profile;
+    }
+
+    public File store() throws IOException {
+        final File file = getFile(deviceName);
+        final File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("unable to create " + dir);
+        }
+
+        final Properties properties = new Properties();
+        properties.setProperty("description", description);
+        properties.setProperty("platform", platformName);
+        properties.setProperty("memory.maxalloc", Long.toString(maxAllocMemory));
+        properties.setProperty("memory.global", Long.toString(globalMemory));
+        properties.setProperty("copyin.latency", Double.toString(copyInLatency));
+        properties.setProperty("copyin.bandwidth", Double.toString(copyInBandwidth));
+        properties.setProperty("copyout.latency", Double.toString(copyOutLatency));
+        properties.setProperty("copyout.bandwidth", Double.toString(copyOutBandwidth));
+        properties.setProperty("devicecopy.latency", Double.toString(deviceCopyLatency));
+        properties.setProperty("devicecopy.bandwidth", Double.toString(deviceCopyBandwidth));
+        properties.setProperty("launch.latency", Double.toString(launchLatency));
+        properties.setProperty("dispatch.pertask", Double.toString(dispatchPerTask));
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Tornado device profile: latencies in ns, bandwidths in bytes/ns (GB/s)");
+        }
+        return file;
+    }
+
+    private static long parseLong(Properties properties, String key) {
+        try {
+            return Long.parseLong(properties.getProperty(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static double parseDouble(Properties properties, String key) {
+        try {
+            return Double.parseDouble(properties.getProperty(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: copy-in %.0f ns + %.2f GB/s, copy-out %.0f ns + %.2f GB/s, device-copy %.0f ns + %.2f GB/s, launch %.0f ns, dispatch %.0f ns/task", deviceName, copyInLatency,
+                copyInBandwidth, copyOutLatency, copyOutBandwidth, deviceCopyLatency, deviceCopyBandwidth, launchLatency, dispatchPerTask);
+    }
+}
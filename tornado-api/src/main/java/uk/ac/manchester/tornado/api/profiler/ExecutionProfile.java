@@ -0,0 +1,99 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.util.Map;
+
+/**
+ * Timing breakdown of one execution of a task-schedule. All times are in
+ * nanoseconds and all sizes in bytes.
+ * 
+ * Device times come from the profiling information of the events of each
+ * command when profiling is enabled in the driver, otherwise from the time
+ * the host spent in the call that issued the command.
+ */
+public interface ExecutionProfile {
+
+    /**
+     * Time spent building the task-schedule graph and compiling it into
+     * TornadoVM bytecodes. It is zero when the bytecodes were reused from an
+     * earlier execution.
+     */
+    long getGraphCompileTime();
+
+    /**
+     * Time spent compiling tasks into device code, including the code cache
+     * lookups. It is zero when all tasks were already compiled.
+     */
+    long getCodeGenerationTime();
+
+    long getCopyInBytes();
+
+    long getCopyInTime();
+
+    long getCopyOutBytes();
+
+    long getCopyOutTime();
+
+    /**
+     * Kernel time of each task, indexed by task id, in launch order.
+     */
+    Map<String, Long> getKernelTimes();
+
+    /**
+     * Sum of the kernel times of all tasks.
+     */
+    long getKernelTime();
+
+    /**
+     * Time the host spent in the TornadoVM outside of the calls that issue
+     * copies and kernels: decoding bytecodes, preparing call-stacks and
+     * handling events.
+     */
+    long getDispatchTime();
+
+    /**
+     * Wall-clock time of the execution on the host, including the graph
+     * compilation, until all the commands have been issued.
+     */
+    long getTotalTime();
+}
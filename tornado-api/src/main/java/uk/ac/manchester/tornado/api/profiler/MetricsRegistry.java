@@ -0,0 +1,91 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework: 
+ * https://github.com/beehive-lab/tornado
+ *
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GNU Classpath is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ * 
+ * GNU Classpath is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with GNU Classpath; see the file COPYING.  If not, write to the
+ * Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA
+ * 02110-1301 USA.
+ *
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library.  Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ * 
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module.  An independent module is a module which is not derived from
+ * or based on this library.  If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so.  If you do not wish to do so, delete this
+ * exception statement from your version.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+/**
+ * Receives the metrics recorded by the TornadoVM runtime. Implementations
+ * are found with {@link java.util.ServiceLoader}, so a registry is plugged in
+ * by listing it in
+ * {@code META-INF/services/uk.ac.manchester.tornado.api.profiler.MetricsRegistry}.
+ * 
+ * Methods are called from the threads that execute task-schedules and must
+ * not block.
+ */
+public interface MetricsRegistry {
+
+    String KERNEL = "kernel";
+    String COPY_IN = "copy-in";
+    String COPY_OUT = "copy-out";
+    String EXECUTION = "execution";
+
+    String BYTES_IN = "bytes-in";
+    String BYTES_OUT = "bytes-out";
+    String COMPILATIONS = "compilations";
+    String RECOMPILATIONS = "recompilations";
+    String CODE_CACHE_HITS = "code-cache-hits";
+    String CODE_CACHE_MISSES = "code-cache-misses";
+    String CODE_CACHE_EVICTIONS = "code-cache-evictions";
+    String SPECIALISATION_HITS = "specialisation-hits";
+    String SPECIALISATION_MISSES = "specialisation-misses";
+
+    /**
+     * Records a latency.
+     * 
+     * @param metric
+     *            one of {@link #KERNEL}, {@link #COPY_IN}, {@link #COPY_OUT}
+     *            or {@link #EXECUTION}
+     * @param task
+     *            id of the task, or of the task-schedule for transfers and
+     *            executions
+     * @param device
+     *            name of the device, or null for executions
+     * @param nanoseconds
+     *            latency in nanoseconds
+     */
+    void recordLatency(String metric, String task, String device, long nanoseconds);
+
+    /**
+     * Adds {@code delta} to a counter. The task or the device is null when
+     * the counter does not relate to one.
+     */
+    void incrementCounter(String metric, String task, String device, long delta);
+}
@@ -20,12 +20,20 @@ package uk.ac.manchester.tornado.unittests.api;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
 
 import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.mm.DirtyRegions;
 import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 
@@ -99,4 +107,200 @@ public class TestAPI extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testExecuteAsync() throws Exception {
+        final int N = 1024;
+        int size = 20;
+        int[] data = new int[N];
+
+        IntStream.range(0, N).parallel().forEach(idx -> {
+            data[idx] = size;
+        });
+
+        TaskSchedule s0 = new TaskSchedule("s0");
+        assertNotNull(s0);
+
+        s0.task("t0", TestArrays::addAccumulator, data, 1).streamOut(data);
+        CompletableFuture<Void> future = s0.executeAsync();
+        future.get();
+
+        for (int i = 0; i < N; i++) {
+            assertEquals(21, data[i]);
+        }
+    }
+
+    /**
+     * The collector runs while the outputs are in flight, so the arrays can be
+     * moved before the data reaches the host.
+     */
+    @Test
+    public void testExecuteAsyncWithAllocations() throws Exception {
+        final int N = 1 << 20;
+        final int iterations = 10;
+        int[] data = new int[N];
+        Arrays.fill(data, 20);
+
+        TaskSchedule s0 = new TaskSchedule("s0");
+        s0.task("t0", TestArrays::addAccumulator, data, 1).streamOut(data);
+
+        List<int[]> garbage = new ArrayList<>();
+        for (int iteration = 1; iteration <= iterations; iteration++) {
+            CompletableFuture<Void> future = s0.executeAsync();
+            for (int i = 0; i < 4096 || !future.isDone(); i++) {
+                garbage.add(new int[1024]);
+                if (garbage.size() == 1024) {
+                    garbage.clear();
+                    System.gc();
+                }
+            }
+            future.get();
+
+            for (int i = 0; i < N; i++) {
+                assertEquals(20 + iteration, data[i]);
+            }
+        }
+    }
+
+    /**
+     * Several threads submit to the same device queue. Each schedule chains two
+     * tasks, so every launch waits on an event created by its own thread while
+     * the other threads keep claiming event slots.
+     */
+    @Test
+    public void testConcurrentSchedules() throws Exception {
+        final int N = 1024;
+        final int numThreads = 8;
+        final int iterations = 100;
+        final int[][] data = new int[numThreads][N];
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int[] input = data[t];
+            final int value = t;
+            threads[t] = new Thread(() -> {
+                Arrays.fill(input, value);
+                TaskSchedule schedule = new TaskSchedule("s" + value);
+                schedule.task("t0", TestArrays::addAccumulator, input, 1) //
+                        .task("t1", TestArrays::addAccumulator, input, 1) //
+                        .streamOut(input);
+                for (int i = 0; i < iterations; i++) {
+                    if (i % 2 == 0) {
+                        schedule.execute();
+                    } else {
+                        schedule.executeAsync().join();
+                    }
+                }
+            });
+            threads[t].setUncaughtExceptionHandler((thread, e) -> failure.compareAndSet(null, e));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        for (int t = 0; t < numThreads; t++) {
+            for (int i = 0; i < N; i++) {
+                assertEquals(t + 2 * iterations, data[t][i]);
+            }
+        }
+    }
+
+    /**
+     * A schedule keeps the event of its last execution while another schedule
+     * on the same device goes through more events than the event window holds.
+     */
+    @Test
+    public void testEventsOutliveSlotReuse() throws Exception {
+        final int N = 128;
+        final int iterations = 5000;
+        int[] a = new int[N];
+        int[] b = new int[N];
+        Arrays.fill(a, 20);
+
+        TaskSchedule s0 = new TaskSchedule("s0");
+        s0.task("t0", TestArrays::addAccumulator, a, 1).streamOut(a);
+        TaskSchedule s1 = new TaskSchedule("s1");
+        s1.task("t0", TestArrays::addAccumulator, b, 1).streamOut(b);
+
+        CompletableFuture<Void> future = s0.executeAsync();
+        for (int i = 0; i < iterations; i++) {
+            s1.execute();
+        }
+        s0.waitOn();
+        future.get();
+
+        for (int i = 0; i < N; i++) {
+            assertEquals(21, a[i]);
+            assertEquals(iterations, b[i]);
+        }
+
+        // The next execution frees the events of the previous one
+        s0.execute();
+        for (int i = 0; i < N; i++) {
+            assertEquals(22, a[i]);
+        }
+    }
+
+    @Test
+    public void testDirtyRegions() {
+        final int N = 128;
+        final int dirty = 16;
+        int size = 20;
+
+        int[] data = new int[N];
+
+        IntStream.range(0, N).parallel().forEach(idx -> {
+            data[idx] = size;
+        });
+
+        DirtyRegions.enableTracking(data);
+        try {
+            // Regions marked before the first upload are sent with it
+            DirtyRegions.markDirty(data, 0, dirty);
+
+            TaskSchedule s0 = new TaskSchedule("s0");
+            assertNotNull(s0);
+
+            s0.task("t0", TestArrays::addAccumulator, data, 1);
+            s0.execute();
+            assertTrue(s0.getProfile().getCopyInBytes() >= N * Integer.BYTES);
+            assertEquals(0, DirtyRegions.pendingBytes(data));
+            s0.syncObject(data);
+
+            // Only the first region is sent again, the rest stays as on the
+            // device
+            for (int i = 0; i < dirty; i++) {
+                data[i] = 100;
+            }
+            DirtyRegions.markDirty(data, 0, dirty);
+
+            s0.execute();
+            assertEquals(dirty * Integer.BYTES, s0.getProfile().getCopyInBytes());
+            s0.syncObject(data);
+
+            for (int i = 0; i < dirty; i++) {
+                assertEquals(101, data[i]);
+            }
+            for (int i = dirty; i < N; i++) {
+                assertEquals(22, data[i]);
+            }
+
+            // Nothing is marked, so nothing is sent
+            s0.execute();
+            assertEquals(0, s0.getProfile().getCopyInBytes());
+            s0.syncObject(data);
+
+            for (int i = 0; i < dirty; i++) {
+                assertEquals(102, data[i]);
+            }
+            for (int i = dirty; i < N; i++) {
+                assertEquals(23, data[i]);
+            }
+        } finally {
+            DirtyRegions.disableTracking(data);
+        }
+    }
+
 }
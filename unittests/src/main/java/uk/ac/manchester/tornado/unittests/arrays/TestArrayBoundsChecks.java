@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Kernels compiled with memory checks: accesses proven in bounds run as
+ * usual, an access that really goes out of bounds is reported.
+ */
+public class TestArrayBoundsChecks extends TornadoTestBase {
+
+    public static void stencil(int[] a, int[] b) {
+        for (@Parallel int i = 1; i < a.length - 1; i++) {
+            b[i] = a[i - 1] + a[i] + a[i + 1];
+        }
+    }
+
+    public static void matrixRows(int[] a, int rows, int cols) {
+        for (@Parallel int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                a[i * cols + j] = i + j;
+            }
+        }
+    }
+
+    public static void overrun(int[] a, int[] b) {
+        for (@Parallel int i = 0; i < a.length; i++) {
+            b[i + 1] = a[i];
+        }
+    }
+
+    /*
+     * A failed check stores its reason in the deopt slot of the call stack.
+     */
+    private static final String BOUNDS_CHECK = "_frame[1] = (ulong)";
+
+    private static TaskSchedule withMemoryChecks(String name) {
+        System.setProperty(name + ".t0.memory.check", "True");
+        return new TaskSchedule(name);
+    }
+
+    private static void clearMemoryChecks(String name) {
+        System.clearProperty(name + ".t0.memory.check");
+        disableKernelSourceDump(name + ".t0");
+    }
+
+    @Test
+    public void testProvenInBounds() {
+        final int size = 1024;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+        }
+
+        final String sources = enableKernelSourceDump("bounds0.t0");
+        try {
+            withMemoryChecks("bounds0").task("t0", TestArrayBoundsChecks::stencil, a, b).streamOut(b).execute();
+        } finally {
+            clearMemoryChecks("bounds0");
+        }
+
+        final String source = readKernelSources(sources);
+        assertFalse(source, source.isEmpty());
+        assertFalse(source, source.contains(BOUNDS_CHECK));
+
+        for (int i = 1; i < size - 1; i++) {
+            assertEquals(3 * i, b[i]);
+        }
+    }
+
+    @Test
+    public void testProvenInBoundsNested() {
+        final int rows = 32;
+        final int cols = 64;
+        int[] a = new int[rows * cols];
+
+        final String sources = enableKernelSourceDump("bounds1.t0");
+        try {
+            withMemoryChecks("bounds1").task("t0", TestArrayBoundsChecks::matrixRows, a, rows, cols).streamOut(a).execute();
+        } finally {
+            clearMemoryChecks("bounds1");
+        }
+
+        final String source = readKernelSources(sources);
+        assertFalse(source, source.isEmpty());
+        assertFalse(source, source.contains(BOUNDS_CHECK));
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                assertEquals(i + j, a[i * cols + j]);
+            }
+        }
+    }
+
+    @Test
+    public void testOutOfBounds() {
+        final int size = 256;
+        int[] a = new int[size];
+        int[] b = new int[size];
+
+        final String sources = enableKernelSourceDump("bounds2.t0");
+        boolean reported = false;
+        try {
+            withMemoryChecks("bounds2").task("t0", TestArrayBoundsChecks::overrun, a, b).streamOut(b).execute();
+        } catch (TornadoRuntimeException e) {
+            reported = true;
+        } finally {
+            clearMemoryChecks("bounds2");
+        }
+
+        assertTrue("out of bounds access not reported", reported);
+        final String source = readKernelSources(sources);
+        assertTrue(source, source.contains(BOUNDS_CHECK));
+    }
+}
@@ -19,7 +19,9 @@
 package uk.ac.manchester.tornado.unittests.arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -205,6 +207,90 @@ public class TestArrays extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testTypedArguments() {
+        final int numElements = 4099;
+        double[] a = new double[numElements];
+        double[] b = new double[numElements];
+        double[] c = new double[numElements];
+
+        IntStream.range(0, numElements).sequential().forEach(i -> {
+            a[i] = Math.random();
+            b[i] = Math.random();
+        });
+
+        System.setProperty("typedArgs.t0.opencl.typedargs", "True");
+        final String sources = enableKernelSourceDump("typedArgs.t0");
+        try {
+            //@formatter:off
+            TaskSchedule s0 = new TaskSchedule("typedArgs")
+                .streamIn(a, b)
+                .task("t0", TestArrays::vectorAddDouble, a, b, c)
+                .streamOut(c);
+            //@formatter:on
+
+            // the second execution reuses the sub-buffers of the first one
+            for (int iteration = 0; iteration < 2; iteration++) {
+                s0.execute();
+                for (int i = 0; i < c.length; i++) {
+                    assertEquals(a[i] + b[i], c[i], 0.01);
+                }
+            }
+        } finally {
+            System.clearProperty("typedArgs.t0.opencl.typedargs");
+            disableKernelSourceDump("typedArgs.t0");
+        }
+
+        final String source = readKernelSources(sources);
+        assertTrue(source, source.contains("double *restrict _arg0, long _off0"));
+        assertTrue(source, source.contains("double *restrict _arg2, long _off2"));
+        // elements are accessed through the restrict pointers
+        assertTrue(source, source.contains("&_arg0[_off0 + ("));
+        assertTrue(source, source.contains("&_arg2[_off2 + ("));
+        // the parameters are not read from the frame
+        assertFalse(source, source.contains("_heap_base"));
+        assertFalse(source, source.contains("_frame_base"));
+    }
+
+    @Test
+    public void testTypedArgumentsAliased() {
+        final int numElements = 4099;
+        double[] a = new double[numElements];
+        double[] b = new double[numElements];
+        double[] expected = new double[numElements];
+
+        IntStream.range(0, numElements).sequential().forEach(i -> {
+            a[i] = Math.random();
+            b[i] = Math.random();
+            expected[i] = a[i] + b[i];
+        });
+
+        System.setProperty("typedArgsAliased.t0.opencl.typedargs", "True");
+        final String sources = enableKernelSourceDump("typedArgsAliased.t0");
+        try {
+            // the first parameter is read and the third written: both are a
+            //@formatter:off
+            new TaskSchedule("typedArgsAliased")
+                .streamIn(a, b)
+                .task("t0", TestArrays::vectorAddDouble, a, b, a)
+                .streamOut(a)
+                .execute();
+            //@formatter:on
+        } finally {
+            System.clearProperty("typedArgsAliased.t0.opencl.typedargs");
+            disableKernelSourceDump("typedArgsAliased.t0");
+        }
+
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(expected[i], a[i], 0.01);
+        }
+
+        final String source = readKernelSources(sources);
+        assertTrue(source, source.contains("__global double *_arg0, long _off0"));
+        assertTrue(source, source.contains("__global double *_arg2, long _off2"));
+        assertTrue(source, source.contains("const double *restrict _arg1, long _off1"));
+    }
+
     @Test
     public void testVectorAdditionFloat() {
         final int numElements = 4096;
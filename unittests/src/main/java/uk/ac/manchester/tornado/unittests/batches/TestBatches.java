@@ -19,6 +19,7 @@
 package uk.ac.manchester.tornado.unittests.batches;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -27,6 +28,7 @@ import org.junit.Test;
 
 import uk.ac.manchester.tornado.api.TaskSchedule;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 
 public class TestBatches extends TornadoTestBase {
@@ -201,4 +203,36 @@ public class TestBatches extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testBatchAuto() {
+
+        // Fill 800MB of float array
+        int size = 200000000;
+        float[] arrayA = new float[size];
+        float[] arrayB = new float[size];
+
+        IntStream.range(0, arrayA.length).sequential().forEach(idx -> arrayA[idx] = idx);
+
+        TaskSchedule ts = new TaskSchedule("s0");
+
+        // @formatter:off
+        ts.batch(TaskSchedule.AUTO)   // Slots chosen by the runtime
+          .task("t0", TestBatches::compute, arrayA, arrayB)
+          .streamOut((Object) arrayB)
+          .execute();
+        // @formatter:on
+
+        for (int i = 0; i < arrayB.length; i++) {
+            assertEquals(arrayA[i] + 100, arrayB[i], 0.1f);
+        }
+
+        // Both arrays get a buffer of one batch on the device
+        long batchSize = ts.getBatchSize();
+        TornadoDevice device = ts.getDevice();
+        assertTrue("Input processed in one batch", batchSize > 0 && batchSize < (long) size * Float.BYTES);
+        assertEquals(0, batchSize % Float.BYTES);
+        assertTrue(batchSize <= device.getMaxAllocMemory());
+        assertTrue(2 * batchSize <= device.getMemoryProvider().getHeapSize());
+    }
+
 }
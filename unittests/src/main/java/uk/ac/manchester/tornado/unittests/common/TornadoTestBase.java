@@ -18,6 +18,14 @@
 
 package uk.ac.manchester.tornado.unittests.common;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.junit.Before;
 
 import uk.ac.manchester.tornado.api.TornadoDriver;
@@ -34,6 +42,60 @@ public abstract class TornadoTestBase {
         }
     }
 
+    /**
+     * Enables dumping the OpenCL source of the kernels compiled for a task.
+     * It has to be called before the task is added to its schedule.
+     *
+     * @param taskId
+     *            task identifier, e.g. s0.t0
+     * @return directory, relative to TORNADO_SDK, the sources are written to
+     */
+    public static String enableKernelSourceDump(String taskId) {
+        final String directory = "var/unittests/" + taskId + "-" + System.nanoTime();
+        System.setProperty(taskId + ".opencl.source.dump", "True");
+        System.setProperty(taskId + ".opencl.source.dir", directory);
+        return directory;
+    }
+
+    public static void disableKernelSourceDump(String taskId) {
+        System.clearProperty(taskId + ".opencl.source.dump");
+        System.clearProperty(taskId + ".opencl.source.dir");
+    }
+
+    /**
+     * Returns the concatenated OpenCL sources dumped into a directory by
+     * {@link #enableKernelSourceDump(String)}.
+     */
+    public static String readKernelSources(String directory) {
+        return readDumpedFiles(directory, ".cl");
+    }
+
+    /**
+     * Returns the concatenated OpenCL build options dumped alongside the
+     * sources by {@link #enableKernelSourceDump(String)}.
+     */
+    public static String readKernelBuildOptions(String directory) {
+        return readDumpedFiles(directory, ".options");
+    }
+
+    private static String readDumpedFiles(String directory, String suffix) {
+        final Path root = Paths.get(System.getenv("TORNADO_SDK") + "/" + directory);
+        if (!Files.isDirectory(root)) {
+            return "";
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(file -> file.toString().endsWith(suffix)).map(file -> {
+                try {
+                    return new String(Files.readAllBytes(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static TornadoDeviceType getDefaultDeviceType() {
         final TornadoDriver driver = TornadoRuntime.getTornadoRuntime().getDriver(0);
         return driver.getTypeDefaultDevice();
@@ -18,14 +18,23 @@
 package uk.ac.manchester.tornado.unittests.loops;
 
 import static org.junit.Assert.assertEquals;
-
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Properties;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
 import uk.ac.manchester.tornado.api.TaskSchedule;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 
 public class TestLoops extends TornadoTestBase {
@@ -109,6 +118,57 @@ public class TestLoops extends TornadoTestBase {
         }
     }
 
+    public static void offsetLoop(int[] a) {
+        for (@Parallel int i = 5; i < a.length; i++) {
+            a[i] = i;
+        }
+    }
+
+    public static void offsetSteppedLoop(int[] a) {
+        for (@Parallel int i = 3; i < a.length; i += 3) {
+            a[i] = i;
+        }
+    }
+
+    private static void checkSteppedLoop(int[] a, int start, int step) {
+        for (int i = 0; i < a.length; i++) {
+            final boolean isIteration = i >= start && (i - start) % step == 0;
+            assertEquals("index " + i, isIteration ? i : -1, a[i]);
+        }
+    }
+
+    @Test
+    public void testOffsetLoop() {
+        final int size = 1001;
+        int[] a = new int[size];
+        Arrays.fill(a, -1);
+
+        //@formatter:off
+        new TaskSchedule("s0")
+                .task("t0", TestLoops::offsetLoop, a)
+                .streamOut(a)
+                .execute();
+        //@formatter:on
+
+        checkSteppedLoop(a, 5, 1);
+    }
+
+    @Test
+    public void testOffsetStepLoop() {
+        final int size = 1001;
+        int[] a = new int[size];
+        Arrays.fill(a, -1);
+
+        //@formatter:off
+        new TaskSchedule("s0")
+                .task("t0", TestLoops::offsetSteppedLoop, a)
+                .streamOut(a)
+                .execute();
+        //@formatter:on
+
+        checkSteppedLoop(a, 3, 3);
+    }
+
     public static void steppedLoop2(int[] a, int size) {
         for (@Parallel int i = 0; i < size; i += 2) {
             a[i] = 200;
@@ -697,4 +757,308 @@ public class TestLoops extends TornadoTestBase {
             assertEquals(2, c[i]);
         }
     }
+
+    public static void vectorAddition(int[] a, int[] b, int[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    @Test
+    public void testThreadCoarsener() {
+        final int size = 1001;
+
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+            b[i] = 2 * i;
+        }
+
+        System.setProperty("coarse.t0.coarsener", "True");
+        System.setProperty("coarse.t0.coarseness", "4");
+        TaskSchedule s0;
+        try {
+            //@formatter:off
+            s0 = new TaskSchedule("coarse")
+                    .task("t0", TestLoops::vectorAddition, a, b, c)
+                    .streamOut(c);
+            //@formatter:on
+            s0.execute();
+        } finally {
+            System.clearProperty("coarse.t0.coarsener");
+            System.clearProperty("coarse.t0.coarseness");
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(3 * i, c[i]);
+        }
+
+        // each work-item runs four iterations: ceil(1001 / 4) work-items
+        assertEquals(251, s0.getTask("t0").meta().getGlobalWork()[0]);
+    }
+
+    public static void stencil(float[] a, float[] b) {
+        for (@Parallel int i = 1; i < a.length - 1; i++) {
+            b[i] = (a[i - 1] + a[i] + a[i + 1]) / 3.0f;
+        }
+    }
+
+    @Test
+    public void testLocalMemoryTiling() {
+        final int size = 1000;
+
+        float[] a = new float[size];
+        float[] b = new float[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+        }
+
+        System.setProperty("tiling.t0.localtiling", "True");
+        final String sources = enableKernelSourceDump("tiling.t0");
+        TaskSchedule s0;
+        try {
+            //@formatter:off
+            s0 = new TaskSchedule("tiling")
+                    .task("t0", TestLoops::stencil, a, b)
+                    .streamOut(b);
+            //@formatter:on
+            s0.execute();
+        } finally {
+            System.clearProperty("tiling.t0.localtiling");
+            disableKernelSourceDump("tiling.t0");
+        }
+
+        for (int i = 1; i < size - 1; i++) {
+            assertEquals((a[i - 1] + a[i] + a[i + 1]) / 3.0f, b[i], 0.001f);
+        }
+
+        // tiling is only applied on devices with dedicated local memory
+        if (getDefaultDeviceType() == TornadoDeviceType.GPU) {
+            final String source = readKernelSources(sources);
+            assertTrue(source, source.contains("&_local_region["));
+            assertTrue(source, source.contains("barrier(CLK_LOCAL_MEM_FENCE)"));
+
+            final long[] globalWork = s0.getTask("t0").meta().getGlobalWork();
+            final long[] localWork = s0.getTask("t0").meta().getLocalWork();
+            assertTrue(localWork[0] > 1);
+            assertEquals(0, globalWork[0] % localWork[0]);
+        }
+    }
+
+    public static void convolve(float[] input, float[] filter, float[] output, int width, int height) {
+        for (@Parallel int y = 0; y < height; y++) {
+            for (@Parallel int x = 0; x < width; x++) {
+                float sum = 0.0f;
+                for (int v = 0; v < 3; v++) {
+                    for (int u = 0; u < 3; u++) {
+                        final int row = y + v - 1;
+                        final int column = x + u - 1;
+                        if (row >= 0 && row < height && column >= 0 && column < width) {
+                            sum += filter[(v * 3) + u] * input[(row * width) + column];
+                        }
+                    }
+                }
+                output[(y * width) + x] = sum;
+            }
+        }
+    }
+
+    @Test
+    public void testLocalMemoryTiling2D() {
+        // neither dimension is a multiple of the work-group size
+        final int width = 100;
+        final int height = 70;
+
+        float[] input = new float[width * height];
+        float[] filter = new float[] { 1, 2, 1, 2, 4, 2, 1, 2, 1 };
+        float[] output = new float[width * height];
+        float[] expected = new float[width * height];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = i % 17;
+        }
+        convolve(input, filter, expected, width, height);
+
+        System.setProperty("tiling2D.t0.localtiling", "True");
+        final String sources = enableKernelSourceDump("tiling2D.t0");
+        TaskSchedule s0;
+        try {
+            //@formatter:off
+            s0 = new TaskSchedule("tiling2D")
+                    .task("t0", TestLoops::convolve, input, filter, output, width, height)
+                    .streamOut(output);
+            //@formatter:on
+            s0.execute();
+        } finally {
+            System.clearProperty("tiling2D.t0.localtiling");
+            disableKernelSourceDump("tiling2D.t0");
+        }
+
+        for (int i = 0; i < output.length; i++) {
+            assertEquals(expected[i], output[i], 0.001f);
+        }
+
+        if (getDefaultDeviceType() == TornadoDeviceType.GPU) {
+            final String source = readKernelSources(sources);
+            assertTrue(source, source.contains("&_local_region["));
+            assertTrue(source, source.contains("barrier(CLK_LOCAL_MEM_FENCE)"));
+
+            final long[] globalWork = s0.getTask("t0").meta().getGlobalWork();
+            final long[] localWork = s0.getTask("t0").meta().getLocalWork();
+            for (int i = 0; i < 2; i++) {
+                assertTrue(localWork[i] > 1);
+                assertEquals(0, globalWork[i] % localWork[i]);
+            }
+        }
+    }
+
+    public static void saxpy(float alpha, float[] x, float[] y, float[] z) {
+        for (@Parallel int i = 0; i < z.length; i++) {
+            z[i] = alpha * x[i] + y[i];
+        }
+    }
+
+    @Test
+    public void testAutoVectorisation() {
+        // not a multiple of the vector width, so the tail runs scalar
+        final int size = 1027;
+
+        float[] x = new float[size];
+        float[] y = new float[size];
+        float[] z = new float[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+            y[i] = size - i;
+        }
+
+        System.setProperty("vectorise.t0.vectors.auto", "True");
+        final String sources = enableKernelSourceDump("vectorise.t0");
+        try {
+            //@formatter:off
+            new TaskSchedule("vectorise")
+                    .task("t0", TestLoops::saxpy, 2.0f, x, y, z)
+                    .streamOut(z)
+                    .execute();
+            //@formatter:on
+        } finally {
+            System.clearProperty("vectorise.t0.vectors.auto");
+            disableKernelSourceDump("vectorise.t0");
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(2.0f * x[i] + y[i], z[i], 0.001f);
+        }
+
+        // the default width is 4
+        final String source = readKernelSources(sources);
+        assertTrue(source, source.contains("vload4("));
+        assertTrue(source, source.contains("vstore4("));
+    }
+
+    @Test
+    public void testWorkGroupAutoTuning() {
+        // prime size: the only divisors are 1 and the size itself
+        final int size = 4099;
+
+        float[] x = new float[size];
+        float[] y = new float[size];
+        float[] z = new float[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+            y[i] = 2 * i;
+        }
+
+        System.setProperty("autotune.t0.autotune", "True");
+        try {
+            //@formatter:off
+            TaskSchedule s0 = new TaskSchedule("autotune")
+                    .task("t0", TestLoops::saxpy, 3.0f, x, y, z)
+                    .streamOut(z);
+            //@formatter:on
+
+            // enough invocations to time every candidate work-group
+            for (int run = 0; run < 64; run++) {
+                s0.execute();
+                for (int i = 0; i < size; i++) {
+                    assertEquals(3.0f * x[i] + y[i], z[i], 0.001f);
+                }
+            }
+
+            // only the GPU scheduler tunes work-groups
+            if (getDefaultDeviceType() == TornadoDeviceType.GPU) {
+                // entries are keyed by device, kernel and the global size
+                // rounded up to a power of two
+                final String bucket = "|" + Long.highestOneBit(size) * 2;
+                final Properties database = readTuningDatabase();
+                final long localWork = s0.getTask("t0").meta().getLocalWork()[0];
+                final long globalWork = s0.getTask("t0").meta().getGlobalWork()[0];
+
+                boolean found = false;
+                for (String key : database.stringPropertyNames()) {
+                    if (key.contains("|saxpy-") && key.endsWith(bucket)) {
+                        found |= Long.parseLong(database.getProperty(key)) == localWork;
+                    }
+                }
+                assertTrue("no tuned entry for saxpy with local work " + localWork + " in " + database, found);
+                assertEquals(0, globalWork % localWork);
+                assertTrue(globalWork >= size);
+            }
+        } finally {
+            System.clearProperty("autotune.t0.autotune");
+        }
+    }
+
+    private static Properties readTuningDatabase() {
+        Path file = Paths.get(System.getProperty("tornado.autotune.db", "var/autotune.properties"));
+        if (!file.isAbsolute()) {
+            file = Paths.get(System.getenv("TORNADO_SDK")).resolve(file);
+        }
+        final Properties database = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            database.load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return database;
+    }
+
+    @Test
+    public void testPaddedGlobalWork() {
+        final int size = 1000003;
+
+        float[] x = new float[size];
+        float[] y = new float[size];
+        float[] z = new float[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i % 100;
+            y[i] = i % 7;
+        }
+
+        System.setProperty("padding.t0.opencl.gpu.padding", "True");
+        TaskSchedule s0;
+        try {
+            //@formatter:off
+            s0 = new TaskSchedule("padding")
+                    .task("t0", TestLoops::saxpy, 2.0f, x, y, z)
+                    .streamOut(z);
+            //@formatter:on
+            s0.execute();
+        } finally {
+            System.clearProperty("padding.t0.opencl.gpu.padding");
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(2.0f * x[i] + y[i], z[i], 0.001f);
+        }
+
+        // only the GPU scheduler pads the global work
+        if (getDefaultDeviceType() == TornadoDeviceType.GPU) {
+            final long globalWork = s0.getTask("t0").meta().getGlobalWork()[0];
+            final long localWork = s0.getTask("t0").meta().getLocalWork()[0];
+            assertTrue(localWork > 1);
+            assertEquals(0, globalWork % localWork);
+            assertTrue(globalWork > size);
+        }
+    }
 }
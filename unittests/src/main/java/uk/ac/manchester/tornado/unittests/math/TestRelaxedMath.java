@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.math;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.collections.math.TornadoMath;
+import uk.ac.manchester.tornado.api.enums.TornadoMathPrecision;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks for the relaxed-math levels: every level must select the built-ins
+ * and build options it documents, and stay close to the sequential Java
+ * result.
+ */
+public class TestRelaxedMath extends TornadoTestBase {
+
+    /*
+     * OpenCL 1.2 full profile bounds for the built-ins used below (3-4 ulp),
+     * plus one ulp for each arithmetic operation combining them.
+     */
+    private static final float PRECISE_MAX_ULP = 8f;
+
+    /*
+     * mad only changes the rounding of the final multiply-add.
+     */
+    private static final float MAD_MAX_ULP = 2 * PRECISE_MAX_ULP;
+
+    public static void transcendentals(float[] x, float[] y) {
+        for (@Parallel int i = 0; i < x.length; i++) {
+            float v = x[i];
+            y[i] = TornadoMath.exp(v) + TornadoMath.log(v + 2f) + TornadoMath.sqrt(v) + TornadoMath.floatSin(v) * TornadoMath.floatCos(v);
+        }
+    }
+
+    private static final class Result {
+        private final float ulp;
+        private final String source;
+        private final String buildOptions;
+
+        private Result(float ulp, String source, String buildOptions) {
+            this.ulp = ulp;
+            this.source = source;
+            this.buildOptions = buildOptions;
+        }
+    }
+
+    private static Result runWithPrecision(TornadoMathPrecision precision) {
+        final int size = 4096;
+        Random r = new Random(7);
+        float[] x = new float[size];
+        float[] y = new float[size];
+        float[] seq = new float[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = r.nextFloat();
+        }
+
+        // a schedule per level so kernels are not shared between levels
+        final String schedule = "math" + precision.name().toLowerCase();
+        final String task = schedule + ".t0";
+        final String property = task + ".math.relaxed";
+        final String sources = enableKernelSourceDump(task);
+        System.setProperty(property, precision.name());
+        try {
+            //@formatter:off
+            new TaskSchedule(schedule)
+                .task("t0", TestRelaxedMath::transcendentals, x, y)
+                .streamOut(y)
+                .execute();
+            //@formatter:on
+        } finally {
+            System.clearProperty(property);
+            disableKernelSourceDump(task);
+        }
+
+        transcendentals(x, seq);
+        return new Result(TornadoMath.findULPDistance(y, seq), readKernelSources(sources), readKernelBuildOptions(sources));
+    }
+
+    private static void assertBuiltins(String source, String prefix) {
+        for (String builtin : new String[] { "exp(", "log(", "sqrt(", "sin(", "cos(" }) {
+            assertTrue(source, source.contains(prefix + builtin));
+        }
+    }
+
+    private static void assertNoRelaxedBuiltins(String source) {
+        assertFalse(source, source.contains("half_"));
+        assertFalse(source, source.contains("native_"));
+    }
+
+    @Test
+    public void testPreciseMath() {
+        Result result = runWithPrecision(TornadoMathPrecision.PRECISE);
+        assertTrue("max ulp " + result.ulp, result.ulp <= PRECISE_MAX_ULP);
+        assertNoRelaxedBuiltins(result.source);
+        assertFalse(result.buildOptions, result.buildOptions.contains("-cl-mad-enable"));
+        assertFalse(result.buildOptions, result.buildOptions.contains("-cl-fast-relaxed-math"));
+    }
+
+    @Test
+    public void testMadMath() {
+        Result result = runWithPrecision(TornadoMathPrecision.MAD);
+        assertTrue("max ulp " + result.ulp, result.ulp <= MAD_MAX_ULP);
+        assertNoRelaxedBuiltins(result.source);
+        assertTrue(result.buildOptions, result.buildOptions.contains("-cl-mad-enable"));
+        assertFalse(result.buildOptions, result.buildOptions.contains("-cl-fast-relaxed-math"));
+    }
+
+    @Test
+    public void testHalfMath() {
+        Result result = runWithPrecision(TornadoMathPrecision.HALF);
+        assertBuiltins(result.source, "half_");
+        assertFalse(result.source, result.source.contains("native_"));
+        assertTrue(result.buildOptions, result.buildOptions.contains("-cl-fast-relaxed-math"));
+    }
+
+    @Test
+    public void testNativeMath() {
+        Result result = runWithPrecision(TornadoMathPrecision.NATIVE);
+        assertBuiltins(result.source, "native_");
+        assertFalse(result.source, result.source.contains("half_"));
+        assertTrue(result.buildOptions, result.buildOptions.contains("-cl-fast-relaxed-math"));
+    }
+
+    @Test
+    public void testInvalidPrecisionFallsBackToPrecise() {
+        final int size = 256;
+        float[] x = new float[size];
+        float[] y = new float[size];
+        Arrays.fill(x, 0.5f);
+
+        final String property = "mathinvalid.t0.math.relaxed";
+        final String sources = enableKernelSourceDump("mathinvalid.t0");
+        System.setProperty(property, "fastest");
+        try {
+            //@formatter:off
+            new TaskSchedule("mathinvalid")
+                .task("t0", TestRelaxedMath::transcendentals, x, y)
+                .streamOut(y)
+                .execute();
+            //@formatter:on
+        } finally {
+            System.clearProperty(property);
+            disableKernelSourceDump("mathinvalid.t0");
+        }
+
+        assertNoRelaxedBuiltins(readKernelSources(sources));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.profiler.ExecutionProfile;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+public class TestExecutionProfile extends TornadoTestBase {
+
+    public static void vectorAdd(int[] a, int[] b, int[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    public static void scale(int[] c, int factor) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = c[i] * factor;
+        }
+    }
+
+    @Test
+    public void testProfileBreakdown() {
+        final int size = 8192;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        Arrays.fill(a, 1);
+        Arrays.fill(b, 2);
+
+        //@formatter:off
+        TaskSchedule s0 = new TaskSchedule("profile0")
+            .streamIn(a, b)
+            .task("t0", TestExecutionProfile::vectorAdd, a, b, c)
+            .task("t1", TestExecutionProfile::scale, c, 2)
+            .streamOut(c);
+        //@formatter:on
+
+        assertNull(s0.getProfile());
+
+        s0.execute();
+        ExecutionProfile first = s0.getProfile();
+        assertNotNull(first);
+        assertTrue(first.getGraphCompileTime() > 0);
+        assertTrue(first.getCodeGenerationTime() > 0);
+        assertTrue(first.getCopyInBytes() >= 2L * size * Integer.BYTES);
+        assertTrue(first.getCopyOutBytes() >= (long) size * Integer.BYTES);
+        assertTrue(first.getKernelTimes().containsKey("profile0.t0"));
+        assertTrue(first.getKernelTimes().containsKey("profile0.t1"));
+        assertEquals(first.getKernelTimes().get("profile0.t0") + first.getKernelTimes().get("profile0.t1"), first.getKernelTime());
+        assertTrue(first.getTotalTime() >= first.getGraphCompileTime() + first.getCodeGenerationTime());
+
+        s0.execute();
+        ExecutionProfile second = s0.getProfile();
+        assertEquals(0, second.getGraphCompileTime());
+        assertEquals(0, second.getCodeGenerationTime());
+        assertEquals(2, second.getKernelTimes().size());
+        assertTrue(second.getDispatchTime() <= second.getTotalTime());
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(6, c[i]);
+        }
+    }
+
+    /**
+     * The events of each execution are freed once it has completed, with
+     * their device times copied into its profile, so profiles that are never
+     * read must not keep the device from reusing its events.
+     */
+    @Test
+    public void testUnreadProfilesReleaseEvents() {
+        final int size = 256;
+        final int runs = 8192;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        Arrays.fill(a, 1);
+        Arrays.fill(b, 2);
+
+        TaskSchedule s0 = new TaskSchedule("profile1").streamIn(a, b).task("t0", TestExecutionProfile::vectorAdd, a, b, c).streamOut(c);
+        for (int i = 0; i < runs; i++) {
+            s0.execute();
+        }
+
+        ExecutionProfile last = s0.getProfile();
+        assertEquals(1, last.getKernelTimes().size());
+        assertTrue(last.getCopyOutBytes() >= (long) size * Integer.BYTES);
+        for (int i = 0; i < size; i++) {
+            assertEquals(3, c[i]);
+        }
+    }
+
+    /**
+     * Asynchronous executions free their events from the completion callback,
+     * before the next execution is allowed to start.
+     */
+    @Test
+    public void testAsyncExecutionsReleaseEvents() {
+        final int size = 256;
+        final int runs = 8192;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        Arrays.fill(a, 1);
+        Arrays.fill(b, 2);
+
+        TaskSchedule s0 = new TaskSchedule("profile2").streamIn(a, b).task("t0", TestExecutionProfile::vectorAdd, a, b, c).streamOut(c);
+        for (int i = 0; i < runs; i++) {
+            s0.executeAsync().join();
+        }
+
+        ExecutionProfile last = s0.getProfile();
+        assertEquals(1, last.getKernelTimes().size());
+        assertTrue(last.getKernelTime() >= 0);
+        for (int i = 0; i < size; i++) {
+            assertEquals(3, c[i]);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Reads the runtime metrics, which are enabled by default, through JMX.
+ */
+public class TestMetrics extends TornadoTestBase {
+
+    private static final String DOMAIN = "uk.ac.manchester.tornado";
+
+    public static void vectorAdd(int[] a, int[] b, int[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    @Test
+    public void testKernelHistogram() throws Exception {
+        final int size = 4096;
+        final int runs = 20;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        Arrays.fill(a, 1);
+        Arrays.fill(b, 2);
+
+        TaskSchedule s0 = new TaskSchedule("metrics0").streamIn(a, b).task("t0", TestMetrics::vectorAdd, a, b, c).streamOut(c);
+        for (int i = 0; i < runs; i++) {
+            s0.execute();
+        }
+        // the last execution is recorded at the latest when its profile is read
+        s0.getProfile().getKernelTime();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(new ObjectName(DOMAIN + ":type=Latency,metric=\"kernel\",task=\"metrics0.t0\",*"), null);
+        assertEquals(1, names.size());
+
+        ObjectName kernel = names.iterator().next();
+        assertEquals(runs, ((Long) server.getAttribute(kernel, "Count")).longValue());
+        long p50 = (Long) server.getAttribute(kernel, "P50");
+        long p99 = (Long) server.getAttribute(kernel, "P99");
+        long max = (Long) server.getAttribute(kernel, "Max");
+        assertTrue(p50 <= p99);
+        assertTrue(p99 <= max);
+
+        names = server.queryNames(new ObjectName(DOMAIN + ":type=Latency,metric=\"execution\",task=\"metrics0\""), null);
+        assertEquals(1, names.size());
+
+        TabularData counters = (TabularData) server.getAttribute(new ObjectName(DOMAIN + ":type=Counters"), "Counters");
+        boolean compiled = false;
+        for (Object row : counters.values()) {
+            String key = (String) ((CompositeData) row).get("key");
+            if (key.startsWith("compilations|metrics0.t0|")) {
+                compiled = true;
+                assertEquals(1L, ((CompositeData) row).get("value"));
+            }
+        }
+        assertTrue(compiled);
+    }
+}
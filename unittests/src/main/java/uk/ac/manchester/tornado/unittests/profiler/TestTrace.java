@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Parses the Chrome trace written by the runtime and checks the spans of the
+ * executions. The trace is only written when {@code tornado.trace.file} is
+ * set, which {@code tornado-test.py} does for this test.
+ */
+public class TestTrace extends TornadoTestBase {
+
+    private static final long TIMEOUT_MS = 10000;
+
+    public static void vectorAdd(int[] a, int[] b, int[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Minimal JSON reader: objects become maps, arrays lists, numbers
+     * doubles.
+     */
+    private static final class JsonReader {
+        private final String text;
+        private int pos;
+
+        JsonReader(String text) {
+            this.text = text;
+        }
+
+        Object read() {
+            final Object value = value();
+            skipWhitespace();
+            assertEquals("trailing characters in the trace", text.length(), pos);
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void expect(char c) {
+            skipWhitespace();
+            assertEquals("at offset " + pos, c, text.charAt(pos));
+            pos++;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            final char c = text.charAt(pos);
+            if (c == '{') {
+                final Map<String, Object> object = new LinkedHashMap<>();
+                pos++;
+                skipWhitespace();
+                if (text.charAt(pos) == '}') {
+                    pos++;
+                    return object;
+                }
+                do {
+                    skipWhitespace();
+                    final String key = string();
+                    expect(':');
+                    object.put(key, value());
+                    skipWhitespace();
+                } while (text.charAt(pos++) == ',');
+                assertEquals('}', text.charAt(pos - 1));
+                return object;
+            } else if (c == '[') {
+                final List<Object> array = new ArrayList<>();
+                pos++;
+                skipWhitespace();
+                if (text.charAt(pos) == ']') {
+                    pos++;
+                    return array;
+                }
+                do {
+                    array.add(value());
+                    skipWhitespace();
+                } while (text.charAt(pos++) == ',');
+                assertEquals(']', text.charAt(pos - 1));
+                return array;
+            } else if (c == '"') {
+                return string();
+            } else if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            } else if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            } else if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            final int start = pos;
+            while (pos < text.length() && "+-.eE0123456789".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            return Double.parseDouble(text.substring(start, pos));
+        }
+
+        private String string() {
+            assertEquals('"', text.charAt(pos++));
+            final StringBuilder sb = new StringBuilder();
+            char c;
+            while ((c = text.charAt(pos++)) != '"') {
+                if (c == '\\') {
+                    c = text.charAt(pos++);
+                    switch (c) {
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'r':
+                            sb.append('\r');
+                            break;
+                        case 'b':
+                            sb.append('\b');
+                            break;
+                        case 'f':
+                            sb.append('\f');
+                            break;
+                        case 'u':
+                            sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                            break;
+                        default:
+                            sb.append(c);
+                            break;
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /*
+     * The trace is closed when the JVM exits, so while the test runs the file
+     * holds the events written so far without the closing bracket.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> readTrace(String file) throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8).trim();
+        if (!text.endsWith("]")) {
+            text = text + "]";
+        }
+        return (List<Map<String, Object>>) new JsonReader(text).read();
+    }
+
+    private static List<Map<String, Object>> spans(List<Map<String, Object>> trace, String name, String category) {
+        final List<Map<String, Object>> spans = new ArrayList<>();
+        for (Map<String, Object> event : trace) {
+            if ("X".equals(event.get("ph")) && name.equals(event.get("name")) && category.equals(event.get("cat"))) {
+                spans.add(event);
+            }
+        }
+        return spans;
+    }
+
+    private static long bytes(Map<String, Object> span) {
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> args = (Map<String, Object>) span.get("args");
+        assertNotNull(args);
+        return ((Double) args.get("bytes")).longValue();
+    }
+
+    @Test
+    public void testExecutionSpans() throws IOException, InterruptedException {
+        final String file = System.getProperty("tornado.trace.file");
+        assertNotNull("run with -Dtornado.trace.file=<path>", file);
+
+        final int size = 8192;
+        final int runs = 3;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        Arrays.fill(a, 1);
+        Arrays.fill(b, 2);
+
+        TaskSchedule s0 = new TaskSchedule("trace0").streamIn(a, b).task("t0", TestTrace::vectorAdd, a, b, c).streamOut(c);
+        for (int i = 0; i < runs; i++) {
+            s0.execute();
+        }
+        // the device spans of the last execution are recorded when its
+        // profile is read
+        s0.getProfile().getKernelTime();
+
+        // the events are written to the file in the background
+        List<Map<String, Object>> trace = readTrace(file);
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (spans(trace, "trace0.t0", "kernel").size() < runs && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            trace = readTrace(file);
+        }
+
+        assertEquals(runs, spans(trace, "execute trace0", "execution").size());
+        for (Map<String, Object> span : spans(trace, "execute trace0", "execution")) {
+            assertEquals(0.0, span.get("pid"));
+        }
+
+        final List<Map<String, Object>> kernels = spans(trace, "trace0.t0", "kernel");
+        assertEquals(runs, kernels.size());
+        for (Map<String, Object> span : kernels) {
+            assertTrue((Double) span.get("pid") > 0);
+            assertTrue((Double) span.get("dur") >= 0);
+            assertEquals(0, bytes(span));
+        }
+
+        final List<Map<String, Object>> copyIns = spans(trace, "trace0", "copy_in");
+        assertTrue(copyIns.size() >= runs);
+        long copiedIn = 0;
+        for (Map<String, Object> span : copyIns) {
+            assertEquals(kernels.get(0).get("pid"), span.get("pid"));
+            assertTrue((Double) span.get("dur") >= 0);
+            copiedIn += bytes(span);
+        }
+        assertTrue(copiedIn >= (long) runs * 2 * size * Integer.BYTES);
+
+        final List<Map<String, Object>> copyOuts = spans(trace, "trace0", "copy_out");
+        assertTrue(copyOuts.size() >= runs);
+        for (Map<String, Object> span : copyOuts) {
+            assertEquals(kernels.get(0).get("pid"), span.get("pid"));
+        }
+
+        // the device has a named process with a track for transfers and one
+        // for kernels
+        boolean kernelTrack = false;
+        boolean transferTrack = false;
+        for (Map<String, Object> event : trace) {
+            if ("M".equals(event.get("ph")) && "thread_name".equals(event.get("name")) && kernels.get(0).get("pid").equals(event.get("pid"))) {
+                @SuppressWarnings("unchecked")
+                final String track = (String) ((Map<String, Object>) event.get("args")).get("name");
+                kernelTrack |= track.equals("kernels") && kernels.get(0).get("tid").equals(event.get("tid"));
+                transferTrack |= track.equals("transfers") && copyIns.get(0).get("tid").equals(event.get("tid"));
+            }
+        }
+        assertTrue(kernelTrack);
+        assertTrue(transferTrack);
+    }
+}
@@ -73,6 +73,33 @@ public class TestReductionsFloats extends TornadoTestBase {
         assertEquals(sequential[0], result[0], 0.1f);
     }
 
+    @Test
+    public void testSumFloatsPadded() {
+        // not a multiple of any work-group size
+        final int size = 1000003;
+        float[] input = new float[size];
+        float[] result = new float[1];
+        Arrays.fill(input, 1.0f);
+
+        // padding also replaces parallel loops with guards; neither may be
+        // applied to the reduction
+        System.setProperty("tornado.opencl.gpu.padding", "True");
+        try {
+            //@formatter:off
+            TaskSchedule task = new TaskSchedule("s0")
+                .streamIn(input)
+                .task("t0", TestReductionsFloats::reductionAddFloats, input, result)
+                .streamOut(result);
+            //@formatter:on
+
+            task.execute();
+        } finally {
+            System.clearProperty("tornado.opencl.gpu.padding");
+        }
+
+        assertEquals(size, result[0], 0.0f);
+    }
+
     public static void reductionAddFloats2(float[] input, @Reduce float[] result) {
         float error = 2f;
         for (@Parallel int i = 0; i < input.length; i++) {
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Runs schedules through the TornadoVM bytecodes on the host JVM device,
+ * selected with {@code <task>.device=jvm}.
+ */
+public class TestJVMDevice extends TornadoTestBase {
+
+    public static void vectorAdd(int[] a, int[] b, int[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    public static void scale(int[] c, int factor) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = c[i] * factor;
+        }
+    }
+
+    public static void oddIndices(int[] c, int n) {
+        for (@Parallel int i = 1; i < n; i += 2) {
+            c[i] = i;
+        }
+    }
+
+    @Test
+    public void testSingleTask() {
+        final int size = 4096;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        Arrays.fill(a, 10);
+        Arrays.fill(b, 20);
+
+        System.setProperty("jvm0.t0.device", "jvm");
+        try {
+            new TaskSchedule("jvm0").task("t0", TestJVMDevice::vectorAdd, a, b, c).streamOut(c).execute();
+        } finally {
+            System.clearProperty("jvm0.t0.device");
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(30, c[i]);
+        }
+    }
+
+    @Test
+    public void testTaskChain() {
+        final int size = 4096;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+            b[i] = 1;
+        }
+
+        System.setProperty("jvm1.t0.device", "jvm");
+        System.setProperty("jvm1.t1.device", "jvm");
+        try {
+            //@formatter:off
+            TaskSchedule s0 = new TaskSchedule("jvm1")
+                .streamIn(a, b)
+                .task("t0", TestJVMDevice::vectorAdd, a, b, c)
+                .task("t1", TestJVMDevice::scale, c, 2)
+                .streamOut(c);
+            //@formatter:on
+
+            for (int run = 0; run < 2; run++) {
+                s0.execute();
+                for (int i = 0; i < size; i++) {
+                    assertEquals((i + 1) * 2, c[i]);
+                }
+            }
+        } finally {
+            System.clearProperty("jvm1.t0.device");
+            System.clearProperty("jvm1.t1.device");
+        }
+    }
+
+    @Test
+    public void testScalarLimitAndStride() {
+        final int size = 100_003;
+        final int limit = 90_001;
+        int[] c = new int[size];
+        Arrays.fill(c, -1);
+
+        System.setProperty("jvm2.t0.device", "jvm");
+        try {
+            new TaskSchedule("jvm2").task("t0", TestJVMDevice::oddIndices, c, limit).streamOut(c).execute();
+        } finally {
+            System.clearProperty("jvm2.t0.device");
+        }
+
+        for (int i = 0; i < size; i++) {
+            int expected = (i % 2 == 1 && i < limit) ? i : -1;
+            assertEquals(expected, c[i]);
+        }
+    }
+
+    /*
+     * Data written on the default device is read by a task on the JVM device,
+     * and the JVM output is read back by the default device.
+     */
+    @Test
+    public void testMixedDevices() {
+        final int size = 4096;
+        int[] a = new int[size];
+        int[] b = new int[size];
+        int[] c = new int[size];
+        int[] d = new int[size];
+        Arrays.fill(b, 1);
+
+        System.setProperty("jvm3.t1.device", "jvm");
+        try {
+            //@formatter:off
+            TaskSchedule s0 = new TaskSchedule("jvm3")
+                .streamIn(a, b)
+                .task("t0", TestJVMDevice::vectorAdd, a, b, c)
+                .task("t1", TestJVMDevice::scale, c, 2)
+                .task("t2", TestJVMDevice::vectorAdd, c, b, d)
+                .streamOut(d);
+            //@formatter:on
+
+            for (int run = 0; run < 2; run++) {
+                for (int i = 0; i < size; i++) {
+                    a[i] = i + run;
+                }
+                s0.execute();
+                for (int i = 0; i < size; i++) {
+                    assertEquals((i + run + 1) * 2 + 1, d[i]);
+                }
+            }
+        } finally {
+            System.clearProperty("jvm3.t1.device");
+        }
+    }
+}
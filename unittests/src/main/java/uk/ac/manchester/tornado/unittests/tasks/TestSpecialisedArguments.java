@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Runs tasks with specialised scalar arguments often enough to go through
+ * the generic kernel first and a specialised variant afterwards; both must
+ * produce the sequential result. Updating a specialised argument must miss
+ * the guard of the installed variant and never reuse its folded value.
+ */
+public class TestSpecialisedArguments extends TornadoTestBase {
+
+    private static final int RUNS = 8;
+
+    public static void scale(float[] a, float[] b, float factor) {
+        for (@Parallel int i = 0; i < a.length; i++) {
+            b[i] = a[i] * factor;
+        }
+    }
+
+    public static void prefix(int[] a, int n) {
+        for (@Parallel int i = 0; i < n; i++) {
+            a[i] = a[i] + i;
+        }
+    }
+
+    @Test
+    public void testSpecialisedScalar() {
+        final int size = 1024;
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] seq = new float[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+        }
+        scale(a, seq, 3f);
+
+        System.setProperty("specialise0.t0.specialise.args", "2");
+        try {
+            //@formatter:off
+            TaskSchedule s0 = new TaskSchedule("specialise0")
+                .task("t0", TestSpecialisedArguments::scale, a, b, 3f)
+                .streamOut(b);
+            //@formatter:on
+
+            for (int run = 0; run < RUNS; run++) {
+                Arrays.fill(b, 0);
+                s0.execute();
+                assertArrayEquals(seq, b, 0.001f);
+            }
+        } finally {
+            System.clearProperty("specialise0.t0.specialise.args");
+        }
+    }
+
+    @Test
+    public void testSpecialisedLoopBound() {
+        final int size = 512;
+        final int n = 256;
+        int[] a = new int[size];
+
+        System.setProperty("specialise1.t0.specialise.args", "1");
+        try {
+            //@formatter:off
+            TaskSchedule s0 = new TaskSchedule("specialise1")
+                .task("t0", TestSpecialisedArguments::prefix, a, n)
+                .streamIn(a)
+                .streamOut(a);
+            //@formatter:on
+
+            for (int run = 0; run < RUNS; run++) {
+                Arrays.fill(a, 1);
+                s0.execute();
+                for (int i = 0; i < size; i++) {
+                    assertEquals(i < n ? 1 + i : 1, a[i]);
+                }
+            }
+        } finally {
+            System.clearProperty("specialise1.t0.specialise.args");
+        }
+    }
+
+    @Test
+    public void testUpdatedArgumentMissesGuard() {
+        final int size = 1024;
+        float[] a = new float[size];
+        float[] b = new float[size];
+        float[] seq = new float[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+        }
+
+        //@formatter:off
+        TaskSchedule s0 = new TaskSchedule("specialise2")
+            .task("t0", TestSpecialisedArguments::scale, a, b, 2f)
+            .streamOut(b);
+        //@formatter:on
+
+        float[] factors = new float[] { 2f, 3f, 2f };
+        for (float factor : factors) {
+            s0.updateArgument("t0", 2, factor);
+            scale(a, seq, factor);
+            for (int run = 0; run < RUNS; run++) {
+                Arrays.fill(b, 0);
+                s0.execute();
+                assertArrayEquals(seq, b, 0.001f);
+            }
+        }
+    }
+
+    @Test
+    public void testUpdatedLoopBound() {
+        final int size = 512;
+        int[] a = new int[size];
+
+        //@formatter:off
+        TaskSchedule s0 = new TaskSchedule("specialise3")
+            .task("t0", TestSpecialisedArguments::prefix, a, size)
+            .streamIn(a)
+            .streamOut(a);
+        //@formatter:on
+
+        int[] bounds = new int[] { 256, 128, 256 };
+        for (int n : bounds) {
+            s0.updateArgument("t0", 1, n);
+            for (int run = 0; run < RUNS; run++) {
+                Arrays.fill(a, 1);
+                s0.execute();
+                for (int i = 0; i < size; i++) {
+                    assertEquals(i < n ? 1 + i : 1, a[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2013-2019, APT Group, School of Computer Science,
+ * The University of Manchester.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ */
+
+package uk.ac.manchester.tornado.unittests.vectortypes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskSchedule;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.collections.types.BFloat16;
+import uk.ac.manchester.tornado.api.collections.types.Half;
+import uk.ac.manchester.tornado.api.collections.types.VectorBFloat16;
+import uk.ac.manchester.tornado.api.collections.types.VectorHalf;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+public class TestHalfFloats extends TornadoTestBase {
+
+    private static void saxpyHalf(float alpha, VectorHalf x, VectorHalf y, float[] z) {
+        for (@Parallel int i = 0; i < z.length; i++) {
+            z[i] = alpha * x.get(i) + y.get(i);
+        }
+    }
+
+    private static void scaleHalf(float alpha, VectorHalf x, VectorHalf y) {
+        for (@Parallel int i = 0; i < x.size(); i++) {
+            y.set(i, alpha * x.get(i));
+        }
+    }
+
+    private static void scaleBFloat16(float alpha, VectorBFloat16 x, VectorBFloat16 y) {
+        for (@Parallel int i = 0; i < x.size(); i++) {
+            y.set(i, alpha * x.get(i));
+        }
+    }
+
+    @Test
+    public void testHalfLoad() {
+        final int size = 1024;
+        final float alpha = 2f;
+        Random r = new Random(31);
+
+        VectorHalf x = new VectorHalf(size);
+        VectorHalf y = new VectorHalf(size);
+        float[] z = new float[size];
+        for (int i = 0; i < size; i++) {
+            x.set(i, r.nextFloat());
+            y.set(i, r.nextFloat());
+        }
+
+        //@formatter:off
+        new TaskSchedule("s0")
+            .task("t0", TestHalfFloats::saxpyHalf, alpha, x, y, z)
+            .streamOut(z)
+            .execute();
+        //@formatter:on
+
+        // the widened values are exact, only the float arithmetic can differ
+        for (int i = 0; i < size; i++) {
+            assertEquals(alpha * x.get(i) + y.get(i), z[i], 0.0001f);
+        }
+    }
+
+    @Test
+    public void testHalfStore() {
+        final int size = 1024;
+        final float alpha = 3f;
+        Random r = new Random(31);
+
+        VectorHalf x = new VectorHalf(size);
+        VectorHalf y = new VectorHalf(size);
+        for (int i = 0; i < size; i++) {
+            x.set(i, r.nextFloat() * 100f);
+        }
+
+        //@formatter:off
+        new TaskSchedule("s0")
+            .task("t0", TestHalfFloats::scaleHalf, alpha, x, y)
+            .streamOut(y)
+            .execute();
+        //@formatter:on
+
+        // both sides round to nearest even so the bit patterns must match
+        for (int i = 0; i < size; i++) {
+            assertEquals(Half.fromFloat(alpha * x.get(i)), Half.fromFloat(y.get(i)));
+        }
+    }
+
+    @Test
+    public void testBFloat16() {
+        final int size = 1024;
+        final float alpha = 3f;
+        Random r = new Random(31);
+
+        VectorBFloat16 x = new VectorBFloat16(size);
+        VectorBFloat16 y = new VectorBFloat16(size);
+        for (int i = 0; i < size; i++) {
+            x.set(i, r.nextFloat() * 100f);
+        }
+
+        //@formatter:off
+        new TaskSchedule("s0")
+            .task("t0", TestHalfFloats::scaleBFloat16, alpha, x, y)
+            .streamOut(y)
+            .execute();
+        //@formatter:on
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(BFloat16.fromFloat(alpha * x.get(i)), BFloat16.fromFloat(y.get(i)));
+        }
+    }
+
+    private static void assertHalf(int expected, float value) {
+        assertEquals(String.format("Half.fromFloat(%a)", value), (short) expected, Half.fromFloat(value));
+    }
+
+    private static void assertBFloat16(int expected, float value) {
+        assertEquals(String.format("BFloat16.fromFloat(%a)", value), (short) expected, BFloat16.fromFloat(value));
+    }
+
+    private static void assertBits(float expected, float actual) {
+        assertEquals(Float.floatToRawIntBits(expected), Float.floatToRawIntBits(actual));
+    }
+
+    @Test
+    public void testHalfZeros() {
+        assertHalf(0x0000, 0f);
+        assertHalf(0x8000, -0f);
+        assertBits(0f, Half.toFloat((short) 0x0000));
+        assertBits(-0f, Half.toFloat((short) 0x8000));
+    }
+
+    @Test
+    public void testHalfSubnormals() {
+        // smallest and largest subnormals, and the smallest normal
+        assertHalf(0x0001, 0x1p-24f);
+        assertHalf(0x03ff, 0x3ffp-24f);
+        assertHalf(0x0400, 0x1p-14f);
+        assertHalf(0x8001, -0x1p-24f);
+        assertBits(0x1p-24f, Half.toFloat((short) 0x0001));
+        assertBits(0x3ffp-24f, Half.toFloat((short) 0x03ff));
+
+        // 2^-25 is halfway between 0 and the smallest subnormal: ties to even
+        assertHalf(0x0000, 0x1p-25f);
+        assertHalf(0x8000, -0x1p-25f);
+        assertHalf(0x0001, Math.nextUp(0x1p-25f));
+        assertHalf(0x0000, 0x1p-26f);
+        assertHalf(0x0002, 0x3p-25f);
+        assertHalf(0x0002, 0x5p-25f);
+
+        // rounding the largest subnormal up gives the smallest normal
+        assertHalf(0x0400, 0x7ffp-25f);
+    }
+
+    @Test
+    public void testHalfRoundToNearestEven() {
+        // the 13 dropped mantissa bits are exactly 0x1000: ties to even
+        assertHalf(0x3c00, Float.intBitsToFloat(0x3f801000));
+        assertHalf(0x3c02, Float.intBitsToFloat(0x3f803000));
+        assertHalf(0x3c01, Float.intBitsToFloat(0x3f801001));
+        assertHalf(0x3c00, Float.intBitsToFloat(0x3f800fff));
+        assertHalf(0xbc00, Float.intBitsToFloat(0xbf801000));
+
+        // a carry out of the mantissa moves to the exponent
+        assertHalf(0x4000, Float.intBitsToFloat(0x3fffffff));
+    }
+
+    @Test
+    public void testHalfOverflow() {
+        assertHalf(0x7bff, 65504f);
+        assertHalf(0x7bff, 65519f);
+        // 65520 is halfway to 65536, which is past the largest half
+        assertHalf(0x7c00, 65520f);
+        assertHalf(0xfc00, -65520f);
+        assertHalf(0x7c00, 1e10f);
+        assertHalf(0x7c00, Float.MAX_VALUE);
+        assertHalf(0x7c00, Float.POSITIVE_INFINITY);
+        assertHalf(0xfc00, Float.NEGATIVE_INFINITY);
+        assertBits(Float.POSITIVE_INFINITY, Half.toFloat(Half.POSITIVE_INFINITY));
+        assertBits(Float.NEGATIVE_INFINITY, Half.toFloat(Half.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void testHalfNaN() {
+        assertHalf(0x7e00, Float.NaN);
+        // signalling NaNs are quieted, the top of the payload is kept
+        assertHalf(0x7e00, Float.intBitsToFloat(0x7f800001));
+        assertHalf(0x7e01, Float.intBitsToFloat(0x7fc02000));
+        assertHalf(0x7f00, Float.intBitsToFloat(0x7fa00000));
+        assertHalf(0xfe00, Float.intBitsToFloat(0xffc00000));
+        assertEquals(0x7fc00000, Float.floatToRawIntBits(Half.toFloat(Half.NaN)));
+        assertTrue(Float.isNaN(Half.toFloat((short) 0x7d00)));
+    }
+
+    @Test
+    public void testBFloat16Conversions() {
+        assertBFloat16(0x0000, 0f);
+        assertBFloat16(0x8000, -0f);
+        assertBFloat16(0x3f80, 1f);
+        assertBits(1f, BFloat16.toFloat(BFloat16.ONE));
+
+        // the 16 dropped bits are exactly 0x8000: ties to even
+        assertBFloat16(0x3f80, Float.intBitsToFloat(0x3f808000));
+        assertBFloat16(0x3f82, Float.intBitsToFloat(0x3f818000));
+        assertBFloat16(0x3f81, Float.intBitsToFloat(0x3f808001));
+        assertBFloat16(0x3f80, Float.intBitsToFloat(0x3f807fff));
+
+        // subnormals round like normal values
+        assertBFloat16(0x0000, Float.intBitsToFloat(0x00008000));
+        assertBFloat16(0x0002, Float.intBitsToFloat(0x00018000));
+        assertBFloat16(0x0000, Float.MIN_VALUE);
+        assertBits(Float.intBitsToFloat(0x00010000), BFloat16.toFloat((short) 0x0001));
+
+        // overflow rounds to infinity
+        assertBFloat16(0x7f7f, Float.intBitsToFloat(0x7f7f7fff));
+        assertBFloat16(0x7f80, Float.MAX_VALUE);
+        assertBFloat16(0xff80, -Float.MAX_VALUE);
+        assertBFloat16(0x7f80, Float.POSITIVE_INFINITY);
+
+        // signalling NaNs are quieted and never round to infinity
+        assertBFloat16(0x7fc0, Float.NaN);
+        assertBFloat16(0x7fc0, Float.intBitsToFloat(0x7f800001));
+        assertBFloat16(0x7fe1, Float.intBitsToFloat(0x7fa10000));
+        assertBFloat16(0xffc0, Float.intBitsToFloat(0xff800001));
+    }
+}
@@ -363,4 +363,40 @@ public class TestsVirtualLayer {
         }
     }
 
+    /**
+     * The result of a task on one device is consumed on another device
+     * without being streamed out in between, so the second device has to get
+     * the data from the first one rather than from the stale Java array.
+     */
+    @Test
+    public void testOwnershipTransfer() {
+        TornadoDriver driver = getTornadoRuntime().getDriver(0);
+        if (driver.getDeviceCount() < 2) {
+            assertFalse("The current driver has less than 2 devices", true);
+        }
+
+        final int numElements = 4096;
+        int[] data = new int[numElements];
+        Arrays.fill(data, 100);
+
+        TaskSchedule s0 = new TaskSchedule("s0");
+        s0.task("t0", TestsVirtualLayer::accumulator, data, 1);
+        s0.mapAllTo(driver.getDevice(0));
+        s0.execute();
+
+        // The result is only on device 0
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(100, data[i]);
+        }
+
+        TaskSchedule s1 = new TaskSchedule("s1");
+        s1.task("t0", TestsVirtualLayer::accumulator, data, 1).streamOut(data);
+        s1.mapAllTo(driver.getDevice(1));
+        s1.execute();
+
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(102, data[i]);
+        }
+    }
+
 }